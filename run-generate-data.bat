@@ -0,0 +1,4 @@
+@echo off
+REM Génère un club synthétique (tests de charge) - ex: run-generate-data.bat --players=100000 --seed=7
+set CLASSPATH=target/classes;C:/Users/Matthieu/.m2/repository/com/mysql/mysql-connector-j/8.0.33/mysql-connector-j-8.0.33.jar;C:/Users/Matthieu/.m2/repository/org/mindrot/jbcrypt/0.4/jbcrypt-0.4.jar
+java -Dhockey.db.url="jdbc:mysql://localhost:3306/club_manager?rewriteBatchedStatements=true" -cp "%CLASSPATH%" fr.hockey.tools.ClubDataGenerator %*
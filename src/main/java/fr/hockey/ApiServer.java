@@ -0,0 +1,113 @@
+package fr.hockey;
+
+import fr.hockey.dao.ClubDAO;
+import fr.hockey.dao.RosterCache;
+import fr.hockey.dao.SchemaMigrations;
+import fr.hockey.models.Club;
+import fr.hockey.services.ChangeFeedPoller;
+import fr.hockey.services.ReplicaSyncService;
+import fr.hockey.services.RestApiServer;
+import fr.hockey.utils.AppSettings;
+import fr.hockey.utils.SessionManager;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Point d'entrée du mode serveur, sans interface graphique : expose l'API REST en lecture
+ * seule ({@link RestApiServer}) pour consulter l'effectif depuis un téléphone.
+ *
+ * <p>Un serveur sert un seul club : celui de {@code --club} (vérifié dans la table
+ * {@code clubs}), sinon le club par défaut. Chaque club a son propre jeton d'accès, lu dans
+ * les réglages ({@link AppSettings#getApiToken(int)}) : un jeton ne donne donc accès qu'aux
+ * données de son club. Il est généré, enregistré et affiché dans la console au premier
+ * lancement seulement, pour ne pas finir dans les journaux du système à chaque démarrage.</p>
+ *
+ * <pre>
+ *   java -cp hockey-club-manager.jar fr.hockey.ApiServer --port=8080 --club=2 \
+ *        -Dhockey.db.url=jdbc:mysql://localhost:3306/club_manager
+ * </pre>
+ */
+public class ApiServer {
+
+    /**
+     * Lance le serveur et attend son arrêt (Ctrl+C).
+     *
+     * @param args {@code --port=N} (8080 par défaut), {@code --club=N} (club par défaut sinon),
+     *             {@code --token=...} pour imposer un jeton
+     */
+    public static void main(String[] args) {
+        int port = 8080;
+        int clubId = Club.DEFAULT_ID;
+        String token = null;
+
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) port = Integer.parseInt(arg.substring(7));
+            else if (arg.startsWith("--club=")) clubId = Integer.parseInt(arg.substring(7));
+            else if (arg.startsWith("--token=")) token = arg.substring(8);
+            else {
+                System.err.println("Option inconnue : " + arg);
+                return;
+            }
+        }
+
+        try {
+            SchemaMigrations.migrate();
+        } catch (SQLException e) {
+            System.err.println("Migration du schéma impossible : " + e.getMessage());
+        }
+        // Le club est choisi avant toute lecture des DAO
+        Club club;
+        try {
+            club = new ClubDAO().findById(clubId);
+        } catch (SQLException e) {
+            System.err.println("❌ Base de données indisponible : " + e.getMessage());
+            return;
+        }
+        if (club == null) {
+            System.err.println("❌ Club inconnu : " + clubId);
+            return;
+        }
+        SessionManager.getInstance().setClubId(clubId);
+
+        if (token == null) token = AppSettings.getApiToken(clubId);
+        if (token.isBlank()) {
+            byte[] bytes = new byte[24];
+            new SecureRandom().nextBytes(bytes);
+            token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+            AppSettings.setApiToken(clubId, token);
+            System.out.println("🔑 Jeton d'accès généré (à conserver) : " + token);
+        }
+        if (AppSettings.isOfflineReplicaEnabled()) {
+            ReplicaSyncService.getInstance().start(AppSettings.getReplicaDir());
+        }
+        // Modifications faites depuis les postes de l'application
+        ChangeFeedPoller.getInstance().start();
+
+        RestApiServer server = new RestApiServer(RosterCache.getInstance(), token);
+        try {
+            server.start(port);
+        } catch (IOException e) {
+            System.err.println("❌ Port " + port + " indisponible : " + e.getMessage());
+            return;
+        }
+        System.out.println("✅ API du club « " + club.getName() + " » disponible sur http://localhost:" + server.getPort() + "/api/");
+        System.out.println("   En-tête requis : Authorization: Bearer <jeton>");
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            ChangeFeedPoller.getInstance().stop();
+            ReplicaSyncService.getInstance().stop();
+            stopped.countDown();
+        }, "api-shutdown"));
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
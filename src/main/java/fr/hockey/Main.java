@@ -5,10 +5,17 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import fr.hockey.dao.SchemaMigrations;
+import fr.hockey.services.ChangeFeedPoller;
+import fr.hockey.services.LicenseExpiryScanner;
+import fr.hockey.services.LiveScoringService;
+import fr.hockey.services.ReplicaSyncService;
 import fr.hockey.utils.ThemeManager;
 import fr.hockey.utils.AppSettings;
+import fr.hockey.utils.DiagnosticsRecorder;
 
 import java.io.IOException;
+import java.sql.SQLException;
 
 /**
  * Point d'entrée principal de l'application Hockey Club Manager.
@@ -37,6 +44,21 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage primaryStage) {
+        // Historique JFR des dernières minutes, exportable depuis l'écran Diagnostics
+        DiagnosticsRecorder.startContinuous();
+
+        // Mise à niveau du schéma d'une base créée par une version antérieure
+        try {
+            SchemaMigrations.migrate();
+        } catch (SQLException e) {
+            System.err.println("Migration du schéma impossible : " + e.getMessage());
+        }
+
+        // Réplique locale : lectures locales et mode hors ligne
+        if (AppSettings.isOfflineReplicaEnabled()) {
+            ReplicaSyncService.getInstance().start(AppSettings.getReplicaDir());
+        }
+
         try {
             // Chargement de la vue FXML de connexion
             Parent root = FXMLLoader.load(getClass().getResource("/fxml/login.fxml"));
@@ -60,6 +82,18 @@ public class Main extends Application {
         }
     }
 
+    /**
+     * Méthode appelée à la fermeture de l'application : arrête le flux de modifications, la surveillance des échéances, le journal des matchs, la réplique locale et l'enregistrement JFR.
+     */
+    @Override
+    public void stop() {
+        ChangeFeedPoller.getInstance().stop();
+        LicenseExpiryScanner.getInstance().stop();
+        LiveScoringService.getInstance().close();
+        ReplicaSyncService.getInstance().stop();
+        DiagnosticsRecorder.stop();
+    }
+
     /**
      * Lance l'application JavaFX.
      *
@@ -0,0 +1,232 @@
+package fr.hockey.controllers;
+
+import fr.hockey.dao.PracticeSessionDAO;
+import fr.hockey.dao.RosterCache;
+import fr.hockey.models.Player;
+import fr.hockey.models.PracticeSession;
+import fr.hockey.services.AttendanceService;
+import fr.hockey.services.LeaderboardService;
+import fr.hockey.utils.CompactBitmap;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.CheckBoxListCell;
+import javafx.util.StringConverter;
+
+import java.net.URL;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+/**
+ * Contrôleur des présences aux entraînements.
+ *
+ * <p>Pour la catégorie choisie : séances de la saison en cours, pointage des joueurs
+ * présents à la séance sélectionnée, taux de présence de chacun et joueurs absents de
+ * {@link #STREAK} séances consécutives ({@link AttendanceService}).</p>
+ */
+public class AttendanceController implements Initializable {
+
+    /** Nombre de séances consécutives manquées signalées. */
+    private static final int STREAK = 3;
+
+    private static final List<String> CATEGORIES = Arrays.asList("U9", "U11", "U13", "U15", "U17", "U20");
+
+    /** Ligne du tableau des taux. */
+    private static final class RateRow {
+        final Player player;
+        final int presences;
+        final double rate;
+
+        RateRow(Player player, int presences, double rate) {
+            this.player = player;
+            this.presences = presences;
+            this.rate = rate;
+        }
+    }
+
+    @FXML private ComboBox<String> categoryCombo;
+    @FXML private DatePicker sessionDatePicker;
+    @FXML private TextField labelField;
+    @FXML private ListView<PracticeSession> sessionsList;
+    @FXML private ListView<Player> playersList;
+    @FXML private TableView<RateRow> ratesTable;
+    @FXML private TableColumn<RateRow, String> rateNameColumn;
+    @FXML private TableColumn<RateRow, String> ratePresencesColumn;
+    @FXML private TableColumn<RateRow, String> rateColumn;
+    @FXML private Label missedLabel;
+
+    private final PracticeSessionDAO sessionDAO = new PracticeSessionDAO();
+    private final AttendanceService attendanceService = AttendanceService.getInstance();
+    private final RosterCache rosterCache = RosterCache.getInstance();
+
+    /** Case « présent » de chaque joueur de la catégorie, pour la séance sélectionnée. */
+    private final Map<Integer, BooleanProperty> checks = new HashMap<>();
+    private List<Player> roster = new ArrayList<>();
+
+    /**
+     * Initialise la liste des catégories, la liste à cocher et le tableau des taux.
+     */
+    @Override
+    public void initialize(URL url, ResourceBundle resourceBundle) {
+        categoryCombo.getItems().setAll(CATEGORIES);
+        sessionDatePicker.setValue(LocalDate.now());
+
+        playersList.setCellFactory(CheckBoxListCell.forListView(
+                p -> checks.computeIfAbsent(p.getId(), id -> new SimpleBooleanProperty()),
+                new StringConverter<>() {
+                    @Override
+                    public String toString(Player p) {
+                        return p == null ? "" : p.getLastName() + " " + p.getFirstName();
+                    }
+
+                    @Override
+                    public Player fromString(String s) {
+                        return null;
+                    }
+                }));
+        sessionsList.getSelectionModel().selectedItemProperty().addListener((obs, old, s) -> showSession(s));
+
+        rateNameColumn.setCellValueFactory(c -> new SimpleStringProperty(
+                c.getValue().player.getLastName() + " " + c.getValue().player.getFirstName()));
+        ratePresencesColumn.setCellValueFactory(c -> new SimpleStringProperty(String.valueOf(c.getValue().presences)));
+        rateColumn.setCellValueFactory(c -> new SimpleStringProperty(String.format("%.0f %%", c.getValue().rate * 100)));
+    }
+
+    /**
+     * Charge l'effectif et les séances de la catégorie choisie.
+     */
+    @FXML
+    private void handleCategory() {
+        String category = categoryCombo.getValue();
+        if (category == null) return;
+        try {
+            roster = new ArrayList<>(rosterCache.findPlayersByCategory(category));
+            roster.sort(Comparator.comparing(Player::getLastName, String.CASE_INSENSITIVE_ORDER)
+                    .thenComparing(Player::getFirstName, String.CASE_INSENSITIVE_ORDER));
+            checks.clear();
+            playersList.setItems(FXCollections.observableArrayList(roster));
+            refresh(null);
+        } catch (SQLException e) {
+            showError("Chargement impossible : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Crée une séance à la date choisie, sans présent, et la sélectionne.
+     */
+    @FXML
+    private void handleNewSession() {
+        String category = categoryCombo.getValue();
+        if (category == null || sessionDatePicker.getValue() == null) {
+            showWarn("Veuillez choisir la catégorie et la date de la séance.");
+            return;
+        }
+        PracticeSession session = new PracticeSession(0, category, sessionDatePicker.getValue(),
+                labelField.getText() == null ? null : labelField.getText().trim(), new CompactBitmap());
+        try {
+            sessionDAO.insert(session);
+            labelField.clear();
+            refresh(session.getId());
+        } catch (SQLException e) {
+            showError("Création impossible : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Enregistre les joueurs cochés comme présents à la séance sélectionnée.
+     */
+    @FXML
+    private void handleSaveAttendance() {
+        PracticeSession session = sessionsList.getSelectionModel().getSelectedItem();
+        if (session == null) {
+            showWarn("Veuillez sélectionner une séance.");
+            return;
+        }
+        CompactBitmap checked = new CompactBitmap();
+        checks.forEach((id, box) -> {
+            if (box.get()) checked.add(id);
+        });
+        // Les présents qui ne sont plus dans la catégorie sont conservés
+        CompactBitmap present = checked.or(session.getPresent().andNot(rosterIds()));
+        try {
+            sessionDAO.updateAttendance(session.getId(), present);
+            refresh(session.getId());
+        } catch (SQLException e) {
+            showError("Enregistrement impossible : " + e.getMessage());
+        }
+    }
+
+    @FXML
+    private void handleDeleteSession() {
+        PracticeSession session = sessionsList.getSelectionModel().getSelectedItem();
+        if (session == null) return;
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION, "Supprimer la séance du " + session + " ?",
+                ButtonType.OK, ButtonType.CANCEL);
+        if (confirm.showAndWait().orElse(ButtonType.CANCEL) != ButtonType.OK) return;
+        try {
+            sessionDAO.delete(session.getId());
+            refresh(null);
+        } catch (SQLException e) {
+            showError("Suppression impossible : " + e.getMessage());
+        }
+    }
+
+    /** Recharge le bilan de la saison et resélectionne une séance (par identifiant). */
+    private void refresh(Integer selectId) throws SQLException {
+        String category = categoryCombo.getValue();
+        LocalDate today = LocalDate.now();
+        AttendanceService.Report report = attendanceService.report(category,
+                LeaderboardService.seasonStart(today), today.plusYears(1), STREAK);
+
+        sessionsList.setItems(FXCollections.observableArrayList(report.getSessions()));
+        if (selectId != null) {
+            report.getSessions().stream().filter(s -> s.getId() == selectId).findFirst()
+                    .ifPresent(s -> sessionsList.getSelectionModel().select(s));
+        }
+        if (sessionsList.getSelectionModel().getSelectedItem() == null) showSession(null);
+
+        List<RateRow> rows = new ArrayList<>(roster.size());
+        for (Player p : roster) rows.add(new RateRow(p, report.getPresences(p.getId()), report.getRate(p.getId())));
+        rows.sort(Comparator.comparingDouble((RateRow r) -> r.rate));
+        ratesTable.setItems(FXCollections.observableArrayList(rows));
+
+        List<String> missed = new ArrayList<>();
+        for (Player p : roster) {
+            if (report.getMissedInARow().contains(p.getId())) missed.add(p.getFirstName() + " " + p.getLastName());
+        }
+        missedLabel.setText(missed.isEmpty()
+                ? "Aucun joueur absent de " + STREAK + " séances consécutives."
+                : "Absents de " + STREAK + " séances consécutives : " + String.join(", ", missed));
+    }
+
+    /** Coche les présents de la séance sélectionnée. */
+    private void showSession(PracticeSession session) {
+        for (Player p : roster) {
+            checks.computeIfAbsent(p.getId(), id -> new SimpleBooleanProperty())
+                    .set(session != null && session.getPresent().contains(p.getId()));
+        }
+    }
+
+    private CompactBitmap rosterIds() {
+        CompactBitmap ids = new CompactBitmap();
+        for (Player p : roster) ids.add(p.getId());
+        return ids;
+    }
+
+    /** Affiche un avertissement. */
+    private void showWarn(String msg) { new Alert(Alert.AlertType.WARNING, msg, ButtonType.OK).showAndWait(); }
+
+    /** Affiche une erreur. */
+    private void showError(String msg) { new Alert(Alert.AlertType.ERROR, msg, ButtonType.OK).showAndWait(); }
+}
@@ -1,7 +1,6 @@
 package fr.hockey.controllers;
 
-import fr.hockey.dao.CoachDAO;
-import fr.hockey.dao.PlayerDAO;
+import fr.hockey.dao.RosterCache;
 import fr.hockey.models.Coach;
 import fr.hockey.models.Player;
 import javafx.collections.FXCollections;
@@ -26,7 +25,7 @@ import java.util.ResourceBundle;
  * Contrôleur JavaFX responsable de l'affichage des joueurs et coachs
  * selon une catégorie sélectionnée dans l'interface.
  */
-public class CategoriesController implements Initializable {
+public class CategoriesController implements Initializable, RefreshableView {
 
     @FXML private ComboBox<String> categoryCombo;
 
@@ -45,8 +44,7 @@ public class CategoriesController implements Initializable {
 
     @FXML private Label statusLabel;
 
-    private final PlayerDAO playerDAO = new PlayerDAO();
-    private final CoachDAO coachDAO = new CoachDAO();
+    private final RosterCache rosterCache = RosterCache.getInstance();
     private final ObservableList<Player> players = FXCollections.observableArrayList();
     private final ObservableList<Coach> coaches = FXCollections.observableArrayList();
 
@@ -112,13 +110,13 @@ public class CategoriesController implements Initializable {
      */
     private void loadByCategory(String category) {
         try {
-            players.setAll(playerDAO.findByCategory(category));
+            players.setAll(rosterCache.findPlayersByCategory(category));
         } catch (SQLException ex) {
             setStatus("Erreur joueurs: " + ex.getMessage(), false);
         }
 
         try {
-            coaches.setAll(coachDAO.findByCategory(category));
+            coaches.setAll(rosterCache.findCoachesByCategory(category));
         } catch (SQLException ex) {
             setStatus("Erreur coachs: " + ex.getMessage(), false);
         }
@@ -201,4 +199,15 @@ public class CategoriesController implements Initializable {
     private String safe(String s) {
         return s == null ? "" : s.trim();
     }
-}
\ No newline at end of file
+
+    /**
+     * Recharge la catégorie sélectionnée, s'il y en a une (vue réaffichée depuis le cache).
+     */
+    @Override
+    public void refresh() {
+        String cat = categoryCombo.getValue();
+        if (cat != null && !cat.trim().isEmpty()) {
+            loadByCategory(cat);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package fr.hockey.controllers;
 
 import fr.hockey.dao.CoachDAO;
+import fr.hockey.dao.RosterCache;
+import fr.hockey.events.DomainEvent;
+import fr.hockey.events.DomainEventBus;
 import fr.hockey.models.Coach;
 import fr.hockey.utils.SessionManager;
 import javafx.collections.FXCollections;
@@ -16,13 +19,15 @@ import java.net.URL;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
 
 /**
  * Contrôleur JavaFX gérant l’affichage, la création, la modification
  * et la suppression des coachs dans l’application.
  * Le comportement des actions dépend du rôle de l’utilisateur connecté (admin ou non).
+ * Les lignes sont mises à jour sur place à partir des événements métier publiés par {@link CoachDAO}.
  */
-public class CoachesController implements Initializable {
+public class CoachesController implements Initializable, RefreshableView {
 
     @FXML private TableView<Coach> coachesTable;
     @FXML private TableColumn<Coach, String> firstNameColumn;
@@ -45,7 +50,10 @@ public class CoachesController implements Initializable {
     @FXML private VBox coachFormContainer;
 
     private final CoachDAO coachDAO = new CoachDAO();
+    private final RosterCache rosterCache = RosterCache.getInstance();
     private final ObservableList<Coach> coaches = FXCollections.observableArrayList();
+    private final Consumer<DomainEvent> eventListener = DomainEventPatches.onFxThread(
+            event -> DomainEventPatches.applyToCoaches(coaches, event));
     private boolean isAdmin;
     private final List<String> CATEGORIES = java.util.Arrays.asList("U9", "U11", "U13", "U15", "U17", "U20");
     private boolean isEditMode = false;
@@ -69,6 +77,7 @@ public class CoachesController implements Initializable {
         setupCreateForm();
         showForm(false);
         reload();
+        DomainEventBus.subscribe(DomainEvent.class, eventListener);
     }
 
     /**
@@ -130,7 +139,7 @@ public class CoachesController implements Initializable {
      */
     private void reload() {
         try {
-            List<Coach> all = coachDAO.findAll();
+            List<Coach> all = rosterCache.findAllCoaches();
             coaches.setAll(all);
             coachesTable.setItems(coaches);
         } catch (SQLException ex) {
@@ -197,7 +206,6 @@ public class CoachesController implements Initializable {
                     setStatus("Coach créé: " + username + " (id=" + coachId + "), catégorie: " + category, true);
                     clearCreateForm();
                     showForm(false);
-                    reload();
                 } else {
                     setStatus("Échec de la création.", false);
                 }
@@ -222,7 +230,6 @@ public class CoachesController implements Initializable {
                     editingCoach = null;
                     clearCreateForm();
                     showForm(false);
-                    reload();
                 } else {
                     setStatus("Aucune mise à jour effectuée.", false);
                 }
@@ -345,7 +352,6 @@ public class CoachesController implements Initializable {
                 try {
                     coachDAO.deleteById(coach.getId());
                     setStatus("Coach supprimé.", true);
-                    reload();
                 } catch (SQLException ex) {
                     setStatus("Erreur SQL: " + ex.getMessage(), false);
                 }
@@ -363,4 +369,27 @@ public class CoachesController implements Initializable {
         a.setHeaderText("Erreur");
         a.showAndWait();
     }
+
+    /**
+     * Sélectionne et rend visible un coach choisi dans la recherche globale.
+     *
+     * @param coachId identifiant du coach
+     */
+    void showCoach(int coachId) {
+        for (Coach c : coachesTable.getItems()) {
+            if (c.getId() == coachId) {
+                coachesTable.getSelectionModel().select(c);
+                coachesTable.scrollTo(c);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Recharge la liste des coachs (vue réaffichée depuis le cache).
+     */
+    @Override
+    public void refresh() {
+        reload();
+    }
 }
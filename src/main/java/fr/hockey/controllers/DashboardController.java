@@ -1,10 +1,18 @@
 package fr.hockey.controllers;
 
+import fr.hockey.dao.QueryMetrics;
 import fr.hockey.models.Admin;
 import fr.hockey.models.Coach;
+import fr.hockey.models.ExpiringLicense;
+import fr.hockey.services.ChangeFeedPoller;
+import fr.hockey.services.LicenseExpiryScanner;
+import fr.hockey.services.RosterSearchService;
+import fr.hockey.utils.FlightRecorderEvents;
 import fr.hockey.utils.SessionManager;
 import fr.hockey.utils.AppSettings;
 import fr.hockey.utils.ThemeManager;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -15,6 +23,12 @@ import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuButton;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.SeparatorMenuItem;
+import javafx.scene.control.TextField;
+import javafx.geometry.Side;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.control.Alert;
@@ -23,22 +37,31 @@ import javafx.stage.Stage;
 import javafx.stage.FileChooser;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.util.Duration;
 
 import java.io.IOException;
 import java.io.File;
 import java.nio.file.Path;
 import java.net.URL;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
 
 /**
  * Contrôleur principal du tableau de bord après connexion.
  * Il gère :
  * - l’affichage du nom et du rôle de l’utilisateur
  * - la navigation entre les différentes vues (joueurs, coachs, catégories…)
+ * - la recherche globale des joueurs et coachs par leur nom
+ * - les rappels de licences arrivant à échéance
  * - la gestion du thème
  * - le changement du logo du club
  * - la déconnexion
  * Les fonctionnalités affichées dépendent du rôle (admin ou coach).
+ * Les vues fréquentes sont préchargées après connexion et conservées en cache
+ * (voir {@link ViewCache}).
  */
 public class DashboardController implements Initializable {
 
@@ -50,14 +73,40 @@ public class DashboardController implements Initializable {
     @FXML private Button licensesButton;
     @FXML private Button categoriesButton;
     @FXML private Button revenueButton;
+    @FXML private Button liveGameButton;
+    @FXML private Button attendanceButton;
+    @FXML private Button iceScheduleButton;
     @FXML private Button createAdminButton;
     @FXML private Button legalInfoButton;
     @FXML private Button logsButton;
+    @FXML private Button diagnosticsButton;
     @FXML private StackPane contentArea;
     @FXML private ImageView logoImageView;
     @FXML private ImageView sidebarLogoImageView;
     @FXML private ComboBox<String> themeColorCombo;
     @FXML private BorderPane rootPane;
+    @FXML private TextField searchField;
+    @FXML private MenuButton expiryButton;
+
+    /** Nombre de résultats proposés par la recherche globale. */
+    private static final int SEARCH_RESULTS = 10;
+
+    /** Délai sans frappe avant de lancer la recherche. */
+    private final PauseTransition searchDebounce = new PauseTransition(Duration.millis(150));
+    private final ContextMenu searchResults = new ContextMenu();
+
+    /** Nombre d'échéances listées dans le menu des rappels. */
+    private static final int EXPIRY_ITEMS = 10;
+
+    /** Écouteur des échéances, conservé tant que le tableau de bord est affiché. */
+    private final Consumer<List<ExpiringLicense>> expiryListener =
+            list -> Platform.runLater(() -> showExpiring(list));
+
+    /** Vues chargées conservées entre deux navigations. */
+    private final ViewCache viewCache = new ViewCache();
+
+    /** Vue en cache actuellement affichée (null si vue non mise en cache). */
+    private ViewCache.Entry currentEntry;
 
     /**
      * Initialise l’interface selon le rôle utilisateur :
@@ -65,6 +114,9 @@ public class DashboardController implements Initializable {
      * - active/désactive les boutons réservés à l’admin
      * - applique le thème sauvegardé
      * - charge le logo s’il existe
+     * - précharge en arrière-plan les vues les plus consultées
+     * - relaie les modifications faites depuis les autres postes
+     * - signale les licences arrivant à échéance
      */
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
@@ -87,11 +139,13 @@ public class DashboardController implements Initializable {
         categoriesButton.setVisible(true);
         coachesButton.setVisible(isAdmin);
         revenueButton.setVisible(isAdmin);
+        iceScheduleButton.setVisible(isAdmin);
 
         if (legalInfoButton != null) legalInfoButton.setVisible(true);
         if (createAdminButton != null) createAdminButton.setVisible(isAdmin);
         if (changeLogoButton != null) changeLogoButton.setVisible(isAdmin);
         if (logsButton != null) logsButton.setVisible(isAdmin);
+        if (diagnosticsButton != null) diagnosticsButton.setVisible(isAdmin);
 
         // Thème
         if (themeColorCombo != null) {
@@ -119,11 +173,139 @@ public class DashboardController implements Initializable {
                 if (sidebarLogoImageView != null) sidebarLogoImageView.setImage(img);
             }
         }
+
+        // Préchargement des vues fréquentes
+        List<String> preload = new ArrayList<>(List.of(
+                "/fxml/players.fxml", "/fxml/licenses.fxml", "/fxml/categories.fxml"));
+        if (isAdmin) preload.add("/fxml/revenue.fxml");
+        viewCache.preload(preload);
+
+        setupSearch(isAdmin);
+        // Modifications faites depuis les autres postes
+        ChangeFeedPoller.getInstance().start();
+        // Licences arrivant à échéance
+        LicenseExpiryScanner scanner = LicenseExpiryScanner.getInstance();
+        scanner.setListener(expiryListener);
+        scanner.start();
+    }
+
+    /**
+     * Prépare la recherche globale : l'index est construit en arrière-plan, puis chaque
+     * saisie (après un court délai sans frappe) affiche les noms les plus proches.
+     * Les coachs ne sont proposés qu'aux administrateurs.
+     */
+    private void setupSearch(boolean includeCoaches) {
+        if (searchField == null) return;
+        RosterSearchService search = RosterSearchService.getInstance();
+        search.loadAsync();
+        if (!includeCoaches) searchField.setPromptText("Rechercher un joueur…");
+
+        searchDebounce.setOnFinished(e -> showSearchResults(search.search(searchField.getText(), SEARCH_RESULTS, includeCoaches)));
+        searchField.textProperty().addListener((obs, old, text) -> {
+            if (text == null || text.isBlank()) {
+                searchDebounce.stop();
+                searchResults.hide();
+            } else {
+                searchDebounce.playFromStart();
+            }
+        });
+        searchField.setOnAction(e -> {
+            searchDebounce.stop();
+            List<RosterSearchService.Result> results = search.search(searchField.getText(), 1, includeCoaches);
+            if (!results.isEmpty()) openSearchResult(results.get(0));
+        });
+    }
+
+    private void showSearchResults(List<RosterSearchService.Result> results) {
+        searchResults.getItems().clear();
+        if (results.isEmpty()) {
+            searchResults.hide();
+            return;
+        }
+        for (RosterSearchService.Result r : results) {
+            MenuItem item = new MenuItem(r.toString());
+            item.setOnAction(e -> openSearchResult(r));
+            searchResults.getItems().add(item);
+        }
+        if (!searchResults.isShowing()) {
+            searchResults.show(searchField, Side.BOTTOM, 0, 0);
+        }
+    }
+
+    /**
+     * Ouvre la vue du joueur ou du coach choisi et y sélectionne sa ligne.
+     */
+    private void openSearchResult(RosterSearchService.Result result) {
+        searchResults.hide();
+        searchField.clear();
+        if (result.getKind() == RosterSearchService.Kind.PLAYER) {
+            Object controller = loadView("/fxml/players.fxml");
+            if (controller instanceof PlayersController) {
+                ((PlayersController) controller).showPlayer(result.getId());
+            }
+        } else {
+            Object controller = loadView("/fxml/coaches.fxml");
+            if (controller instanceof CoachesController) {
+                ((CoachesController) controller).showCoach(result.getId());
+            }
+        }
+    }
+
+    /**
+     * Met à jour le menu des rappels : masqué s'il n'y a aucune échéance, sinon les plus
+     * proches (un clic ouvre la fiche du joueur) suivies de l'export de la liste complète.
+     */
+    private void showExpiring(List<ExpiringLicense> licenses) {
+        if (expiryButton == null) return;
+        expiryButton.setVisible(!licenses.isEmpty());
+        expiryButton.setManaged(!licenses.isEmpty());
+        expiryButton.setText("Licences à renouveler (" + licenses.size() + ")");
+        expiryButton.getItems().clear();
+
+        LocalDate today = LocalDate.now();
+        for (ExpiringLicense l : licenses.subList(0, Math.min(EXPIRY_ITEMS, licenses.size()))) {
+            long days = l.daysLeft(today);
+            String when = days < 0 ? "échue depuis " + (-days) + " j" : days == 0 ? "aujourd'hui" : "dans " + days + " j";
+            MenuItem item = new MenuItem(l.getLastName() + " " + l.getFirstName() + " (" + l.getCategory() + ") — " + when);
+            item.setOnAction(e -> {
+                Object controller = loadView("/fxml/players.fxml");
+                if (controller instanceof PlayersController) {
+                    ((PlayersController) controller).showPlayer(l.getPlayerId());
+                }
+            });
+            expiryButton.getItems().add(item);
+        }
+        MenuItem export = new MenuItem("Exporter la liste…");
+        export.setOnAction(e -> exportExpiring());
+        expiryButton.getItems().addAll(new SeparatorMenuItem(), export);
+    }
+
+    /**
+     * Exporte en CSV l'ensemble des licences arrivant à échéance.
+     */
+    private void exportExpiring() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Exporter les licences à renouveler");
+        chooser.setInitialFileName("licences_a_renouveler.csv");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV", "*.csv"));
+        File file = chooser.showSaveDialog(expiryButton.getScene().getWindow());
+        if (file == null) return;
+        try {
+            LicenseExpiryScanner.exportCsv(LicenseExpiryScanner.getInstance().getUpcoming(), LocalDate.now(), file.toPath());
+            Alert ok = new Alert(Alert.AlertType.INFORMATION, "Liste exportée : " + file.getName());
+            ok.setHeaderText(null);
+            ok.showAndWait();
+        } catch (IOException e) {
+            Alert a = new Alert(Alert.AlertType.ERROR, "Échec de l'export : " + e.getMessage(), ButtonType.OK);
+            a.setHeaderText("Erreur export");
+            a.showAndWait();
+        }
     }
 
     /**
      * Déconnecte l’utilisateur :
      * - efface la session
+     * - arrête le flux de modifications et la surveillance des échéances
      * - recharge la vue de connexion
      * - applique le thème sauvegardé
      */
@@ -131,6 +313,8 @@ public class DashboardController implements Initializable {
     private void handleLogout(ActionEvent event) {
         try {
             SessionManager.getInstance().clearSession();
+            ChangeFeedPoller.getInstance().stop();
+            LicenseExpiryScanner.getInstance().stop();
 
             Parent loginRoot = FXMLLoader.load(getClass().getResource("/fxml/login.fxml"));
 
@@ -204,6 +388,30 @@ public class DashboardController implements Initializable {
         loadView("/fxml/legal_info.fxml");
     }
 
+    /**
+     * Affiche la saisie des actions de match au banc (accessible à tous).
+     */
+    @FXML
+    private void showLiveGame(ActionEvent event) {
+        loadView("/fxml/live_game.fxml");
+    }
+
+    /**
+     * Affiche les présences aux entraînements (accessible à tous).
+     */
+    @FXML
+    private void showAttendance(ActionEvent event) {
+        loadView("/fxml/attendance.fxml");
+    }
+
+    /**
+     * Affiche le planning des créneaux de glace (réservé aux admins).
+     */
+    @FXML
+    private void showIceSchedule(ActionEvent event) {
+        loadView("/fxml/ice_schedule.fxml");
+    }
+
     /**
      * Affiche la vue des logs d'audit (réservée aux admins).
      */
@@ -213,15 +421,45 @@ public class DashboardController implements Initializable {
     }
 
     /**
-     * Charge dynamiquement une vue dans la zone centrale du tableau de bord.
+     * Affiche les diagnostics des requêtes SQL (réservé aux admins).
+     */
+    @FXML
+    private void showDiagnostics(ActionEvent event) {
+        loadView("/fxml/diagnostics.fxml");
+    }
+
+    /**
+     * Affiche une vue dans la zone centrale du tableau de bord.
+     * Une vue déjà en cache est réaffichée telle quelle, et rafraîchie seulement
+     * si des données ont été modifiées depuis qu'elle a été masquée ;
+     * sinon elle est chargée depuis son FXML.
      *
      * @param fxmlPath chemin du fichier FXML à charger
+     * @return contrôleur de la vue affichée, ou null en cas d'erreur
      */
-    private void loadView(String fxmlPath) {
+    private Object loadView(String fxmlPath) {
+        FlightRecorderEvents.ViewLoad event = new FlightRecorderEvents.ViewLoad();
+        event.fxml = fxmlPath;
+        event.begin();
         try {
-            Parent view = FXMLLoader.load(getClass().getResource(fxmlPath));
+            ViewCache.Entry entry = viewCache.get(fxmlPath);
+            if (entry != null) {
+                event.cached = true;
+                entry.refreshIfStale();
+            } else {
+                entry = viewCache.load(fxmlPath);
+            }
+
+            if (currentEntry != null) {
+                currentEntry.writeMark = QueryMetrics.getWriteCount();
+            }
+            currentEntry = entry.isCacheable() ? entry : null;
+
             contentArea.getChildren().clear();
-            contentArea.getChildren().add(view);
+            contentArea.getChildren().add(entry.view);
+            event.success = true;
+            if (event.shouldCommit()) event.nodes = countNodes(entry.view);
+            return entry.controller;
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -238,7 +476,23 @@ public class DashboardController implements Initializable {
             Alert a = new Alert(Alert.AlertType.ERROR, sb.toString(), ButtonType.OK);
             a.setHeaderText("Erreur d'affichage");
             a.showAndWait();
+            return null;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Compte les nœuds d'un graphe de scène (taille de la vue pour les diagnostics JFR).
+     */
+    private static int countNodes(Node node) {
+        int count = 1;
+        if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+                count += countNodes(child);
+            }
         }
+        return count;
     }
 
     /**
@@ -0,0 +1,126 @@
+package fr.hockey.controllers;
+
+import fr.hockey.dao.QueryMetrics;
+import fr.hockey.dao.RosterCache;
+import fr.hockey.utils.DiagnosticsRecorder;
+import fr.hockey.utils.LatencyHistogram;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.*;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ResourceBundle;
+import java.util.function.Function;
+
+/**
+ * Contrôleur de l'écran Diagnostics (réservé aux administrateurs).
+ * Affiche les statistiques collectées par {@link QueryMetrics} :
+ * latences par forme de requête (moyenne, percentiles, max), lignes,
+ * erreurs et temps d'obtention des connexions, efficacité du cache de l'effectif.
+ * Permet aussi d'exporter l'enregistrement JFR des dernières minutes.
+ */
+public class DiagnosticsController implements Initializable {
+
+    @FXML private TableView<QueryMetrics.Stats> statsTable;
+    @FXML private TableColumn<QueryMetrics.Stats, String> shapeColumn;
+    @FXML private TableColumn<QueryMetrics.Stats, String> countColumn;
+    @FXML private TableColumn<QueryMetrics.Stats, String> meanColumn;
+    @FXML private TableColumn<QueryMetrics.Stats, String> p50Column;
+    @FXML private TableColumn<QueryMetrics.Stats, String> p95Column;
+    @FXML private TableColumn<QueryMetrics.Stats, String> p99Column;
+    @FXML private TableColumn<QueryMetrics.Stats, String> maxColumn;
+    @FXML private TableColumn<QueryMetrics.Stats, String> rowsColumn;
+    @FXML private TableColumn<QueryMetrics.Stats, String> errorsColumn;
+    @FXML private Label connectionLabel;
+    @FXML private Label cacheLabel;
+    @FXML private Label slowLogLabel;
+    @FXML private TextField thresholdField;
+
+    @Override
+    public void initialize(URL url, ResourceBundle resourceBundle) {
+        bind(shapeColumn, QueryMetrics.Stats::getShape);
+        bind(countColumn, s -> String.valueOf(s.getLatency().getCount()));
+        bind(meanColumn, s -> ms(s.getLatency().getMean()));
+        bind(p50Column, s -> ms(s.getLatency().getValueAtPercentile(50)));
+        bind(p95Column, s -> ms(s.getLatency().getValueAtPercentile(95)));
+        bind(p99Column, s -> ms(s.getLatency().getValueAtPercentile(99)));
+        bind(maxColumn, s -> ms(s.getLatency().getMax()));
+        bind(rowsColumn, s -> String.valueOf(s.getRows()));
+        bind(errorsColumn, s -> String.valueOf(s.getErrors()));
+
+        thresholdField.setText(String.valueOf(QueryMetrics.getSlowQueryThresholdMs()));
+        slowLogLabel.setText("Journal des requêtes lentes : " + QueryMetrics.getSlowQueryLogPath());
+        loadStats();
+    }
+
+    @FXML
+    private void handleRefresh() {
+        loadStats();
+    }
+
+    @FXML
+    private void handleReset() {
+        QueryMetrics.reset();
+        RosterCache.getInstance().resetStats();
+        loadStats();
+    }
+
+    @FXML
+    private void handleApplyThreshold() {
+        try {
+            QueryMetrics.setSlowQueryThresholdMs(Long.parseLong(thresholdField.getText().trim()));
+        } catch (NumberFormatException e) {
+            Alert a = new Alert(Alert.AlertType.ERROR, "Valeur de seuil invalide.", ButtonType.OK);
+            a.setHeaderText("Erreur");
+            a.showAndWait();
+        }
+        thresholdField.setText(String.valueOf(QueryMetrics.getSlowQueryThresholdMs()));
+    }
+
+    /**
+     * Écrit l'historique JFR des dernières minutes dans un fichier à joindre
+     * à un signalement ("l'application se bloque quand j'ouvre les licences").
+     */
+    @FXML
+    private void handleRecordDiagnostics() {
+        try {
+            Path file = DiagnosticsRecorder.dump();
+            Alert a = new Alert(Alert.AlertType.INFORMATION,
+                    "Diagnostic enregistré :\n" + file.toAbsolutePath(), ButtonType.OK);
+            a.setHeaderText(null);
+            a.showAndWait();
+        } catch (IOException e) {
+            Alert a = new Alert(Alert.AlertType.ERROR, "Impossible d'enregistrer le diagnostic : " + e.getMessage(), ButtonType.OK);
+            a.setHeaderText("Erreur");
+            a.showAndWait();
+        }
+    }
+
+    private void loadStats() {
+        statsTable.setItems(FXCollections.observableArrayList(QueryMetrics.snapshot()));
+
+        LatencyHistogram wait = QueryMetrics.getConnectionWait();
+        connectionLabel.setText(String.format(
+                "Connexions obtenues : %d | attente moy. %s ms | p95 %s ms | max %s ms",
+                wait.getCount(), ms(wait.getMean()), ms(wait.getValueAtPercentile(95)), ms(wait.getMax())));
+
+        RosterCache.Stats cache = RosterCache.getInstance().getStats();
+        cacheLabel.setText(String.format(
+                "Cache effectif : %d entrées | succès %d | échecs %d (%.0f %%) | évictions %d | invalidations %d",
+                cache.getSize(), cache.getHits(), cache.getMisses(), cache.getHitRatio() * 100,
+                cache.getEvictions(), cache.getInvalidations()));
+    }
+
+    private static void bind(TableColumn<QueryMetrics.Stats, String> column,
+                             Function<QueryMetrics.Stats, String> value) {
+        column.setCellValueFactory(cell -> new SimpleStringProperty(value.apply(cell.getValue())));
+    }
+
+    private static String ms(double micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+}
@@ -0,0 +1,152 @@
+package fr.hockey.controllers;
+
+import fr.hockey.events.DomainEvent;
+import fr.hockey.events.DomainEvents;
+import fr.hockey.models.Coach;
+import fr.hockey.models.License;
+import fr.hockey.models.Player;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Application des événements métier ({@link DomainEvents}) aux listes affichées par les vues.
+ * <p>
+ * Chaque événement se traduit par une modification minimale de l'{@link ObservableList}
+ * (remplacement, insertion triée ou suppression d'une ligne), sans relecture en base.
+ * </p>
+ */
+final class DomainEventPatches {
+
+    /** Même ordre que les requêtes des DAO : nom puis prénom. */
+    private static final Comparator<Player> PLAYER_ORDER = Comparator
+            .comparing(Player::getLastName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Player::getFirstName, String.CASE_INSENSITIVE_ORDER);
+
+    private static final Comparator<Coach> COACH_ORDER = Comparator
+            .comparing(Coach::getLastName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Coach::getFirstName, String.CASE_INSENSITIVE_ORDER);
+
+    private DomainEventPatches() {}
+
+    /**
+     * Enveloppe un écouteur pour qu'il s'exécute sur le thread JavaFX,
+     * immédiatement si l'événement y est déjà publié.
+     *
+     * @param listener écouteur de la vue
+     * @return écouteur à abonner (et à conserver dans un champ du contrôleur)
+     */
+    static Consumer<DomainEvent> onFxThread(Consumer<DomainEvent> listener) {
+        return event -> {
+            if (Platform.isFxApplicationThread()) {
+                listener.accept(event);
+            } else {
+                Platform.runLater(() -> listener.accept(event));
+            }
+        };
+    }
+
+    /**
+     * Applique un événement joueur ou licence à une liste de joueurs.
+     *
+     * @param players liste affichée
+     * @param event   événement reçu
+     * @param accepts filtre courant de la vue (un joueur qui n'y répond plus est retiré)
+     */
+    static void applyToPlayers(ObservableList<Player> players, DomainEvent event, Predicate<Player> accepts) {
+        if (event instanceof DomainEvents.PlayerSaved) {
+            DomainEvents.PlayerSaved e = (DomainEvents.PlayerSaved) event;
+            Player saved = e.getPlayer();
+            int index = indexOf(players, Player::getId, saved.getId());
+            if (index >= 0) {
+                saved.setLicense(players.get(index).getLicense());
+                players.remove(index);
+            }
+            if (accepts.test(saved)) {
+                insertSorted(players, saved, PLAYER_ORDER);
+            }
+        } else if (event instanceof DomainEvents.PlayerDeleted) {
+            int index = indexOf(players, Player::getId, ((DomainEvents.PlayerDeleted) event).getPlayerId());
+            if (index >= 0) players.remove(index);
+        } else if (event instanceof DomainEvents.LicenseSaved) {
+            DomainEvents.LicenseSaved e = (DomainEvents.LicenseSaved) event;
+            int index = indexOf(players, Player::getId, e.getPlayerId());
+            if (index >= 0) {
+                Player row = players.get(index);
+                row.setLicense(e.getLicense());
+                players.set(index, row);
+            }
+        } else if (event instanceof DomainEvents.LicensePaid) {
+            DomainEvents.LicensePaid e = (DomainEvents.LicensePaid) event;
+            for (int i = 0; i < players.size(); i++) {
+                Player row = players.get(i);
+                License lic = row.getLicense();
+                if (lic != null && lic.getId() == e.getLicenseId()) {
+                    lic.setPaid(e.isPaid());
+                    players.set(i, row);
+                    break;
+                }
+            }
+        } else if (event instanceof DomainEvents.LicenseDeleted) {
+            int index = indexOf(players, Player::getId, ((DomainEvents.LicenseDeleted) event).getPlayerId());
+            if (index >= 0) {
+                Player row = players.get(index);
+                row.setLicense(null);
+                players.set(index, row);
+            }
+        }
+    }
+
+    /**
+     * Applique un événement coach à une liste de coachs.
+     *
+     * @param coaches liste affichée
+     * @param event   événement reçu
+     */
+    static void applyToCoaches(ObservableList<Coach> coaches, DomainEvent event) {
+        if (event instanceof DomainEvents.CoachSaved) {
+            Coach saved = ((DomainEvents.CoachSaved) event).getCoach();
+            int index = indexOf(coaches, Coach::getId, saved.getId());
+            if (index >= 0) {
+                saved.setTeams(coaches.get(index).getTeams());
+                coaches.remove(index);
+            }
+            insertSorted(coaches, saved, COACH_ORDER);
+        } else if (event instanceof DomainEvents.CoachDeleted) {
+            int index = indexOf(coaches, Coach::getId, ((DomainEvents.CoachDeleted) event).getCoachId());
+            if (index >= 0) coaches.remove(index);
+        } else if (event instanceof DomainEvents.CoachTeamsChanged) {
+            DomainEvents.CoachTeamsChanged e = (DomainEvents.CoachTeamsChanged) event;
+            int index = indexOf(coaches, Coach::getId, e.getCoachId());
+            if (index >= 0) {
+                Coach row = coaches.get(index);
+                List<String> teams = e.isCleared() ? new ArrayList<>() : new ArrayList<>(row.getTeams());
+                if (!e.isCleared() && !teams.contains(e.getAddedCategory())) {
+                    teams.add(e.getAddedCategory());
+                    teams.sort(null);
+                }
+                row.setTeams(teams);
+                coaches.set(index, row);
+            }
+        }
+    }
+
+    private static <T> int indexOf(List<T> list, ToIntFunction<T> id, int wanted) {
+        for (int i = 0; i < list.size(); i++) {
+            if (id.applyAsInt(list.get(i)) == wanted) return i;
+        }
+        return -1;
+    }
+
+    private static <T> void insertSorted(List<T> list, T item, Comparator<T> order) {
+        int i = 0;
+        while (i < list.size() && order.compare(list.get(i), item) <= 0) i++;
+        list.add(i, item);
+    }
+}
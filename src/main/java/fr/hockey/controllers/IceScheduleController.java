@@ -0,0 +1,213 @@
+package fr.hockey.controllers;
+
+import fr.hockey.dao.CoachDAO;
+import fr.hockey.dao.IceScheduleDAO;
+import fr.hockey.models.IceSlot;
+import fr.hockey.services.IceScheduler;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.*;
+import javafx.util.StringConverter;
+
+import java.net.URL;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.format.TextStyle;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Contrôleur du planning des créneaux de glace (réservé aux admins).
+ *
+ * <p>Les créneaux disponibles des patinoires et le besoin hebdomadaire de chaque catégorie
+ * sont saisis ici ; « Planifier » lance {@link IceScheduler} en arrière-plan et affiche le
+ * planning proposé, enregistré seulement à la demande et s'il est sans conflit.</p>
+ */
+public class IceScheduleController implements Initializable {
+
+    /** Durée de recherche d'un planning. */
+    private static final long PLAN_TIME_MS = 3_000;
+
+    private static final List<String> CATEGORIES = Arrays.asList("U9", "U11", "U13", "U15", "U17", "U20");
+
+    @FXML private ComboBox<String> demandCategoryCombo;
+    @FXML private Spinner<Integer> demandSpinner;
+    @FXML private Label demandsLabel;
+    @FXML private TextField rinkField;
+    @FXML private ComboBox<DayOfWeek> dayCombo;
+    @FXML private TextField startField;
+    @FXML private TextField endField;
+    @FXML private TableView<IceSlot> slotsTable;
+    @FXML private TableColumn<IceSlot, String> dayColumn;
+    @FXML private TableColumn<IceSlot, String> timeColumn;
+    @FXML private TableColumn<IceSlot, String> rinkColumn;
+    @FXML private TableColumn<IceSlot, String> categoryColumn;
+    @FXML private Button planButton;
+    @FXML private Button saveButton;
+    @FXML private Label statusLabel;
+
+    private final IceScheduleDAO iceDAO = new IceScheduleDAO();
+    private final CoachDAO coachDAO = new CoachDAO();
+
+    /** Planning proposé, en attente d'enregistrement. */
+    private IceScheduler.Plan proposed;
+
+    /**
+     * Initialise les listes, les colonnes et charge créneaux et besoins.
+     */
+    @Override
+    public void initialize(URL url, ResourceBundle resourceBundle) {
+        demandCategoryCombo.getItems().setAll(CATEGORIES);
+        demandSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(0, 14, 2));
+        dayCombo.getItems().setAll(DayOfWeek.values());
+        dayCombo.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(DayOfWeek d) {
+                return d == null ? "" : dayName(d);
+            }
+
+            @Override
+            public DayOfWeek fromString(String s) {
+                return null;
+            }
+        });
+
+        dayColumn.setCellValueFactory(c -> new SimpleStringProperty(dayName(c.getValue().getDay())));
+        timeColumn.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getStart() + " - " + c.getValue().getEnd()));
+        rinkColumn.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getRink()));
+        categoryColumn.setCellValueFactory(c -> new SimpleStringProperty(
+                c.getValue().getCategory() == null ? "—" : c.getValue().getCategory()));
+
+        reload();
+    }
+
+    @FXML
+    private void handleSaveDemand() {
+        String category = demandCategoryCombo.getValue();
+        if (category == null) {
+            showWarn("Veuillez sélectionner une catégorie.");
+            return;
+        }
+        try {
+            iceDAO.saveDemand(category, demandSpinner.getValue());
+            reload();
+        } catch (SQLException e) {
+            showError("Enregistrement impossible : " + e.getMessage());
+        }
+    }
+
+    @FXML
+    private void handleAddSlot() {
+        String rink = rinkField.getText() == null ? "" : rinkField.getText().trim();
+        if (rink.isEmpty() || dayCombo.getValue() == null) {
+            showWarn("Veuillez indiquer la patinoire et le jour.");
+            return;
+        }
+        try {
+            LocalTime start = LocalTime.parse(startField.getText().trim());
+            LocalTime end = LocalTime.parse(endField.getText().trim());
+            iceDAO.insertSlot(new IceSlot(0, rink, dayCombo.getValue(), start, end, null));
+            startField.clear();
+            endField.clear();
+            reload();
+        } catch (DateTimeParseException e) {
+            showWarn("Horaires invalides (hh:mm).");
+        } catch (IllegalArgumentException e) {
+            showWarn(e.getMessage());
+        } catch (SQLException e) {
+            showError("Ajout impossible : " + e.getMessage());
+        }
+    }
+
+    @FXML
+    private void handleDeleteSlot() {
+        IceSlot slot = slotsTable.getSelectionModel().getSelectedItem();
+        if (slot == null) return;
+        try {
+            iceDAO.deleteSlot(slot.getId());
+            reload();
+        } catch (SQLException e) {
+            showError("Suppression impossible : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lance la recherche d'un planning sur un thread de fond, puis l'affiche.
+     */
+    @FXML
+    private void handlePlan() {
+        List<IceSlot> slots = slotsTable.getItems();
+        planButton.setDisable(true);
+        saveButton.setDisable(true);
+        statusLabel.setText("Recherche en cours…");
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return new IceScheduler().plan(List.copyOf(slots), iceDAO.findDemands(),
+                        IceScheduler.coachesByCategory(coachDAO.findAll()), PLAN_TIME_MS);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }).whenComplete((plan, error) -> Platform.runLater(() -> {
+            planButton.setDisable(false);
+            if (error != null) {
+                statusLabel.setText("");
+                showError("Planification impossible : " + error.getCause().getMessage());
+                return;
+            }
+            proposed = plan;
+            slotsTable.setItems(FXCollections.observableArrayList(plan.getSlots()));
+            saveButton.setDisable(!plan.isFeasible());
+            String gaps = plan.getShortfall().entrySet().stream()
+                    .map(e -> e.getKey() + (e.getValue() > 0 ? " −" : " +") + Math.abs(e.getValue()))
+                    .collect(Collectors.joining(", "));
+            statusLabel.setText((plan.isFeasible() ? "Planning sans conflit" : plan.getConflicts() + " conflit(s)")
+                    + (gaps.isEmpty() ? ", besoins couverts" : ", écarts : " + gaps)
+                    + " (" + plan.getMillis() + " ms). Non enregistré.");
+        }));
+    }
+
+    @FXML
+    private void handleSavePlan() {
+        if (proposed == null || !proposed.isFeasible()) return;
+        try {
+            iceDAO.saveAssignments(proposed.getSlots());
+            proposed = null;
+            reload();
+            statusLabel.setText("Planning enregistré.");
+        } catch (SQLException e) {
+            showError("Enregistrement impossible : " + e.getMessage());
+        }
+    }
+
+    private void reload() {
+        try {
+            slotsTable.setItems(FXCollections.observableArrayList(iceDAO.findSlots()));
+            Map<String, Integer> demands = iceDAO.findDemands();
+            demandsLabel.setText(demands.isEmpty() ? "Aucun besoin défini" : demands.entrySet().stream()
+                    .map(e -> e.getKey() + " : " + e.getValue()).collect(Collectors.joining(", ")));
+            saveButton.setDisable(true);
+        } catch (SQLException e) {
+            showError("Chargement impossible : " + e.getMessage());
+        }
+    }
+
+    private static String dayName(DayOfWeek d) {
+        return d.getDisplayName(TextStyle.FULL, Locale.FRENCH);
+    }
+
+    /** Affiche un avertissement. */
+    private void showWarn(String msg) { new Alert(Alert.AlertType.WARNING, msg, ButtonType.OK).showAndWait(); }
+
+    /** Affiche une erreur. */
+    private void showError(String msg) { new Alert(Alert.AlertType.ERROR, msg, ButtonType.OK).showAndWait(); }
+}
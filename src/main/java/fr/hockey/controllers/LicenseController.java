@@ -1,7 +1,9 @@
 package fr.hockey.controllers;
 
 import fr.hockey.dao.LicenseDAO;
-import fr.hockey.dao.PlayerDAO;
+import fr.hockey.dao.RosterCache;
+import fr.hockey.events.DomainEvent;
+import fr.hockey.events.DomainEventBus;
 import fr.hockey.models.License;
 import fr.hockey.models.Player;
 import fr.hockey.utils.SessionManager;
@@ -15,15 +17,18 @@ import javafx.scene.layout.HBox;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.function.Consumer;
 
 /**
  * Contrôleur gérant les licences des joueurs :
  * - affichage des joueurs et de leur statut de licence,
  * - création ou mise à jour de la licence,
  * - marquage payé / non payé.
+ * Les lignes sont mises à jour sur place à partir des événements métier,
+ * sans recharger la liste après chaque action.
  * Les actions de modification sont réservées aux administrateurs.
  */
-public class LicenseController {
+public class LicenseController implements RefreshableView {
 
     @FXML private TableView<Player> playersTable;
     @FXML private TableColumn<Player, String> playerNameColumn;
@@ -34,9 +39,11 @@ public class LicenseController {
     @FXML private TableColumn<Player, Void> actionsColumn;
     @FXML private Label roleInfoLabel;
 
-    private final PlayerDAO playerDAO = new PlayerDAO();
+    private final RosterCache rosterCache = RosterCache.getInstance();
     private final LicenseDAO licenseDAO = new LicenseDAO();
     private final ObservableList<Player> players = FXCollections.observableArrayList();
+    private final Consumer<DomainEvent> eventListener = DomainEventPatches.onFxThread(
+            event -> DomainEventPatches.applyToPlayers(players, event, p -> true));
 
     private boolean isAdmin;
 
@@ -118,18 +125,15 @@ public class LicenseController {
             private void handleCreateOrUpdate(ActionEvent e) {
                 Player p = getTableView().getItems().get(getIndex());
                 try {
-                    License lic = licenseDAO.findByPlayerId(p.getId());
+                    License lic = p.getLicense();
                     double fee = licenseDAO.getFeeForCategory(p.getCategory());
                     LocalDate exp = LocalDate.now().plusYears(1);
 
                     if (lic == null) {
                         licenseDAO.createForPlayer(p.getId(), fee, exp, false);
                     } else {
-                        lic.setAmount(fee);
-                        lic.setExpirationDate(exp);
-                        licenseDAO.update(lic);
+                        licenseDAO.update(new License(lic.getId(), lic.getPlayerId(), lic.isPaid(), exp, fee));
                     }
-                    reload();
                 } catch (SQLException ex) {
                     showError(ex);
                 }
@@ -142,10 +146,9 @@ public class LicenseController {
                 if (!isAdmin) return;
                 Player p = getTableView().getItems().get(getIndex());
                 try {
-                    License lic = licenseDAO.findByPlayerId(p.getId());
+                    License lic = p.getLicense();
                     if (lic != null) {
                         licenseDAO.setPaid(lic.getId(), true);
-                        reload();
                     }
                 } catch (SQLException ex) {
                     showError(ex);
@@ -159,10 +162,9 @@ public class LicenseController {
                 if (!isAdmin) return;
                 Player p = getTableView().getItems().get(getIndex());
                 try {
-                    License lic = licenseDAO.findByPlayerId(p.getId());
+                    License lic = p.getLicense();
                     if (lic != null) {
                         licenseDAO.setPaid(lic.getId(), false);
-                        reload();
                     }
                 } catch (SQLException ex) {
                     showError(ex);
@@ -185,6 +187,7 @@ public class LicenseController {
         });
 
         reload();
+        DomainEventBus.subscribe(DomainEvent.class, eventListener);
     }
 
     /**
@@ -193,7 +196,7 @@ public class LicenseController {
      */
     private void reload() {
         try {
-            players.setAll(playerDAO.findAll());
+            players.setAll(rosterCache.findAllPlayers());
             playersTable.setItems(players);
         } catch (SQLException ex) {
             showError(ex);
@@ -210,4 +213,12 @@ public class LicenseController {
         a.setHeaderText("Erreur");
         a.showAndWait();
     }
+
+    /**
+     * Recharge les joueurs et leurs licences (vue réaffichée depuis le cache).
+     */
+    @Override
+    public void refresh() {
+        reload();
+    }
 }
@@ -0,0 +1,286 @@
+package fr.hockey.controllers;
+
+import fr.hockey.dao.RosterCache;
+import fr.hockey.models.GameEvent;
+import fr.hockey.models.Player;
+import fr.hockey.models.StatLine;
+import fr.hockey.services.LeaderboardService;
+import fr.hockey.services.LiveScoringService;
+import fr.hockey.utils.AppSettings;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.*;
+
+import java.io.IOException;
+import java.net.URL;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.function.Function;
+
+/**
+ * Contrôleur de la saisie en direct des actions de match, au banc.
+ *
+ * <p>Le match est désigné comme sa feuille de match (catégorie, date, adversaire). Le
+ * joueur sélectionné dans le tableau reçoit l'action choisie (but, passe, tir, pénalité,
+ * présence) au temps de jeu saisi ; le tableau affiche ensuite les statistiques du match
+ * tenues par {@link LiveScoringService}.</p>
+ */
+public class LiveGameController implements Initializable {
+
+    /** Ligne du tableau : un joueur de l'effectif et ses statistiques du match. */
+    private static final class Row {
+        final Player player;
+        final StatLine stats;
+
+        Row(Player player, StatLine stats) {
+            this.player = player;
+            this.stats = stats;
+        }
+    }
+
+    @FXML private ComboBox<String> categoryCombo;
+    @FXML private DatePicker matchDatePicker;
+    @FXML private TextField opponentField;
+    @FXML private ComboBox<String> periodCombo;
+    @FXML private TextField clockField;
+    @FXML private ComboBox<Integer> penaltyCombo;
+    @FXML private TextField shiftField;
+    @FXML private TableView<Row> statsTable;
+    @FXML private TableColumn<Row, String> numberColumn;
+    @FXML private TableColumn<Row, String> playerColumn;
+    @FXML private TableColumn<Row, String> positionColumn;
+    @FXML private TableColumn<Row, String> goalsColumn;
+    @FXML private TableColumn<Row, String> assistsColumn;
+    @FXML private TableColumn<Row, String> pointsColumn;
+    @FXML private TableColumn<Row, String> shotsColumn;
+    @FXML private TableColumn<Row, String> penaltiesColumn;
+    @FXML private TableColumn<Row, String> iceTimeColumn;
+    @FXML private ListView<GameEvent> eventsList;
+    @FXML private Label totalsLabel;
+    @FXML private ComboBox<LeaderboardService.Stat> leaderStatCombo;
+    @FXML private ListView<String> leadersList;
+
+    /** Nombre de joueurs affichés dans le classement. */
+    private static final int LEADERS = 10;
+
+    private static final List<String> CATEGORIES = Arrays.asList("U9", "U11", "U13", "U15", "U17", "U20");
+
+    private final LiveScoringService scoring = LiveScoringService.getInstance();
+    private final LeaderboardService leaderboard = LeaderboardService.getInstance();
+    private final RosterCache rosterCache = RosterCache.getInstance();
+
+    /** Match ouvert (null tant qu'aucun match n'est choisi). */
+    private String gameId;
+    private String category;
+    private String season;
+    private List<Player> roster = new ArrayList<>();
+
+    /**
+     * Initialise les listes (catégories, périodes, durées de pénalité) et les colonnes.
+     */
+    @Override
+    public void initialize(URL url, ResourceBundle resourceBundle) {
+        categoryCombo.getItems().setAll(CATEGORIES);
+        matchDatePicker.setValue(LocalDate.now());
+        periodCombo.getItems().setAll("1", "2", "3", "Prol.");
+        periodCombo.getSelectionModel().selectFirst();
+        penaltyCombo.getItems().setAll(2, 4, 5, 10);
+        penaltyCombo.getSelectionModel().selectFirst();
+        leaderStatCombo.getItems().setAll(LeaderboardService.Stat.values());
+        leaderStatCombo.setValue(LeaderboardService.Stat.POINTS);
+
+        bind(numberColumn, r -> r.player.getNumber() > 0 ? String.valueOf(r.player.getNumber()) : "");
+        bind(playerColumn, r -> r.player.getLastName() + " " + r.player.getFirstName());
+        bind(positionColumn, r -> r.player.getPosition());
+        bind(goalsColumn, r -> String.valueOf(r.stats.getGoals()));
+        bind(assistsColumn, r -> String.valueOf(r.stats.getAssists()));
+        bind(pointsColumn, r -> String.valueOf(r.stats.getPoints()));
+        bind(shotsColumn, r -> String.valueOf(r.stats.getShots()));
+        bind(penaltiesColumn, r -> String.valueOf(r.stats.getPenaltyMinutes()));
+        bind(iceTimeColumn, r -> formatClock(r.stats.getIceTimeSeconds()) + " (" + r.stats.getShifts() + ")");
+    }
+
+    /**
+     * Ouvre le match choisi : journal des matchs, effectif de la catégorie et
+     * statistiques déjà saisies (reprise après fermeture de l'application).
+     */
+    @FXML
+    private void handleOpenGame() {
+        String selected = categoryCombo.getValue();
+        if (selected == null) {
+            showWarn("Veuillez sélectionner une catégorie.");
+            return;
+        }
+        LocalDate date = matchDatePicker.getValue() != null ? matchDatePicker.getValue() : LocalDate.now();
+        try {
+            scoring.open(AppSettings.getGameLogFile());
+            roster = new ArrayList<>(rosterCache.findPlayersByCategory(selected));
+            roster.sort(Comparator.comparing(Player::getPosition, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(Player::getLastName, String.CASE_INSENSITIVE_ORDER));
+            category = selected;
+            season = LeaderboardService.seasonOf(date);
+            gameId = GameEvent.fixtureId(selected, date, opponentField.getText());
+            refresh();
+        } catch (IOException | SQLException e) {
+            showError("Impossible d'ouvrir le match : " + e.getMessage());
+        }
+    }
+
+    @FXML
+    private void handleGoal() {
+        record(GameEvent.Type.GOAL, 0);
+    }
+
+    @FXML
+    private void handleAssist() {
+        record(GameEvent.Type.ASSIST, 0);
+    }
+
+    @FXML
+    private void handleShot() {
+        record(GameEvent.Type.SHOT, 0);
+    }
+
+    @FXML
+    private void handlePenalty() {
+        record(GameEvent.Type.PENALTY, penaltyCombo.getValue() == null ? 2 : penaltyCombo.getValue());
+    }
+
+    @FXML
+    private void handleShift() {
+        Integer seconds = parseClock(shiftField.getText());
+        if (seconds == null || seconds <= 0) {
+            showWarn("Durée de présence invalide (mm:ss).");
+            return;
+        }
+        if (record(GameEvent.Type.SHIFT, seconds)) shiftField.clear();
+    }
+
+    /**
+     * Annule la dernière action du match qui ne l'est pas encore.
+     */
+    @FXML
+    private void handleUndo() {
+        if (gameId == null) return;
+        List<GameEvent> events = scoring.getGameEvents(gameId);
+        for (int i = events.size() - 1; i >= 0; i--) {
+            GameEvent e = events.get(i);
+            if (e.getType() != GameEvent.Type.CANCEL && !scoring.isCancelled(e.getSeq())) {
+                try {
+                    scoring.cancel(e.getSeq());
+                    refresh();
+                } catch (IOException ex) {
+                    showError("Annulation impossible : " + ex.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    @FXML
+    private void handleLeaderStat() {
+        if (gameId != null) refreshLeaders();
+    }
+
+    /** Enregistre une action pour le joueur sélectionné ; renvoie true si elle l'a été. */
+    private boolean record(GameEvent.Type type, int value) {
+        if (gameId == null) {
+            showWarn("Ouvrez d'abord le match.");
+            return false;
+        }
+        Row row = statsTable.getSelectionModel().getSelectedItem();
+        if (row == null) {
+            showWarn("Sélectionnez un joueur.");
+            return false;
+        }
+        Integer clock = parseClock(clockField.getText());
+        if (clock == null) {
+            showWarn("Temps de jeu invalide (mm:ss).");
+            return false;
+        }
+        int period = periodCombo.getSelectionModel().getSelectedIndex() + 1;
+        try {
+            scoring.record(gameId, category, row.player.getId(), type, period, clock, value);
+            refresh();
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            showError("Action non enregistrée : " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void refresh() {
+        int selected = statsTable.getSelectionModel().getSelectedIndex();
+        Map<Integer, StatLine> stats = scoring.getGameStats(gameId);
+        List<Row> rows = new ArrayList<>(roster.size());
+        for (Player p : roster) rows.add(new Row(p, stats.getOrDefault(p.getId(), new StatLine())));
+        statsTable.setItems(FXCollections.observableArrayList(rows));
+        if (selected >= 0) statsTable.getSelectionModel().select(selected);
+
+        List<GameEvent> events = new ArrayList<>(scoring.getGameEvents(gameId));
+        Collections.reverse(events);
+        eventsList.setItems(FXCollections.observableArrayList(events));
+
+        StatLine totals = scoring.getGameTotals(gameId);
+        totalsLabel.setText(String.format("%s — buts %d, tirs %d, pénalités %d min",
+                gameId, totals.getGoals(), totals.getShots(), totals.getPenaltyMinutes()));
+        refreshLeaders();
+    }
+
+    /** Classement de la catégorie sur la saison du match, pour la statistique choisie. */
+    private void refreshLeaders() {
+        LeaderboardService.Stat stat = leaderStatCombo.getValue();
+        if (stat == null) return;
+        Map<Integer, Player> byId = new HashMap<>();
+        for (Player p : roster) byId.put(p.getId(), p);
+        List<String> lines = new ArrayList<>();
+        int rank = 1;
+        for (LeaderboardService.Leader l : leaderboard.top(category, season, stat, LEADERS)) {
+            Player p = byId.get(l.getPlayerId());
+            String name = p != null ? p.getLastName() + " " + p.getFirstName() : "Joueur " + l.getPlayerId();
+            String value = stat == LeaderboardService.Stat.ICE_TIME ? formatClock(l.getValue()) : String.valueOf(l.getValue());
+            lines.add(rank++ + ". " + name + " — " + value);
+        }
+        leadersList.setItems(FXCollections.observableArrayList(lines));
+    }
+
+    /** @return secondes d'un temps {@code mm:ss} (ou d'un nombre de secondes), null si invalide */
+    private static Integer parseClock(String text) {
+        if (text == null || text.isBlank()) return null;
+        String t = text.trim();
+        try {
+            int colon = t.indexOf(':');
+            if (colon < 0) return Integer.parseInt(t);
+            int minutes = Integer.parseInt(t.substring(0, colon));
+            int seconds = Integer.parseInt(t.substring(colon + 1));
+            if (minutes < 0 || seconds < 0 || seconds > 59) return null;
+            return minutes * 60 + seconds;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String formatClock(int seconds) {
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+
+    private static void bind(TableColumn<Row, String> column, Function<Row, String> value) {
+        column.setCellValueFactory(cell -> new SimpleStringProperty(value.apply(cell.getValue())));
+    }
+
+    /** Affiche un avertissement. */
+    private void showWarn(String msg) { new Alert(Alert.AlertType.WARNING, msg, ButtonType.OK).showAndWait(); }
+
+    /** Affiche une erreur. */
+    private void showError(String msg) { new Alert(Alert.AlertType.ERROR, msg, ButtonType.OK).showAndWait(); }
+}
@@ -1,16 +1,16 @@
 package fr.hockey.controllers;
 
-import fr.hockey.dao.AdminDAO;
-import fr.hockey.dao.CoachDAO;
-import fr.hockey.models.Admin;
-import fr.hockey.models.Coach;
+import fr.hockey.services.AuthenticationService;
+import fr.hockey.utils.FlightRecorderEvents;
 import fr.hockey.utils.SessionManager;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
@@ -26,8 +26,9 @@ import java.util.logging.SimpleFormatter;
 
 /**
  * Contrôleur responsable de la gestion de l'écran de connexion.
- * Il tente d'authentifier l'utilisateur comme administrateur ou comme coach
- * et initialise la session en conséquence. En cas de succès, la vue
+ * Il authentifie l'utilisateur (administrateur ou coach) via
+ * {@link AuthenticationService}, hors du thread JavaFX, et initialise
+ * la session en conséquence. En cas de succès, la vue
  * du tableau de bord est chargée.
  */
 public class LoginController {
@@ -52,18 +53,18 @@ public class LoginController {
 
     @FXML private TextField usernameField;
     @FXML private PasswordField passwordField;
+    @FXML private Button loginButton;
     @FXML private Label errorLabel;
 
-    private AdminDAO adminDAO = new AdminDAO();
-    private CoachDAO coachDAO = new CoachDAO();
+    private final AuthenticationService authService = new AuthenticationService();
 
     /**
      * Gère le clic sur le bouton de connexion :
      * - vérifie que les champs ne sont pas vides
-     * - tente une authentification comme administrateur
-     * - sinon tente une authentification comme coach
+     * - lance l'authentification en arrière-plan (compte admin ou coach)
      * - initialise la session et charge le tableau de bord si succès
      *
+     * Le bouton est désactivé pendant la vérification ; la fenêtre reste réactive.
      * En cas d'échec, affiche un message d'erreur dans l'interface.
      *
      * @param event événement JavaFX du clic sur le bouton de connexion
@@ -78,32 +79,69 @@ public class LoginController {
             return;
         }
 
-        try {
-            LOGIN_LOG.info("Tentative de connexion: username=" + username);
-            Admin admin = adminDAO.authenticate(username, password);
-            if (admin != null) {
-                SessionManager.getInstance().setCurrentAdmin(admin);
-                LOGIN_LOG.info("Connexion réussie (ADMIN): username=" + username + ", id=" + admin.getId());
-                loadDashboard(event, admin.getRole());
+        FlightRecorderEvents.Login loginEvent = new FlightRecorderEvents.Login();
+        loginEvent.begin();
+        LOGIN_LOG.info("Tentative de connexion: username=" + username);
+        setBusy(true);
+
+        authService.authenticateAsync(username, password).whenComplete((result, error) -> Platform.runLater(() -> {
+            setBusy(false);
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                commitLoginEvent(loginEvent, null);
+                LOGIN_LOG.severe("Erreur de connexion pour username=" + username + ": " + cause.getMessage());
+                showError("Erreur de connexion: " + cause.getMessage());
+                cause.printStackTrace();
                 return;
             }
 
-            // Essai d'authentification comme coach
-            Coach coach = coachDAO.authenticate(username, password);
-            if (coach != null) {
-                SessionManager.getInstance().setCurrentCoach(coach);
-                LOGIN_LOG.info("Connexion réussie (COACH): username=" + username + ", id=" + coach.getId());
-                loadDashboard(event, "COACH");
+            commitLoginEvent(loginEvent, result != null ? result.getAccountType() : null);
+            if (result == null) {
+                LOGIN_LOG.warning("Échec de connexion: identifiants invalides pour username=" + username);
+                showError("Nom d'utilisateur ou mot de passe incorrect");
                 return;
             }
 
-            LOGIN_LOG.warning("Échec de connexion: identifiants invalides pour username=" + username);
-            showError("Nom d'utilisateur ou mot de passe incorrect");
-        } catch (Exception e) {
-            LOGIN_LOG.severe("Erreur de connexion pour username=" + username + ": " + e.getMessage());
-            showError("Erreur de connexion: " + e.getMessage());
-            e.printStackTrace();
-        }
+            try {
+                if (result.isAdmin()) {
+                    SessionManager.getInstance().setCurrentAdmin(result.getAdmin());
+                    LOGIN_LOG.info("Connexion réussie (ADMIN): username=" + username + ", id=" + result.getAdmin().getId());
+                    loadDashboard(event, result.getAdmin().getRole());
+                } else {
+                    SessionManager.getInstance().setCurrentCoach(result.getCoach());
+                    LOGIN_LOG.info("Connexion réussie (COACH): username=" + username + ", id=" + result.getCoach().getId());
+                    loadDashboard(event, "COACH");
+                }
+            } catch (IOException e) {
+                showError("Erreur de connexion: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }));
+    }
+
+    /**
+     * Désactive le formulaire pendant une tentative de connexion.
+     *
+     * @param busy true pendant la vérification
+     */
+    private void setBusy(boolean busy) {
+        if (loginButton != null) loginButton.setDisable(busy);
+        usernameField.setDisable(busy);
+        passwordField.setDisable(busy);
+        if (busy) errorLabel.setVisible(false);
+    }
+
+    /**
+     * Publie l'événement JFR de connexion (durée requête + vérification BCrypt, attente du pool comprise).
+     *
+     * @param event       événement démarré au début de la tentative
+     * @param accountType "ADMIN", "COACH" ou null en cas d'échec
+     */
+    private void commitLoginEvent(FlightRecorderEvents.Login event, String accountType) {
+        event.end();
+        event.accountType = accountType == null ? "" : accountType;
+        event.success = accountType != null;
+        event.commit();
     }
 
     /**
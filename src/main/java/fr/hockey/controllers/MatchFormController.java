@@ -1,9 +1,12 @@
 package fr.hockey.controllers;
 
-import fr.hockey.dao.PlayerDAO;
+import fr.hockey.dao.RosterCache;
+import fr.hockey.models.LineUp;
 import fr.hockey.models.Player;
+import fr.hockey.services.LineBuilder;
 import fr.hockey.utils.MatchSheetPdfGenerator;
 import fr.hockey.utils.AppSettings;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
@@ -19,6 +22,7 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Contrôleur gérant le formulaire permettant de générer une feuille de match PDF.
@@ -29,17 +33,22 @@ import java.util.ResourceBundle;
  *
  * Le contrôleur charge automatiquement les joueurs de la catégorie,
  * les trie selon la position puis génère un PDF grâce à MatchSheetPdfGenerator.
+ * Sur demande, les trios et paires proposés par LineBuilder remplacent la liste par poste.
  */
 public class MatchFormController implements Initializable {
 
     @FXML private ComboBox<String> categoryCombo;
     @FXML private DatePicker matchDatePicker;
     @FXML private TextField opponentField;
+    @FXML private CheckBox linesCheck;
     @FXML private Label statusLabel;
 
-    private final PlayerDAO playerDAO = new PlayerDAO();
+    private final RosterCache rosterCache = RosterCache.getInstance();
     private static final List<String> CATEGORIES = Arrays.asList("U9", "U11", "U13", "U15", "U17", "U20");
 
+    /** Durée de recherche des lignes. */
+    private static final long LINES_TIME_MS = 1_000;
+
     /**
      * Initialise le formulaire :
      *  - charge la liste des catégories dans le ComboBox
@@ -68,6 +77,7 @@ public class MatchFormController implements Initializable {
      *  - vérification des champs
      *  - récupération des joueurs de la catégorie
      *  - tri selon la position puis nom/prénom
+     *  - composition des lignes si demandée (sur un thread de fond)
      *  - choix d’un emplacement de sauvegarde PDF
      *  - génération de la feuille de match
      *
@@ -84,15 +94,54 @@ public class MatchFormController implements Initializable {
         LocalDate matchDate = matchDatePicker.getValue() != null ? matchDatePicker.getValue() : LocalDate.now();
         String opponent = safe(opponentField.getText());
 
+        List<Player> list;
         try {
-            List<Player> list = playerDAO.findByCategory(category);
+            list = rosterCache.findPlayersByCategory(category);
+        } catch (SQLException ex) {
+            showError("Erreur lors du chargement des joueurs: " + ex.getMessage());
+            return;
+        }
+
+        // Tri des joueurs (position > nom > prénom)
+        list.sort(Comparator
+                .comparing((Player p) -> positionOrder(p.getPosition()))
+                .thenComparing(p -> safe(p.getLastName()), String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(p -> safe(p.getFirstName()), String.CASE_INSENSITIVE_ORDER));
+
+        if (linesCheck == null || !linesCheck.isSelected()) {
+            saveSheet(category, list, null, matchDate, opponent);
+            return;
+        }
 
-            // Tri des joueurs (position > nom > prénom)
-            list.sort(Comparator
-                    .comparing((Player p) -> positionOrder(p.getPosition()))
-                    .thenComparing(p -> safe(p.getLastName()), String.CASE_INSENSITIVE_ORDER)
-                    .thenComparing(p -> safe(p.getFirstName()), String.CASE_INSENSITIVE_ORDER));
+        // Composition des lignes : statistiques et présences de la saison
+        statusLabel.setText("Composition des lignes…");
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return new LineBuilder().build(list, LineBuilder.ratings(category, matchDate, list), LINES_TIME_MS);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }).whenComplete((lineUp, error) -> Platform.runLater(() -> {
+            statusLabel.setText("");
+            if (error != null) {
+                showError("Composition des lignes impossible: " + error.getCause().getMessage());
+                return;
+            }
+            saveSheet(category, list, lineUp, matchDate, opponent);
+        }));
+    }
 
+    /**
+     * Demande l’emplacement du PDF puis génère la feuille de match.
+     *
+     * @param category  catégorie
+     * @param list      joueurs triés
+     * @param lineUp    lignes proposées, ou null pour la liste par poste
+     * @param matchDate date du match
+     * @param opponent  adversaire
+     */
+    private void saveSheet(String category, List<Player> list, LineUp lineUp, LocalDate matchDate, String opponent) {
+        try {
             // Fenêtre de sauvegarde PDF
             FileChooser fc = new FileChooser();
             fc.setTitle("Enregistrer la feuille de match");
@@ -120,13 +169,11 @@ public class MatchFormController implements Initializable {
             }
 
             // Génération du PDF
-            MatchSheetPdfGenerator.generate(category, list, file, matchDate, opponent, logoFile);
+            MatchSheetPdfGenerator.generate(category, list, lineUp, file, matchDate, opponent, logoFile);
 
             showInfo("Feuille de match générée:\n" + file.getAbsolutePath());
             stage.close();
 
-        } catch (SQLException ex) {
-            showError("Erreur lors du chargement des joueurs: " + ex.getMessage());
         } catch (Exception ex) {
             showError("Erreur lors de la génération: " + ex.getMessage());
         }
@@ -1,11 +1,18 @@
 package fr.hockey.controllers;
 
 import fr.hockey.dao.PlayerDAO;
+import fr.hockey.dao.RosterCache;
+import fr.hockey.events.DomainEvent;
+import fr.hockey.events.DomainEventBus;
 import fr.hockey.models.Player;
+import fr.hockey.utils.RosterIndex;
 import fr.hockey.utils.SessionManager;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -20,18 +27,21 @@ import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
 
 /**
  * Contrôleur responsable de la gestion des joueurs :
  * - affichage de la liste des joueurs
- * - filtres par catégorie et poste
+ * - filtres par catégorie, poste, rôle et statut de licence (en mémoire, via {@link RosterIndex})
  * - création, édition et suppression (droits selon rôle)
  * - validation et sauvegarde des informations
  *
  * Les administrateurs peuvent créer/modifier/supprimer.
  * Les coachs peuvent uniquement modifier (certaines informations).
+ * Après une modification, la ligne concernée est mise à jour sur place
+ * à partir des événements métier publiés par les DAO.
  */
-public class PlayersController implements Initializable {
+public class PlayersController implements Initializable, RefreshableView {
 
     @FXML private TableView<Player> playersTable;
     @FXML private TableColumn<Player, Integer> idColumn;
@@ -46,6 +56,8 @@ public class PlayersController implements Initializable {
 
     @FXML private ComboBox<String> categoryFilter;
     @FXML private ComboBox<String> positionFilter;
+    @FXML private ComboBox<String> roleFilter;
+    @FXML private ComboBox<String> licenseFilter;
 
     @FXML private VBox formContainer;
     @FXML private TextField firstNameField;
@@ -54,17 +66,26 @@ public class PlayersController implements Initializable {
     @FXML private ComboBox<String> roleCombo;
     @FXML private ComboBox<String> positionCombo;
     @FXML private ComboBox<Integer> numberCombo;
+    @FXML private TextField contactEmailField;
 
     @FXML private Button saveButton;
     @FXML private Button addButton;
 
     private final PlayerDAO playerDAO = new PlayerDAO();
+    private final RosterCache rosterCache = RosterCache.getInstance();
+    /** Tous les joueurs chargés ; le tableau en affiche une vue filtrée puis triée. */
+    private final ObservableList<Player> players = FXCollections.observableArrayList();
+    private final FilteredList<Player> filteredPlayers = new FilteredList<>(players);
+    private RosterIndex rosterIndex = new RosterIndex(List.of());
+    private final Consumer<DomainEvent> eventListener = DomainEventPatches.onFxThread(
+            event -> DomainEventPatches.applyToPlayers(players, event, p -> true));
     private Player currentPlayer;
     private boolean isEditMode = false;
 
     private final List<String> CATEGORIES = Arrays.asList("U9", "U11", "U13", "U15", "U17", "U20");
     private final List<String> ROLES = Arrays.asList("CAPITAINE", "ASSISTANT", "JOUEUR");
     private final List<String> POSITIONS = Arrays.asList("GARDIEN", "DEFENSEUR", "ATTAQUANT");
+    private final List<String> LICENSE_STATUSES = Arrays.asList("Payée", "Non payée", "Non licencié");
 
     /**
      * Initialise la vue :
@@ -80,6 +101,7 @@ public class PlayersController implements Initializable {
         setupFilters();
         setupForm();
         loadPlayers();
+        DomainEventBus.subscribe(DomainEvent.class, eventListener);
 
         boolean isAdmin = SessionManager.getInstance().isAdmin();
         boolean isCoach = SessionManager.getInstance().isCoach();
@@ -102,6 +124,11 @@ public class PlayersController implements Initializable {
      * - colonne d’actions
      */
     private void setupTable() {
+        SortedList<Player> sortedPlayers = new SortedList<>(filteredPlayers);
+        sortedPlayers.comparatorProperty().bind(playersTable.comparatorProperty());
+        playersTable.setItems(sortedPlayers);
+        // Toute modification de la liste (chargement, événement métier) reconstruit l'index
+        players.addListener((ListChangeListener<Player>) change -> reindex());
         idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
 
         numberColumn.setCellValueFactory(cellData -> {
@@ -176,19 +203,29 @@ public class PlayersController implements Initializable {
     }
 
     /**
-     * Configure les filtres catégorie + poste.
-     * Le tableau est rechargé à chaque modification.
+     * Configure les filtres catégorie, poste, rôle et licence.
+     * Un changement de filtre ne recharge rien : il remplace le prédicat de la liste filtrée.
      */
     private void setupFilters() {
         categoryFilter.getItems().add("Toutes");
         categoryFilter.getItems().addAll(CATEGORIES);
         categoryFilter.setValue("Toutes");
-        categoryFilter.setOnAction(e -> loadPlayers());
+        categoryFilter.setOnAction(e -> applyFilters());
 
         positionFilter.getItems().add("Tous");
         positionFilter.getItems().addAll(POSITIONS);
         positionFilter.setValue("Tous");
-        positionFilter.setOnAction(e -> loadPlayers());
+        positionFilter.setOnAction(e -> applyFilters());
+
+        roleFilter.getItems().add("Tous");
+        roleFilter.getItems().addAll(ROLES);
+        roleFilter.setValue("Tous");
+        roleFilter.setOnAction(e -> applyFilters());
+
+        licenseFilter.getItems().add("Toutes");
+        licenseFilter.getItems().addAll(LICENSE_STATUSES);
+        licenseFilter.setValue("Toutes");
+        licenseFilter.setOnAction(e -> applyFilters());
     }
 
     /**
@@ -207,31 +244,49 @@ public class PlayersController implements Initializable {
     }
 
     /**
-     * Charge la liste des joueurs selon les filtres sélectionnés.
+     * Charge tous les joueurs ; les filtres sont appliqués en mémoire.
      */
     private void loadPlayers() {
         try {
-            List<Player> players;
-            String categoryValue = categoryFilter.getValue();
-            String positionValue = positionFilter.getValue();
-
-            if ("Toutes".equals(categoryValue) && "Tous".equals(positionValue)) {
-                players = playerDAO.findAll();
-            } else if ("Toutes".equals(categoryValue)) {
-                players = playerDAO.findByPosition(positionValue);
-            } else if ("Tous".equals(positionValue)) {
-                players = playerDAO.findByCategory(categoryValue);
-            } else {
-                players = playerDAO.findByCategoryAndPosition(categoryValue, positionValue);
-            }
-
-            playersTable.setItems(FXCollections.observableArrayList(players));
-
+            players.setAll(rosterCache.findAllPlayers());
         } catch (SQLException e) {
             showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors du chargement des joueurs", e.getMessage());
         }
     }
 
+    /**
+     * Reconstruit l'index après une modification de la liste, puis réapplique les filtres
+     * (un changement de licence ou de catégorie peut faire entrer ou sortir une ligne).
+     */
+    private void reindex() {
+        rosterIndex = new RosterIndex(players);
+        applyFilters();
+    }
+
+    /**
+     * Applique les filtres sélectionnés : intersection des bitsets de l'index, sans requête.
+     */
+    private void applyFilters() {
+        filteredPlayers.setPredicate(rosterIndex.predicate(
+                selected(categoryFilter, "Toutes"),
+                selected(positionFilter, "Tous"),
+                selected(roleFilter, "Tous"),
+                licenseStatus(licenseFilter.getValue())));
+    }
+
+    /** Valeur du filtre, ou null si l'entrée "toutes / tous" est sélectionnée. */
+    private static String selected(ComboBox<String> filter, String any) {
+        String value = filter.getValue();
+        return value == null || any.equals(value) ? null : value;
+    }
+
+    private static RosterIndex.LicenseStatus licenseStatus(String label) {
+        if ("Payée".equals(label)) return RosterIndex.LicenseStatus.PAID;
+        if ("Non payée".equals(label)) return RosterIndex.LicenseStatus.UNPAID;
+        if ("Non licencié".equals(label)) return RosterIndex.LicenseStatus.NONE;
+        return null;
+    }
+
     /**
      * Ouvre le formulaire en mode création.
      * Accessible uniquement aux administrateurs.
@@ -273,6 +328,7 @@ public class PlayersController implements Initializable {
         roleCombo.setValue(player.getRole());
         positionCombo.setValue(player.getPosition());
         numberCombo.setValue(player.getNumber() > 0 ? player.getNumber() : null);
+        contactEmailField.setText(player.getContactEmail() != null ? player.getContactEmail() : "");
 
         if (isCoach && !isAdmin) {
             firstNameField.setDisable(true);
@@ -280,6 +336,7 @@ public class PlayersController implements Initializable {
             categoryCombo.setDisable(true);
             positionCombo.setDisable(true);
             numberCombo.setDisable(true);
+            contactEmailField.setDisable(true);
             roleCombo.setDisable(false);
         } else {
             firstNameField.setDisable(false);
@@ -287,6 +344,7 @@ public class PlayersController implements Initializable {
             categoryCombo.setDisable(false);
             positionCombo.setDisable(false);
             numberCombo.setDisable(false);
+            contactEmailField.setDisable(false);
             roleCombo.setDisable(false);
         }
         showForm(true);
@@ -311,7 +369,6 @@ public class PlayersController implements Initializable {
             if (response == ButtonType.OK) {
                 try {
                     playerDAO.delete(player.getId());
-                    loadPlayers();
                 } catch (SQLException e) {
                     showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors de la suppression", e.getMessage());
                 }
@@ -345,11 +402,12 @@ public class PlayersController implements Initializable {
 
         Integer numVal = numberCombo.getValue();
         currentPlayer.setNumber(numVal != null ? numVal : 0);
+        String email = contactEmailField.getText().trim();
+        currentPlayer.setContactEmail(email.isEmpty() ? null : email);
 
         try {
             playerDAO.save(currentPlayer);
             showForm(false);
-            loadPlayers();
         } catch (SQLException e) {
             showAlert(Alert.AlertType.ERROR, "Erreur", "Erreur lors de l'enregistrement", e.getMessage());
         }
@@ -380,6 +438,8 @@ public class PlayersController implements Initializable {
         if (!isEditMode && numberCombo.getValue() == null) {
             errors.append("- Le numéro est requis\n");
         }
+        String email = contactEmailField.getText().trim();
+        if (!email.isEmpty() && email.indexOf('@') <= 0) errors.append("- L'adresse e-mail de contact est invalide\n");
 
         if (errors.length() > 0) {
             showAlert(Alert.AlertType.ERROR, "Validation",
@@ -399,6 +459,7 @@ public class PlayersController implements Initializable {
         roleCombo.setValue(null);
         positionCombo.setValue(null);
         numberCombo.setValue(null);
+        contactEmailField.clear();
     }
 
     /**
@@ -419,4 +480,33 @@ public class PlayersController implements Initializable {
         alert.setContentText(content);
         alert.showAndWait();
     }
+
+    /**
+     * Affiche un joueur choisi dans la recherche globale : les filtres sont levés,
+     * puis la ligne est sélectionnée et rendue visible.
+     *
+     * @param playerId identifiant du joueur
+     */
+    void showPlayer(int playerId) {
+        categoryFilter.setValue("Toutes");
+        positionFilter.setValue("Tous");
+        roleFilter.setValue("Tous");
+        licenseFilter.setValue("Toutes");
+        applyFilters();
+        for (Player p : playersTable.getItems()) {
+            if (p.getId() == playerId) {
+                playersTable.getSelectionModel().select(p);
+                playersTable.scrollTo(p);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Recharge la liste, les filtres courants restant appliqués (vue réaffichée depuis le cache).
+     */
+    @Override
+    public void refresh() {
+        loadPlayers();
+    }
 }
@@ -0,0 +1,18 @@
+package fr.hockey.controllers;
+
+/**
+ * Contrat des vues pouvant être conservées en cache par le tableau de bord.
+ * <p>
+ * Une vue en cache n'est pas rechargée depuis le FXML à chaque affichage :
+ * {@link #refresh()} est appelée à la place lorsque des données ont été
+ * modifiées en base depuis son dernier affichage.
+ * </p>
+ */
+public interface RefreshableView {
+
+    /**
+     * Recharge les données affichées depuis la base, sans reconstruire la vue.
+     * Appelée sur le thread JavaFX.
+     */
+    void refresh();
+}
@@ -20,7 +20,7 @@ import java.util.List;
  *
  * L'écran est consultable par les coachs, mais modifiable uniquement par les administrateurs.
  */
-public class RevenueController {
+public class RevenueController implements RefreshableView {
 
     @FXML private TableView<RevenueItem> revenueTable;
     @FXML private TableColumn<RevenueItem, String> categoryColumn;
@@ -95,4 +95,12 @@ public class RevenueController {
         a.setHeaderText("Erreur");
         a.showAndWait();
     }
+
+    /**
+     * Recharge les revenus (vue réaffichée depuis le cache).
+     */
+    @Override
+    public void refresh() {
+        reload();
+    }
 }
@@ -0,0 +1,163 @@
+package fr.hockey.controllers;
+
+import fr.hockey.dao.QueryMetrics;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cache des vues du tableau de bord.
+ * <p>
+ * Les vues dont le contrôleur implémente {@link RefreshableView} sont conservées
+ * (graphe de scène et contrôleur) après leur premier chargement. Lorsqu'elles sont
+ * réaffichées, elles ne sont rafraîchies que si une écriture a eu lieu en base
+ * depuis qu'elles ont été masquées ({@link QueryMetrics#getWriteCount()}).
+ * </p>
+ * <p>
+ * Une instance par tableau de bord : le cache disparaît avec lui à la déconnexion.
+ * La table des entrées et celle des préchargements en cours ne sont modifiées que sur
+ * le thread JavaFX.
+ * </p>
+ */
+final class ViewCache {
+
+    /** Vue chargée et son contrôleur. */
+    static final class Entry {
+        final Parent view;
+        final Object controller;
+        /** Valeur du compteur d'écritures lorsque les données affichées étaient à jour. */
+        long writeMark;
+
+        private Entry(Parent view, Object controller, long writeMark) {
+            this.view = view;
+            this.controller = controller;
+            this.writeMark = writeMark;
+        }
+
+        boolean isCacheable() {
+            return controller instanceof RefreshableView;
+        }
+
+        /** Rafraîchit la vue si des données ont changé depuis {@link #writeMark}. */
+        void refreshIfStale() {
+            long writes = QueryMetrics.getWriteCount();
+            if (writes != writeMark && controller instanceof RefreshableView) {
+                ((RefreshableView) controller).refresh();
+            }
+            writeMark = writes;
+        }
+    }
+
+    /** Préchargement d'une vue : pris en charge soit par le thread de préchargement, soit par {@link #load}. */
+    private static final class Preload {
+        final CompletableFuture<Entry> result = new CompletableFuture<>();
+        final AtomicBoolean claimed = new AtomicBoolean();
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    /** Préchargements pas encore recueillis, par chemin du FXML. */
+    private final Map<String, Preload> preloads = new HashMap<>();
+
+    /**
+     * @param fxmlPath chemin du FXML
+     * @return entrée en cache, ou null si la vue n'a pas encore été chargée
+     */
+    Entry get(String fxmlPath) {
+        return entries.get(fxmlPath);
+    }
+
+    /**
+     * Charge une vue depuis son FXML et la met en cache si son contrôleur le permet.
+     * Une vue en cours de préchargement est attendue puis reprise plutôt que chargée une
+     * seconde fois ; si son préchargement n'a pas commencé ou a échoué, elle est chargée ici,
+     * sur le thread JavaFX, où son contrôleur peut signaler ses erreurs.
+     *
+     * @param fxmlPath chemin du FXML
+     * @return entrée chargée
+     * @throws IOException si le FXML ne peut pas être chargé
+     */
+    Entry load(String fxmlPath) throws IOException {
+        Preload preload = preloads.remove(fxmlPath);
+        Entry entry = null;
+        if (preload != null && !preload.claimed.compareAndSet(false, true)) {
+            try {
+                entry = preload.result.join();
+            } catch (CompletionException e) {
+                System.err.println("Préchargement impossible de " + fxmlPath + " : " + e.getCause());
+            }
+        }
+        if (entry == null) entry = read(fxmlPath);
+        if (entry.isCacheable()) {
+            entries.put(fxmlPath, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Précharge des vues sur un thread d'arrière-plan (à appeler sur le thread JavaFX).
+     * <p>
+     * Le FXML est analysé et le contrôleur initialisé (requêtes comprises) hors du
+     * thread JavaFX ; la vue n'est attachée à aucune scène tant qu'elle n'est pas affichée.
+     * Chaque vue terminée est recueillie sur le thread JavaFX. Une vue dont le préchargement
+     * échoue est simplement chargée au premier clic.
+     * </p>
+     *
+     * @param fxmlPaths vues à précharger
+     */
+    void preload(List<String> fxmlPaths) {
+        List<String> paths = new ArrayList<>();
+        List<Preload> pending = new ArrayList<>();
+        for (String path : fxmlPaths) {
+            if (entries.containsKey(path) || preloads.containsKey(path)) continue;
+            Preload preload = new Preload();
+            preloads.put(path, preload);
+            preload.result.whenComplete((entry, error) -> Platform.runLater(() -> collect(path, preload)));
+            paths.add(path);
+            pending.add(preload);
+        }
+        if (paths.isEmpty()) return;
+
+        Thread t = new Thread(() -> {
+            for (int i = 0; i < paths.size(); i++) {
+                Preload preload = pending.get(i);
+                // Vue déjà demandée : load() la charge lui-même
+                if (!preload.claimed.compareAndSet(false, true)) continue;
+                try {
+                    preload.result.complete(read(paths.get(i)));
+                } catch (IOException | RuntimeException e) {
+                    preload.result.completeExceptionally(e);
+                }
+            }
+        }, "view-preload");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** Met en cache une vue préchargée, si {@link #load} ne l'a pas déjà reprise. */
+    private void collect(String path, Preload preload) {
+        if (preloads.get(path) != preload) return;
+        preloads.remove(path);
+        try {
+            Entry entry = preload.result.join();
+            if (entry.isCacheable()) entries.putIfAbsent(path, entry);
+        } catch (CompletionException e) {
+            System.err.println("Préchargement impossible de " + path + " : " + e.getCause());
+        }
+    }
+
+    private Entry read(String fxmlPath) throws IOException {
+        long writes = QueryMetrics.getWriteCount();
+        FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
+        Parent view = loader.load();
+        return new Entry(view, loader.getController(), writes);
+    }
+}
@@ -0,0 +1,154 @@
+package fr.hockey.dao;
+
+import fr.hockey.models.Admin;
+import fr.hockey.models.Coach;
+import fr.hockey.utils.AuditLogger;
+import fr.hockey.utils.PasswordHasher;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * DAO des comptes de connexion, tous types confondus (administrateurs et coachs).
+ *
+ * <p>Un nom d'utilisateur est résolu en une seule requête sur les tables
+ * {@code admins} et {@code coaches} ; un administrateur est prioritaire
+ * si le même nom existe dans les deux tables. Le nom d'utilisateur n'est pas rattaché
+ * à un club : c'est le compte trouvé qui désigne le club de la session.</p>
+ */
+public class AccountDAO {
+
+    /** Type de compte : administrateur. */
+    public static final String TYPE_ADMIN = "ADMIN";
+
+    /** Type de compte : coach. */
+    public static final String TYPE_COACH = "COACH";
+
+    private static final String FIND_SQL =
+            "SELECT 'ADMIN' AS account_type, id, username, password, first_name, last_name, email, role, club_id " +
+            "FROM admins WHERE username = ? " +
+            "UNION ALL " +
+            "SELECT 'COACH' AS account_type, id, username, password, first_name, last_name, email, 'COACH' AS role, club_id " +
+            "FROM coaches WHERE username = ? " +
+            "ORDER BY account_type";
+
+    /**
+     * Identifiants d'un compte tels que stockés en base (hash compris).
+     */
+    public static final class Credentials {
+        private final String type;
+        private final int id;
+        private final String username;
+        private final String passwordHash;
+        private final String firstName;
+        private final String lastName;
+        private final String email;
+        private final String role;
+        private final int clubId;
+
+        Credentials(String type, int id, String username, String passwordHash,
+                    String firstName, String lastName, String email, String role, int clubId) {
+            this.type = type;
+            this.id = id;
+            this.username = username;
+            this.passwordHash = passwordHash;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.email = email;
+            this.role = role;
+            this.clubId = clubId;
+        }
+
+        /** @return {@link #TYPE_ADMIN} ou {@link #TYPE_COACH} */
+        public String getType() { return type; }
+
+        public int getId() { return id; }
+
+        public String getUsername() { return username; }
+
+        /** @return hash BCrypt stocké */
+        public String getPasswordHash() { return passwordHash; }
+
+        public boolean isAdmin() { return TYPE_ADMIN.equals(type); }
+
+        /** @return club du compte */
+        public int getClubId() { return clubId; }
+
+        /** @return administrateur correspondant (sans vérification du mot de passe) */
+        public Admin toAdmin() {
+            Admin admin = new Admin(id, username, passwordHash, firstName, lastName, email, role);
+            admin.setClubId(clubId);
+            return admin;
+        }
+
+        /** @return coach correspondant, sans ses équipes */
+        public Coach toCoach() {
+            Coach coach = new Coach();
+            coach.setId(id);
+            coach.setUsername(username);
+            coach.setFirstName(firstName);
+            coach.setLastName(lastName);
+            coach.setEmail(email);
+            coach.setClubId(clubId);
+            return coach;
+        }
+    }
+
+    /**
+     * Recherche un compte par nom d'utilisateur dans les deux tables.
+     *
+     * @param username nom d'utilisateur
+     * @return identifiants du compte, ou null si inconnu
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public Credentials findByUsername(String username) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(FIND_SQL)) {
+            ps.setString(1, username);
+            ps.setString(2, username);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return new Credentials(
+                            rs.getString("account_type"),
+                            rs.getInt("id"),
+                            rs.getString("username"),
+                            rs.getString("password"),
+                            rs.getString("first_name"),
+                            rs.getString("last_name"),
+                            rs.getString("email"),
+                            rs.getString("role"),
+                            rs.getInt("club_id"));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Remplace le hash d'un compte (re-hashage avec un nouveau coût).
+     * Le remplacement n'a lieu que si le hash n'a pas changé entre-temps.
+     *
+     * @param account compte lu par {@link #findByUsername(String)}
+     * @param newHash nouveau hash BCrypt
+     * @return true si le hash a été remplacé
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public boolean replacePasswordHash(Credentials account, String newHash) throws SQLException {
+        String table = account.isAdmin() ? "admins" : "coaches";
+        String sql = "UPDATE " + table + " SET password = ? WHERE id = ? AND password = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, newHash);
+            ps.setInt(2, account.getId());
+            ps.setString(3, account.getPasswordHash());
+            if (ps.executeUpdate() > 0) {
+                AuditLogger.logChange(table, "PASSWORD_REHASH", String.valueOf(account.getId()),
+                        "cost=" + PasswordHasher.costOf(newHash));
+                return true;
+            }
+            return false;
+        }
+    }
+}
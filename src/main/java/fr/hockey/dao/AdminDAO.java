@@ -1,8 +1,8 @@
 package fr.hockey.dao;
 
 import fr.hockey.models.Admin;
-import org.mindrot.jbcrypt.BCrypt;
 import fr.hockey.utils.AuditLogger;
+import fr.hockey.utils.PasswordHasher;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -10,45 +10,18 @@ import java.util.List;
 
 /**
  * DAO permettant d'accéder et de gérer les administrateurs :
- * - authentification
  * - récupération par ID
  * - récupération de tous les admins
  * - insertion / mise à jour
  * - suppression
  *
  * Le hashing des mots de passe utilise BCrypt.
+ *
+ * Les requêtes sont restreintes au club de la session ({@link Tenant}) ; l'authentification
+ * passe par {@link AccountDAO} (le nom d'utilisateur est unique dans toute la base).
  */
 public class AdminDAO {
 
-    /**
-     * Authentifie un administrateur à partir de son username et password.
-     * Le mot de passe fourni est comparé au hash stocké dans la base.
-     *
-     * @param username nom d'utilisateur
-     * @param password mot de passe en clair fourni par l'utilisateur
-     * @return Admin authentifié ou null si échec
-     * @throws SQLException en cas d’erreur SQL
-     */
-    public Admin authenticate(String username, String password) throws SQLException {
-        String query = "SELECT * FROM admins WHERE username = ?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                String hashedPassword = rs.getString("password");
-
-                if (BCrypt.checkpw(password, hashedPassword)) {
-                    return extractAdminFromResultSet(rs);
-                }
-            }
-        }
-        return null;
-    }
-
     /**
      * Recherche un administrateur par son ID.
      *
@@ -57,12 +30,13 @@ public class AdminDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     public Admin findById(int id) throws SQLException {
-        String query = "SELECT * FROM admins WHERE id = ?";
+        String query = "SELECT * FROM admins WHERE id = ? AND club_id = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setInt(1, id);
+            stmt.setInt(2, Tenant.current());
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
@@ -80,14 +54,16 @@ public class AdminDAO {
      */
     public List<Admin> findAll() throws SQLException {
         List<Admin> admins = new ArrayList<>();
-        String query = "SELECT * FROM admins";
+        String query = "SELECT * FROM admins WHERE club_id = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
+             PreparedStatement stmt = conn.prepareStatement(query)) {
 
-            while (rs.next()) {
-                admins.add(extractAdminFromResultSet(rs));
+            stmt.setInt(1, Tenant.current());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    admins.add(extractAdminFromResultSet(rs));
+                }
             }
         }
         return admins;
@@ -110,66 +86,6 @@ public class AdminDAO {
         }
     }
 
-    /**
-     * Classe utilitaire interne permettant d’ajouter ou d’authentifier
-     * des administrateurs de manière statique.
-     * (Ancien code conservé pour compatibilité éventuelle.)
-     */
-    public class AdminManager {
-
-        /**
-         * Ajoute un administrateur avec hash du mot de passe.
-         *
-         * @param username nom d'utilisateur
-         * @param first_name prénom
-         * @param last_name nom
-         * @param password mot de passe en clair
-         * @throws SQLException en cas d’erreur SQL
-         */
-        public static void add_admin(String username, String first_name, String last_name, String password) throws SQLException {
-            Connection connection = DatabaseConnection.getConnection();
-            String hachedpwd = BCrypt.hashpw(password, BCrypt.gensalt(12));
-            String sql_request = "INSERT INTO admins (username, first_name, last_name, password, email, role) VALUES(?, ?, ?, ?, '', 'ADMIN')";
-            try {
-                PreparedStatement pstmt = connection.prepareStatement(sql_request);
-                pstmt.setString(1, username);
-                pstmt.setString(2, first_name);
-                pstmt.setString(3, last_name);
-                pstmt.setString(4, hachedpwd);
-                pstmt.execute();
-            } catch (SQLException e) {
-                throw new RuntimeException(e);
-            }
-        }
-
-        /**
-         * Authentifie un administrateur (version statique alternative).
-         *
-         * @param username nom d'utilisateur
-         * @param password mot de passe en clair
-         * @return true si authentification réussie
-         * @throws SQLException en cas d’erreur SQL
-         */
-        public static boolean connexion(String username, String password) throws SQLException {
-            Connection connection = DatabaseConnection.getConnection();
-            String sql_request = "SELECT * FROM admins WHERE username = ?";
-            try {
-                PreparedStatement pstmt = connection.prepareStatement(sql_request);
-                pstmt.setString(1, username);
-                ResultSet rs = pstmt.executeQuery();
-                while (rs.next()) {
-                    String pwd = rs.getString("password");
-                    if (BCrypt.checkpw(password, pwd)) {
-                        return true;
-                    }
-                }
-            } catch (SQLException e) {
-                throw new RuntimeException(e);
-            }
-            return false;
-        }
-    }
-
     /**
      * Met à jour les informations d’un administrateur existant.
      *
@@ -178,7 +94,7 @@ public class AdminDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     private boolean update(Admin admin) throws SQLException {
-        String query = "UPDATE admins SET username = ?, first_name = ?, last_name = ?, email = ?, role = ? WHERE id = ?";
+        String query = "UPDATE admins SET username = ?, first_name = ?, last_name = ?, email = ?, role = ? WHERE id = ? AND club_id = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
@@ -189,6 +105,7 @@ public class AdminDAO {
             stmt.setString(4, admin.getEmail());
             stmt.setString(5, admin.getRole());
             stmt.setInt(6, admin.getId());
+            stmt.setInt(7, Tenant.current());
 
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
@@ -211,14 +128,15 @@ public class AdminDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     public boolean updatePassword(int adminId, String newPassword) throws SQLException {
-        String adminQuery = "UPDATE admins SET password = ? WHERE id = ?";
+        String adminQuery = "UPDATE admins SET password = ? WHERE id = ? AND club_id = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement adminStmt = conn.prepareStatement(adminQuery)) {
 
-            String hashed = BCrypt.hashpw(newPassword, BCrypt.gensalt());
+            String hashed = PasswordHasher.hash(newPassword);
             adminStmt.setString(1, hashed);
             adminStmt.setInt(2, adminId);
+            adminStmt.setInt(3, Tenant.current());
             int affectedAdmins = adminStmt.executeUpdate();
             if (affectedAdmins > 0) {
                 AuditLogger.logChange("admins", "PASSWORD_CHANGE", String.valueOf(adminId), "password=UPDATED");
@@ -236,10 +154,11 @@ public class AdminDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     public boolean delete(int id) throws SQLException {
-        String deleteAdmin = "DELETE FROM admins WHERE id = ?";
+        String deleteAdmin = "DELETE FROM admins WHERE id = ? AND club_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement adminStmt = conn.prepareStatement(deleteAdmin)) {
             adminStmt.setInt(1, id);
+            adminStmt.setInt(2, Tenant.current());
             int affectedRows = adminStmt.executeUpdate();
             if (affectedRows > 0) {
                 AuditLogger.logChange("admins", "DELETE", String.valueOf(id), "");
@@ -265,6 +184,7 @@ public class AdminDAO {
         admin.setLastName(rs.getString("last_name"));
         admin.setEmail(rs.getString("email"));
         admin.setRole(rs.getString("role"));
+        admin.setClubId(rs.getInt("club_id"));
         return admin;
     }
 
@@ -277,18 +197,19 @@ public class AdminDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     private boolean insert(Admin admin) throws SQLException {
-        String query = "INSERT INTO admins (username, password, first_name, last_name, email, role) VALUES (?, ?, ?, ?, ?, ?)";
+        String query = "INSERT INTO admins (username, password, first_name, last_name, email, role, club_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setString(1, admin.getUsername());
-            String hashedPwd = BCrypt.hashpw(admin.getPassword(), BCrypt.gensalt());
+            String hashedPwd = PasswordHasher.hash(admin.getPassword());
             stmt.setString(2, hashedPwd);
             stmt.setString(3, admin.getFirstName());
             stmt.setString(4, admin.getLastName());
             stmt.setString(5, admin.getEmail());
             stmt.setString(6, admin.getRole());
+            stmt.setInt(7, Tenant.current());
 
             int affectedRows = stmt.executeUpdate();
             if (affectedRows == 0) return false;
@@ -0,0 +1,331 @@
+package fr.hockey.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Journal des modifications de l'effectif (table {@code change_log}).
+ *
+ * <p>Chaque écriture des DAO sur les joueurs, licences, coachs et équipes ajoute une ligne
+ * au journal, dans la même transaction que la modification. L'identifiant auto-incrémenté de cette ligne
+ * sert de <i>watermark</i> monotone : un client qui a lu l'état de la base jusqu'au
+ * watermark N ne demande ensuite que les lignes modifiées après N
+ * ({@code findChangedSince} des DAO), suppressions comprises.</p>
+ *
+ * <p>Les noms d'entité sont ceux des tables ; {@code player_id} rattache une licence
+ * (ou un joueur) à son joueur, pour que le rafraîchissement des joueurs voie aussi
+ * les changements de licence.</p>
+ *
+ * <p>Chaque ligne porte aussi l'identifiant du poste qui l'a écrite ({@link #getOrigin()}) :
+ * le flux de modifications ignore ainsi les écritures locales, déjà diffusées sur place.</p>
+ *
+ * <p>Le journal est commun à tous les clubs, donc le watermark aussi, mais chaque ligne
+ * porte le club de la session qui l'a écrite. Les relectures des DAO ne voient que celles
+ * du club courant (index {@code idx_change_log_club}) ; {@link #readSince(long, long, int)} rend
+ * toutes les lignes, marquées {@link Entry#isCurrentClub()}, pour que la suite des
+ * identifiants reste continue.</p>
+ *
+ * <p>Un identifiant est attribué à l'insertion mais n'est visible qu'à la validation : une
+ * transaction plus lente peut valider l'identifiant N après que N+1 soit lu. Le watermark
+ * rendu aux clients est donc celui de {@link #safeWatermark(Connection, long)}, qui s'arrête
+ * devant le premier identifiant manquant tant que la ligne suivante a moins de
+ * {@link #GAP_GRACE_SECONDS} secondes (au-delà, la transaction est tenue pour annulée).</p>
+ */
+public final class ChangeLog {
+
+    static final String PLAYERS = "players";
+    static final String LICENSES = "licenses";
+    static final String COACHES = "coaches";
+    static final String COACH_TEAMS = "coach_teams";
+
+    /** Nombre maximal d'identifiants par clause IN lors de la relecture des lignes modifiées. */
+    static final int IN_CHUNK = 500;
+
+    /** Âge (horloge de la base) au-delà duquel un identifiant manquant est considéré comme abandonné. */
+    static final int GAP_GRACE_SECONDS = 30;
+
+    /** Lignes lues par requête lors de la recherche du watermark sûr. */
+    private static final int SCAN_BATCH = 500;
+
+    /** Identifiant de ce poste (une valeur par lancement de l'application). */
+    private static final String ORIGIN = UUID.randomUUID().toString();
+
+    private ChangeLog() {}
+
+    /**
+     * Ligne du journal.
+     */
+    public static final class Entry {
+        private final long id;
+        private final String entity;
+        private final boolean local;
+        private final boolean currentClub;
+
+        Entry(long id, String entity, boolean local, boolean currentClub) {
+            this.id = id;
+            this.entity = entity;
+            this.local = local;
+            this.currentClub = currentClub;
+        }
+
+        /** @return watermark de la modification */
+        public long getId() { return id; }
+
+        /** @return table modifiée */
+        public String getEntity() { return entity; }
+
+        /** @return true si la modification a été faite par ce poste */
+        public boolean isLocal() { return local; }
+
+        /** @return true si la modification concerne le club de la session */
+        public boolean isCurrentClub() { return currentClub; }
+
+        /** @return true pour un joueur ou une licence */
+        public boolean isPlayerChange() { return PLAYERS.equals(entity) || LICENSES.equals(entity); }
+
+        /** @return true pour un coach ou ses équipes */
+        public boolean isCoachChange() { return COACHES.equals(entity) || COACH_TEAMS.equals(entity); }
+    }
+
+    /** @return identifiant de ce poste dans la colonne {@code origin} */
+    public static String getOrigin() {
+        return ORIGIN;
+    }
+
+    /**
+     * Lit les lignes du journal postérieures à un watermark, dans l'ordre, tous clubs
+     * confondus : un identifiant manquant signale donc une transaction encore en cours
+     * (ou annulée), jamais l'écriture d'un autre club.
+     *
+     * @param watermark watermark exclu
+     * @param to        watermark inclus (en général {@link #safeWatermark(long)})
+     * @param limit     nombre maximal de lignes
+     * @return lignes lues
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public static List<Entry> readSince(long watermark, long to, int limit) throws SQLException {
+        String sql = "SELECT id, entity, origin, club_id FROM change_log WHERE id > ? AND id <= ? ORDER BY id LIMIT ?";
+        int club = Tenant.current();
+        List<Entry> entries = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, watermark);
+            ps.setLong(2, to);
+            ps.setInt(3, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(new Entry(rs.getLong("id"), rs.getString("entity"),
+                            ORIGIN.equals(rs.getString("origin")), rs.getInt("club_id") == club));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @return watermark courant (0 si le journal est vide)
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public static long currentWatermark() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return currentWatermark(conn);
+        }
+    }
+
+    static long currentWatermark(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT MAX(id) FROM change_log");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * @param from watermark déjà atteint
+     * @return watermark sûr au-delà de {@code from} (voir {@link #safeWatermark(Connection, long)})
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public static long safeWatermark(long from) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return safeWatermark(conn, from);
+        }
+    }
+
+    /**
+     * Plus grand watermark W &gt;= {@code from} tel qu'aucune transaction encore en cours ne
+     * puisse valider un identifiant &lt;= W : toutes les lignes jusqu'à W sont lisibles.
+     *
+     * <p>Un identifiant manquant sous une ligne écrite il y a plus de {@link #GAP_GRACE_SECONDS}
+     * secondes appartient à une transaction ouverte depuis au moins aussi longtemps : il est
+     * tenu pour annulé. Le journal est donc parcouru à rebours depuis la fin jusqu'à la
+     * première ligne assez ancienne (rien que les écritures récentes), puis les lignes
+     * récentes sont reprises dans l'ordre jusqu'au premier trou.</p>
+     *
+     * @param conn connexion
+     * @param from watermark déjà atteint
+     * @return watermark sûr, jamais inférieur à {@code from}
+     * @throws SQLException en cas d'erreur SQL
+     */
+    static long safeWatermark(Connection conn, long from) throws SQLException {
+        Timestamp settled;
+        try (PreparedStatement ps = conn.prepareStatement("SELECT CURRENT_TIMESTAMP");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            settled = new Timestamp(rs.getTimestamp(1).getTime() - GAP_GRACE_SECONDS * 1000L);
+        }
+
+        long safe = from;
+        Deque<Long> recent = new ArrayDeque<>();
+        String sql = "SELECT id, changed_at FROM change_log WHERE id > ? AND id < ? ORDER BY id DESC LIMIT ?";
+        long below = Long.MAX_VALUE;
+        scan:
+        while (true) {
+            int read = 0;
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setLong(1, from);
+                ps.setLong(2, below);
+                ps.setInt(3, SCAN_BATCH);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        read++;
+                        below = rs.getLong(1);
+                        Timestamp at = rs.getTimestamp(2);
+                        if (at == null || !at.after(settled)) {
+                            safe = below;
+                            break scan;
+                        }
+                        recent.addFirst(below);
+                    }
+                }
+            }
+            if (read < SCAN_BATCH) break;
+        }
+        for (long id : recent) {
+            if (id != safe + 1) break;
+            safe = id;
+        }
+        return safe;
+    }
+
+    /**
+     * Enregistre une modification (à appeler après l'écriture, sur la même connexion et
+     * avant la validation de la transaction).
+     *
+     * @param conn     connexion du DAO
+     * @param entity   table modifiée
+     * @param entityId identifiant de la ligne (du coach pour {@link #COACH_TEAMS})
+     * @param playerId joueur concerné, ou null
+     * @param deleted  true pour une suppression
+     * @throws SQLException en cas d'erreur SQL
+     */
+    static void record(Connection conn, String entity, int entityId, Integer playerId, boolean deleted) throws SQLException {
+        String sql = "INSERT INTO change_log (entity, entity_id, player_id, deleted, origin, club_id) VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, entity);
+            ps.setInt(2, entityId);
+            if (playerId != null) {
+                ps.setInt(3, playerId);
+            } else {
+                ps.setNull(3, Types.INTEGER);
+            }
+            ps.setBoolean(4, deleted);
+            ps.setString(5, ORIGIN);
+            ps.setInt(6, Tenant.current());
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Enregistre par lot une modification sur plusieurs lignes (imports et traitements de masse),
+     * dans les mêmes conditions que {@link #record}.
+     *
+     * @param conn      connexion du DAO
+     * @param entity    table modifiée
+     * @param entityIds identifiants des lignes
+     * @param playerIds joueur concerné par chaque ligne (même ordre que {@code entityIds}), ou null
+     * @param deleted   true pour des suppressions
+     * @throws SQLException en cas d'erreur SQL
+     */
+    static void recordAll(Connection conn, String entity, List<Integer> entityIds, List<Integer> playerIds,
+                          boolean deleted) throws SQLException {
+        if (entityIds.isEmpty()) return;
+        String sql = "INSERT INTO change_log (entity, entity_id, player_id, deleted, origin, club_id) VALUES (?, ?, ?, ?, ?, ?)";
+        int club = Tenant.current();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < entityIds.size(); i++) {
+                ps.setString(1, entity);
+                ps.setInt(2, entityIds.get(i));
+                if (playerIds != null) {
+                    ps.setInt(3, playerIds.get(i));
+                } else {
+                    ps.setNull(3, Types.INTEGER);
+                }
+                ps.setBoolean(4, deleted);
+                ps.setString(5, ORIGIN);
+                ps.setInt(6, club);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Identifiants modifiés par le club courant dans l'intervalle ]from, to], dans l'ordre du journal.
+     *
+     * @param conn   connexion
+     * @param column colonne renvoyée ({@code entity_id} ou {@code player_id})
+     * @param where  filtre sur les entités (fragment SQL constant)
+     * @param from   watermark exclu
+     * @param to     watermark inclus
+     * @return identifiants distincts
+     * @throws SQLException en cas d'erreur SQL
+     */
+    static Set<Integer> changedIds(Connection conn, String column, String where, long from, long to) throws SQLException {
+        String sql = "SELECT " + column + " FROM change_log WHERE club_id = ? AND id > ? AND id <= ? AND " + column +
+                " IS NOT NULL AND (" + where + ") ORDER BY id";
+        Set<Integer> ids = new LinkedHashSet<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, Tenant.current());
+            ps.setLong(2, from);
+            ps.setLong(3, to);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Découpe une liste d'identifiants pour des clauses IN de taille bornée.
+     */
+    static List<List<Integer>> chunks(Set<Integer> ids) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        List<Integer> current = new ArrayList<>(Math.min(ids.size(), IN_CHUNK));
+        for (Integer id : ids) {
+            current.add(id);
+            if (current.size() == IN_CHUNK) {
+                chunks.add(current);
+                current = new ArrayList<>(IN_CHUNK);
+            }
+        }
+        if (!current.isEmpty()) chunks.add(current);
+        return chunks;
+    }
+
+    /** @return "?, ?, …" pour n paramètres */
+    static String placeholders(int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) sb.append(i == 0 ? "?" : ", ?");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,31 @@
+package fr.hockey.dao;
+
+import fr.hockey.models.Club;
+
+import java.sql.*;
+
+/**
+ * DAO des clubs de la ligue (table {@code clubs}).
+ *
+ * <p>Seule table non rattachée à un club : les outils sans connexion (ligne de commande,
+ * serveur d'API) s'en servent pour vérifier le club demandé avant de le choisir comme
+ * club de la session.</p>
+ */
+public class ClubDAO {
+
+    /**
+     * @param id identifiant du club
+     * @return le club, ou null s'il n'existe pas
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public Club findById(int id) throws SQLException {
+        String sql = "SELECT id, name FROM clubs WHERE id = ?";
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? new Club(rs.getInt("id"), rs.getString("name")) : null;
+            }
+        }
+    }
+}
@@ -1,86 +1,77 @@
 package fr.hockey.dao;
 
+import fr.hockey.events.DomainEventBus;
+import fr.hockey.events.DomainEvents;
 import fr.hockey.models.Coach;
-import org.mindrot.jbcrypt.BCrypt;
 import fr.hockey.utils.AuditLogger;
+import fr.hockey.utils.PasswordHasher;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * DAO dédié à la gestion des coachs.
  * Permet :
- *  - authentification
  *  - récupération de tous les coachs
  *  - création / modification / suppression
  *  - gestion des équipes assignées à un coach
  *  - recherche par catégorie
+ *  - lecture des seuls coachs modifiés depuis un watermark ({@link ChangeLog})
+ *
+ * Les requêtes sont restreintes au club de la session ({@link Tenant}).
+ * L'authentification passe par {@link AccountDAO} : le nom d'utilisateur reste unique
+ * dans toute la base et c'est le compte qui désigne son club.
  */
 public class CoachDAO {
 
     /**
-     * Authentifie un coach via son username et password.
-     * Compare le mot de passe en clair avec le hash stocké (BCrypt).
+     * Retourne la liste de tous les coachs triés par nom et prénom.
      *
-     * @param username nom d'utilisateur
-     * @param password mot de passe en clair saisi par l'utilisateur
-     * @return Coach authentifié ou null si échec
+     * @return liste des coachs
      * @throws SQLException en cas d'erreur SQL
      */
-    public Coach authenticate(String username, String password) throws SQLException {
-        String sql = "SELECT id, first_name, last_name, username, email, password FROM coaches WHERE username = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
+    public List<Coach> findAll() throws SQLException {
+        String sql = "SELECT id, first_name, last_name, username, email FROM coaches WHERE club_id = ? " +
+                "ORDER BY last_name, first_name";
+        List<Coach> coaches = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, username);
-            Coach coach = null;
+            ps.setInt(1, Tenant.current());
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    String hashed = rs.getString("password");
-                    if (hashed != null && BCrypt.checkpw(password, hashed)) {
-                        coach = new Coach();
-                        coach.setId(rs.getInt("id"));
-                        coach.setFirstName(rs.getString("first_name"));
-                        coach.setLastName(rs.getString("last_name"));
-                        coach.setUsername(rs.getString("username"));
-                        coach.setEmail(rs.getString("email"));
-                    }
+                while (rs.next()) {
+                    Coach coach = new Coach();
+                    coach.setId(rs.getInt("id"));
+                    coach.setFirstName(rs.getString("first_name"));
+                    coach.setLastName(rs.getString("last_name"));
+                    coach.setUsername(rs.getString("username"));
+                    coach.setEmail(rs.getString("email"));
+                    coaches.add(coach);
                 }
             }
-            if (coach != null) {
-                coach.setTeams(loadTeamsForCoach(conn, coach.getId()));
+            // Charger les équipes après avoir fini de lire le ResultSet
+            for (Coach c : coaches) {
+                c.setTeams(loadTeamsForCoach(conn, c.getId()));
             }
-            return coach;
         }
+        return coaches;
     }
 
     /**
-     * Retourne la liste de tous les coachs triés par nom et prénom.
+     * Retourne les catégories (équipes) assignées à un coach.
      *
-     * @return liste des coachs
+     * @param coachId identifiant du coach
+     * @return liste des catégories entraînées par ce coach
      * @throws SQLException en cas d'erreur SQL
      */
-    public List<Coach> findAll() throws SQLException {
-        String sql = "SELECT id, first_name, last_name, username, email FROM coaches ORDER BY last_name, first_name";
-        List<Coach> coaches = new ArrayList<>();
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                Coach coach = new Coach();
-                coach.setId(rs.getInt("id"));
-                coach.setFirstName(rs.getString("first_name"));
-                coach.setLastName(rs.getString("last_name"));
-                coach.setUsername(rs.getString("username"));
-                coach.setEmail(rs.getString("email"));
-                coaches.add(coach);
-            }
-            // Charger les équipes après avoir fini de lire le ResultSet
-            for (Coach c : coaches) {
-                c.setTeams(loadTeamsForCoach(conn, c.getId()));
-            }
+    public List<String> findTeams(int coachId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getReadConnection()) {
+            return loadTeamsForCoach(conn, coachId);
         }
-        return coaches;
     }
 
     /**
@@ -92,10 +83,11 @@ public class CoachDAO {
      * @throws SQLException en cas d'erreur SQL
      */
     private List<String> loadTeamsForCoach(Connection conn, int coachId) throws SQLException {
-        String sql = "SELECT category FROM coach_teams WHERE coach_id = ? ORDER BY category";
+        String sql = "SELECT category FROM coach_teams WHERE club_id = ? AND coach_id = ? ORDER BY category";
         List<String> teams = new ArrayList<>();
         try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, coachId);
+            ps.setInt(1, Tenant.current());
+            ps.setInt(2, coachId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     teams.add(rs.getString("category"));
@@ -117,22 +109,27 @@ public class CoachDAO {
      * @throws SQLException en cas d'erreur SQL
      */
     public int createCoach(String username, String rawPassword, String firstName, String lastName, String email) throws SQLException {
-        String sql = "INSERT INTO coaches (first_name, last_name, username, email, password) VALUES (?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO coaches (first_name, last_name, username, email, password, club_id) VALUES (?, ?, ?, ?, ?, ?)";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            conn.setAutoCommit(false);
             ps.setString(1, firstName);
             ps.setString(2, lastName);
             ps.setString(3, username);
             ps.setString(4, email);
-            ps.setString(5, BCrypt.hashpw(rawPassword, BCrypt.gensalt()));
+            ps.setString(5, PasswordHasher.hash(rawPassword));
+            ps.setInt(6, Tenant.current());
             int affected = ps.executeUpdate();
             if (affected == 0) return -1;
             int newId = -1;
             try (ResultSet keys = ps.getGeneratedKeys()) {
                 if (keys.next()) newId = keys.getInt(1);
             }
+            ChangeLog.record(conn, ChangeLog.COACHES, newId, null, false);
+            conn.commit();
             AuditLogger.logChange("coaches", "INSERT", String.valueOf(newId),
                     String.format("first_name=%s,last_name=%s,username=%s,email=%s", firstName, lastName, username, email));
+            DomainEventBus.publish(new DomainEvents.CoachSaved(newId, firstName, lastName, username, email, true));
             return newId;
         }
     }
@@ -152,25 +149,33 @@ public class CoachDAO {
     public boolean updateCoach(int coachId, String username, String firstName, String lastName, String email, String newPasswordOrNull) throws SQLException {
         boolean updatePassword = newPasswordOrNull != null && !newPasswordOrNull.trim().isEmpty();
         String sql = updatePassword
-                ? "UPDATE coaches SET first_name = ?, last_name = ?, username = ?, email = ?, password = ? WHERE id = ?"
-                : "UPDATE coaches SET first_name = ?, last_name = ?, username = ?, email = ? WHERE id = ?";
+                ? "UPDATE coaches SET first_name = ?, last_name = ?, username = ?, email = ?, password = ?, " +
+                        "updated_at = CURRENT_TIMESTAMP, row_version = row_version + 1 WHERE id = ? AND club_id = ?"
+                : "UPDATE coaches SET first_name = ?, last_name = ?, username = ?, email = ?, " +
+                        "updated_at = CURRENT_TIMESTAMP, row_version = row_version + 1 WHERE id = ? AND club_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
             ps.setString(1, firstName);
             ps.setString(2, lastName);
             ps.setString(3, username);
             ps.setString(4, email);
             if (updatePassword) {
-                ps.setString(5, BCrypt.hashpw(newPasswordOrNull, BCrypt.gensalt()));
+                ps.setString(5, PasswordHasher.hash(newPasswordOrNull));
                 ps.setInt(6, coachId);
+                ps.setInt(7, Tenant.current());
             } else {
                 ps.setInt(5, coachId);
+                ps.setInt(6, Tenant.current());
             }
             boolean ok = ps.executeUpdate() == 1;
             if (ok) {
+                ChangeLog.record(conn, ChangeLog.COACHES, coachId, null, false);
+                conn.commit();
                 AuditLogger.logChange("coaches", "UPDATE", String.valueOf(coachId),
                         String.format("first_name=%s,last_name=%s,username=%s,email=%s%s", firstName, lastName, username, email,
                                 updatePassword ? ",password=UPDATED" : ""));
+                DomainEventBus.publish(new DomainEvents.CoachSaved(coachId, firstName, lastName, username, email, false));
             }
             return ok;
         }
@@ -184,13 +189,18 @@ public class CoachDAO {
      * @throws SQLException en cas d'erreur SQL
      */
     public boolean deleteById(int coachId) throws SQLException {
-        String sql = "DELETE FROM coaches WHERE id = ?";
+        String sql = "DELETE FROM coaches WHERE id = ? AND club_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
             ps.setInt(1, coachId);
+            ps.setInt(2, Tenant.current());
             boolean ok = ps.executeUpdate() == 1;
             if (ok) {
+                ChangeLog.record(conn, ChangeLog.COACHES, coachId, null, true);
+                conn.commit();
                 AuditLogger.logChange("coaches", "DELETE", String.valueOf(coachId), "");
+                DomainEventBus.publish(new DomainEvents.CoachDeleted(coachId));
             }
             return ok;
         }
@@ -205,14 +215,19 @@ public class CoachDAO {
      * @throws SQLException en cas d'erreur SQL
      */
     public boolean addTeam(int coachId, String category) throws SQLException {
-        String sql = "INSERT INTO coach_teams (coach_id, category) VALUES (?, ?)";
+        String sql = "INSERT INTO coach_teams (coach_id, category, club_id) VALUES (?, ?, ?)";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
             ps.setInt(1, coachId);
             ps.setString(2, category);
+            ps.setInt(3, Tenant.current());
             boolean ok = ps.executeUpdate() == 1;
             if (ok) {
+                ChangeLog.record(conn, ChangeLog.COACH_TEAMS, coachId, null, false);
+                conn.commit();
                 AuditLogger.logChange("coach_teams", "INSERT", "coach_id=" + coachId, "category=" + category);
+                DomainEventBus.publish(DomainEvents.CoachTeamsChanged.added(coachId, category));
             }
             return ok;
         }
@@ -226,16 +241,70 @@ public class CoachDAO {
      * @throws SQLException en cas d'erreur SQL
      */
     public boolean deleteTeams(int coachId) throws SQLException {
-        String sql = "DELETE FROM coach_teams WHERE coach_id = ?";
+        String sql = "DELETE FROM coach_teams WHERE club_id = ? AND coach_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, coachId);
+            conn.setAutoCommit(false);
+            ps.setInt(1, Tenant.current());
+            ps.setInt(2, coachId);
             ps.executeUpdate();
+            ChangeLog.record(conn, ChangeLog.COACH_TEAMS, coachId, null, true);
+            conn.commit();
             AuditLogger.logChange("coach_teams", "DELETE_ALL", "coach_id=" + coachId, "");
+            DomainEventBus.publish(DomainEvents.CoachTeamsChanged.cleared(coachId));
             return true;
         }
     }
 
+    /**
+     * Retourne les coachs modifiés depuis un watermark (fiche ou équipes).
+     *
+     * @param watermark watermark du précédent appel (0 pour tout le journal)
+     * @return coachs modifiés (avec leurs équipes), identifiants supprimés et nouveau watermark
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public Delta<Coach> findChangedSince(long watermark) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            long to = ChangeLog.safeWatermark(conn, watermark);
+            Set<Integer> ids = ChangeLog.changedIds(conn, "entity_id",
+                    "entity IN ('" + ChangeLog.COACHES + "', '" + ChangeLog.COACH_TEAMS + "')", watermark, to);
+
+            List<Coach> changed = new ArrayList<>();
+            Set<Integer> deleted = new LinkedHashSet<>(ids);
+            for (List<Integer> chunk : ChangeLog.chunks(ids)) {
+                String in = ChangeLog.placeholders(chunk.size());
+                Map<Integer, Coach> byId = new HashMap<>();
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "SELECT id, first_name, last_name, username, email FROM coaches WHERE club_id = ? AND id IN (" + in + ")")) {
+                    ps.setInt(1, Tenant.current());
+                    for (int i = 0; i < chunk.size(); i++) ps.setInt(i + 2, chunk.get(i));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            Coach coach = new Coach(rs.getInt("id"), rs.getString("first_name"), rs.getString("last_name"),
+                                    rs.getString("username"), rs.getString("email"));
+                            coach.setTeams(new ArrayList<>());
+                            byId.put(coach.getId(), coach);
+                            changed.add(coach);
+                            deleted.remove(coach.getId());
+                        }
+                    }
+                }
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "SELECT coach_id, category FROM coach_teams WHERE club_id = ? AND coach_id IN (" + in + ") ORDER BY category")) {
+                    ps.setInt(1, Tenant.current());
+                    for (int i = 0; i < chunk.size(); i++) ps.setInt(i + 2, chunk.get(i));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            Coach coach = byId.get(rs.getInt("coach_id"));
+                            if (coach != null) coach.getTeams().add(rs.getString("category"));
+                        }
+                    }
+                }
+            }
+            return new Delta<>(changed, deleted, to);
+        }
+    }
+
     /**
      * Recherche tous les coachs associés à une catégorie donnée.
      *
@@ -246,11 +315,12 @@ public class CoachDAO {
     public List<Coach> findByCategory(String category) throws SQLException {
         String sql = "SELECT c.id, c.first_name, c.last_name, c.username, c.email " +
                 "FROM coaches c INNER JOIN coach_teams ct ON ct.coach_id = c.id " +
-                "WHERE ct.category = ? ORDER BY c.last_name, c.first_name";
+                "WHERE ct.club_id = ? AND ct.category = ? ORDER BY c.last_name, c.first_name";
         List<Coach> coaches = new ArrayList<>();
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, category);
+            ps.setInt(1, Tenant.current());
+            ps.setString(2, category);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     Coach coach = new Coach();
@@ -0,0 +1,769 @@
+package fr.hockey.dao;
+
+import fr.hockey.utils.AuditLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Sauvegarde et restauration des données d'un club et des journaux d'audit.
+ *
+ * <p><b>Périmètre.</b> Seules les lignes du club de la session ({@link Tenant}) sont lues
+ * ({@code WHERE club_id = ?}) ; la table {@code clubs} et les données des autres clubs ne sont
+ * ni sauvegardées ni touchées par une restauration. Le club est inscrit dans l'en-tête : une
+ * sauvegarde ne peut être restaurée que pour ce club.</p>
+ *
+ * <p><b>Sauvegarde.</b> Les tables sont lues en parallèle sur quelques connexions, chacune dans
+ * une transaction en lecture répétable. Sur MySQL, ces transactions sont ouvertes par
+ * {@code START TRANSACTION WITH CONSISTENT SNAPSHOT} pendant un bref
+ * {@code FLUSH TABLES WITH READ LOCK} : toutes les lectures voient alors le même état de la base.
+ * Sans ce verrou (autre SGBD, ou privilège {@code RELOAD} absent), seul le watermark du
+ * {@link ChangeLog} lu en début de transaction est comparé : il ne détecte que les écritures
+ * journalisées (joueurs, licences, coachs), pas celles des autres tables, et la sauvegarde est
+ * recommencée s'ils diffèrent. Les lignes sont encodées en binaire, compressées et
+ * accompagnées d'une somme de contrôle CRC32C par section.</p>
+ *
+ * <p><b>Restauration.</b> Les sommes de contrôle et le club sont vérifiés avant toute écriture.
+ * Les lignes du club sont supprimées puis réinsérées par lots dans une seule transaction,
+ * contraintes de clés étrangères suspendues. Les index, partagés avec les autres clubs,
+ * sont conservés.
+ * Les joueurs et coachs restaurés (ou disparus) sont inscrits au journal des modifications
+ * pour que les postes ouverts se mettent à jour. Les journaux d'audit, communs à tous les
+ * clubs, restent dans l'archive sans être restaurés.</p>
+ *
+ * <p>Format du fichier : en-tête ({@code HCMBAK}, version, date, watermark, club, nombre de
+ * sections) puis, pour chaque table ou fichier journal : type, nom, nombre de lignes,
+ * taille compressée, CRC32C et données compressées (deflate).</p>
+ */
+public final class DatabaseBackup {
+
+    /** Tables sauvegardées (toutes portent {@code club_id}), dans l'ordre de restauration. */
+    static final String[] TABLES = {
+            "admins", "coaches", "coach_teams", "category_fees", "players", "licenses", "legal_informations",
+            "practice_sessions", "ice_slots", "ice_demands"
+    };
+    /** Journaux sauvegardés, s'ils existent. */
+    static final String[] LOG_FILES = {"audit.log", "login.log"};
+
+    private static final byte[] MAGIC = "HCMBAK".getBytes(StandardCharsets.US_ASCII);
+    private static final short VERSION = 2;
+    private static final byte SECTION_TABLE = 1;
+    private static final byte SECTION_FILE = 2;
+
+    /** Connexions lues en parallèle. */
+    private static final int PARALLELISM = 4;
+    /** Tentatives avant d'abandonner si les lectures ne forment pas un instantané cohérent. */
+    private static final int MAX_ATTEMPTS = 3;
+    /** Taille des lots d'insertion à la restauration. */
+    private static final int BATCH = 1_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** Code d'erreur MySQL d'un privilège manquant (ici {@code RELOAD}). */
+    private static final int ER_SPECIFIC_ACCESS_DENIED = 1227;
+
+    // Types de valeurs encodées
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte DECIMAL = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte STRING = 5;
+    private static final byte DATE = 6;
+    private static final byte TIMESTAMP = 7;
+    private static final byte BYTES = 8;
+
+    private final Path logDir;
+
+    /**
+     * @param logDir dossier des journaux d'audit à inclure
+     */
+    public DatabaseBackup(Path logDir) {
+        this.logDir = logDir;
+    }
+
+    /** @return sauvegarde des journaux du dossier de l'application ({@code ~/.hockeyclubmanager}) */
+    public static DatabaseBackup withDefaultLogDir() {
+        return new DatabaseBackup(Paths.get(System.getProperty("user.home"), ".hockeyclubmanager"));
+    }
+
+    /**
+     * Bilan d'une sauvegarde ou d'une restauration.
+     */
+    public static final class Summary {
+        private final int tables;
+        private final long rows;
+        private final int files;
+        private final long watermark;
+        private final long millis;
+
+        Summary(int tables, long rows, int files, long watermark, long millis) {
+            this.tables = tables;
+            this.rows = rows;
+            this.files = files;
+            this.watermark = watermark;
+            this.millis = millis;
+        }
+
+        /** @return nombre de tables */
+        public int getTables() { return tables; }
+
+        /** @return nombre total de lignes */
+        public long getRows() { return rows; }
+
+        /** @return nombre de journaux sauvegardés (0 pour une restauration) */
+        public int getFiles() { return files; }
+
+        /** @return watermark du journal des modifications au moment de l'instantané */
+        public long getWatermark() { return watermark; }
+
+        /** @return durée de l'opération */
+        public long getMillis() { return millis; }
+    }
+
+    /** Section écrite par un lecteur dans un fichier temporaire. */
+    private static final class Section {
+        final byte kind;
+        final String name;
+        /** Lignes d'une table, octets d'un journal. */
+        long rows;
+        long watermark;
+        Path data;
+        long length;
+        int crc;
+
+        Section(byte kind, String name) {
+            this.kind = kind;
+            this.name = name;
+        }
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Sauvegarde
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Sauvegarde la base et les journaux dans un fichier (remplacé de façon atomique).
+     *
+     * @param file fichier de sauvegarde
+     * @return bilan
+     * @throws SQLException en cas d'erreur SQL ou si aucun instantané cohérent n'a pu être lu
+     * @throws IOException  en cas d'erreur d'écriture
+     */
+    public Summary backup(Path file) throws SQLException, IOException {
+        long start = System.nanoTime();
+        int club = Tenant.current();
+        List<String> tables = existingTables();
+        for (int attempt = 1; ; attempt++) {
+            List<Section> sections = dumpTables(tables, club);
+            try {
+                long watermark = sections.isEmpty() ? 0 : sections.get(0).watermark;
+                boolean consistent = sections.stream().allMatch(s -> s.watermark == watermark);
+                if (!consistent) {
+                    if (attempt < MAX_ATTEMPTS) continue;
+                    throw new SQLException("Impossible d'obtenir un instantané cohérent après " + MAX_ATTEMPTS + " tentatives");
+                }
+                int files = 0;
+                for (String name : LOG_FILES) {
+                    Path log = logDir.resolve(name);
+                    if (Files.isRegularFile(log)) {
+                        sections.add(dumpFile(log));
+                        files++;
+                    }
+                }
+                writeArchive(file, sections, watermark, club);
+                long rows = sections.stream().filter(s -> s.kind == SECTION_TABLE).mapToLong(s -> s.rows).sum();
+                return new Summary(tables.size(), rows, files, watermark, (System.nanoTime() - start) / 1_000_000);
+            } finally {
+                for (Section s : sections) Files.deleteIfExists(s.data);
+            }
+        }
+    }
+
+    private List<String> existingTables() throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getServerConnection()) {
+            for (String table : TABLES) {
+                if (tableExists(conn, table)) tables.add(table);
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Lit les tables en parallèle : chaque lecteur possède sa connexion et sa transaction, et
+     * traite les tables qui restent à lire. Les sections sont rendues dans l'ordre de {@code tables}.
+     */
+    private List<Section> dumpTables(List<String> tables, int club) throws SQLException, IOException {
+        int readers = Math.max(1, Math.min(PARALLELISM, tables.size()));
+        List<Connection> connections = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(readers, r -> {
+            Thread t = new Thread(r, "backup");
+            t.setDaemon(true);
+            return t;
+        });
+        Map<String, Section> done = new ConcurrentHashMap<>();
+        try {
+            for (int i = 0; i < readers; i++) {
+                Connection conn = DatabaseConnection.getServerConnection();
+                connections.add(conn);
+                conn.setAutoCommit(false);
+                conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            }
+            startSnapshot(connections);
+
+            Queue<String> pending = new ConcurrentLinkedQueue<>(tables);
+            List<Future<?>> futures = new ArrayList<>();
+            for (Connection conn : connections) {
+                futures.add(pool.submit(() -> {
+                    // Première lecture de la transaction : fixe l'instantané
+                    long watermark = ChangeLog.currentWatermark(conn);
+                    for (String table; (table = pending.poll()) != null; ) {
+                        Section section = dumpTable(conn, table, club);
+                        section.watermark = watermark;
+                        done.put(table, section);
+                    }
+                    return null;
+                }));
+            }
+            Exception failure = null;
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) failure = (Exception) e.getCause();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    if (failure == null) failure = new IOException("Sauvegarde interrompue", e);
+                }
+            }
+            if (failure != null) {
+                for (Section s : done.values()) Files.deleteIfExists(s.data);
+                if (failure instanceof SQLException) throw (SQLException) failure;
+                if (failure instanceof IOException) throw (IOException) failure;
+                throw new IOException(failure);
+            }
+            List<Section> sections = new ArrayList<>();
+            for (String table : tables) sections.add(done.get(table));
+            return sections;
+        } finally {
+            pool.shutdownNow();
+            for (Connection conn : connections) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ignored) {
+                    // la connexion est rendue (ou fermée) ci-dessous
+                }
+                conn.close();
+            }
+        }
+    }
+
+    /**
+     * Sur MySQL, ouvre sur chaque connexion un instantané InnoDB pendant que les écritures sont
+     * bloquées par {@code FLUSH TABLES WITH READ LOCK} : les lecteurs partagent alors le même état.
+     *
+     * @return false si le verrou n'est pas disponible (autre SGBD ou privilège manquant)
+     */
+    private static boolean startSnapshot(List<Connection> readers) throws SQLException {
+        if (!isMySql(readers.get(0))) return false;
+        try (Connection lock = DatabaseConnection.getServerConnection();
+             Statement st = lock.createStatement()) {
+            try {
+                st.execute("FLUSH TABLES WITH READ LOCK");
+            } catch (SQLException e) {
+                if (e.getErrorCode() == ER_SPECIFIC_ACCESS_DENIED) return false;
+                throw e;
+            }
+            try {
+                for (Connection conn : readers) {
+                    try (Statement begin = conn.createStatement()) {
+                        begin.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT");
+                    }
+                }
+            } finally {
+                st.execute("UNLOCK TABLES");
+            }
+        }
+        return true;
+    }
+
+    private Section dumpTable(Connection conn, String table, int club) throws SQLException, IOException {
+        Section section = new Section(SECTION_TABLE, table);
+        section.data = Files.createTempFile("hcm-" + table, ".part");
+        try (PreparedStatement ps = conn.prepareStatement("SELECT * FROM " + table + " WHERE club_id = ?",
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(isMySql(conn) ? Integer.MIN_VALUE : BATCH);
+            ps.setInt(1, club);
+            try (ResultSet rs = ps.executeQuery();
+                 CompressedOut out = new CompressedOut(section.data)) {
+                ResultSetMetaData md = rs.getMetaData();
+                int n = md.getColumnCount();
+                int[] types = new int[n];
+                out.data.writeShort(n);
+                for (int i = 0; i < n; i++) {
+                    types[i] = md.getColumnType(i + 1);
+                    writeString(out.data, md.getColumnLabel(i + 1).toLowerCase(Locale.ROOT));
+                }
+                while (rs.next()) {
+                    for (int i = 0; i < n; i++) writeValue(out.data, rs, i + 1, types[i]);
+                    section.rows++;
+                }
+                out.finish(section);
+            }
+        } catch (SQLException | IOException | RuntimeException e) {
+            Files.deleteIfExists(section.data);
+            throw e;
+        }
+        return section;
+    }
+
+    private static Section dumpFile(Path file) throws IOException {
+        Section section = new Section(SECTION_FILE, file.getFileName().toString());
+        section.data = Files.createTempFile("hcm-log", ".part");
+        try (CompressedOut out = new CompressedOut(section.data)) {
+            section.rows = Files.copy(file, out.data);
+            out.finish(section);
+        }
+        return section;
+    }
+
+    private static void writeArchive(Path file, List<Section> sections, long watermark, int club) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+            out.write(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeLong(watermark);
+            out.writeInt(club);
+            out.writeInt(sections.size());
+            for (Section s : sections) {
+                out.writeByte(s.kind);
+                writeString(out, s.name);
+                out.writeLong(s.rows);
+                out.writeLong(s.length);
+                out.writeInt(s.crc);
+                out.flush();
+                try (FileChannel part = FileChannel.open(s.data, StandardOpenOption.READ)) {
+                    long pos = 0;
+                    while (pos < s.length) pos += part.transferTo(pos, s.length - pos, channel);
+                }
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Restauration
+    // ---------------------------------------------------------------------------------
+
+    /** Section lue dans l'archive : position des données compressées. */
+    private static final class Entry {
+        byte kind;
+        String name;
+        long rows;
+        long offset;
+        long length;
+    }
+
+    /**
+     * Remplace les données du club de la session par celles d'une sauvegarde de ce même club.
+     * Les journaux de l'archive ne sont pas restaurés : communs à tous les clubs, ils
+     * effaceraient l'historique des autres ; ils restent consultables dans l'archive.
+     *
+     * @param file fichier de sauvegarde
+     * @return bilan
+     * @throws SQLException en cas d'erreur SQL (les données sont alors inchangées)
+     * @throws IOException  si le fichier est illisible, corrompu ou d'un autre club
+     */
+    public Summary restore(Path file) throws SQLException, IOException {
+        long start = System.nanoTime();
+        long watermark;
+        List<Entry> entries = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int club = Tenant.current();
+            watermark = readIndex(channel, entries, club);
+
+            int tables = 0;
+            long rows = 0;
+            try (Connection conn = DatabaseConnection.getServerConnection()) {
+                List<Entry> tableEntries = new ArrayList<>();
+                for (Entry e : entries) {
+                    if (e.kind != SECTION_TABLE) continue;
+                    if (!tableExists(conn, e.name)) throw new SQLException("Table absente de la base : " + e.name);
+                    tableEntries.add(e);
+                }
+                rows = restoreTables(conn, channel, tableEntries, club);
+                tables = tableEntries.size();
+            }
+
+            AuditLogger.logChange("database", "RESTORE", file.getFileName().toString(),
+                    String.format("club=%d,tables=%d,rows=%d,watermark=%d", club, tables, rows, watermark));
+            return new Summary(tables, rows, 0, watermark, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /** Lit l'en-tête, vérifie le club puis les sommes de contrôle de toutes les sections. */
+    private static long readIndex(FileChannel channel, List<Entry> entries, int club) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(0)), BUFFER_SIZE));
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) throw new IOException("Ce fichier n'est pas une sauvegarde du club");
+        short version = in.readShort();
+        if (version != VERSION) throw new IOException("Version de sauvegarde non prise en charge : " + version);
+        in.readLong(); // date de création
+        long watermark = in.readLong();
+        int owner = in.readInt();
+        if (owner != club) throw new IOException("Cette sauvegarde appartient au club " + owner + ", pas au club " + club);
+        int count = in.readInt();
+        long offset = MAGIC.length + 2 + 8 + 8 + 4 + 4;
+        for (int i = 0; i < count; i++) {
+            Entry e = new Entry();
+            e.kind = in.readByte();
+            byte[] name = readBytes(in);
+            e.name = new String(name, StandardCharsets.UTF_8);
+            e.rows = in.readLong();
+            e.length = in.readLong();
+            int crc = in.readInt();
+            e.offset = offset + 1 + 4 + name.length + 8 + 8 + 4;
+
+            CRC32C actual = new CRC32C();
+            byte[] buf = new byte[BUFFER_SIZE];
+            long remaining = e.length;
+            while (remaining > 0) {
+                int r = in.read(buf, 0, (int) Math.min(buf.length, remaining));
+                if (r < 0) throw new EOFException("Sauvegarde tronquée (" + e.name + ")");
+                actual.update(buf, 0, r);
+                remaining -= r;
+            }
+            if ((int) actual.getValue() != crc) throw new IOException("Somme de contrôle invalide pour « " + e.name + " »");
+            entries.add(e);
+            offset = e.offset + e.length;
+        }
+        return watermark;
+    }
+
+    private long restoreTables(Connection conn, FileChannel channel, List<Entry> entries, int club) throws SQLException, IOException {
+        boolean mysql = isMySql(conn);
+        Set<String> names = new HashSet<>();
+        for (Entry e : entries) names.add(e.name);
+        List<Integer> playersBefore = names.contains("players") ? ids(conn, "players", club) : List.of();
+        List<Integer> coachesBefore = names.contains("coaches") ? ids(conn, "coaches", club) : List.of();
+
+        try (Statement st = conn.createStatement()) {
+            st.execute(mysql ? "SET FOREIGN_KEY_CHECKS = 0" : "SET REFERENTIAL_INTEGRITY FALSE");
+            if (mysql) st.execute("SET UNIQUE_CHECKS = 0");
+        }
+        long rows = 0;
+        try {
+            conn.setAutoCommit(false);
+            for (Entry e : entries) {
+                try (PreparedStatement ps = conn.prepareStatement("DELETE FROM " + e.name + " WHERE club_id = ?")) {
+                    ps.setInt(1, club);
+                    ps.executeUpdate();
+                }
+                rows += loadTable(conn, channel, e);
+            }
+            if (names.contains("players")) recordRestored(conn, ChangeLog.PLAYERS, playersBefore, ids(conn, "players", club), true);
+            if (names.contains("coaches")) recordRestored(conn, ChangeLog.COACHES, coachesBefore, ids(conn, "coaches", club), false);
+            conn.commit();
+        } catch (SQLException | IOException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+            try (Statement st = conn.createStatement()) {
+                st.execute(mysql ? "SET FOREIGN_KEY_CHECKS = 1" : "SET REFERENTIAL_INTEGRITY TRUE");
+                if (mysql) st.execute("SET UNIQUE_CHECKS = 1");
+            }
+        }
+        if (!mysql) {
+            // H2 n'avance pas ses compteurs d'identité sur des identifiants explicites
+            for (Entry e : entries) restartIdentity(conn, e.name);
+        }
+        return rows;
+    }
+
+    private long loadTable(Connection conn, FileChannel channel, Entry e) throws SQLException, IOException {
+        try (DataInputStream in = section(channel, e)) {
+            int n = in.readUnsignedShort();
+            String[] columns = new String[n];
+            for (int i = 0; i < n; i++) columns[i] = new String(readBytes(in), StandardCharsets.UTF_8);
+            String sql = "INSERT INTO " + e.name + " (" + String.join(", ", columns) + ") VALUES ("
+                    + ChangeLog.placeholders(n) + ")";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (long row = 0; row < e.rows; row++) {
+                    for (int i = 0; i < n; i++) readValue(in, ps, i + 1);
+                    ps.addBatch();
+                    if ((row + 1) % BATCH == 0) ps.executeBatch();
+                }
+                ps.executeBatch();
+            }
+        }
+        return e.rows;
+    }
+
+    /** Journalise les joueurs ou coachs restaurés, et ceux qui ont disparu. */
+    private static void recordRestored(Connection conn, String entity, List<Integer> before, List<Integer> after,
+                                       boolean withPlayerId) throws SQLException {
+        Set<Integer> kept = new HashSet<>(after);
+        List<Integer> removed = new ArrayList<>();
+        for (Integer id : before) if (!kept.contains(id)) removed.add(id);
+        ChangeLog.recordAll(conn, entity, after, withPlayerId ? after : null, false);
+        ChangeLog.recordAll(conn, entity, removed, withPlayerId ? removed : null, true);
+    }
+
+    private static List<Integer> ids(Connection conn, String table, int club) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement("SELECT id FROM " + table + " WHERE club_id = ?")) {
+            ps.setInt(1, club);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    private static void restartIdentity(Connection conn, String table) throws SQLException {
+        long next;
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            next = rs.getLong(1);
+        }
+        try (Statement st = conn.createStatement()) {
+            st.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        }
+    }
+
+    /** @return flux décompressé des données d'une section */
+    private static DataInputStream section(FileChannel channel, Entry e) throws IOException {
+        InputStream raw = new Bounded(Channels.newInputStream(channel.position(e.offset)), e.length);
+        return new DataInputStream(new BufferedInputStream(new InflaterInputStream(raw), BUFFER_SIZE));
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Encodage
+    // ---------------------------------------------------------------------------------
+
+    private static void writeValue(DataOutputStream out, ResultSet rs, int col, int type) throws SQLException, IOException {
+        switch (type) {
+            case Types.TINYINT: case Types.SMALLINT: case Types.INTEGER: case Types.BIGINT: {
+                long v = rs.getLong(col);
+                if (rs.wasNull()) { out.writeByte(NULL); return; }
+                out.writeByte(LONG);
+                out.writeLong(v);
+                return;
+            }
+            case Types.BIT: case Types.BOOLEAN: {
+                boolean v = rs.getBoolean(col);
+                if (rs.wasNull()) { out.writeByte(NULL); return; }
+                out.writeByte(BOOLEAN);
+                out.writeBoolean(v);
+                return;
+            }
+            case Types.DECIMAL: case Types.NUMERIC: {
+                BigDecimal v = rs.getBigDecimal(col);
+                if (v == null) { out.writeByte(NULL); return; }
+                out.writeByte(DECIMAL);
+                writeString(out, v.toPlainString());
+                return;
+            }
+            case Types.FLOAT: case Types.REAL: case Types.DOUBLE: {
+                double v = rs.getDouble(col);
+                if (rs.wasNull()) { out.writeByte(NULL); return; }
+                out.writeByte(DOUBLE);
+                out.writeDouble(v);
+                return;
+            }
+            case Types.DATE: {
+                java.sql.Date v = rs.getDate(col);
+                if (v == null) { out.writeByte(NULL); return; }
+                out.writeByte(DATE);
+                out.writeLong(v.toLocalDate().toEpochDay());
+                return;
+            }
+            case Types.TIMESTAMP: case Types.TIMESTAMP_WITH_TIMEZONE: {
+                Timestamp v = rs.getTimestamp(col);
+                if (v == null) { out.writeByte(NULL); return; }
+                out.writeByte(TIMESTAMP);
+                writeString(out, v.toLocalDateTime().toString());
+                return;
+            }
+            case Types.BINARY: case Types.VARBINARY: case Types.LONGVARBINARY: case Types.BLOB: {
+                byte[] v = rs.getBytes(col);
+                if (v == null) { out.writeByte(NULL); return; }
+                out.writeByte(BYTES);
+                out.writeInt(v.length);
+                out.write(v);
+                return;
+            }
+            default: {
+                String v = rs.getString(col);
+                if (v == null) { out.writeByte(NULL); return; }
+                out.writeByte(STRING);
+                writeString(out, v);
+            }
+        }
+    }
+
+    private static void readValue(DataInputStream in, PreparedStatement ps, int col) throws SQLException, IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL: ps.setObject(col, null); break;
+            case LONG: ps.setLong(col, in.readLong()); break;
+            case BOOLEAN: ps.setBoolean(col, in.readBoolean()); break;
+            case DECIMAL: ps.setBigDecimal(col, new BigDecimal(new String(readBytes(in), StandardCharsets.UTF_8))); break;
+            case DOUBLE: ps.setDouble(col, in.readDouble()); break;
+            case STRING: ps.setString(col, new String(readBytes(in), StandardCharsets.UTF_8)); break;
+            case DATE: ps.setDate(col, java.sql.Date.valueOf(LocalDate.ofEpochDay(in.readLong()))); break;
+            case TIMESTAMP:
+                ps.setTimestamp(col, Timestamp.valueOf(LocalDateTime.parse(new String(readBytes(in), StandardCharsets.UTF_8))));
+                break;
+            case BYTES: {
+                byte[] v = new byte[in.readInt()];
+                in.readFully(v);
+                ps.setBytes(col, v);
+                break;
+            }
+            default: throw new IOException("Valeur inconnue dans la sauvegarde : " + tag);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] b = new byte[in.readInt()];
+        in.readFully(b);
+        return b;
+    }
+
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        DatabaseMetaData md = conn.getMetaData();
+        for (String name : new String[]{table, table.toUpperCase(Locale.ROOT)}) {
+            try (ResultSet rs = md.getTables(conn.getCatalog(), null, name, new String[]{"TABLE", "BASE TABLE"})) {
+                if (rs.next()) return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isMySql(Connection conn) throws SQLException {
+        return conn.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+    }
+
+    /** Écriture compressée d'une section dans un fichier temporaire, avec CRC32C des octets compressés. */
+    private static final class CompressedOut implements AutoCloseable {
+        private final CheckedOutputStream checked;
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final DeflaterOutputStream deflated;
+        final DataOutputStream data;
+
+        CompressedOut(Path path) throws IOException {
+            // Pas de tampon entre le CRC et le fichier : la taille sur disque est exacte après flush
+            checked = new CheckedOutputStream(Files.newOutputStream(path), new CRC32C());
+            deflated = new DeflaterOutputStream(checked, deflater, BUFFER_SIZE);
+            data = new DataOutputStream(new BufferedOutputStream(deflated, BUFFER_SIZE));
+        }
+
+        /** Termine la compression et renseigne la taille et le CRC de la section. */
+        void finish(Section section) throws IOException {
+            data.flush();
+            deflated.finish();
+            checked.flush();
+            section.length = Files.size(section.data);
+            section.crc = (int) checked.getChecksum().getValue();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                data.close();
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    /** Limite la lecture aux octets d'une section. */
+    private static final class Bounded extends FilterInputStream {
+        private long remaining;
+
+        Bounded(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+            int b = super.read();
+            if (b >= 0) remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) return -1;
+            int r = super.read(b, off, (int) Math.min(len, remaining));
+            if (r > 0) remaining -= r;
+            return r;
+        }
+
+        @Override
+        public void close() {
+            // Le canal appartient à l'appelant
+        }
+    }
+}
@@ -3,19 +3,31 @@ package fr.hockey.dao;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Gestion centralisée de la connexion à la base MySQL.
  * <p>
- * Ce composant implémente un singleton basique permettant
- * de réutiliser la même connexion JDBC tant qu'elle reste ouverte.
+ * Ce composant conserve un petit réservoir de connexions JDBC ouvertes :
+ * lorsqu'un DAO ferme sa connexion (try-with-resources), la connexion physique
+ * est rendue au réservoir au lieu d'être fermée, puis réutilisée par l'appel suivant.
+ * Chaque thread (interface, préchargement en arrière-plan…) obtient ainsi
+ * sa propre connexion. Le nombre de connexions au serveur utilisées en même temps est
+ * borné ({@value #MAX_OPEN_PROPERTY}) : au-delà, l'appelant attend qu'une connexion
+ * soit rendue, au lieu d'épuiser le {@code max_connections} de MySQL.
  * </p>
  *
  * <ul>
  *     <li>Chargement du driver MySQL</li>
- *     <li>Ouverture automatique de la connexion au premier appel</li>
- *     <li>Réutilisation de la connexion si elle est encore ouverte</li>
+ *     <li>Ouverture automatique d'une connexion lorsque le réservoir est vide</li>
+ *     <li>Réutilisation des connexions rendues si elles sont encore valides</li>
  *     <li>Fermeture manuelle possible via {@link #closeConnection()}</li>
+ *     <li>Bascule sur la réplique locale ({@link LocalReplica}) lorsque le serveur est injoignable</li>
  * </ul>
  */
 public class DatabaseConnection {
@@ -29,8 +41,43 @@ public class DatabaseConnection {
     /** Mot de passe MySQL. */
     private static final String PASSWORD = "";
 
-    /** Connexion partagée (singleton). */
-    private static Connection connection;
+    /**
+     * Propriétés système permettant de surcharger la base cible
+     * (benchmarks, outils en ligne de commande, base H2 de test…).
+     */
+    public static final String URL_PROPERTY = "hockey.db.url";
+    public static final String USER_PROPERTY = "hockey.db.user";
+    public static final String PASSWORD_PROPERTY = "hockey.db.password";
+
+    /** Propriété système : nombre maximal de connexions au serveur utilisées en même temps. */
+    public static final String MAX_OPEN_PROPERTY = "hockey.db.maxConnections";
+
+    /** Valeur par défaut de {@value #MAX_OPEN_PROPERTY}. */
+    private static final int DEFAULT_MAX_OPEN = 16;
+
+    /** Attente maximale d'une connexion lorsque toutes sont utilisées. */
+    private static final int ACQUIRE_TIMEOUT_SECONDS = 30;
+
+    /** Nombre maximal de connexions inactives conservées ouvertes. */
+    private static final int MAX_IDLE = 4;
+
+    /** Délai de vérification d'une connexion inactive avant sa réutilisation. */
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    /** Connexions au serveur empruntées et pas encore rendues. */
+    private static final Semaphore inUse = new Semaphore(Integer.getInteger(MAX_OPEN_PROPERTY, DEFAULT_MAX_OPEN), true);
+
+    /** Connexions physiques inactives, prêtes à être réutilisées. */
+    private static final BlockingDeque<Connection> idle = new LinkedBlockingDeque<>();
+
+    /**
+     * SQLState d'une connexion refusée par un serveur joignable (« Too many connections »…) :
+     * ce n'est pas une panne réseau.
+     */
+    private static final String SERVER_REJECTED = "08004";
+
+    /** Réplique locale (null si le mode hors ligne n'est pas activé). */
+    private static volatile LocalReplica replica;
 
     /**
      * Constructeur privé empêchant l'instanciation.
@@ -41,45 +88,231 @@ public class DatabaseConnection {
     }
 
     /**
-     * Récupère l'unique connexion JDBC à la base de données.
+     * Récupère une connexion JDBC à la base de données.
+     * <p>
+     * Une connexion inactive du réservoir est réutilisée si elle est encore valide,
+     * sinon une nouvelle connexion est créée. Fermer la connexion renvoyée la rend
+     * au réservoir.
+     * </p>
+     * <p>
+     * La connexion renvoyée est instrumentée : le temps d'obtention et chaque
+     * requête exécutée sont mesurés dans {@link QueryMetrics}.
+     * </p>
+     *
      * <p>
-     * Si aucune connexion n'est ouverte, ou si la connexion précédente
-     * a été fermée, une nouvelle connexion est créée.
+     * Si une réplique locale est active, la connexion renvoyée pointe vers elle tant que le
+     * serveur est injoignable ; seule une panne de connectivité ({@link #isConnectivityFailure})
+     * y fait basculer. Les autres erreurs (identifiants refusés, trop de connexions, serveur en
+     * cours de démarrage…) sont propagées : les écritures ne partent pas dans l'outbox pour autant.
      * </p>
      *
      * @return connexion JDBC active
      * @throws SQLException en cas d'impossibilité de se connecter ou si le driver est introuvable
      */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
+        LocalReplica r = replica;
+        if (r != null && r.isOffline()) {
+            return r.connection();
+        }
+        try {
+            return getServerConnection();
+        } catch (SQLException e) {
+            if (r == null || !r.isReady() || !isConnectivityFailure(e)) throw e;
+            r.goOffline(e);
+            return r.connection();
+        }
+    }
+
+    /**
+     * Récupère une connexion pour une lecture : la réplique locale si elle est à jour
+     * (aucune écriture depuis sa dernière synchronisation), sinon comme {@link #getConnection()}.
+     *
+     * @return connexion JDBC active
+     * @throws SQLException en cas d'impossibilité de se connecter
+     */
+    public static Connection getReadConnection() throws SQLException {
+        LocalReplica r = replica;
+        if (r != null && r.isCurrent()) {
+            return r.connection();
+        }
+        return getConnection();
+    }
+
+    /**
+     * Récupère une connexion au serveur, sans bascule sur la réplique (synchronisation).
+     * Attend si {@value #MAX_OPEN_PROPERTY} connexions sont déjà utilisées ; l'attente
+     * est comptée dans le temps d'obtention de {@link QueryMetrics}.
+     */
+    static Connection getServerConnection() throws SQLException {
+        long start = System.nanoTime();
+        acquire();
+        Connection physical;
+        try {
+            physical = borrow();
+        } catch (SQLException | RuntimeException e) {
+            inUse.release();
+            throw e;
+        }
+        QueryMetrics.recordConnectionWait((System.nanoTime() - start) / 1_000);
+        return InstrumentedConnection.wrap(physical, c -> {
             try {
+                release(c);
+            } finally {
+                inUse.release();
+            }
+        });
+    }
+
+    private static void acquire() throws SQLException {
+        try {
+            if (!inUse.tryAcquire(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                // Pas de SQLState de connectivité : le serveur est joignable, il est seulement saturé
+                throw new SQLException("Aucune connexion disponible après " + ACQUIRE_TIMEOUT_SECONDS + " s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Attente d'une connexion interrompue", e);
+        }
+    }
+
+    /**
+     * Indique si une erreur d'ouverture de connexion traduit un serveur injoignable :
+     * SQLState de classe {@code 08} ou exception de connexion JDBC, hors connexion refusée
+     * par le serveur ({@value #SERVER_REJECTED}).
+     *
+     * @param e erreur constatée
+     * @return true pour une panne de connectivité
+     */
+    static boolean isConnectivityFailure(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (!(t instanceof SQLException)) continue;
+            SQLException s = (SQLException) t;
+            String state = s.getSQLState();
+            if (SERVER_REJECTED.equals(state)) return false;
+            if ((state != null && state.startsWith("08"))
+                    || s instanceof SQLNonTransientConnectionException
+                    || s instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Active (ou désactive avec {@code null}) la réplique locale.
+     *
+     * @param r réplique ouverte
+     */
+    public static void setReplica(LocalReplica r) {
+        replica = r;
+    }
+
+    /** @return réplique locale active, ou null */
+    public static LocalReplica getReplica() {
+        return replica;
+    }
+
+    /**
+     * Prend une connexion inactive encore valide, sinon en ouvre une. Une connexion restée
+     * inactive au-delà du {@code wait_timeout} de MySQL est fermée côté serveur sans que
+     * {@link Connection#isClosed()} le voie : elle est vérifiée puis écartée.
+     */
+    private static Connection borrow() throws SQLException {
+        Connection c;
+        while ((c = idle.pollFirst()) != null) {
+            if (isValid(c)) {
+                return c;
+            }
+            quietClose(c);
+        }
+        return open();
+    }
+
+    private static boolean isValid(Connection c) {
+        try {
+            return !c.isClosed() && c.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static Connection open() throws SQLException {
+        String url = getUrl();
+        try {
+            if (url.startsWith("jdbc:mysql:")) {
                 Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(URL, USER, PASSWORD);
-            } catch (ClassNotFoundException e) {
-                throw new SQLException("Driver MySQL introuvable", e);
             }
+            return DriverManager.getConnection(url,
+                    System.getProperty(USER_PROPERTY, USER),
+                    System.getProperty(PASSWORD_PROPERTY, PASSWORD));
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("Driver MySQL introuvable", e);
         }
-        return connection;
     }
 
+    /**
+     * Rend une connexion physique au réservoir (appelé à la fermeture du proxy).
+     * Une transaction laissée ouverte est annulée ; au-delà de {@link #MAX_IDLE}
+     * connexions inactives, la connexion est réellement fermée.
+     */
+    private static void release(Connection c) {
+        try {
+            if (c.isClosed()) return;
+            if (!c.getAutoCommit()) {
+                c.rollback();
+                c.setAutoCommit(true);
+            }
+            if (idle.size() < MAX_IDLE && idle.offerFirst(c)) {
+                return;
+            }
+            c.close();
+        } catch (SQLException e) {
+            quietClose(c);
+        }
+    }
+
+    /**
+     * Retourne l'URL JDBC effectivement utilisée : celle de la propriété
+     * système {@value #URL_PROPERTY} si elle est définie, sinon la base MySQL locale.
+     *
+     * @return URL JDBC
+     */
+    public static String getUrl() {
+        return System.getProperty(URL_PROPERTY, URL);
+    }
+
+    /**
+     * Remplace les connexions du réservoir par une connexion fournie
+     * (utilisé par les tests pour injecter une base H2). {@code null} vide le réservoir.
+     *
+     * @param c connexion à utiliser pour les prochains appels
+     */
     public static void setConnection(Connection c) {
-        connection = c;
+        closeConnection();
+        if (c != null) {
+            idle.offerFirst(c);
+        }
     }
 
     /**
-     * Ferme la connexion active si elle existe.
+     * Ferme les connexions inactives du réservoir.
      * <p>
      * Cette méthode est optionnelle dans une application desktop,
      * mais utile pour garantir une libération propre des ressources.
      * </p>
      */
     public static void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                System.err.println("Erreur lors de la fermeture de la connexion : " + e.getMessage());
-            }
+        Connection c;
+        while ((c = idle.pollFirst()) != null) {
+            quietClose(c);
+        }
+    }
+
+    private static void quietClose(Connection c) {
+        try {
+            c.close();
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la fermeture de la connexion : " + e.getMessage());
         }
     }
 }
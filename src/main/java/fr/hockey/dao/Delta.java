@@ -0,0 +1,34 @@
+package fr.hockey.dao;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Modifications survenues depuis un watermark ({@link ChangeLog}) :
+ * lignes créées ou modifiées, identifiants supprimés (tombstones) et nouveau watermark.
+ *
+ * @param <T> type des lignes (Player, License, Coach)
+ */
+public final class Delta<T> {
+    private final List<T> changed;
+    private final List<Integer> deletedIds;
+    private final long watermark;
+
+    Delta(List<T> changed, Collection<Integer> deletedIds, long watermark) {
+        this.changed = List.copyOf(changed);
+        this.deletedIds = List.copyOf(deletedIds);
+        this.watermark = watermark;
+    }
+
+    /** @return lignes créées ou modifiées, dans leur état actuel */
+    public List<T> getChanged() { return changed; }
+
+    /** @return identifiants des lignes supprimées */
+    public List<Integer> getDeletedIds() { return deletedIds; }
+
+    /** @return watermark à passer au prochain appel */
+    public long getWatermark() { return watermark; }
+
+    /** @return true si rien n'a changé */
+    public boolean isEmpty() { return changed.isEmpty() && deletedIds.isEmpty(); }
+}
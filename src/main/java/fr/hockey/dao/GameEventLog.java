@@ -0,0 +1,257 @@
+package fr.hockey.dao;
+
+import fr.hockey.models.GameEvent;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal des actions de match, en ajout seul.
+ *
+ * <p>{@link #append} encode l'action dans un tampon mémoire et rend la main aussitôt : un
+ * thread d'écriture regroupe les actions arrivées pendant {@link #FLUSH_INTERVAL_MS} et
+ * les écrit suivies d'un seul {@code fsync} (validation groupée). Une saisie au banc ne
+ * bloque donc jamais sur le disque ; {@link #awaitDurable} attend au besoin qu'une action
+ * soit écrite.</p>
+ *
+ * <p>Chaque enregistrement est {@code longueur (int) | données | CRC32C (int)}. À
+ * l'ouverture, un enregistrement incomplet ou corrompu en fin de fichier (arrêt pendant
+ * une écriture) est tronqué ; les actions précédentes sont conservées.</p>
+ */
+public class GameEventLog implements AutoCloseable {
+
+    /** Fenêtre de regroupement des écritures. */
+    static final long FLUSH_INTERVAL_MS = 20;
+
+    /** Taille maximale d'un enregistrement, au-delà le fichier est considéré corrompu. */
+    private static final int MAX_RECORD = 4096;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Thread flusher;
+
+    /** Actions encodées en attente d'écriture (protégé par {@code this}). */
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long lastAppended;
+    private long lastDurable;
+    private IOException failure;
+    private boolean closed;
+
+    /**
+     * Ouvre (ou crée) un journal et tronque son éventuelle fin incomplète.
+     *
+     * @param file fichier du journal
+     * @throws IOException en cas d'erreur d'accès au fichier
+     */
+    public GameEventLog(Path file) throws IOException {
+        this.file = file;
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long[] last = new long[1];
+        long valid = scan(e -> last[0] = e.getSeq());
+        if (valid < channel.size()) {
+            channel.truncate(valid);
+            channel.force(true);
+        }
+        channel.position(valid);
+        lastAppended = last[0];
+        lastDurable = last[0];
+
+        flusher = new Thread(this::runFlusher, "game-event-log");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /** @return numéro de la dernière action du journal (0 s'il est vide) */
+    public synchronized long getLastSeq() {
+        return lastAppended;
+    }
+
+    /**
+     * Ajoute une action ; elle sera écrite au prochain regroupement.
+     *
+     * @param e action (numéro strictement croissant)
+     * @throws IOException si le journal est fermé ou si une écriture précédente a échoué
+     */
+    public synchronized void append(GameEvent e) throws IOException {
+        if (closed) throw new IOException("Journal des matchs fermé");
+        if (failure != null) throw failure;
+        byte[] data = encode(e);
+        CRC32C crc = new CRC32C();
+        crc.update(data);
+        DataOutputStream out = new DataOutputStream(pending);
+        out.writeInt(data.length);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+        lastAppended = e.getSeq();
+        if (pending.size() == 8 + data.length) notifyAll();
+    }
+
+    /**
+     * Attend que les actions jusqu'à un numéro donné soient sur disque.
+     *
+     * @param seq       numéro d'action
+     * @param timeoutMs délai maximal
+     * @return true si l'action est écrite
+     * @throws IOException          si l'écriture a échoué
+     * @throws InterruptedException si l'attente est interrompue
+     */
+    public synchronized boolean awaitDurable(long seq, long timeoutMs) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (lastDurable < seq && failure == null) {
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) return false;
+            notifyAll();
+            wait(left);
+        }
+        if (failure != null) throw failure;
+        return true;
+    }
+
+    /**
+     * Relit toutes les actions écrites, dans l'ordre (reconstruction des statistiques).
+     * Les actions encore en tampon sont d'abord écrites.
+     *
+     * @param consumer traitement de chaque action
+     * @throws IOException en cas d'erreur de lecture
+     */
+    public void replay(Consumer<GameEvent> consumer) throws IOException {
+        long seq = getLastSeq();
+        try {
+            if (!awaitDurable(seq, 10_000)) throw new IOException("Écriture du journal des matchs trop lente");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Relecture interrompue", e);
+        }
+        scan(consumer);
+    }
+
+    /** Lit les enregistrements valides depuis le début et renvoie la longueur qu'ils occupent. */
+    private long scan(Consumer<GameEvent> consumer) throws IOException {
+        long size = channel.size();
+        long valid = 0;
+        try (FileChannel reader = FileChannel.open(file, StandardOpenOption.READ);
+             InputStream raw = Channels.newInputStream(reader);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 64 * 1024))) {
+            CRC32C crc = new CRC32C();
+            while (valid + 8 <= size) {
+                int length = in.readInt();
+                if (length <= 0 || length > MAX_RECORD || valid + 8 + length > size) break;
+                byte[] data = new byte[length];
+                in.readFully(data);
+                int expected = in.readInt();
+                crc.reset();
+                crc.update(data);
+                if ((int) crc.getValue() != expected) break;
+                consumer.accept(decode(data));
+                valid += 8 + length;
+            }
+        } catch (EOFException ignored) {
+            // Fin incomplète : ignorée
+        }
+        return valid;
+    }
+
+    private void runFlusher() {
+        while (true) {
+            ByteArrayOutputStream batch;
+            long seq;
+            synchronized (this) {
+                try {
+                    while (pending.size() == 0 && !closed) wait();
+                    if (pending.size() == 0) return;
+                    // Laisse arriver les actions suivantes pour les écrire ensemble
+                    if (!closed) wait(FLUSH_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                batch = pending;
+                pending = new ByteArrayOutputStream();
+                seq = lastAppended;
+            }
+            IOException error = null;
+            try {
+                ByteBuffer buf = ByteBuffer.wrap(batch.toByteArray());
+                while (buf.hasRemaining()) channel.write(buf);
+                channel.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+            synchronized (this) {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    lastDurable = seq;
+                }
+                notifyAll();
+                if (error != null) return;
+            }
+        }
+    }
+
+    /**
+     * Écrit les actions en attente et ferme le journal.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        synchronized (this) {
+            if (failure != null) throw failure;
+        }
+    }
+
+    private static byte[] encode(GameEvent e) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(e.getSeq());
+        out.writeLong(e.getRecordedAt());
+        out.writeUTF(e.getGameId());
+        out.writeUTF(e.getCategory());
+        out.writeInt(e.getPlayerId());
+        out.writeUTF(e.getType().name());
+        out.writeByte(e.getPeriod());
+        out.writeInt(e.getClock());
+        out.writeInt(e.getValue());
+        return bytes.toByteArray();
+    }
+
+    private static GameEvent decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        long seq = in.readLong();
+        long recordedAt = in.readLong();
+        String gameId = in.readUTF();
+        String category = in.readUTF();
+        int playerId = in.readInt();
+        GameEvent.Type type;
+        try {
+            type = GameEvent.Type.valueOf(in.readUTF());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Type d'action inconnu dans le journal des matchs", e);
+        }
+        return new GameEvent(seq, recordedAt, gameId, category, playerId, type, in.readByte(), in.readInt(), in.readInt());
+    }
+}
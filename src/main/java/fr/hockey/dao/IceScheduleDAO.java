@@ -0,0 +1,155 @@
+package fr.hockey.dao;
+
+import fr.hockey.models.IceSlot;
+import fr.hockey.utils.AuditLogger;
+
+import java.sql.*;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DAO du planning de glace : créneaux hebdomadaires des patinoires ({@code ice_slots})
+ * et nombre de créneaux voulus par catégorie ({@code ice_demands}), pour le club de la
+ * session ({@link Tenant}).
+ */
+public class IceScheduleDAO {
+
+    /**
+     * @return tous les créneaux, par jour puis heure de début
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public List<IceSlot> findSlots() throws SQLException {
+        String sql = "SELECT id, rink, day_of_week, start_time, end_time, category FROM ice_slots " +
+                "WHERE club_id = ? ORDER BY day_of_week, start_time, rink";
+        List<IceSlot> slots = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, Tenant.current());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    slots.add(new IceSlot(rs.getInt("id"), rs.getString("rink"), DayOfWeek.of(rs.getInt("day_of_week")),
+                            rs.getTime("start_time").toLocalTime(), rs.getTime("end_time").toLocalTime(),
+                            rs.getString("category")));
+                }
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Ajoute un créneau disponible.
+     *
+     * @param slot créneau (patinoire, jour, horaires) ; son identifiant est renseigné
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public void insertSlot(IceSlot slot) throws SQLException {
+        if (!slot.getStart().isBefore(slot.getEnd())) {
+            throw new IllegalArgumentException("Le créneau doit finir après son début");
+        }
+        String sql = "INSERT INTO ice_slots (rink, day_of_week, start_time, end_time, category, club_id) VALUES (?, ?, ?, ?, ?, ?)";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, slot.getRink());
+            ps.setInt(2, slot.getDay().getValue());
+            ps.setTime(3, Time.valueOf(slot.getStart()));
+            ps.setTime(4, Time.valueOf(slot.getEnd()));
+            ps.setString(5, slot.getCategory());
+            ps.setInt(6, Tenant.current());
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) slot.setId(keys.getInt(1));
+            }
+        }
+        AuditLogger.logChange("ice_slots", "INSERT", String.valueOf(slot.getId()), slot.toString());
+    }
+
+    /**
+     * Supprime un créneau.
+     *
+     * @param slotId identifiant du créneau
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public void deleteSlot(int slotId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement("DELETE FROM ice_slots WHERE id = ? AND club_id = ?")) {
+            ps.setInt(1, slotId);
+            ps.setInt(2, Tenant.current());
+            ps.executeUpdate();
+        }
+        AuditLogger.logChange("ice_slots", "DELETE", String.valueOf(slotId), null);
+    }
+
+    /**
+     * Enregistre un planning : la catégorie de chaque créneau, en une transaction.
+     *
+     * @param slots créneaux planifiés (catégorie null pour un créneau libre)
+     * @throws SQLException en cas d’erreur SQL (rien n'est alors modifié)
+     */
+    public void saveAssignments(List<IceSlot> slots) throws SQLException {
+        String sql = "UPDATE ice_slots SET category = ? WHERE id = ? AND club_id = ?";
+        int club = Tenant.current();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            for (IceSlot s : slots) {
+                ps.setString(1, s.getCategory());
+                ps.setInt(2, s.getId());
+                ps.setInt(3, club);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            conn.commit();
+        }
+        long assigned = slots.stream().filter(s -> s.getCategory() != null).count();
+        AuditLogger.logChange("ice_slots", "PLAN", "*", "slots=" + slots.size() + ", assigned=" + assigned);
+    }
+
+    /**
+     * @return nombre de créneaux voulus par semaine, par catégorie
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public Map<String, Integer> findDemands() throws SQLException {
+        Map<String, Integer> demands = new LinkedHashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT category, sessions_per_week FROM ice_demands WHERE club_id = ? ORDER BY category")) {
+            ps.setInt(1, Tenant.current());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) demands.put(rs.getString("category"), rs.getInt("sessions_per_week"));
+            }
+        }
+        return demands;
+    }
+
+    /**
+     * Définit le nombre de créneaux voulus par une catégorie (0 pour la retirer du planning).
+     *
+     * @param category catégorie
+     * @param sessions créneaux par semaine
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public void saveDemand(String category, int sessions) throws SQLException {
+        if (sessions < 0) throw new IllegalArgumentException("Nombre de créneaux invalide : " + sessions);
+        int club = Tenant.current();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM ice_demands WHERE club_id = ? AND category = ?")) {
+                ps.setInt(1, club);
+                ps.setString(2, category);
+                ps.executeUpdate();
+            }
+            if (sessions > 0) {
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO ice_demands (category, sessions_per_week, club_id) VALUES (?, ?, ?)")) {
+                    ps.setString(1, category);
+                    ps.setInt(2, sessions);
+                    ps.setInt(3, club);
+                    ps.executeUpdate();
+                }
+            }
+        }
+        AuditLogger.logChange("ice_demands", "UPSERT", category, "sessions_per_week=" + sessions);
+    }
+}
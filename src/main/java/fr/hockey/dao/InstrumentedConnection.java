@@ -0,0 +1,252 @@
+package fr.hockey.dao;
+
+import fr.hockey.utils.FlightRecorderEvents;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Enveloppe JDBC (proxies dynamiques) qui mesure chaque requête exécutée par les DAO.
+ *
+ * <p>La connexion, les {@link Statement}/{@link PreparedStatement} et les {@link ResultSet}
+ * renvoyés sont des proxies : le temps d'exécution est mesuré autour des appels
+ * {@code execute*}, la forme des paramètres est relevée sur les {@code set*}
+ * et le nombre de lignes est compté au fil des {@code ResultSet.next()}.
+ * Les DAO n'ont pas à être modifiés.</p>
+ *
+ * <p>Comme chaque méthode DAO ouvre et ferme sa connexion (try-with-resources), la durée
+ * de vie du proxy correspond à celle de l'appel DAO : elle est publiée comme événement
+ * JFR {@link FlightRecorderEvents.DaoCall} lorsqu'un enregistrement est actif.</p>
+ *
+ * <p>Fermer le proxy ne ferme pas la connexion physique : elle est rendue au réservoir
+ * de {@link DatabaseConnection}, une seule fois.</p>
+ */
+final class InstrumentedConnection implements InvocationHandler {
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private final Connection delegate;
+    private final Consumer<Connection> release;
+    private final FlightRecorderEvents.DaoCall event = new FlightRecorderEvents.DaoCall();
+    private int statements;
+    private long rows;
+    private boolean closed;
+
+    private InstrumentedConnection(Connection delegate, Consumer<Connection> release) {
+        this.delegate = delegate;
+        this.release = release;
+        if (event.isEnabled()) {
+            event.method = callingDaoMethod();
+            event.begin();
+        }
+    }
+
+    /**
+     * Enveloppe une connexion physique.
+     *
+     * @param delegate connexion réelle
+     * @param release  appelé avec la connexion réelle à la fermeture du proxy
+     * @return connexion instrumentée
+     */
+    static Connection wrap(Connection delegate, Consumer<Connection> release) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new InstrumentedConnection(delegate, release));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getName().equals("unwrap") && args != null && args[0] == Connection.class) {
+            return delegate;
+        }
+        switch (method.getName()) {
+            case "close":
+                if (!closed) {
+                    commitEvent();
+                    release.accept(delegate);
+                }
+                return null;
+            case "isClosed":
+                return closed || delegate.isClosed();
+            default:
+                if (closed) {
+                    throw new SQLException("Connexion déjà fermée");
+                }
+        }
+        Object result = invokeDelegate(delegate, method, args);
+        if (result instanceof CallableStatement) {
+            return result;
+        }
+        if (result instanceof PreparedStatement && args != null && args[0] instanceof String) {
+            return StatementHandler.wrap((PreparedStatement) result, PreparedStatement.class, (String) args[0], this);
+        }
+        if (result instanceof Statement) {
+            return StatementHandler.wrap((Statement) result, Statement.class, null, this);
+        }
+        return result;
+    }
+
+    private void commitEvent() {
+        if (closed) return;
+        closed = true;
+        if (event.isEnabled()) {
+            event.end();
+            event.statements = statements;
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
+    /** Retrouve la méthode DAO appelante, ex. {@code PlayerDAO.findAll}. */
+    private static String callingDaoMethod() {
+        return WALKER.walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith("fr.hockey.dao.")
+                        && !f.getClassName().equals(DatabaseConnection.class.getName())
+                        && !f.getClassName().equals(InstrumentedConnection.class.getName()))
+                .findFirst()
+                .map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1) + "." + f.getMethodName())
+                .orElse("?"));
+    }
+
+    private void addRows(QueryMetrics.Stats stats, long count) {
+        rows += count;
+        QueryMetrics.recordRows(stats, count);
+    }
+
+    private static Object invokeDelegate(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Proxy des statements : chronométrage des exécutions et forme des paramètres.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement delegate;
+        private final String sql;
+        private final InstrumentedConnection owner;
+        private final Map<Integer, String> paramShape = new TreeMap<>();
+
+        private StatementHandler(Statement delegate, String sql, InstrumentedConnection owner) {
+            this.delegate = delegate;
+            this.sql = sql;
+            this.owner = owner;
+        }
+
+        static <T extends Statement> T wrap(T statement, Class<T> type, String sql, InstrumentedConnection owner) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(),
+                    new Class<?>[]{type}, new StatementHandler(statement, sql, owner)));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                paramShape.put((Integer) args[0], describe(name, args[1]));
+                return invokeDelegate(delegate, method, args);
+            }
+            if (!name.startsWith("execute")) {
+                Object result = invokeDelegate(delegate, method, args);
+                return result;
+            }
+
+            String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+            QueryMetrics.Stats stats = QueryMetrics.statsFor(executed);
+            String params = paramShape.values().toString();
+            owner.statements++;
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = invokeDelegate(delegate, method, args);
+                failed = false;
+                if (result instanceof ResultSet) {
+                    return ResultSetHandler.wrap((ResultSet) result, stats, owner);
+                }
+                if (result instanceof Integer) {
+                    owner.addRows(stats, (Integer) result);
+                    QueryMetrics.recordWrite((Integer) result);
+                } else if (result instanceof int[]) {
+                    long total = 0;
+                    for (int n : (int[]) result) total += Math.max(n, 0);
+                    owner.addRows(stats, total);
+                    QueryMetrics.recordWrite(total);
+                } else if (Boolean.FALSE.equals(result)) {
+                    QueryMetrics.recordWrite(delegate.getUpdateCount());
+                }
+                return result;
+            } finally {
+                QueryMetrics.recordExecution(stats, (System.nanoTime() - start) / 1_000, params, failed);
+                if (name.equals("executeBatch") || name.equals("clearParameters")) {
+                    paramShape.clear();
+                }
+            }
+        }
+
+        /** Décrit un paramètre par son type (et sa taille pour les chaînes), jamais par sa valeur. */
+        private static String describe(String setter, Object value) {
+            if (value == null || setter.equals("setNull")) return "NULL";
+            if (value instanceof String) return "VARCHAR(" + ((String) value).length() + ")";
+            return setter.substring(3).toUpperCase();
+        }
+    }
+
+    /**
+     * Proxy des ResultSet : compte les lignes lues et les impute à la forme de requête.
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet delegate;
+        private final QueryMetrics.Stats stats;
+        private final InstrumentedConnection owner;
+        private long rows;
+        private boolean reported;
+
+        private ResultSetHandler(ResultSet delegate, QueryMetrics.Stats stats, InstrumentedConnection owner) {
+            this.delegate = delegate;
+            this.stats = stats;
+            this.owner = owner;
+        }
+
+        static ResultSet wrap(ResultSet rs, QueryMetrics.Stats stats, InstrumentedConnection owner) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, new ResultSetHandler(rs, stats, owner));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            Object result = invokeDelegate(delegate, method, args);
+            if (name.equals("next")) {
+                if (Boolean.TRUE.equals(result)) {
+                    rows++;
+                } else {
+                    report();
+                }
+            } else if (name.equals("close")) {
+                report();
+            }
+            return result;
+        }
+
+        private void report() {
+            if (!reported) {
+                reported = true;
+                owner.addRows(stats, rows);
+            }
+        }
+    }
+}
@@ -15,6 +15,7 @@ import java.sql.*;
  *   <li>La logique d’upsert (insert si absent, update sinon)</li>
  *   <li>Le mapping ResultSet → LegalInformation</li>
  * </ul>
+ * Chaque club a ses propres informations légales ({@link Tenant}).
  */
 public class LegalInformationDAO {
 
@@ -57,10 +58,13 @@ public class LegalInformationDAO {
         try (Connection conn = DatabaseConnection.getConnection()) {
             String regCol = resolveRegNoColumn(conn);
             String sql = "SELECT id, name, address, " + regCol + " AS reg_no, publisher, hosting, contact, privacy, created_at, updated_at " +
-                    "FROM legal_informations ORDER BY id LIMIT 1";
-            try (PreparedStatement ps = conn.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return map(rs);
+                    "FROM legal_informations WHERE club_id = ? ORDER BY id LIMIT 1";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, Tenant.current());
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        return map(rs);
+                    }
                 }
             }
         }
@@ -77,8 +81,8 @@ public class LegalInformationDAO {
     public int insert(LegalInformation info) throws SQLException {
         try (Connection conn = DatabaseConnection.getConnection()) {
             String regCol = resolveRegNoColumn(conn);
-            String sql = "INSERT INTO legal_informations (name, address, " + regCol + ", publisher, hosting, contact, privacy, created_at, updated_at) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, NOW(), NOW())";
+            String sql = "INSERT INTO legal_informations (name, address, " + regCol + ", publisher, hosting, contact, privacy, club_id, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, NOW(), NOW())";
             try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
                 ps.setString(1, info.getName());
                 ps.setString(2, info.getAddress());
@@ -87,6 +91,7 @@ public class LegalInformationDAO {
                 ps.setString(5, info.getHosting());
                 ps.setString(6, info.getContact());
                 ps.setString(7, info.getPrivacy());
+                ps.setInt(8, Tenant.current());
                 int affected = ps.executeUpdate();
                 if (affected > 0) {
                     try (ResultSet keys = ps.getGeneratedKeys()) {
@@ -116,7 +121,7 @@ public class LegalInformationDAO {
         try (Connection conn = DatabaseConnection.getConnection()) {
             String regCol = resolveRegNoColumn(conn);
             String sql = "UPDATE legal_informations SET name = ?, address = ?, " + regCol + " = ?, publisher = ?, hosting = ?, contact = ?, privacy = ?, updated_at = NOW() " +
-                    "WHERE id = ?";
+                    "WHERE id = ? AND club_id = ?";
             try (PreparedStatement ps = conn.prepareStatement(sql)) {
                 ps.setString(1, info.getName());
                 ps.setString(2, info.getAddress());
@@ -126,6 +131,7 @@ public class LegalInformationDAO {
                 ps.setString(6, info.getContact());
                 ps.setString(7, info.getPrivacy());
                 ps.setInt(8, id);
+                ps.setInt(9, Tenant.current());
                 boolean ok = ps.executeUpdate() > 0;
                 if (ok) {
                     AuditLogger.logChange("legal_informations", "UPDATE", String.valueOf(id),
@@ -1,10 +1,18 @@
 package fr.hockey.dao;
 
+import fr.hockey.events.DomainEventBus;
+import fr.hockey.events.DomainEvents;
+import fr.hockey.models.ExpiringLicense;
 import fr.hockey.models.License;
+import fr.hockey.models.UnpaidLicense;
 import fr.hockey.utils.AuditLogger;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * DAO responsable de la gestion des licences des joueurs.
@@ -15,7 +23,11 @@ import java.time.LocalDate;
  *     <li>Mettre à jour une licence</li>
  *     <li>Changer l'état payé / non payé</li>
  *     <li>Supprimer la licence d’un joueur</li>
+ *     <li>Renouveler les licences échues en début de saison</li>
+ *     <li>Lister les licences dont l'échéance tombe dans une plage de dates</li>
+ *     <li>Lister les licences non payées à relancer par e-mail</li>
  *     <li>Obtenir le tarif d’une catégorie</li>
+ *     <li>Lire les seules licences modifiées depuis un watermark ({@link ChangeLog})</li>
  * </ul>
  */
 public class LicenseDAO {
@@ -28,10 +40,11 @@ public class LicenseDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     public License findByPlayerId(int playerId) throws SQLException {
-        String sql = "SELECT id, player_id, paid, expiration_date, amount FROM licenses WHERE player_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
+        String sql = "SELECT id, player_id, paid, expiration_date, amount FROM licenses WHERE player_id = ? AND club_id = ?";
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, playerId);
+            ps.setInt(2, Tenant.current());
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     License lic = new License();
@@ -59,17 +72,27 @@ public class LicenseDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     public boolean createForPlayer(int playerId, double amount, LocalDate expirationDate, boolean paid) throws SQLException {
-        String sql = "INSERT INTO licenses (player_id, paid, expiration_date, amount) VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO licenses (player_id, paid, expiration_date, amount, club_id) VALUES (?, ?, ?, ?, ?)";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            conn.setAutoCommit(false);
             ps.setInt(1, playerId);
             ps.setBoolean(2, paid);
             ps.setDate(3, Date.valueOf(expirationDate));
             ps.setDouble(4, amount);
+            ps.setInt(5, Tenant.current());
             boolean ok = ps.executeUpdate() > 0;
             if (ok) {
+                int licenseId = 0;
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (keys.next()) licenseId = keys.getInt(1);
+                }
+                ChangeLog.record(conn, ChangeLog.LICENSES, licenseId, playerId, false);
+                conn.commit();
                 AuditLogger.logChange("licenses", "INSERT", "player_id=" + playerId,
                         String.format("paid=%s,expiration_date=%s,amount=%.2f", paid, expirationDate, amount));
+                DomainEventBus.publish(new DomainEvents.LicenseSaved(
+                        new License(licenseId, playerId, paid, expirationDate, amount)));
             }
             return ok;
         }
@@ -83,17 +106,23 @@ public class LicenseDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     public boolean update(License license) throws SQLException {
-        String sql = "UPDATE licenses SET paid = ?, expiration_date = ?, amount = ? WHERE id = ?";
+        String sql = "UPDATE licenses SET paid = ?, expiration_date = ?, amount = ?, " +
+                "updated_at = CURRENT_TIMESTAMP, row_version = row_version + 1 WHERE id = ? AND club_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
             ps.setBoolean(1, license.isPaid());
             ps.setDate(2, Date.valueOf(license.getExpirationDate()));
             ps.setDouble(3, license.getAmount());
             ps.setInt(4, license.getId());
+            ps.setInt(5, Tenant.current());
             boolean ok = ps.executeUpdate() > 0;
             if (ok) {
+                recordChange(conn, license.getId());
+                conn.commit();
                 AuditLogger.logChange("licenses", "UPDATE", String.valueOf(license.getId()),
                         String.format("paid=%s,expiration_date=%s,amount=%.2f", license.isPaid(), license.getExpirationDate(), license.getAmount()));
+                DomainEventBus.publish(new DomainEvents.LicenseSaved(license));
             }
             return ok;
         }
@@ -108,14 +137,20 @@ public class LicenseDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     public boolean setPaid(int licenseId, boolean paid) throws SQLException {
-        String sql = "UPDATE licenses SET paid = ? WHERE id = ?";
+        String sql = "UPDATE licenses SET paid = ?, updated_at = CURRENT_TIMESTAMP, row_version = row_version + 1 " +
+                "WHERE id = ? AND club_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
             ps.setBoolean(1, paid);
             ps.setInt(2, licenseId);
+            ps.setInt(3, Tenant.current());
             boolean ok = ps.executeUpdate() > 0;
             if (ok) {
+                recordChange(conn, licenseId);
+                conn.commit();
                 AuditLogger.logChange("licenses", "UPDATE_PAID", String.valueOf(licenseId), "paid=" + paid);
+                DomainEventBus.publish(new DomainEvents.LicensePaid(licenseId, paid));
             }
             return ok;
         }
@@ -129,18 +164,203 @@ public class LicenseDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     public boolean deleteByPlayer(int playerId) throws SQLException {
-        String sql = "DELETE FROM licenses WHERE player_id = ?";
+        String sql = "DELETE FROM licenses WHERE player_id = ? AND club_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            List<Integer> licenseIds = new ArrayList<>();
+            try (PreparedStatement find = conn.prepareStatement("SELECT id FROM licenses WHERE player_id = ? AND club_id = ?")) {
+                find.setInt(1, playerId);
+                find.setInt(2, Tenant.current());
+                try (ResultSet rs = find.executeQuery()) {
+                    while (rs.next()) licenseIds.add(rs.getInt(1));
+                }
+            }
             ps.setInt(1, playerId);
+            ps.setInt(2, Tenant.current());
             boolean ok = ps.executeUpdate() > 0;
             if (ok) {
+                for (int licenseId : licenseIds) {
+                    ChangeLog.record(conn, ChangeLog.LICENSES, licenseId, playerId, true);
+                }
+                conn.commit();
                 AuditLogger.logChange("licenses", "DELETE_BY_PLAYER", String.valueOf(playerId), "");
+                DomainEventBus.publish(new DomainEvents.LicenseDeleted(playerId));
             }
             return ok;
         }
     }
 
+    /**
+     * Retourne les licences modifiées depuis un watermark.
+     * Les suppressions sont identifiées par joueur (comme {@link #deleteByPlayer(int)}) :
+     * licence supprimée, ou joueur supprimé avec sa licence.
+     *
+     * @param watermark watermark du précédent appel (0 pour tout le journal)
+     * @return licences créées ou modifiées, identifiants des joueurs qui n'ont plus de licence,
+     *         nouveau watermark
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public Delta<License> findChangedSince(long watermark) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            long to = ChangeLog.safeWatermark(conn, watermark);
+            Set<Integer> playerIds = ChangeLog.changedIds(conn, "player_id",
+                    "entity = '" + ChangeLog.LICENSES + "' OR (entity = '" + ChangeLog.PLAYERS + "' AND deleted = TRUE)",
+                    watermark, to);
+
+            List<License> changed = new ArrayList<>();
+            Set<Integer> deleted = new LinkedHashSet<>(playerIds);
+            for (List<Integer> chunk : ChangeLog.chunks(playerIds)) {
+                String sql = "SELECT id, player_id, paid, expiration_date, amount FROM licenses " +
+                        "WHERE club_id = ? AND player_id IN (" + ChangeLog.placeholders(chunk.size()) + ")";
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setInt(1, Tenant.current());
+                    for (int i = 0; i < chunk.size(); i++) ps.setInt(i + 2, chunk.get(i));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            License license = new License(rs.getInt("id"), rs.getInt("player_id"), rs.getBoolean("paid"),
+                                    rs.getDate("expiration_date").toLocalDate(), rs.getDouble("amount"));
+                            changed.add(license);
+                            deleted.remove(license.getPlayerId());
+                        }
+                    }
+                }
+            }
+            return new Delta<>(changed, deleted, to);
+        }
+    }
+
+    /**
+     * Inscrit une licence modifiée au journal, rattachée à son joueur.
+     */
+    private void recordChange(Connection conn, int licenseId) throws SQLException {
+        String sql = "SELECT player_id FROM licenses WHERE id = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, licenseId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    ChangeLog.record(conn, ChangeLog.LICENSES, licenseId, rs.getInt(1), false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Passage de saison : chaque licence expirant avant la nouvelle échéance est renouvelée
+     * jusqu'à cette date, repasse à l'état non payé et prend le tarif actuel de la catégorie
+     * du joueur (le montant est conservé si la catégorie n'a pas de tarif).
+     *
+     * <p>Tout se fait en une transaction et par lots JDBC.</p>
+     *
+     * @param newExpiration nouvelle date d’expiration
+     * @return nombre de licences renouvelées
+     * @throws SQLException en cas d’erreur SQL (rien n'est alors modifié)
+     */
+    public int rollover(LocalDate newExpiration) throws SQLException {
+        String select = "SELECT l.id, l.player_id, COALESCE(f.fee, l.amount) AS amount " +
+                "FROM licenses l JOIN players p ON p.id = l.player_id " +
+                "LEFT JOIN category_fees f ON f.club_id = l.club_id AND f.category = p.category " +
+                "WHERE l.club_id = ? AND l.expiration_date < ?";
+        String update = "UPDATE licenses SET paid = FALSE, expiration_date = ?, amount = ?, " +
+                "updated_at = CURRENT_TIMESTAMP, row_version = row_version + 1 WHERE id = ?";
+        List<License> renewed = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(select)) {
+                ps.setInt(1, Tenant.current());
+                ps.setDate(2, Date.valueOf(newExpiration));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        renewed.add(new License(rs.getInt("id"), rs.getInt("player_id"), false,
+                                newExpiration, rs.getDouble("amount")));
+                    }
+                }
+            }
+            if (renewed.isEmpty()) return 0;
+            List<Integer> ids = new ArrayList<>(renewed.size());
+            List<Integer> playerIds = new ArrayList<>(renewed.size());
+            try (PreparedStatement ps = conn.prepareStatement(update)) {
+                for (License l : renewed) {
+                    ps.setDate(1, Date.valueOf(newExpiration));
+                    ps.setDouble(2, l.getAmount());
+                    ps.setInt(3, l.getId());
+                    ps.addBatch();
+                    ids.add(l.getId());
+                    playerIds.add(l.getPlayerId());
+                }
+                ps.executeBatch();
+            }
+            ChangeLog.recordAll(conn, ChangeLog.LICENSES, ids, playerIds, false);
+            conn.commit();
+        }
+        AuditLogger.logChange("licenses", "ROLLOVER", "*",
+                String.format("count=%d,expiration_date=%s", renewed.size(), newExpiration));
+        for (License l : renewed) {
+            DomainEventBus.publish(new DomainEvents.LicenseSaved(l));
+        }
+        return renewed.size();
+    }
+
+    /**
+     * Licences dont l'échéance tombe entre deux dates (incluses), avec leur joueur, par
+     * échéance croissante. La requête porte sur une plage de {@code expiration_date} du club
+     * et profite de l'index {@code idx_licenses_club_expiration}.
+     *
+     * @param from première date incluse
+     * @param to   dernière date incluse
+     * @return licences concernées
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public List<ExpiringLicense> findExpiringBetween(LocalDate from, LocalDate to) throws SQLException {
+        String sql = "SELECT l.id, l.player_id, l.paid, l.expiration_date, p.first_name, p.last_name, p.category " +
+                "FROM licenses l JOIN players p ON p.id = l.player_id " +
+                "WHERE l.club_id = ? AND l.expiration_date >= ? AND l.expiration_date <= ? " +
+                "ORDER BY l.expiration_date, p.last_name, p.first_name";
+        List<ExpiringLicense> list = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, Tenant.current());
+            ps.setDate(2, Date.valueOf(from));
+            ps.setDate(3, Date.valueOf(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new ExpiringLicense(rs.getInt("player_id"), rs.getInt("id"), rs.getString("first_name"),
+                            rs.getString("last_name"), rs.getString("category"),
+                            rs.getDate("expiration_date").toLocalDate(), rs.getBoolean("paid")));
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Licences non payées dont le joueur a une adresse e-mail de contact, en une seule
+     * requête (relances de cotisation). Lue sur le serveur : la réplique locale ne
+     * contient pas les adresses.
+     *
+     * @return licences à relancer, par catégorie puis par nom
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public List<UnpaidLicense> findUnpaidWithContact() throws SQLException {
+        String sql = "SELECT l.id, l.player_id, l.amount, l.expiration_date, p.first_name, p.last_name, p.category, p.contact_email " +
+                "FROM licenses l JOIN players p ON p.id = l.player_id " +
+                "WHERE l.club_id = ? AND l.paid = FALSE AND p.contact_email IS NOT NULL AND p.contact_email <> '' " +
+                "ORDER BY p.category, p.last_name, p.first_name";
+        List<UnpaidLicense> list = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, Tenant.current());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new UnpaidLicense(rs.getInt("player_id"), rs.getInt("id"), rs.getString("first_name"),
+                            rs.getString("last_name"), rs.getString("category"), rs.getString("contact_email").trim(),
+                            rs.getDouble("amount"), rs.getDate("expiration_date").toLocalDate()));
+                }
+            }
+        }
+        return list;
+    }
+
     /**
      * Retourne le tarif correspondant à une catégorie de joueur.
      *
@@ -149,10 +369,11 @@ public class LicenseDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     public double getFeeForCategory(String category) throws SQLException {
-        String sql = "SELECT fee FROM category_fees WHERE category = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
+        String sql = "SELECT fee FROM category_fees WHERE club_id = ? AND category = ?";
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, category);
+            ps.setInt(1, Tenant.current());
+            ps.setString(2, category);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) return rs.getDouble("fee");
             }
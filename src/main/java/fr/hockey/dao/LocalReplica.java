@@ -0,0 +1,667 @@
+package fr.hockey.dao;
+
+import fr.hockey.utils.AuditLogger;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Réplique locale (base H2 embarquée) des joueurs, licences, coachs, équipes et tarifs.
+ *
+ * <ul>
+ *     <li><b>En ligne</b> : la réplique est tenue à jour à partir du journal {@code change_log}
+ *     du serveur ({@link #sync()}). Tant qu'aucune écriture n'a eu lieu depuis la dernière
+ *     synchronisation, les lectures des DAO sont servies localement
+ *     ({@link DatabaseConnection#getReadConnection()}).</li>
+ *     <li><b>Hors ligne</b> : lorsque le serveur MySQL ne répond plus, toutes les requêtes des DAO
+ *     sont dirigées vers la réplique. Les écritures y ajoutent leur ligne de journal, comme sur
+ *     le serveur : le {@code change_log} de la réplique sert de file d'attente durable
+ *     (<i>outbox</i>) des modifications à renvoyer.</li>
+ *     <li><b>Retour du réseau</b> : l'outbox est rejouée sur le serveur par lots, chaque lot dans
+ *     une transaction. Une modification est en conflit si la même ligne a été modifiée par un
+ *     autre poste depuis la dernière synchronisation : la version du serveur est conservée et
+ *     le conflit est tracé dans le journal d'audit.</li>
+ * </ul>
+ *
+ * <p>Les lignes créées hors ligne reçoivent un identifiant à partir de {@link #OFFLINE_ID_BASE},
+ * hors de la plage du serveur ; le serveur leur attribue leur identifiant définitif au rejeu.
+ * Les mots de passe des coachs ne sont pas copiés : la connexion reste possible uniquement
+ * en ligne.</p>
+ *
+ * <p>La réplique ne contient que les lignes du club de la session : un changement de club
+ * provoque une nouvelle copie complète.</p>
+ */
+public final class LocalReplica {
+
+    /** Premier identifiant attribué aux lignes créées hors ligne. */
+    static final int OFFLINE_ID_BASE = 1_000_000_000;
+
+    /** Nombre de lignes de l'outbox rejouées par transaction. */
+    private static final int BATCH = 100;
+
+    private static final String[] PLAYER_COLUMNS = {"id", "first_name", "last_name", "category", "role", "position", "number",
+            "contact_email", "club_id"};
+    private static final String[] LICENSE_COLUMNS = {"id", "player_id", "paid", "expiration_date", "amount", "club_id"};
+    private static final String[] COACH_COLUMNS = {"id", "first_name", "last_name", "username", "email", "club_id"};
+    private static final String[] TEAM_COLUMNS = {"id", "coach_id", "category", "club_id"};
+    private static final String[] FEE_COLUMNS = {"id", "category", "fee", "club_id"};
+
+    /** Tables de la réplique rattachées à un club. */
+    private static final String[] CLUB_TABLES = {"players", "licenses", "coaches", "coach_teams", "category_fees", "change_log"};
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS players (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY, first_name VARCHAR(50) NOT NULL, last_name VARCHAR(50) NOT NULL," +
+                    "category VARCHAR(10) NOT NULL, role VARCHAR(20) NOT NULL, position VARCHAR(20) NOT NULL, number INT NULL," +
+                    "contact_email VARCHAR(120) NULL, club_id INT NOT NULL DEFAULT 1," +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, row_version BIGINT NOT NULL DEFAULT 1)",
+            "CREATE TABLE IF NOT EXISTS licenses (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY, player_id INT NOT NULL, paid BOOLEAN NOT NULL DEFAULT FALSE," +
+                    "expiration_date DATE NOT NULL, amount DECIMAL(10,2) NOT NULL, club_id INT NOT NULL DEFAULT 1," +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, row_version BIGINT NOT NULL DEFAULT 1)",
+            "CREATE INDEX IF NOT EXISTS idx_licenses_expiration ON licenses (expiration_date)",
+            "CREATE TABLE IF NOT EXISTS coaches (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY, first_name VARCHAR(50) NOT NULL, last_name VARCHAR(50) NOT NULL," +
+                    "username VARCHAR(50) NOT NULL, email VARCHAR(100) NOT NULL, password VARCHAR(255) NULL," +
+                    "club_id INT NOT NULL DEFAULT 1," +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, row_version BIGINT NOT NULL DEFAULT 1)",
+            "CREATE TABLE IF NOT EXISTS coach_teams (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY, coach_id INT NOT NULL, category VARCHAR(10) NOT NULL," +
+                    "club_id INT NOT NULL DEFAULT 1," +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, row_version BIGINT NOT NULL DEFAULT 1)",
+            "CREATE TABLE IF NOT EXISTS category_fees (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY, category VARCHAR(10) NOT NULL, fee DECIMAL(10,2) NOT NULL," +
+                    "club_id INT NOT NULL DEFAULT 1)",
+            "CREATE TABLE IF NOT EXISTS change_log (" +
+                    "id BIGINT AUTO_INCREMENT PRIMARY KEY, entity VARCHAR(20) NOT NULL, entity_id INT NOT NULL," +
+                    "player_id INT NULL, deleted BOOLEAN NOT NULL DEFAULT FALSE," +
+                    "changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, origin VARCHAR(36) NULL, club_id INT NOT NULL DEFAULT 1)",
+            "CREATE TABLE IF NOT EXISTS replica_id_map (" +
+                    "entity VARCHAR(20) NOT NULL, local_id INT NOT NULL, server_id INT NOT NULL, PRIMARY KEY (entity, local_id))"
+    };
+
+    /** Index par club, créés après l'ajout de {@code club_id} aux répliques plus anciennes. */
+    private static final String[] CLUB_INDEXES = {
+            "CREATE INDEX IF NOT EXISTS idx_players_club_category ON players (club_id, category, last_name, first_name)",
+            "CREATE INDEX IF NOT EXISTS idx_licenses_club_expiration ON licenses (club_id, expiration_date)",
+            "CREATE INDEX IF NOT EXISTS idx_change_log_club ON change_log (club_id, id)",
+            "CREATE UNIQUE INDEX IF NOT EXISTS uq_category_fees_club ON category_fees (club_id, category)"
+    };
+
+    private final String url;
+    /** Connexion gardée ouverte pour que la base embarquée le reste aussi. */
+    private final Connection keeper;
+
+    private volatile boolean offline;
+    private volatile boolean ready;
+    /** Compteur d'écritures ({@link QueryMetrics#getWriteCount()}) à la dernière synchronisation. */
+    private volatile long syncedWrites = -1;
+
+    /**
+     * Bilan d'une synchronisation.
+     */
+    public static final class SyncResult {
+        private int replayed;
+        private int conflicts;
+        private int pulled;
+        private final Map<Integer, Integer> playerIds = new LinkedHashMap<>();
+        private final Map<Integer, Integer> coachIds = new LinkedHashMap<>();
+
+        /** @return modifications locales renvoyées au serveur */
+        public int getReplayed() { return replayed; }
+
+        /** @return modifications locales abandonnées au profit de la version du serveur */
+        public int getConflicts() { return conflicts; }
+
+        /** @return lignes recopiées depuis le serveur */
+        public int getPulled() { return pulled; }
+
+        /** @return identifiant hors ligne → identifiant définitif des joueurs créés hors ligne */
+        public Map<Integer, Integer> getPlayerIds() { return playerIds; }
+
+        /** @return identifiant hors ligne → identifiant définitif des coachs créés hors ligne */
+        public Map<Integer, Integer> getCoachIds() { return coachIds; }
+    }
+
+    /** Ligne de l'outbox. */
+    private static final class Pending {
+        final long id;
+        final String entity;
+        final int entityId;
+        final boolean deleted;
+
+        Pending(long id, String entity, int entityId, boolean deleted) {
+            this.id = id;
+            this.entity = entity;
+            this.entityId = entityId;
+            this.deleted = deleted;
+        }
+    }
+
+    LocalReplica(String url) throws SQLException {
+        this.url = url;
+        this.keeper = DriverManager.getConnection(url);
+        boolean created = !exists(keeper, "replica_state");
+        try (Statement st = keeper.createStatement()) {
+            for (String ddl : SCHEMA) st.executeUpdate(ddl);
+            // Répliques créées avant l'adresse de contact des joueurs
+            st.executeUpdate("ALTER TABLE players ADD COLUMN IF NOT EXISTS contact_email VARCHAR(120) NULL");
+            for (String table : CLUB_TABLES) SchemaMigrations.addClubColumn(keeper, table);
+            SchemaMigrations.dropUniqueIfPresent(keeper, "category_fees", "category");
+            for (String ddl : CLUB_INDEXES) st.executeUpdate(ddl);
+            if (created) {
+                for (String table : new String[]{"players", "licenses", "coaches", "coach_teams"}) {
+                    st.executeUpdate("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + OFFLINE_ID_BASE);
+                }
+                st.executeUpdate("CREATE TABLE replica_state (name VARCHAR(40) PRIMARY KEY, val BIGINT NOT NULL)");
+            }
+        }
+        this.ready = state(keeper, "ready") > 0;
+    }
+
+    /**
+     * Ouvre (ou crée) la réplique dans un dossier local.
+     *
+     * @param dir dossier de la base embarquée
+     * @return réplique ouverte
+     * @throws SQLException si la base ne peut pas être ouverte
+     */
+    public static LocalReplica open(Path dir) throws SQLException {
+        return new LocalReplica("jdbc:h2:file:" + dir.resolve("replica").toAbsolutePath() + ";MODE=MySQL");
+    }
+
+    /** @return true si le serveur est injoignable et que les requêtes sont servies localement */
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /** @return true une fois la première copie complète faite */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return true si la réplique reflète le serveur : en ligne, synchronisée et sans écriture
+     * depuis la dernière synchronisation
+     */
+    public boolean isCurrent() {
+        return !offline && ready && syncedWrites == QueryMetrics.getWriteCount();
+    }
+
+    /**
+     * @return nombre de modifications locales en attente de renvoi au serveur
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public int getPendingCount() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url);
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM change_log")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Bascule en mode hors ligne (serveur injoignable).
+     *
+     * @param cause erreur de connexion constatée
+     */
+    void goOffline(SQLException cause) {
+        if (offline) return;
+        offline = true;
+        DatabaseConnection.closeConnection();
+        System.err.println("Serveur injoignable, passage en mode hors ligne : " + cause.getMessage());
+    }
+
+    /**
+     * @return connexion instrumentée vers la réplique
+     * @throws SQLException si la réplique ne peut pas être ouverte
+     */
+    Connection connection() throws SQLException {
+        return InstrumentedConnection.wrap(DriverManager.getConnection(url), LocalReplica::quietClose);
+    }
+
+    /**
+     * Synchronise la réplique avec le serveur : rejoue l'outbox, puis recopie les lignes
+     * modifiées sur le serveur. Un serveur joignable fait repasser en ligne ; un serveur
+     * injoignable fait passer hors ligne (si la réplique est prête), pas une autre erreur
+     * de connexion.
+     *
+     * @return bilan de la synchronisation
+     * @throws SQLException si le serveur est injoignable ou en cas d'erreur SQL
+     */
+    public synchronized SyncResult sync() throws SQLException {
+        SyncResult result = new SyncResult();
+        Connection server;
+        try {
+            server = DatabaseConnection.getServerConnection();
+        } catch (SQLException e) {
+            if (ready && DatabaseConnection.isConnectivityFailure(e)) goOffline(e);
+            throw e;
+        }
+        try (Connection s = server; Connection replica = DriverManager.getConnection(url)) {
+            try {
+                replay(s, replica, result);
+                if (offline) {
+                    // Les écritures suivantes vont au serveur ; celles arrivées pendant le rejeu
+                    // seront renvoyées à la prochaine synchronisation
+                    offline = false;
+                    System.err.println("Serveur joignable, retour en mode connecté (" + result.replayed
+                            + " modification(s) renvoyée(s), " + result.conflicts + " conflit(s))");
+                }
+                pull(s, replica, result);
+            } catch (SQLException e) {
+                if (ready && !isValid(s)) goOffline(e);
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    /** Ferme la réplique (fermeture de l'application). */
+    public synchronized void close() {
+        quietClose(keeper);
+    }
+
+    // -------------------------------------------------------------------------
+    //  Rejeu de l'outbox
+    // -------------------------------------------------------------------------
+
+    private void replay(Connection server, Connection replica, SyncResult result) throws SQLException {
+        long base = state(replica, "watermark");
+        Map<String, Map<Integer, Integer>> ids = loadIdMap(replica);
+        while (true) {
+            List<Pending> batch = readOutbox(replica);
+            if (batch.isEmpty()) return;
+
+            Map<String, Map<Integer, Integer>> created = new HashMap<>();
+            server.setAutoCommit(false);
+            try {
+                for (Pending p : batch) {
+                    if (apply(server, replica, ids, created, p, base)) {
+                        result.replayed++;
+                    } else {
+                        result.conflicts++;
+                        AuditLogger.logChange(p.entity, "CONFLICT", String.valueOf(p.entityId),
+                                "modification hors ligne ignorée, version du serveur conservée");
+                    }
+                }
+                server.commit();
+            } catch (SQLException e) {
+                server.rollback();
+                throw e;
+            } finally {
+                server.setAutoCommit(true);
+            }
+
+            replica.setAutoCommit(false);
+            try (PreparedStatement map = replica.prepareStatement(
+                    "INSERT INTO replica_id_map (entity, local_id, server_id) VALUES (?, ?, ?)");
+                 PreparedStatement done = replica.prepareStatement("DELETE FROM change_log WHERE id <= ?")) {
+                for (Map.Entry<String, Map<Integer, Integer>> e : created.entrySet()) {
+                    for (Map.Entry<Integer, Integer> m : e.getValue().entrySet()) {
+                        map.setString(1, e.getKey());
+                        map.setInt(2, m.getKey());
+                        map.setInt(3, m.getValue());
+                        map.addBatch();
+                        if (ChangeLog.PLAYERS.equals(e.getKey())) result.playerIds.put(m.getKey(), m.getValue());
+                        if (ChangeLog.COACHES.equals(e.getKey())) result.coachIds.put(m.getKey(), m.getValue());
+                    }
+                }
+                map.executeBatch();
+                done.setLong(1, batch.get(batch.size() - 1).id);
+                done.executeUpdate();
+                replica.commit();
+            } finally {
+                replica.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Rejoue une ligne de l'outbox sur le serveur.
+     *
+     * @return false si la modification est en conflit et a été ignorée
+     */
+    private boolean apply(Connection server, Connection replica, Map<String, Map<Integer, Integer>> ids,
+                          Map<String, Map<Integer, Integer>> created, Pending p, long base) throws SQLException {
+        switch (p.entity) {
+            case ChangeLog.PLAYERS:
+                return applyRow(server, replica, ids, created, p, base, "players", PLAYER_COLUMNS, null);
+            case ChangeLog.LICENSES:
+                return applyRow(server, replica, ids, created, p, base, "licenses", LICENSE_COLUMNS, ChangeLog.PLAYERS);
+            case ChangeLog.COACHES:
+                String[] columns = Arrays.copyOf(COACH_COLUMNS, COACH_COLUMNS.length + 1);
+                columns[COACH_COLUMNS.length] = "password";
+                return applyRow(server, replica, ids, created, p, base, "coaches", columns, null);
+            case ChangeLog.COACH_TEAMS:
+                return applyTeams(server, replica, ids, p, base);
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Rejoue la création, la modification ou la suppression d'une ligne. Pour une licence,
+     * la deuxième colonne ({@code player_id}) est traduite vers l'identifiant du serveur.
+     */
+    private boolean applyRow(Connection server, Connection replica, Map<String, Map<Integer, Integer>> ids,
+                             Map<String, Map<Integer, Integer>> created, Pending p, long base,
+                             String table, String[] columns, String parentEntity) throws SQLException {
+        Integer serverId = serverId(ids, p.entity, p.entityId);
+        if (serverId != null && changedElsewhere(server, p.entity, serverId, base)) return false;
+
+        Object[] row = p.deleted ? null : readRow(replica, table, columns, p.entityId);
+        if (row == null) {
+            if (serverId == null) return true;
+            Integer playerId = ChangeLog.PLAYERS.equals(p.entity) ? serverId : serverPlayerOfLicense(server, serverId);
+            try (PreparedStatement ps = server.prepareStatement("DELETE FROM " + table + " WHERE id = ?")) {
+                ps.setInt(1, serverId);
+                ps.executeUpdate();
+            }
+            ChangeLog.record(server, p.entity, serverId, playerId, true);
+            return true;
+        }
+        if (parentEntity != null) {
+            Integer parent = serverId(ids, parentEntity, (Integer) row[1]);
+            if (parent == null) return false;
+            row[1] = parent;
+        }
+
+        if (serverId == null) {
+            String cols = String.join(", ", Arrays.copyOfRange(columns, 1, columns.length));
+            String sql = "INSERT INTO " + table + " (" + cols + ") VALUES (" + ChangeLog.placeholders(columns.length - 1) + ")";
+            try (PreparedStatement ps = server.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 1; i < columns.length; i++) ps.setObject(i, row[i]);
+                ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (!keys.next()) return false;
+                    serverId = keys.getInt(1);
+                }
+            }
+            ids.computeIfAbsent(p.entity, k -> new HashMap<>()).put(p.entityId, serverId);
+            created.computeIfAbsent(p.entity, k -> new HashMap<>()).put(p.entityId, serverId);
+        } else {
+            StringBuilder sql = new StringBuilder("UPDATE " + table + " SET ");
+            List<Object> values = new ArrayList<>();
+            for (int i = 1; i < columns.length; i++) {
+                // Mot de passe absent de la réplique : inchangé
+                if (row[i] == null && "password".equals(columns[i])) continue;
+                sql.append(columns[i]).append(" = ?, ");
+                values.add(row[i]);
+            }
+            sql.append("updated_at = CURRENT_TIMESTAMP, row_version = row_version + 1 WHERE id = ?");
+            try (PreparedStatement ps = server.prepareStatement(sql.toString())) {
+                for (int i = 0; i < values.size(); i++) ps.setObject(i + 1, values.get(i));
+                ps.setInt(values.size() + 1, serverId);
+                // Ligne supprimée par un autre poste entre-temps
+                if (ps.executeUpdate() == 0) return false;
+            }
+        }
+        Integer playerId = ChangeLog.PLAYERS.equals(p.entity) ? serverId : parentEntity != null ? (Integer) row[1] : null;
+        ChangeLog.record(server, p.entity, serverId, playerId, false);
+        return true;
+    }
+
+    /** Remplace les équipes d'un coach sur le serveur par celles de la réplique. */
+    private boolean applyTeams(Connection server, Connection replica, Map<String, Map<Integer, Integer>> ids,
+                               Pending p, long base) throws SQLException {
+        Integer coachId = serverId(ids, ChangeLog.COACHES, p.entityId);
+        if (coachId == null) return true;
+        if (changedElsewhere(server, ChangeLog.COACH_TEAMS, coachId, base)) return false;
+
+        List<String> teams = new ArrayList<>();
+        try (PreparedStatement ps = replica.prepareStatement("SELECT category FROM coach_teams WHERE coach_id = ? ORDER BY id")) {
+            ps.setInt(1, p.entityId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) teams.add(rs.getString(1));
+            }
+        }
+        try (PreparedStatement del = server.prepareStatement("DELETE FROM coach_teams WHERE coach_id = ?");
+             PreparedStatement ins = server.prepareStatement(
+                     "INSERT INTO coach_teams (coach_id, category, club_id) VALUES (?, ?, ?)")) {
+            del.setInt(1, coachId);
+            del.executeUpdate();
+            for (String team : teams) {
+                ins.setInt(1, coachId);
+                ins.setString(2, team);
+                ins.setInt(3, Tenant.current());
+                ins.addBatch();
+            }
+            if (!teams.isEmpty()) ins.executeBatch();
+        }
+        ChangeLog.record(server, ChangeLog.COACH_TEAMS, coachId, null, false);
+        return true;
+    }
+
+    /**
+     * @return identifiant de la ligne sur le serveur, ou null pour une ligne créée hors ligne
+     * et pas encore renvoyée
+     */
+    private static Integer serverId(Map<String, Map<Integer, Integer>> ids, String entity, int localId) {
+        if (localId < OFFLINE_ID_BASE) return localId;
+        Map<Integer, Integer> m = ids.get(entity);
+        return m == null ? null : m.get(localId);
+    }
+
+    /** @return true si un autre poste a modifié la ligne depuis la dernière synchronisation */
+    private static boolean changedElsewhere(Connection server, String entity, int serverId, long base) throws SQLException {
+        String sql = "SELECT 1 FROM change_log WHERE entity = ? AND entity_id = ? AND id > ? " +
+                "AND (origin IS NULL OR origin <> ?) LIMIT 1";
+        try (PreparedStatement ps = server.prepareStatement(sql)) {
+            ps.setString(1, entity);
+            ps.setInt(2, serverId);
+            ps.setLong(3, base);
+            ps.setString(4, ChangeLog.getOrigin());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static Integer serverPlayerOfLicense(Connection server, int licenseId) throws SQLException {
+        try (PreparedStatement ps = server.prepareStatement("SELECT player_id FROM licenses WHERE id = ?")) {
+            ps.setInt(1, licenseId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+
+    private static Object[] readRow(Connection replica, String table, String[] columns, int id) throws SQLException {
+        try (PreparedStatement ps = replica.prepareStatement(
+                "SELECT " + String.join(", ", columns) + " FROM " + table + " WHERE id = ?")) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                Object[] row = new Object[columns.length];
+                for (int i = 0; i < columns.length; i++) row[i] = rs.getObject(i + 1);
+                return row;
+            }
+        }
+    }
+
+    private static List<Pending> readOutbox(Connection replica) throws SQLException {
+        List<Pending> batch = new ArrayList<>();
+        try (PreparedStatement ps = replica.prepareStatement(
+                "SELECT id, entity, entity_id, deleted FROM change_log ORDER BY id LIMIT " + BATCH);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                batch.add(new Pending(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getBoolean(4)));
+            }
+        }
+        return batch;
+    }
+
+    private static Map<String, Map<Integer, Integer>> loadIdMap(Connection replica) throws SQLException {
+        Map<String, Map<Integer, Integer>> ids = new HashMap<>();
+        try (Statement st = replica.createStatement();
+             ResultSet rs = st.executeQuery("SELECT entity, local_id, server_id FROM replica_id_map")) {
+            while (rs.next()) {
+                ids.computeIfAbsent(rs.getString(1), k -> new HashMap<>()).put(rs.getInt(2), rs.getInt(3));
+            }
+        }
+        return ids;
+    }
+
+    // -------------------------------------------------------------------------
+    //  Copie depuis le serveur
+    // -------------------------------------------------------------------------
+
+    private void pull(Connection server, Connection replica, SyncResult result) throws SQLException {
+        // Écritures locales pas encore renvoyées : la copie attendra la prochaine synchronisation
+        if (!readOutbox(replica).isEmpty()) return;
+        long writes = QueryMetrics.getWriteCount();
+        int club = Tenant.current();
+        boolean full = !ready || state(replica, "club") != club;
+        long from = full ? 0 : state(replica, "watermark");
+        // Watermark sûr : une transaction validée en retard reste au-delà, relue la fois suivante
+        long to = ChangeLog.safeWatermark(server, from);
+
+        replica.setAutoCommit(false);
+        try (Statement st = replica.createStatement()) {
+            // Lignes créées hors ligne : désormais sur le serveur sous leur identifiant définitif
+            for (String table : new String[]{"players", "licenses", "coaches", "coach_teams"}) {
+                st.executeUpdate("DELETE FROM " + table + " WHERE id >= " + OFFLINE_ID_BASE);
+            }
+            st.executeUpdate("DELETE FROM replica_id_map");
+
+            if (full) {
+                result.pulled += replaceAll(server, replica, "players", PLAYER_COLUMNS);
+                result.pulled += replaceAll(server, replica, "licenses", LICENSE_COLUMNS);
+                result.pulled += replaceAll(server, replica, "coaches", COACH_COLUMNS);
+                result.pulled += replaceAll(server, replica, "coach_teams", TEAM_COLUMNS);
+            } else if (to > from) {
+                Set<Integer> players = ChangeLog.changedIds(server, "player_id",
+                        "entity IN ('" + ChangeLog.PLAYERS + "', '" + ChangeLog.LICENSES + "')", from, to);
+                for (List<Integer> chunk : ChangeLog.chunks(players)) {
+                    delete(replica, "licenses", "player_id", chunk);
+                    delete(replica, "players", "id", chunk);
+                    result.pulled += copy(server, replica, "players", PLAYER_COLUMNS, "id", chunk);
+                    result.pulled += copy(server, replica, "licenses", LICENSE_COLUMNS, "player_id", chunk);
+                }
+                Set<Integer> coaches = ChangeLog.changedIds(server, "entity_id",
+                        "entity IN ('" + ChangeLog.COACHES + "', '" + ChangeLog.COACH_TEAMS + "')", from, to);
+                for (List<Integer> chunk : ChangeLog.chunks(coaches)) {
+                    delete(replica, "coach_teams", "coach_id", chunk);
+                    delete(replica, "coaches", "id", chunk);
+                    result.pulled += copy(server, replica, "coaches", COACH_COLUMNS, "id", chunk);
+                    result.pulled += copy(server, replica, "coach_teams", TEAM_COLUMNS, "coach_id", chunk);
+                }
+            }
+            // Tarifs : table de quelques lignes, sans journal
+            replaceAll(server, replica, "category_fees", FEE_COLUMNS);
+
+            setState(replica, "watermark", to);
+            setState(replica, "ready", 1);
+            setState(replica, "club", club);
+            replica.commit();
+        } catch (SQLException e) {
+            replica.rollback();
+            throw e;
+        } finally {
+            replica.setAutoCommit(true);
+        }
+        ready = true;
+        syncedWrites = writes;
+    }
+
+    private static int replaceAll(Connection server, Connection replica, String table, String[] columns) throws SQLException {
+        try (Statement st = replica.createStatement()) {
+            st.executeUpdate("DELETE FROM " + table);
+        }
+        return copy(server, replica, table, columns, null, List.of());
+    }
+
+    private static void delete(Connection replica, String table, String column, List<Integer> ids) throws SQLException {
+        try (PreparedStatement ps = replica.prepareStatement(
+                "DELETE FROM " + table + " WHERE " + column + " IN (" + ChangeLog.placeholders(ids.size()) + ")")) {
+            for (int i = 0; i < ids.size(); i++) ps.setInt(i + 1, ids.get(i));
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Recopie les lignes du club courant sur le serveur (toutes, ou celles dont {@code column}
+     * est dans {@code ids}).
+     */
+    private static int copy(Connection server, Connection replica, String table, String[] columns,
+                            String column, List<Integer> ids) throws SQLException {
+        String cols = String.join(", ", columns);
+        String select = "SELECT " + cols + " FROM " + table + " WHERE club_id = ?"
+                + (column == null ? "" : " AND " + column + " IN (" + ChangeLog.placeholders(ids.size()) + ")");
+        int count = 0;
+        try (PreparedStatement read = server.prepareStatement(select);
+             PreparedStatement write = replica.prepareStatement(
+                     "INSERT INTO " + table + " (" + cols + ") VALUES (" + ChangeLog.placeholders(columns.length) + ")")) {
+            read.setInt(1, Tenant.current());
+            for (int i = 0; i < ids.size(); i++) read.setInt(i + 2, ids.get(i));
+            try (ResultSet rs = read.executeQuery()) {
+                while (rs.next()) {
+                    for (int i = 1; i <= columns.length; i++) write.setObject(i, rs.getObject(i));
+                    write.addBatch();
+                    count++;
+                }
+            }
+            if (count > 0) write.executeBatch();
+        }
+        return count;
+    }
+
+    // -------------------------------------------------------------------------
+    //  Outils
+    // -------------------------------------------------------------------------
+
+    private static long state(Connection conn, String name) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT val FROM replica_state WHERE name = ?")) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private static void setState(Connection conn, String name, long value) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("MERGE INTO replica_state (name, val) KEY (name) VALUES (?, ?)")) {
+            ps.setString(1, name);
+            ps.setLong(2, value);
+            ps.executeUpdate();
+        }
+    }
+
+    private static boolean exists(Connection conn, String table) {
+        try (Statement st = conn.createStatement()) {
+            st.executeQuery("SELECT 1 FROM " + table + " WHERE 1 = 0").close();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static boolean isValid(Connection conn) {
+        try {
+            return conn.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void quietClose(Connection c) {
+        try {
+            c.close();
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la fermeture de la réplique : " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package fr.hockey.dao;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * File d'envoi des e-mails (table {@code mail_outbox}).
+ *
+ * <p>Chaque message porte une clé d'idempotence unique : remettre en file un message déjà
+ * connu (même relance, même campagne) est sans effet, qu'il soit en attente ou déjà
+ * envoyé. Un message reste {@code PENDING} jusqu'à son envoi ({@code SENT}) ou jusqu'à
+ * l'abandon après erreurs ({@code FAILED}) ; entre deux tentatives, {@code next_attempt_at}
+ * en repousse l'envoi.</p>
+ */
+public class MailOutbox {
+
+    public static final String PENDING = "PENDING";
+    public static final String SENT = "SENT";
+    public static final String FAILED = "FAILED";
+
+    /**
+     * Message de la file.
+     */
+    public static final class Message {
+        private final long id;
+        private final String key;
+        private final String recipient;
+        private final String subject;
+        private final String body;
+        private final int attempts;
+
+        public Message(long id, String key, String recipient, String subject, String body, int attempts) {
+            this.id = id;
+            this.key = key;
+            this.recipient = recipient;
+            this.subject = subject;
+            this.body = body;
+            this.attempts = attempts;
+        }
+
+        public long getId() { return id; }
+
+        public String getKey() { return key; }
+
+        public String getRecipient() { return recipient; }
+
+        public String getSubject() { return subject; }
+
+        public String getBody() { return body; }
+
+        public int getAttempts() { return attempts; }
+    }
+
+    /**
+     * Met des messages en file, par lots, en ignorant ceux dont la clé est déjà connue.
+     *
+     * @param messages messages à ajouter (identifiant et tentatives ignorés)
+     * @return nombre de messages réellement ajoutés
+     * @throws SQLException en cas d’erreur SQL (rien n'est alors ajouté)
+     */
+    public int enqueueAll(List<Message> messages) throws SQLException {
+        if (messages.isEmpty()) return 0;
+        String sql = "INSERT IGNORE INTO mail_outbox (idempotency_key, recipient, subject, body, status, club_id) " +
+                "VALUES (?, ?, ?, ?, 'PENDING', ?)";
+        int club = Tenant.current();
+        int added = 0;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            for (Message m : messages) {
+                ps.setString(1, m.getKey());
+                ps.setString(2, m.getRecipient());
+                ps.setString(3, m.getSubject());
+                ps.setString(4, m.getBody());
+                ps.setInt(5, club);
+                ps.addBatch();
+            }
+            for (int n : ps.executeBatch()) {
+                if (n > 0 || n == Statement.SUCCESS_NO_INFO) added++;
+            }
+            conn.commit();
+        }
+        return added;
+    }
+
+    /**
+     * Messages en attente du club courant dont l'envoi est dû, des plus anciens aux plus récents.
+     *
+     * @param now   instant de référence
+     * @param limit nombre maximal de messages
+     * @return messages à envoyer
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public List<Message> findDue(Timestamp now, int limit) throws SQLException {
+        String sql = "SELECT id, idempotency_key, recipient, subject, body, attempts FROM mail_outbox " +
+                "WHERE club_id = ? AND status = 'PENDING' AND (next_attempt_at IS NULL OR next_attempt_at <= ?) " +
+                "ORDER BY id LIMIT ?";
+        List<Message> list = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, Tenant.current());
+            ps.setTimestamp(2, now);
+            ps.setInt(3, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new Message(rs.getLong("id"), rs.getString("idempotency_key"), rs.getString("recipient"),
+                            rs.getString("subject"), rs.getString("body"), rs.getInt("attempts")));
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Marque un message comme envoyé.
+     *
+     * @param id identifiant du message
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public void markSent(long id) throws SQLException {
+        String sql = "UPDATE mail_outbox SET status = 'SENT', attempts = attempts + 1, last_error = NULL, " +
+                "sent_at = CURRENT_TIMESTAMP WHERE id = ? AND club_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, id);
+            ps.setInt(2, Tenant.current());
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Enregistre l'échec d'une tentative.
+     *
+     * @param id          identifiant du message
+     * @param error       cause de l'échec
+     * @param nextAttempt prochaine tentative, ou null pour abandonner ({@code FAILED})
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public void markFailed(long id, String error, Timestamp nextAttempt) throws SQLException {
+        String sql = "UPDATE mail_outbox SET status = ?, attempts = attempts + 1, last_error = ?, next_attempt_at = ? " +
+                "WHERE id = ? AND club_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, nextAttempt == null ? FAILED : PENDING);
+            ps.setString(2, error == null ? null : error.length() > 255 ? error.substring(0, 255) : error);
+            ps.setTimestamp(3, nextAttempt);
+            ps.setLong(4, id);
+            ps.setInt(5, Tenant.current());
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * @param status statut recherché
+     * @return nombre de messages du club courant dans ce statut
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public int countByStatus(String status) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM mail_outbox WHERE club_id = ? AND status = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, Tenant.current());
+            ps.setString(2, status);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package fr.hockey.dao;
 
+import fr.hockey.events.DomainEventBus;
+import fr.hockey.events.DomainEvents;
 import fr.hockey.models.License;
 import fr.hockey.models.Player;
 import fr.hockey.utils.AuditLogger;
 
+import java.io.IOException;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * DAO responsable de la gestion des joueurs.
@@ -19,11 +24,19 @@ import java.util.List;
  *     <li>Recherche par poste</li>
  *     <li>Recherche combinée catégorie + poste</li>
  *     <li>Insertion, modification et suppression d'un joueur</li>
+ *     <li>Insertion en masse (imports) par lots JDBC</li>
+ *     <li>Parcours en flux pour les exports volumineux</li>
+ *     <li>Lecture des seuls joueurs modifiés depuis un watermark ({@link ChangeLog})</li>
  *     <li>Mappage complet ResultSet → Player + License</li>
  * </ul>
+ *
+ * <p>Toutes les requêtes sont restreintes au club de la session ({@link Tenant}).</p>
  */
 public class PlayerDAO {
 
+    /** Taille des paquets lus par {@link #streamAll} hors MySQL. */
+    static final int STREAM_FETCH_SIZE = 1_000;
+
     /**
      * Retourne la liste complète des joueurs, triée par nom et prénom.
      * Les licences sont chargées via une jointure LEFT JOIN.
@@ -32,14 +45,16 @@ public class PlayerDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     public List<Player> findAll() throws SQLException {
-        String sql = "SELECT p.id, p.first_name, p.last_name, p.category, p.role, p.position, p.number, " +
+        String sql = "SELECT p.id, p.first_name, p.last_name, p.category, p.role, p.position, p.number, p.contact_email, " +
                 "l.id AS license_id, l.paid AS license_paid, l.expiration_date AS license_expiration_date, l.amount AS license_amount " +
                 "FROM players p LEFT JOIN licenses l ON l.player_id = p.id " +
-                "ORDER BY p.last_name, p.first_name";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            return mapPlayers(rs);
+                "WHERE p.club_id = ? ORDER BY p.last_name, p.first_name";
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, Tenant.current());
+            try (ResultSet rs = ps.executeQuery()) {
+                return mapPlayers(rs);
+            }
         }
     }
 
@@ -51,13 +66,14 @@ public class PlayerDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     public List<Player> findByCategory(String category) throws SQLException {
-        String sql = "SELECT p.id, p.first_name, p.last_name, p.category, p.role, p.position, p.number, " +
+        String sql = "SELECT p.id, p.first_name, p.last_name, p.category, p.role, p.position, p.number, p.contact_email, " +
                 "l.id AS license_id, l.paid AS license_paid, l.expiration_date AS license_expiration_date, l.amount AS license_amount " +
                 "FROM players p LEFT JOIN licenses l ON l.player_id = p.id " +
-                "WHERE p.category = ? ORDER BY p.last_name, p.first_name";
-        try (Connection conn = DatabaseConnection.getConnection();
+                "WHERE p.club_id = ? AND p.category = ? ORDER BY p.last_name, p.first_name";
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, category);
+            ps.setInt(1, Tenant.current());
+            ps.setString(2, category);
             try (ResultSet rs = ps.executeQuery()) {
                 return mapPlayers(rs);
             }
@@ -72,13 +88,14 @@ public class PlayerDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     public List<Player> findByPosition(String position) throws SQLException {
-        String sql = "SELECT p.id, p.first_name, p.last_name, p.category, p.role, p.position, p.number, " +
+        String sql = "SELECT p.id, p.first_name, p.last_name, p.category, p.role, p.position, p.number, p.contact_email, " +
                 "l.id AS license_id, l.paid AS license_paid, l.expiration_date AS license_expiration_date, l.amount AS license_amount " +
                 "FROM players p LEFT JOIN licenses l ON l.player_id = p.id " +
-                "WHERE p.position = ? ORDER BY p.last_name, p.first_name";
-        try (Connection conn = DatabaseConnection.getConnection();
+                "WHERE p.club_id = ? AND p.position = ? ORDER BY p.last_name, p.first_name";
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, position);
+            ps.setInt(1, Tenant.current());
+            ps.setString(2, position);
             try (ResultSet rs = ps.executeQuery()) {
                 return mapPlayers(rs);
             }
@@ -94,14 +111,15 @@ public class PlayerDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     public List<Player> findByCategoryAndPosition(String category, String position) throws SQLException {
-        String sql = "SELECT p.id, p.first_name, p.last_name, p.category, p.role, p.position, p.number, " +
+        String sql = "SELECT p.id, p.first_name, p.last_name, p.category, p.role, p.position, p.number, p.contact_email, " +
                 "l.id AS license_id, l.paid AS license_paid, l.expiration_date AS license_expiration_date, l.amount AS license_amount " +
                 "FROM players p LEFT JOIN licenses l ON l.player_id = p.id " +
-                "WHERE p.category = ? AND p.position = ? ORDER BY p.last_name, p.first_name";
-        try (Connection conn = DatabaseConnection.getConnection();
+                "WHERE p.club_id = ? AND p.category = ? AND p.position = ? ORDER BY p.last_name, p.first_name";
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, category);
-            ps.setString(2, position);
+            ps.setInt(1, Tenant.current());
+            ps.setString(2, category);
+            ps.setString(3, position);
             try (ResultSet rs = ps.executeQuery()) {
                 return mapPlayers(rs);
             }
@@ -109,12 +127,13 @@ public class PlayerDAO {
     }
 
     public Player findById(int id) throws SQLException {
-        String sql = "SELECT p.id, p.first_name, p.last_name, p.category, p.role, p.position, p.number, " +
+        String sql = "SELECT p.id, p.first_name, p.last_name, p.category, p.role, p.position, p.number, p.contact_email, " +
                 "l.id AS license_id, l.paid AS license_paid, l.expiration_date AS license_expiration_date, l.amount AS license_amount " +
-                "FROM players p LEFT JOIN licenses l ON l.player_id = p.id WHERE p.id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
+                "FROM players p LEFT JOIN licenses l ON l.player_id = p.id WHERE p.id = ? AND p.club_id = ?";
+        try (Connection conn = DatabaseConnection.getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, id);
+            ps.setInt(2, Tenant.current());
             try (ResultSet rs = ps.executeQuery()) {
                 List<Player> list = mapPlayers(rs);
                 return list.isEmpty() ? null : list.get(0);
@@ -149,9 +168,11 @@ public class PlayerDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     private boolean insert(Player player) throws SQLException {
-        String sql = "INSERT INTO players (first_name, last_name, category, role, position, number) VALUES (?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO players (first_name, last_name, category, role, position, number, contact_email, club_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            conn.setAutoCommit(false);
             ps.setString(1, player.getFirstName());
             ps.setString(2, player.getLastName());
             ps.setString(3, player.getCategory());
@@ -162,6 +183,8 @@ public class PlayerDAO {
             } else {
                 ps.setNull(6, Types.INTEGER);
             }
+            ps.setString(7, player.getContactEmail());
+            ps.setInt(8, Tenant.current());
             int affected = ps.executeUpdate();
             if (affected == 0) return false;
 
@@ -170,6 +193,8 @@ public class PlayerDAO {
                     player.setId(keys.getInt(1));
                 }
             }
+            ChangeLog.record(conn, ChangeLog.PLAYERS, player.getId(), player.getId(), false);
+            conn.commit();
             AuditLogger.logChange(
                     "players",
                     "INSERT",
@@ -178,6 +203,7 @@ public class PlayerDAO {
                             player.getFirstName(), player.getLastName(), player.getCategory(), player.getRole(), player.getPosition(),
                             player.getNumber() > 0 ? player.getNumber() : "NULL")
             );
+            DomainEventBus.publish(new DomainEvents.PlayerSaved(player, true));
             return true;
         }
     }
@@ -190,9 +216,11 @@ public class PlayerDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     private boolean update(Player player) throws SQLException {
-        String sql = "UPDATE players SET first_name = ?, last_name = ?, category = ?, role = ?, position = ?, number = ? WHERE id = ?";
+        String sql = "UPDATE players SET first_name = ?, last_name = ?, category = ?, role = ?, position = ?, number = ?, contact_email = ?, " +
+                "updated_at = CURRENT_TIMESTAMP, row_version = row_version + 1 WHERE id = ? AND club_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
             ps.setString(1, player.getFirstName());
             ps.setString(2, player.getLastName());
             ps.setString(3, player.getCategory());
@@ -203,9 +231,13 @@ public class PlayerDAO {
             } else {
                 ps.setNull(6, Types.INTEGER);
             }
-            ps.setInt(7, player.getId());
+            ps.setString(7, player.getContactEmail());
+            ps.setInt(8, player.getId());
+            ps.setInt(9, Tenant.current());
             int affected = ps.executeUpdate();
             if (affected > 0) {
+                ChangeLog.record(conn, ChangeLog.PLAYERS, player.getId(), player.getId(), false);
+                conn.commit();
                 AuditLogger.logChange(
                         "players",
                         "UPDATE",
@@ -214,12 +246,99 @@ public class PlayerDAO {
                                 player.getFirstName(), player.getLastName(), player.getCategory(), player.getRole(), player.getPosition(),
                                 player.getNumber() > 0 ? player.getNumber() : "NULL")
                 );
+                DomainEventBus.publish(new DomainEvents.PlayerSaved(player, false));
                 return true;
             }
             return false;
         }
     }
 
+    /**
+     * Insère une liste de joueurs, avec leur licence éventuelle, en une seule transaction
+     * et par lots JDBC (imports en ligne de commande).
+     *
+     * <p>Les identifiants générés sont reportés sur les joueurs et leurs licences. Une seule
+     * ligne d'audit résume l'import ; un événement est publié par joueur.</p>
+     *
+     * @param players joueurs à créer (identifiant 0)
+     * @return nombre de joueurs insérés
+     * @throws SQLException en cas d’erreur SQL (rien n'est alors inséré)
+     */
+    public int insertAll(List<Player> players) throws SQLException {
+        if (players.isEmpty()) return 0;
+        String sql = "INSERT INTO players (first_name, last_name, category, role, position, number, contact_email, club_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        String licenseSql = "INSERT INTO licenses (player_id, paid, expiration_date, amount, club_id) VALUES (?, ?, ?, ?, ?)";
+        int club = Tenant.current();
+        List<Integer> playerIds = new ArrayList<>(players.size());
+        List<License> licenses = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Player player : players) {
+                    ps.setString(1, player.getFirstName());
+                    ps.setString(2, player.getLastName());
+                    ps.setString(3, player.getCategory());
+                    ps.setString(4, player.getRole());
+                    ps.setString(5, player.getPosition());
+                    if (player.getNumber() > 0) {
+                        ps.setInt(6, player.getNumber());
+                    } else {
+                        ps.setNull(6, Types.INTEGER);
+                    }
+                    ps.setString(7, player.getContactEmail());
+                    ps.setInt(8, club);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (Player player : players) {
+                        if (!keys.next()) throw new SQLException("Identifiants générés manquants pour l'import");
+                        player.setId(keys.getInt(1));
+                        playerIds.add(player.getId());
+                        if (player.getLicense() != null) {
+                            player.getLicense().setPlayerId(player.getId());
+                            licenses.add(player.getLicense());
+                        }
+                    }
+                }
+            }
+            List<Integer> licenseIds = new ArrayList<>(licenses.size());
+            List<Integer> licensePlayerIds = new ArrayList<>(licenses.size());
+            if (!licenses.isEmpty()) {
+                try (PreparedStatement ps = conn.prepareStatement(licenseSql, Statement.RETURN_GENERATED_KEYS)) {
+                    for (License l : licenses) {
+                        ps.setInt(1, l.getPlayerId());
+                        ps.setBoolean(2, l.isPaid());
+                        ps.setDate(3, Date.valueOf(l.getExpirationDate()));
+                        ps.setDouble(4, l.getAmount());
+                        ps.setInt(5, club);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (License l : licenses) {
+                            if (!keys.next()) throw new SQLException("Identifiants générés manquants pour l'import");
+                            l.setId(keys.getInt(1));
+                            licenseIds.add(l.getId());
+                            licensePlayerIds.add(l.getPlayerId());
+                        }
+                    }
+                }
+            }
+            ChangeLog.recordAll(conn, ChangeLog.PLAYERS, playerIds, playerIds, false);
+            ChangeLog.recordAll(conn, ChangeLog.LICENSES, licenseIds, licensePlayerIds, false);
+            conn.commit();
+        }
+        AuditLogger.logChange("players", "IMPORT", playerIds.get(0) + ".." + playerIds.get(playerIds.size() - 1),
+                String.format("players=%d,licenses=%d", players.size(), licenses.size()));
+        for (Player player : players) {
+            DomainEventBus.publish(new DomainEvents.PlayerSaved(player, true));
+            if (player.getLicense() != null) DomainEventBus.publish(new DomainEvents.LicenseSaved(player.getLicense()));
+        }
+        return players.size();
+    }
+
     /**
      * Supprime un joueur de la base.
      *
@@ -228,19 +347,104 @@ public class PlayerDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     public boolean delete(int playerId) throws SQLException {
-        String sql = "DELETE FROM players WHERE id = ?";
+        String sql = "DELETE FROM players WHERE id = ? AND club_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
             ps.setInt(1, playerId);
+            ps.setInt(2, Tenant.current());
             int affected = ps.executeUpdate();
             if (affected > 0) {
+                ChangeLog.record(conn, ChangeLog.PLAYERS, playerId, playerId, true);
+                conn.commit();
                 AuditLogger.logChange("players", "DELETE", String.valueOf(playerId), "");
+                DomainEventBus.publish(new DomainEvents.PlayerDeleted(playerId));
                 return true;
             }
             return false;
         }
     }
 
+    /**
+     * Traitement appliqué à chaque joueur lu par {@link #streamAll}.
+     */
+    @FunctionalInterface
+    public interface PlayerVisitor {
+        void visit(Player player) throws IOException;
+    }
+
+    /**
+     * Parcourt les joueurs (avec leur licence éventuelle) sans les charger en mémoire :
+     * curseur en lecture seule et en avant uniquement, chaque ligne étant transmise au
+     * visiteur puis oubliée. Sur MySQL, {@code setFetchSize(Integer.MIN_VALUE)} active la
+     * lecture en flux ligne à ligne ; les autres bases lisent par paquets de {@link #STREAM_FETCH_SIZE}.
+     *
+     * <p>Destiné aux exports volumineux : la mémoire utilisée ne dépend pas du nombre de joueurs.</p>
+     *
+     * @param category catégorie à exporter, ou null pour tout l'effectif
+     * @param visitor  traitement de chaque joueur, dans l'ordre nom / prénom
+     * @return nombre de joueurs parcourus
+     * @throws SQLException en cas d’erreur SQL
+     * @throws IOException  si le visiteur échoue (la lecture est alors interrompue)
+     */
+    public long streamAll(String category, PlayerVisitor visitor) throws SQLException, IOException {
+        String sql = "SELECT p.id, p.first_name, p.last_name, p.category, p.role, p.position, p.number, p.contact_email, " +
+                "l.id AS license_id, l.paid AS license_paid, l.expiration_date AS license_expiration_date, l.amount AS license_amount " +
+                "FROM players p LEFT JOIN licenses l ON l.player_id = p.id " +
+                "WHERE p.club_id = ? " + (category != null ? "AND p.category = ? " : "") +
+                "ORDER BY p.last_name, p.first_name";
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            boolean mysql = conn.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+            ps.setFetchSize(mysql ? Integer.MIN_VALUE : STREAM_FETCH_SIZE);
+            ps.setInt(1, Tenant.current());
+            if (category != null) ps.setString(2, category);
+            long count = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    visitor.visit(mapPlayer(rs));
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Retourne les joueurs modifiés depuis un watermark : joueur ou licence créé, modifié
+     * ou supprimé. Un joueur modifié puis supprimé n'apparaît que parmi les suppressions.
+     *
+     * @param watermark watermark du précédent appel (0 pour tout le journal)
+     * @return joueurs modifiés (avec licence), identifiants supprimés et nouveau watermark
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public Delta<Player> findChangedSince(long watermark) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            long to = ChangeLog.safeWatermark(conn, watermark);
+            Set<Integer> ids = ChangeLog.changedIds(conn, "player_id",
+                    "entity IN ('" + ChangeLog.PLAYERS + "', '" + ChangeLog.LICENSES + "')", watermark, to);
+
+            List<Player> changed = new ArrayList<>();
+            for (List<Integer> chunk : ChangeLog.chunks(ids)) {
+                String sql = "SELECT p.id, p.first_name, p.last_name, p.category, p.role, p.position, p.number, p.contact_email, " +
+                        "l.id AS license_id, l.paid AS license_paid, l.expiration_date AS license_expiration_date, l.amount AS license_amount " +
+                        "FROM players p LEFT JOIN licenses l ON l.player_id = p.id " +
+                        "WHERE p.club_id = ? AND p.id IN (" + ChangeLog.placeholders(chunk.size()) + ")";
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setInt(1, Tenant.current());
+                    for (int i = 0; i < chunk.size(); i++) ps.setInt(i + 2, chunk.get(i));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        changed.addAll(mapPlayers(rs));
+                    }
+                }
+            }
+
+            Set<Integer> deleted = new LinkedHashSet<>(ids);
+            for (Player p : changed) deleted.remove(p.getId());
+            return new Delta<>(changed, deleted, to);
+        }
+    }
+
     /**
      * Convertit un ResultSet en liste de joueurs avec leur licence éventuelle.
      *
@@ -251,37 +455,48 @@ public class PlayerDAO {
     private List<Player> mapPlayers(ResultSet rs) throws SQLException {
         List<Player> list = new ArrayList<>();
         while (rs.next()) {
-            Player p = new Player();
-            p.setId(rs.getInt("id"));
-            p.setFirstName(rs.getString("first_name"));
-            p.setLastName(rs.getString("last_name"));
-            p.setCategory(rs.getString("category"));
-            p.setRole(rs.getString("role"));
-            p.setPosition(rs.getString("position"));
+            list.add(mapPlayer(rs));
+        }
+        return list;
+    }
 
-            int number = rs.getInt("number");
-            p.setNumber(!rs.wasNull() ? number : 0);
+    /**
+     * Convertit la ligne courante d'un ResultSet en joueur avec sa licence éventuelle.
+     *
+     * @param rs ResultSet positionné sur une ligne (colonnes de player + license)
+     * @return joueur
+     * @throws SQLException en cas d’erreur de lecture
+     */
+    private Player mapPlayer(ResultSet rs) throws SQLException {
+        Player p = new Player();
+        p.setId(rs.getInt("id"));
+        p.setFirstName(rs.getString("first_name"));
+        p.setLastName(rs.getString("last_name"));
+        p.setCategory(rs.getString("category"));
+        p.setRole(rs.getString("role"));
+        p.setPosition(rs.getString("position"));
 
-            int licenseId = rs.getInt("license_id");
-            if (!rs.wasNull()) {
-                License lic = new License();
-                lic.setId(licenseId);
-                lic.setPlayerId(p.getId());
-                lic.setPaid(rs.getBoolean("license_paid"));
+        int number = rs.getInt("number");
+        p.setNumber(!rs.wasNull() ? number : 0);
+        p.setContactEmail(rs.getString("contact_email"));
 
-                Date expDate = rs.getDate("license_expiration_date");
-                if (expDate != null) {
-                    lic.setExpirationDate(expDate.toLocalDate());
-                } else {
-                    lic.setExpirationDate(LocalDate.now());
-                }
+        int licenseId = rs.getInt("license_id");
+        if (!rs.wasNull()) {
+            License lic = new License();
+            lic.setId(licenseId);
+            lic.setPlayerId(p.getId());
+            lic.setPaid(rs.getBoolean("license_paid"));
 
-                lic.setAmount(rs.getDouble("license_amount"));
-                p.setLicense(lic);
+            Date expDate = rs.getDate("license_expiration_date");
+            if (expDate != null) {
+                lic.setExpirationDate(expDate.toLocalDate());
+            } else {
+                lic.setExpirationDate(LocalDate.now());
             }
 
-            list.add(p);
+            lic.setAmount(rs.getDouble("license_amount"));
+            p.setLicense(lic);
         }
-        return list;
+        return p;
     }
 }
@@ -0,0 +1,110 @@
+package fr.hockey.dao;
+
+import fr.hockey.models.PracticeSession;
+import fr.hockey.utils.AuditLogger;
+import fr.hockey.utils.CompactBitmap;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAO des séances d'entraînement (table {@code practice_sessions}).
+ *
+ * <p>Une séance est une seule ligne : les joueurs présents y sont stockés sous forme
+ * compressée ({@link CompactBitmap#toBytes()}) et non comme une ligne par joueur. Une
+ * saison d'une catégorie se relit en une requête sur l'index (club, catégorie, date).</p>
+ */
+public class PracticeSessionDAO {
+
+    /**
+     * Crée une séance.
+     *
+     * @param session séance (catégorie et date obligatoires) ; son identifiant est renseigné
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public void insert(PracticeSession session) throws SQLException {
+        String sql = "INSERT INTO practice_sessions (category, session_date, label, attendance, club_id) VALUES (?, ?, ?, ?, ?)";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, session.getCategory());
+            ps.setDate(2, Date.valueOf(session.getDate()));
+            ps.setString(3, session.getLabel());
+            ps.setBytes(4, session.getPresent().toBytes());
+            ps.setInt(5, Tenant.current());
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) session.setId(keys.getInt(1));
+            }
+        }
+        AuditLogger.logChange("practice_sessions", "INSERT", String.valueOf(session.getId()),
+                "category=" + session.getCategory() + ", date=" + session.getDate());
+    }
+
+    /**
+     * Enregistre les présents d'une séance.
+     *
+     * @param sessionId identifiant de la séance
+     * @param present   identifiants des joueurs présents
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public void updateAttendance(int sessionId, CompactBitmap present) throws SQLException {
+        String sql = "UPDATE practice_sessions SET attendance = ? WHERE id = ? AND club_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setBytes(1, present.toBytes());
+            ps.setInt(2, sessionId);
+            ps.setInt(3, Tenant.current());
+            ps.executeUpdate();
+        }
+        AuditLogger.logChange("practice_sessions", "UPDATE", String.valueOf(sessionId),
+                "present=" + present.getCardinality());
+    }
+
+    /**
+     * Supprime une séance.
+     *
+     * @param sessionId identifiant de la séance
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public void delete(int sessionId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement("DELETE FROM practice_sessions WHERE id = ? AND club_id = ?")) {
+            ps.setInt(1, sessionId);
+            ps.setInt(2, Tenant.current());
+            ps.executeUpdate();
+        }
+        AuditLogger.logChange("practice_sessions", "DELETE", String.valueOf(sessionId), null);
+    }
+
+    /**
+     * Séances d'une catégorie sur une période, par date croissante.
+     *
+     * @param category catégorie
+     * @param from     premier jour inclus
+     * @param to       dernier jour inclus
+     * @return séances avec leurs présents
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public List<PracticeSession> findByCategory(String category, LocalDate from, LocalDate to) throws SQLException {
+        String sql = "SELECT id, category, session_date, label, attendance FROM practice_sessions " +
+                "WHERE club_id = ? AND category = ? AND session_date BETWEEN ? AND ? ORDER BY session_date, id";
+        List<PracticeSession> list = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, Tenant.current());
+            ps.setString(2, category);
+            ps.setDate(3, Date.valueOf(from));
+            ps.setDate(4, Date.valueOf(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new PracticeSession(rs.getInt("id"), rs.getString("category"),
+                            rs.getDate("session_date").toLocalDate(), rs.getString("label"),
+                            CompactBitmap.fromBytes(rs.getBytes("attendance"))));
+                }
+            }
+        }
+        return list;
+    }
+}
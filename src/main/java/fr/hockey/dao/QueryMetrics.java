@@ -0,0 +1,222 @@
+package fr.hockey.dao;
+
+import fr.hockey.utils.AppSettings;
+import fr.hockey.utils.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.FileHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.regex.Pattern;
+
+/**
+ * Métriques des requêtes JDBC exécutées par les DAO.
+ *
+ * <p>Alimenté par l'instrumentation posée par {@link DatabaseConnection#getConnection()} :</p>
+ * <ul>
+ *     <li>un histogramme de latence par "forme" de requête (SQL normalisé, littéraux remplacés par ?) ;</li>
+ *     <li>le nombre de lignes lues ou modifiées ;</li>
+ *     <li>le temps d'attente pour obtenir une connexion ;</li>
+ *     <li>un journal des requêtes lentes ({@code slow-queries.log}) contenant la forme des
+ *     paramètres liés (types et tailles, jamais les valeurs).</li>
+ * </ul>
+ *
+ * <p>Les statistiques sont consultables dans l'écran Diagnostics (admins).</p>
+ */
+public final class QueryMetrics {
+
+    private static final String LOG_PATH = Paths.get(System.getProperty("user.home"),
+            ".hockeyclubmanager", "slow-queries.log").toString();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /** Nombre maximal de requêtes brutes dont la forme est gardée en mémoire. */
+    private static final int MAX_CACHED_SHAPES = 1_024;
+
+    private static final ConcurrentMap<String, Stats> BY_SHAPE = new ConcurrentHashMap<>();
+    /**
+     * Forme déjà calculée par requête brute : les DAO réexécutent les mêmes chaînes SQL,
+     * les trois expressions régulières ne sont donc appliquées qu'à la première exécution.
+     * Vidée lorsqu'elle est pleine (SQL construit avec des littéraux variables).
+     */
+    private static final ConcurrentMap<String, String> SHAPE_CACHE = new ConcurrentHashMap<>();
+    private static final LatencyHistogram CONNECTION_WAIT = new LatencyHistogram();
+    private static final AtomicLong WRITES = new AtomicLong();
+
+    /** Seuil (ms) au-delà duquel une requête est écrite dans le journal des requêtes lentes. */
+    private static volatile long slowQueryThresholdMs = AppSettings.getSlowQueryThresholdMs();
+
+    private static Logger slowLog;
+
+    private QueryMetrics() {}
+
+    /**
+     * Statistiques cumulées pour une forme de requête.
+     */
+    public static final class Stats {
+        private final String shape;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        Stats(String shape) {
+            this.shape = shape;
+        }
+
+        /** @return SQL normalisé */
+        public String getShape() { return shape; }
+
+        /** @return histogramme des temps d'exécution (µs) */
+        public LatencyHistogram getLatency() { return latency; }
+
+        /** @return nombre total de lignes lues (SELECT) ou affectées (INSERT/UPDATE/DELETE) */
+        public long getRows() { return rows.get(); }
+
+        /** @return nombre d'exécutions terminées en erreur */
+        public long getErrors() { return errors.get(); }
+    }
+
+    /**
+     * Normalise une requête : espaces compactés, littéraux remplacés par {@code ?}.
+     *
+     * @param sql requête brute
+     * @return forme de la requête
+     */
+    public static String shapeOf(String sql) {
+        if (sql == null) return "";
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        return WHITESPACE.matcher(s).replaceAll(" ").trim();
+    }
+
+    static Stats statsFor(String sql) {
+        String shape = sql != null ? SHAPE_CACHE.get(sql) : "";
+        if (shape == null) {
+            shape = shapeOf(sql);
+            if (SHAPE_CACHE.size() >= MAX_CACHED_SHAPES) SHAPE_CACHE.clear();
+            SHAPE_CACHE.put(sql, shape);
+        }
+        return BY_SHAPE.computeIfAbsent(shape, Stats::new);
+    }
+
+    /**
+     * Enregistre une exécution de requête.
+     *
+     * @param stats       statistiques de la forme concernée
+     * @param micros      durée d'exécution
+     * @param paramShape  forme des paramètres liés (ex. {@code [INT, VARCHAR(3)]})
+     * @param failed      true si l'exécution a levé une exception
+     */
+    static void recordExecution(Stats stats, long micros, String paramShape, boolean failed) {
+        stats.latency.record(micros);
+        if (failed) stats.errors.incrementAndGet();
+        if (micros >= slowQueryThresholdMs * 1000) {
+            logSlowQuery(stats.shape, micros, paramShape, failed);
+        }
+    }
+
+    static void recordRows(Stats stats, long rows) {
+        if (rows > 0) stats.rows.addAndGet(rows);
+    }
+
+    static void recordWrite(long rows) {
+        if (rows > 0) WRITES.incrementAndGet();
+    }
+
+    /**
+     * Signale une écriture faite par un autre poste (reçue par le flux de modifications) :
+     * les vues en cache la verront comme une écriture locale et se rafraîchiront.
+     */
+    public static void recordRemoteWrite() {
+        WRITES.incrementAndGet();
+    }
+
+    static void recordConnectionWait(long micros) {
+        CONNECTION_WAIT.record(micros);
+    }
+
+    /** @return instantané des statistiques, trié par temps cumulé décroissant */
+    public static List<Stats> snapshot() {
+        List<Stats> list = new ArrayList<>(BY_SHAPE.values());
+        list.sort(Comparator.comparingDouble((Stats s) -> s.latency.getMean() * s.latency.getCount()).reversed());
+        return list;
+    }
+
+    /** @return histogramme des temps d'obtention d'une connexion (µs) */
+    public static LatencyHistogram getConnectionWait() {
+        return CONNECTION_WAIT;
+    }
+
+    /**
+     * Compteur d'écritures : incrémenté à chaque requête ayant modifié au moins une ligne.
+     * Deux lectures égales garantissent qu'aucune donnée n'a changé entre-temps
+     * (utilisé pour savoir si une vue en cache doit être rafraîchie).
+     *
+     * @return nombre d'écritures depuis le démarrage
+     */
+    public static long getWriteCount() {
+        return WRITES.get();
+    }
+
+    /** Efface toutes les statistiques collectées. */
+    public static void reset() {
+        BY_SHAPE.clear();
+        CONNECTION_WAIT.reset();
+    }
+
+    /** @return seuil courant des requêtes lentes en millisecondes */
+    public static long getSlowQueryThresholdMs() {
+        return slowQueryThresholdMs;
+    }
+
+    /**
+     * Modifie (et persiste) le seuil des requêtes lentes.
+     *
+     * @param ms nouveau seuil en millisecondes
+     */
+    public static void setSlowQueryThresholdMs(long ms) {
+        slowQueryThresholdMs = Math.max(0, ms);
+        AppSettings.setSlowQueryThresholdMs(slowQueryThresholdMs);
+    }
+
+    /** @return chemin du journal des requêtes lentes */
+    public static Path getSlowQueryLogPath() {
+        return Paths.get(LOG_PATH);
+    }
+
+    private static void logSlowQuery(String shape, long micros, String paramShape, boolean failed) {
+        getSlowLog().warning(String.format("%.1f ms%s | %s | params=%s",
+                micros / 1000.0, failed ? " (ERREUR)" : "", shape, paramShape));
+    }
+
+    private static synchronized Logger getSlowLog() {
+        if (slowLog != null) return slowLog;
+
+        slowLog = Logger.getLogger("SlowQueries");
+        slowLog.setUseParentHandlers(false);
+        try {
+            Path dir = Paths.get(LOG_PATH).getParent();
+            if (!Files.exists(dir)) {
+                Files.createDirectories(dir);
+            }
+            FileHandler fh = new FileHandler(LOG_PATH, true);
+            fh.setFormatter(new SimpleFormatter());
+            slowLog.addHandler(fh);
+        } catch (IOException e) {
+            slowLog.log(Level.WARNING, "Impossible d'initialiser le journal des requêtes lentes", e);
+        }
+        return slowLog;
+    }
+}
@@ -16,7 +16,8 @@ import java.util.List;
  *     <li>Total global attendu</li>
  * </ul>
  *
- * <p>Utilisé dans le tableau de bord des revenus.</p>
+ * <p>Utilisé dans le tableau de bord des revenus. Les montants sont ceux du club de la
+ * session ({@link Tenant}).</p>
  */
 public class RevenueDAO {
 
@@ -43,6 +44,7 @@ public class RevenueDAO {
                        COALESCE(SUM(CASE WHEN l.paid = FALSE THEN l.amount END), 0) AS unpaid_total
                 FROM players p
                 LEFT JOIN licenses l ON l.player_id = p.id
+                WHERE p.club_id = ?
                 GROUP BY p.category
                 ORDER BY p.category
                 """;
@@ -50,17 +52,19 @@ public class RevenueDAO {
         List<RevenueItem> items = new ArrayList<>();
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+             PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            while (rs.next()) {
-                items.add(new RevenueItem(
-                        rs.getString("category"),
-                        rs.getInt("paid_count"),
-                        rs.getDouble("paid_total"),
-                        rs.getInt("unpaid_count"),
-                        rs.getDouble("unpaid_total")
-                ));
+            ps.setInt(1, Tenant.current());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    items.add(new RevenueItem(
+                            rs.getString("category"),
+                            rs.getInt("paid_count"),
+                            rs.getDouble("paid_total"),
+                            rs.getInt("unpaid_count"),
+                            rs.getDouble("unpaid_total")
+                    ));
+                }
             }
         }
         return items;
@@ -73,13 +77,15 @@ public class RevenueDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     public double getTotalPaid() throws SQLException {
-        String sql = "SELECT COALESCE(SUM(amount),0) AS total FROM licenses WHERE paid = TRUE";
+        String sql = "SELECT COALESCE(SUM(amount),0) AS total FROM licenses WHERE club_id = ? AND paid = TRUE";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+             PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            if (rs.next()) return rs.getDouble("total");
+            ps.setInt(1, Tenant.current());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return rs.getDouble("total");
+            }
         }
         return 0.0;
     }
@@ -93,13 +99,15 @@ public class RevenueDAO {
      * @throws SQLException en cas d’erreur SQL
      */
     public double getTotalExpected() throws SQLException {
-        String sql = "SELECT COALESCE(SUM(amount),0) AS total FROM licenses";
+        String sql = "SELECT COALESCE(SUM(amount),0) AS total FROM licenses WHERE club_id = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+             PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            if (rs.next()) return rs.getDouble("total");
+            ps.setInt(1, Tenant.current());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return rs.getDouble("total");
+            }
         }
         return 0.0;
     }
@@ -0,0 +1,562 @@
+package fr.hockey.dao;
+
+import fr.hockey.events.DomainEvent;
+import fr.hockey.events.DomainEventBus;
+import fr.hockey.events.DomainEvents;
+import fr.hockey.models.Coach;
+import fr.hockey.models.License;
+import fr.hockey.models.Player;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache mémoire partagé de l'effectif (joueurs avec licence, coachs avec équipes),
+ * placé devant {@link PlayerDAO}, {@link CoachDAO} et les lectures de licence par joueur
+ * de {@link LicenseDAO}.
+ *
+ * <ul>
+ *     <li><b>Lecture à travers</b> : une liste absente ou périmée est lue via le DAO puis conservée.
+ *     Une liste par catégorie ou par poste est déduite de la liste complète si celle-ci est en cache.</li>
+ *     <li><b>Versions</b> : chaque type d'entité (joueurs, coachs) et chaque joueur possèdent un
+ *     numéro de version, incrémenté à chaque écriture. Une entrée lue avant une écriture concurrente
+ *     est donc considérée comme périmée dès sa mise en cache.</li>
+ *     <li><b>Écriture à travers</b> : les écritures des DAO sont reçues via le {@link DomainEventBus} ;
+ *     les fiches et les listes de joueurs en cache sont corrigées en place (une liste n'est relue que
+ *     si un joueur y entre sans que sa licence soit connue). Les listes de coachs sont invalidées.</li>
+ *     <li><b>Taille bornée</b> : au-delà de la capacité, l'entrée la moins récemment utilisée est évincée.</li>
+ *     <li><b>Partition par club</b> : chaque club ({@link Tenant}) a ses propres entrées, sa propre
+ *     capacité et ses propres versions de listes. L'import massif d'un club n'évince donc pas les
+ *     entrées d'un autre, et une écriture n'invalide que les listes de son club.</li>
+ * </ul>
+ *
+ * <p>Les objets renvoyés sont des copies : les vues peuvent les modifier librement.
+ * Les statistiques ({@link #getStats()}) sont visibles dans l'écran Diagnostics.</p>
+ */
+public final class RosterCache {
+
+    /** Nombre d'entrées (listes ou fiches) conservées par défaut, pour chaque club. */
+    public static final int DEFAULT_CAPACITY = 128;
+
+    private static final String PLAYERS = "players";
+    private static final String COACHES = "coaches";
+
+    /** Ordre des listes renvoyées par {@link PlayerDAO} ({@code ORDER BY last_name, first_name}). */
+    private static final Comparator<Player> PLAYER_ORDER = Comparator
+            .comparing(Player::getLastName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Player::getFirstName, String.CASE_INSENSITIVE_ORDER);
+
+    private static final RosterCache INSTANCE = new RosterCache(new PlayerDAO(), new CoachDAO(), DEFAULT_CAPACITY);
+
+    private final PlayerDAO playerDAO;
+    private final CoachDAO coachDAO;
+    private final int capacity;
+
+    /** Partition de chaque club. */
+    private final ConcurrentMap<Integer, Partition> partitions = new ConcurrentHashMap<>();
+
+    /** Versions des fiches : les identifiants de joueurs sont uniques tous clubs confondus. */
+    private final ConcurrentMap<Integer, AtomicLong> playerVersions = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /** Écouteur conservé ici : le bus ne le retient que faiblement. */
+    private final Consumer<DomainEvent> eventListener = this::onDomainEvent;
+
+    /** Valeur en cache et versions observées avant sa lecture. */
+    private static final class Entry {
+        final Object value;
+        final String type;
+        final long typeVersion;
+        final int playerId;
+        final long playerVersion;
+        /** Critère d'appartenance d'une liste, null pour une fiche. */
+        final Predicate<?> filter;
+
+        Entry(Object value, String type, long typeVersion, int playerId, long playerVersion, Predicate<?> filter) {
+            this.value = value;
+            this.type = type;
+            this.typeVersion = typeVersion;
+            this.playerId = playerId;
+            this.playerVersion = playerVersion;
+            this.filter = filter;
+        }
+    }
+
+    /** Entrées et versions des listes d'un club. */
+    private final class Partition {
+        /** Entrées en ordre d'accès (LRU), protégées par le {@link RosterCache}. */
+        final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > capacity) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        final ConcurrentMap<String, AtomicLong> typeVersions = new ConcurrentHashMap<>();
+
+        long version(String type) {
+            return typeVersions.computeIfAbsent(type, t -> new AtomicLong()).get();
+        }
+
+        void bump(String type) {
+            typeVersions.computeIfAbsent(type, t -> new AtomicLong()).incrementAndGet();
+            invalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Statistiques du cache à un instant donné.
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+        private final int size;
+
+        Stats(long hits, long misses, long evictions, long invalidations, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.size = size;
+        }
+
+        public long getHits() { return hits; }
+
+        public long getMisses() { return misses; }
+
+        public long getEvictions() { return evictions; }
+
+        /** @return nombre d'invalidations (listes non corrigibles après une écriture, appels explicites) */
+        public long getInvalidations() { return invalidations; }
+
+        /** @return nombre d'entrées en cache, tous clubs confondus */
+        public int getSize() { return size; }
+
+        /** @return part des lectures servies depuis la mémoire (0 à 1) */
+        public double getHitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    RosterCache(PlayerDAO playerDAO, CoachDAO coachDAO, int capacity) {
+        this.playerDAO = playerDAO;
+        this.coachDAO = coachDAO;
+        this.capacity = capacity;
+        DomainEventBus.subscribe(DomainEvent.class, eventListener);
+    }
+
+    /** @return cache partagé de l'application */
+    public static RosterCache getInstance() {
+        return INSTANCE;
+    }
+
+    // -------------------------------------------------------------------------
+    //  JOUEURS
+    // -------------------------------------------------------------------------
+
+    /** @see PlayerDAO#findAll() */
+    public List<Player> findAllPlayers() throws SQLException {
+        return players("players:all", p -> true, playerDAO::findAll);
+    }
+
+    /** @see PlayerDAO#findByCategory(String) */
+    public List<Player> findPlayersByCategory(String category) throws SQLException {
+        return players("players:category:" + category,
+                p -> category.equals(p.getCategory()),
+                () -> playerDAO.findByCategory(category));
+    }
+
+    /** @see PlayerDAO#findByPosition(String) */
+    public List<Player> findPlayersByPosition(String position) throws SQLException {
+        return players("players:position:" + position,
+                p -> position.equals(p.getPosition()),
+                () -> playerDAO.findByPosition(position));
+    }
+
+    /** @see PlayerDAO#findByCategoryAndPosition(String, String) */
+    public List<Player> findPlayersByCategoryAndPosition(String category, String position) throws SQLException {
+        return players("players:category:" + category + ":position:" + position,
+                p -> category.equals(p.getCategory()) && position.equals(p.getPosition()),
+                () -> playerDAO.findByCategoryAndPosition(category, position));
+    }
+
+    /**
+     * @param id identifiant du joueur
+     * @return copie du joueur (avec licence), ou null s'il n'existe pas
+     * @throws SQLException en cas d'erreur SQL
+     * @see PlayerDAO#findById(int)
+     */
+    public Player findPlayer(int id) throws SQLException {
+        String key = "player:" + id;
+        Partition part = partition();
+        Player cached = (Player) lookup(part, key);
+        if (cached != null) {
+            return copyPlayer(cached);
+        }
+        long playerVersion = playerVersion(id);
+        Player loaded = playerDAO.findById(id);
+        if (loaded != null) {
+            store(part, key, new Entry(copyPlayer(loaded), PLAYERS, -1, id, playerVersion, null));
+        }
+        return loaded;
+    }
+
+    // -------------------------------------------------------------------------
+    //  LICENCES
+    // -------------------------------------------------------------------------
+
+    /**
+     * Licence d'un joueur, servie depuis sa fiche en cache.
+     *
+     * @param playerId identifiant du joueur
+     * @return copie de la licence, ou null si le joueur n'en a pas (ou n'existe pas)
+     * @throws SQLException en cas d'erreur SQL
+     * @see LicenseDAO#findByPlayerId(int)
+     */
+    public License findLicense(int playerId) throws SQLException {
+        Player player = findPlayer(playerId);
+        return player == null ? null : player.getLicense();
+    }
+
+    // -------------------------------------------------------------------------
+    //  COACHS
+    // -------------------------------------------------------------------------
+
+    /** @see CoachDAO#findAll() */
+    public List<Coach> findAllCoaches() throws SQLException {
+        return coaches("coaches:all", c -> true, coachDAO::findAll);
+    }
+
+    /** @see CoachDAO#findByCategory(String) */
+    public List<Coach> findCoachesByCategory(String category) throws SQLException {
+        return coaches("coaches:category:" + category,
+                c -> c.getTeams() != null && c.getTeams().contains(category),
+                () -> coachDAO.findByCategory(category));
+    }
+
+    // -------------------------------------------------------------------------
+    //  INVALIDATION ET STATISTIQUES
+    // -------------------------------------------------------------------------
+
+    /** Invalide toutes les listes de joueurs du club courant (modification externe, par exemple). */
+    public void invalidatePlayers() {
+        partition().bump(PLAYERS);
+    }
+
+    /** Invalide toutes les listes de coachs du club courant. */
+    public void invalidateCoaches() {
+        partition().bump(COACHES);
+    }
+
+    /** Vide entièrement le cache, tous clubs confondus. */
+    public synchronized void invalidateAll() {
+        for (Partition part : partitions.values()) {
+            part.bump(PLAYERS);
+            part.bump(COACHES);
+            part.entries.clear();
+        }
+    }
+
+    /** @return instantané des statistiques */
+    public Stats getStats() {
+        int size = 0;
+        synchronized (this) {
+            for (Partition part : partitions.values()) size += part.entries.size();
+        }
+        return new Stats(hits.get(), misses.get(), evictions.get(), invalidations.get(), size);
+    }
+
+    /** Remet les compteurs à zéro (le contenu du cache est conservé). */
+    public void resetStats() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+        invalidations.set(0);
+    }
+
+    // -------------------------------------------------------------------------
+    //  MÉCANIQUE INTERNE
+    // -------------------------------------------------------------------------
+
+    @FunctionalInterface
+    private interface Loader<T> {
+        List<T> load() throws SQLException;
+    }
+
+    private List<Player> players(String key, Predicate<Player> filter, Loader<Player> loader) throws SQLException {
+        return copyPlayers(list(key, PLAYERS, "players:all", filter, loader));
+    }
+
+    private List<Coach> coaches(String key, Predicate<Coach> filter, Loader<Coach> loader) throws SQLException {
+        return copyCoaches(list(key, COACHES, "coaches:all", filter, loader));
+    }
+
+    /**
+     * Renvoie la liste en cache, la déduit de la liste complète si possible, sinon la charge.
+     * La liste renvoyée est celle du cache : l'appelant doit la copier.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> list(String key, String type, String allKey, Predicate<T> filter, Loader<T> loader) throws SQLException {
+        Partition part = partition();
+        List<T> cached = (List<T>) lookup(part, key);
+        if (cached != null) {
+            return cached;
+        }
+        if (!key.equals(allKey)) {
+            List<T> all = (List<T>) peek(part, allKey);
+            if (all != null) {
+                hits.incrementAndGet();
+                List<T> derived = new ArrayList<>();
+                for (T item : all) {
+                    if (filter.test(item)) derived.add(item);
+                }
+                return derived;
+            }
+        }
+        misses.incrementAndGet();
+        long version = part.version(type);
+        List<T> loaded = loader.load();
+        List<T> stored = type.equals(PLAYERS)
+                ? (List<T>) copyPlayers((List<Player>) loaded)
+                : (List<T>) copyCoaches((List<Coach>) loaded);
+        store(part, key, new Entry(stored, type, version, 0, 0, filter));
+        return stored;
+    }
+
+    /** Entrée à jour, comptée comme succès ; null (compté comme échec pour les fiches) sinon. */
+    private Object lookup(Partition part, String key) {
+        Object value = peek(part, key);
+        if (value != null) {
+            hits.incrementAndGet();
+        } else if (key.startsWith("player:")) {
+            misses.incrementAndGet();
+        }
+        return value;
+    }
+
+    /** Entrée à jour, sans toucher aux compteurs. */
+    private synchronized Object peek(Partition part, String key) {
+        Entry e = part.entries.get(key);
+        if (e == null) return null;
+        boolean fresh = e.playerId > 0
+                ? e.playerVersion == playerVersion(e.playerId)
+                : e.typeVersion == part.version(e.type);
+        if (!fresh) {
+            part.entries.remove(key);
+            return null;
+        }
+        return e.value;
+    }
+
+    private synchronized void store(Partition part, String key, Entry entry) {
+        part.entries.put(key, entry);
+    }
+
+    /** @return partition du club de la session */
+    private Partition partition() {
+        return partitions.computeIfAbsent(Tenant.current(), club -> new Partition());
+    }
+
+    private long playerVersion(int id) {
+        AtomicLong v = playerVersions.get(id);
+        return v == null ? 0 : v.get();
+    }
+
+    /**
+     * Écriture à travers : met à jour la fiche du joueur concerné (sa version est incrémentée,
+     * puis la fiche est réenregistrée sous la nouvelle version) et corrige les listes de joueurs
+     * du club de la session, celui de l'écriture.
+     */
+    private void onDomainEvent(DomainEvent event) {
+        Partition part = partition();
+        if (event instanceof DomainEvents.PlayerSaved) {
+            DomainEvents.PlayerSaved e = (DomainEvents.PlayerSaved) event;
+            writeThrough(part, e.getPlayerId(), cached -> {
+                Player p = e.getPlayer();
+                p.setLicense(cached.getLicense());
+                return p;
+            });
+            patchPlayerLists(part, (list, filter) -> withPlayer(list, filter, e.getPlayer(), e.isCreated()));
+        } else if (event instanceof DomainEvents.PlayerDeleted) {
+            int playerId = ((DomainEvents.PlayerDeleted) event).getPlayerId();
+            writeThrough(part, playerId, cached -> null);
+            patchPlayerLists(part, (list, filter) -> replace(list, p -> p.getId() == playerId, p -> null));
+        } else if (event instanceof DomainEvents.LicenseSaved) {
+            DomainEvents.LicenseSaved e = (DomainEvents.LicenseSaved) event;
+            writeThrough(part, e.getPlayerId(), cached -> {
+                cached.setLicense(e.getLicense());
+                return cached;
+            });
+            patchPlayerLists(part, (list, filter) -> replace(list, p -> p.getId() == e.getPlayerId(), p -> {
+                p.setLicense(e.getLicense());
+                return p;
+            }));
+        } else if (event instanceof DomainEvents.LicensePaid) {
+            DomainEvents.LicensePaid e = (DomainEvents.LicensePaid) event;
+            Integer playerId = playerIdForLicense(part, e.getLicenseId());
+            if (playerId != null) {
+                writeThrough(part, playerId, cached -> {
+                    cached.getLicense().setPaid(e.isPaid());
+                    return cached;
+                });
+            }
+            patchPlayerLists(part, (list, filter) -> replace(list,
+                    p -> p.getLicense() != null && p.getLicense().getId() == e.getLicenseId(), p -> {
+                        p.getLicense().setPaid(e.isPaid());
+                        return p;
+                    }));
+        } else if (event instanceof DomainEvents.LicenseDeleted) {
+            int playerId = ((DomainEvents.LicenseDeleted) event).getPlayerId();
+            writeThrough(part, playerId, cached -> {
+                cached.setLicense(null);
+                return cached;
+            });
+            patchPlayerLists(part, (list, filter) -> replace(list, p -> p.getId() == playerId, p -> {
+                p.setLicense(null);
+                return p;
+            }));
+        } else if (event instanceof DomainEvents.CoachSaved
+                || event instanceof DomainEvents.CoachDeleted
+                || event instanceof DomainEvents.CoachTeamsChanged) {
+            part.bump(COACHES);
+        }
+    }
+
+    private synchronized void writeThrough(Partition part, int playerId, UnaryOperator<Player> update) {
+        String key = "player:" + playerId;
+        Entry e = part.entries.remove(key);
+        long newVersion = playerVersions.computeIfAbsent(playerId, id -> new AtomicLong()).incrementAndGet();
+        if (e != null && e.playerVersion == newVersion - 1) {
+            Player updated = update.apply(copyPlayer((Player) e.value));
+            if (updated != null) {
+                part.entries.put(key, new Entry(updated, PLAYERS, -1, playerId, newVersion, null));
+            }
+        }
+    }
+
+    /**
+     * Corrige en place les listes de joueurs du club : la version des listes est incrémentée, puis
+     * chaque liste lue avant l'écriture est réenregistrée sous la nouvelle version. Une liste déjà
+     * périmée, ou que {@code update} ne sait pas corriger (résultat null), est évincée.
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized void patchPlayerLists(Partition part,
+                                               BiFunction<List<Player>, Predicate<Player>, List<Player>> update) {
+        long newVersion = part.typeVersions.computeIfAbsent(PLAYERS, t -> new AtomicLong()).incrementAndGet();
+        Iterator<Map.Entry<String, Entry>> it = part.entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Entry> slot = it.next();
+            Entry e = slot.getValue();
+            if (e.playerId > 0 || !PLAYERS.equals(e.type)) continue;
+            List<Player> updated = e.typeVersion == newVersion - 1
+                    ? update.apply((List<Player>) e.value, (Predicate<Player>) e.filter)
+                    : null;
+            if (updated == null) {
+                it.remove();
+                invalidations.incrementAndGet();
+            } else {
+                // setValue ne modifie pas l'ordre d'accès : le parcours reste valide
+                slot.setValue(new Entry(updated, PLAYERS, newVersion, 0, 0, e.filter));
+            }
+        }
+    }
+
+    /**
+     * Nouvelle liste où les joueurs retenus par {@code match} sont remplacés par
+     * {@code change} appliqué à leur copie (retirés si le résultat est null).
+     */
+    private static List<Player> replace(List<Player> list, Predicate<Player> match, UnaryOperator<Player> change) {
+        List<Player> out = new ArrayList<>(list.size());
+        for (Player p : list) {
+            if (!match.test(p)) {
+                out.add(p);
+                continue;
+            }
+            Player changed = change.apply(copyPlayer(p));
+            if (changed != null) out.add(changed);
+        }
+        return out;
+    }
+
+    /**
+     * Nouvelle liste après l'enregistrement de {@code saved} : le joueur est retiré, puis réinséré
+     * à sa place s'il correspond encore au critère de la liste. Renvoie null si un joueur existant
+     * entre dans la liste : sa licence n'est pas connue ici, la liste sera relue.
+     */
+    private static List<Player> withPlayer(List<Player> list, Predicate<Player> filter, Player saved, boolean created) {
+        List<Player> out = new ArrayList<>(list.size() + 1);
+        Player previous = null;
+        for (Player p : list) {
+            if (p.getId() == saved.getId()) previous = p;
+            else out.add(p);
+        }
+        if (!filter.test(saved)) return out;
+        if (previous == null && !created) return null;
+        Player row = copyPlayer(saved);
+        if (previous != null) row.setLicense(copyPlayer(previous).getLicense());
+        int at = 0;
+        while (at < out.size() && PLAYER_ORDER.compare(out.get(at), row) <= 0) at++;
+        out.add(at, row);
+        return out;
+    }
+
+    private synchronized Integer playerIdForLicense(Partition part, int licenseId) {
+        for (Entry e : part.entries.values()) {
+            if (e.playerId > 0) {
+                License lic = ((Player) e.value).getLicense();
+                if (lic != null && lic.getId() == licenseId) return e.playerId;
+            }
+        }
+        return null;
+    }
+
+    private static List<Player> copyPlayers(List<Player> source) {
+        List<Player> copy = new ArrayList<>(source.size());
+        for (Player p : source) copy.add(copyPlayer(p));
+        return copy;
+    }
+
+    private static Player copyPlayer(Player p) {
+        Player c = new Player(p.getId(), p.getFirstName(), p.getLastName(), p.getCategory(), p.getRole(), p.getPosition());
+        c.setNumber(p.getNumber());
+        c.setContactEmail(p.getContactEmail());
+        License l = p.getLicense();
+        if (l != null) {
+            c.setLicense(new License(l.getId(), l.getPlayerId(), l.isPaid(), l.getExpirationDate(), l.getAmount()));
+        }
+        return c;
+    }
+
+    private static List<Coach> copyCoaches(List<Coach> source) {
+        List<Coach> copy = new ArrayList<>(source.size());
+        for (Coach c : source) {
+            Coach d = new Coach(c.getId(), c.getFirstName(), c.getLastName(), c.getUsername(), c.getEmail());
+            if (c.getTeams() != null) d.setTeams(new ArrayList<>(c.getTeams()));
+            copy.add(d);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,256 @@
+package fr.hockey.dao;
+
+import fr.hockey.models.Club;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Mise à niveau du schéma d'une base existante.
+ *
+ * <p>{@code init_database.sql} crée le schéma complet d'une nouvelle installation ;
+ * les bases créées avec une version antérieure sont complétées ici, au démarrage.
+ * Chaque étape vérifie elle-même si elle est nécessaire (colonne ou table absente) :
+ * la migration peut être relancée sans effet sur une base à jour.</p>
+ *
+ * <p>Les instructions sont compatibles MySQL et H2 (mode MySQL).</p>
+ */
+public final class SchemaMigrations {
+
+    /** Tables suivies par le journal des modifications ({@link ChangeLog}). */
+    private static final String[] TRACKED_TABLES = {"players", "licenses", "coaches", "coach_teams"};
+
+    /** Tables métier rattachées à un club ({@code club_id}). */
+    static final String[] TENANT_TABLES = {
+            "admins", "coaches", "coach_teams", "category_fees", "players", "licenses", "legal_informations",
+            "change_log", "mail_outbox", "practice_sessions", "ice_slots", "ice_demands"
+    };
+
+    private SchemaMigrations() {}
+
+    /**
+     * Met à niveau la base configurée ({@link DatabaseConnection}).
+     *
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public static void migrate() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            migrate(conn);
+        }
+    }
+
+    /**
+     * Met à niveau la base d'une connexion donnée.
+     *
+     * @param conn connexion ouverte
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public static void migrate(Connection conn) throws SQLException {
+        // Suivi des modifications : horodatage et version par ligne, journal global
+        for (String table : TRACKED_TABLES) {
+            addColumnIfMissing(conn, table, "updated_at", "TIMESTAMP DEFAULT CURRENT_TIMESTAMP");
+            addColumnIfMissing(conn, table, "row_version", "BIGINT NOT NULL DEFAULT 1");
+        }
+        createTableIfMissing(conn, "change_log",
+                "CREATE TABLE change_log (" +
+                        "id BIGINT AUTO_INCREMENT PRIMARY KEY," +
+                        "entity VARCHAR(20) NOT NULL," +
+                        "entity_id INT NOT NULL," +
+                        "player_id INT NULL," +
+                        "deleted BOOLEAN NOT NULL DEFAULT FALSE," +
+                        "changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                        ")",
+                "CREATE INDEX idx_change_log_entity ON change_log (entity, id)");
+        // Flux de modifications entre postes : poste à l'origine de chaque écriture
+        addColumnIfMissing(conn, "change_log", "origin", "VARCHAR(36) NULL");
+        // Échéances des licences : recherche par plage de dates
+        createIndexIfMissing(conn, "licenses", "idx_licenses_expiration", "expiration_date");
+        // Relances par e-mail : adresse de contact et file d'envoi
+        addColumnIfMissing(conn, "players", "contact_email", "VARCHAR(120) NULL");
+        createTableIfMissing(conn, "mail_outbox",
+                "CREATE TABLE mail_outbox (" +
+                        "id BIGINT AUTO_INCREMENT PRIMARY KEY," +
+                        "idempotency_key VARCHAR(100) NOT NULL UNIQUE," +
+                        "recipient VARCHAR(120) NOT NULL," +
+                        "subject VARCHAR(200) NOT NULL," +
+                        "body TEXT NOT NULL," +
+                        "status VARCHAR(10) NOT NULL DEFAULT 'PENDING'," +
+                        "attempts INT NOT NULL DEFAULT 0," +
+                        "next_attempt_at TIMESTAMP NULL," +
+                        "last_error VARCHAR(255) NULL," +
+                        "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                        "sent_at TIMESTAMP NULL" +
+                        ")",
+                "CREATE INDEX idx_mail_outbox_status ON mail_outbox (status, next_attempt_at)");
+        // Présences aux entraînements : une ligne par séance, présents compressés
+        createTableIfMissing(conn, "practice_sessions",
+                "CREATE TABLE practice_sessions (" +
+                        "id INT AUTO_INCREMENT PRIMARY KEY," +
+                        "category VARCHAR(10) NOT NULL," +
+                        "session_date DATE NOT NULL," +
+                        "label VARCHAR(100) NULL," +
+                        "attendance BLOB NULL," +
+                        "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                        ")",
+                "CREATE INDEX idx_practice_sessions_category ON practice_sessions (category, session_date)");
+        // Créneaux de glace : disponibilités des patinoires, besoins des équipes, planning
+        createTableIfMissing(conn, "ice_slots",
+                "CREATE TABLE ice_slots (" +
+                        "id INT AUTO_INCREMENT PRIMARY KEY," +
+                        "rink VARCHAR(50) NOT NULL," +
+                        "day_of_week TINYINT NOT NULL," +
+                        "start_time TIME NOT NULL," +
+                        "end_time TIME NOT NULL," +
+                        "category VARCHAR(10) NULL" +
+                        ")");
+        createTableIfMissing(conn, "ice_demands",
+                "CREATE TABLE ice_demands (" +
+                        "id INT AUTO_INCREMENT PRIMARY KEY," +
+                        "category VARCHAR(10) NOT NULL," +
+                        "sessions_per_week INT NOT NULL" +
+                        ")");
+        // Multi-club : club de chaque ligne (club par défaut pour les données existantes),
+        // index commençant par le club, unicités par club
+        createTableIfMissing(conn, "clubs",
+                "CREATE TABLE clubs (" +
+                        "id INT AUTO_INCREMENT PRIMARY KEY," +
+                        "name VARCHAR(100) NOT NULL UNIQUE," +
+                        "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                        ")",
+                "INSERT INTO clubs (name) VALUES ('Club')");
+        for (String table : TENANT_TABLES) {
+            addClubColumn(conn, table);
+        }
+        createIndexIfMissing(conn, "admins", "idx_admins_club", "club_id, username");
+        createIndexIfMissing(conn, "coaches", "idx_coaches_club", "club_id, last_name, first_name");
+        createIndexIfMissing(conn, "coach_teams", "idx_coach_teams_club", "club_id, category");
+        dropUniqueIfPresent(conn, "category_fees", "category");
+        createIndexIfMissing(conn, "category_fees", "uq_category_fees_club", "club_id, category", true);
+        createIndexIfMissing(conn, "players", "idx_players_club_category", "club_id, category, last_name, first_name");
+        createIndexIfMissing(conn, "licenses", "idx_licenses_club_expiration", "club_id, expiration_date");
+        createIndexIfMissing(conn, "legal_informations", "idx_legal_informations_club", "club_id");
+        createIndexIfMissing(conn, "change_log", "idx_change_log_club", "club_id, id");
+        createIndexIfMissing(conn, "mail_outbox", "idx_mail_outbox_club", "club_id, status, next_attempt_at");
+        createIndexIfMissing(conn, "practice_sessions", "idx_practice_sessions_club", "club_id, category, session_date");
+        createIndexIfMissing(conn, "ice_slots", "idx_ice_slots_club", "club_id, day_of_week, start_time");
+        dropUniqueIfPresent(conn, "ice_demands", "category");
+        createIndexIfMissing(conn, "ice_demands", "uq_ice_demands_club", "club_id, category", true);
+    }
+
+    /**
+     * Ajoute la colonne {@code club_id} à une table métier ; les lignes existantes sont
+     * rattachées au club par défaut.
+     *
+     * @param conn  connexion ouverte
+     * @param table table métier
+     * @throws SQLException en cas d'erreur SQL
+     */
+    static void addClubColumn(Connection conn, String table) throws SQLException {
+        addColumnIfMissing(conn, table, "club_id", "INT NOT NULL DEFAULT " + Club.DEFAULT_ID);
+    }
+
+    /**
+     * Supprime l'unicité d'une colonne seule (remplacée par une unicité par club).
+     *
+     * @param conn   connexion ouverte
+     * @param table  table
+     * @param column colonne jusqu'ici unique
+     * @throws SQLException en cas d'erreur SQL
+     */
+    static void dropUniqueIfPresent(Connection conn, String table, String column) throws SQLException {
+        if (!exists(conn, "SELECT 1 FROM " + table + " WHERE 1 = 0")) return;
+        boolean mysql = conn.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+        for (String index : uniqueIndexesOn(conn, table, column)) {
+            try (Statement st = conn.createStatement()) {
+                if (mysql) {
+                    st.executeUpdate("ALTER TABLE " + table + " DROP INDEX " + index);
+                    continue;
+                }
+                // H2 : l'index appartient à une contrainte, supprimée à sa place
+                String constraint = null;
+                try (ResultSet rs = st.executeQuery("SELECT CONSTRAINT_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS " +
+                        "WHERE CONSTRAINT_TYPE = 'UNIQUE' AND INDEX_NAME = '" + index + "'")) {
+                    if (rs.next()) constraint = rs.getString(1);
+                }
+                st.executeUpdate(constraint != null
+                        ? "ALTER TABLE " + table + " DROP CONSTRAINT " + constraint
+                        : "DROP INDEX " + index);
+            }
+        }
+    }
+
+    /** Index uniques (hors clé primaire) portant sur la seule colonne donnée. */
+    private static List<String> uniqueIndexesOn(Connection conn, String table, String column) throws SQLException {
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        DatabaseMetaData md = conn.getMetaData();
+        for (String name : new String[]{table, table.toUpperCase(Locale.ROOT)}) {
+            try (ResultSet rs = md.getIndexInfo(conn.getCatalog(), null, name, true, false)) {
+                while (rs.next()) {
+                    String index = rs.getString("INDEX_NAME");
+                    String col = rs.getString("COLUMN_NAME");
+                    if (index == null || col == null || index.equalsIgnoreCase("PRIMARY")
+                            || index.toUpperCase(Locale.ROOT).startsWith("PRIMARY_KEY")) continue;
+                    indexes.computeIfAbsent(index, k -> new ArrayList<>()).add(col);
+                }
+            }
+            if (!indexes.isEmpty()) break;
+        }
+        List<String> matching = new ArrayList<>();
+        for (Map.Entry<String, List<String>> e : indexes.entrySet()) {
+            if (e.getValue().size() == 1 && e.getValue().get(0).equalsIgnoreCase(column)) matching.add(e.getKey());
+        }
+        return matching;
+    }
+
+    private static boolean exists(Connection conn, String probe) {
+        try (Statement st = conn.createStatement()) {
+            st.executeQuery(probe).close();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void addColumnIfMissing(Connection conn, String table, String column, String definition) throws SQLException {
+        if (!exists(conn, "SELECT 1 FROM " + table + " WHERE 1 = 0")) return;
+        if (exists(conn, "SELECT " + column + " FROM " + table + " WHERE 1 = 0")) return;
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+    }
+
+    private static void createIndexIfMissing(Connection conn, String table, String index, String columns) throws SQLException {
+        createIndexIfMissing(conn, table, index, columns, false);
+    }
+
+    private static void createIndexIfMissing(Connection conn, String table, String index, String columns,
+                                             boolean unique) throws SQLException {
+        if (!exists(conn, "SELECT 1 FROM " + table + " WHERE 1 = 0")) return;
+        DatabaseMetaData md = conn.getMetaData();
+        for (String name : new String[]{table, table.toUpperCase(Locale.ROOT)}) {
+            try (ResultSet rs = md.getIndexInfo(conn.getCatalog(), null, name, false, false)) {
+                while (rs.next()) {
+                    if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) return;
+                }
+            }
+        }
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE " + (unique ? "UNIQUE " : "") + "INDEX " + index + " ON " + table + " (" + columns + ")");
+        }
+    }
+
+    private static void createTableIfMissing(Connection conn, String table, String... ddl) throws SQLException {
+        if (exists(conn, "SELECT 1 FROM " + table + " WHERE 1 = 0")) return;
+        try (Statement st = conn.createStatement()) {
+            for (String sql : ddl) st.executeUpdate(sql);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package fr.hockey.dao;
+
+import fr.hockey.utils.SessionManager;
+
+/**
+ * Club courant des DAO.
+ *
+ * <p>Toutes les tables métier portent une colonne {@code club_id} ; chaque requête des DAO
+ * la filtre (lectures, mises à jour et suppressions par identifiant comprises) et chaque
+ * insertion la renseigne avec le club de la session ({@link SessionManager#getClubId()}).
+ * Les index composites de ces tables commencent par {@code club_id} : une requête ne
+ * parcourt que les lignes de son club, quelle que soit la taille des autres.</p>
+ */
+final class Tenant {
+
+    private Tenant() {}
+
+    /** @return club de la session */
+    static int current() {
+        return SessionManager.getInstance().getClubId();
+    }
+}
@@ -0,0 +1,8 @@
+package fr.hockey.events;
+
+/**
+ * Événement métier publié sur le {@link DomainEventBus} après une écriture réussie en base.
+ * Les implémentations sont regroupées dans {@link DomainEvents}.
+ */
+public interface DomainEvent {
+}
@@ -0,0 +1,92 @@
+package fr.hockey.events;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Bus d'événements métier en mémoire.
+ *
+ * <p>Les DAO publient un événement après chaque écriture réussie
+ * ({@link DomainEvents}) ; les vues ouvertes s'y abonnent pour mettre à jour
+ * leurs lignes sur place au lieu de recharger toute leur liste.</p>
+ *
+ * <ul>
+ *     <li>Les écouteurs sont appelés de façon synchrone, sur le thread qui publie ;
+ *     une vue JavaFX doit donc se replacer elle-même sur le thread JavaFX.</li>
+ *     <li>Le bus ne retient ses écouteurs que faiblement : l'abonné garde une
+ *     référence forte vers son écouteur (un champ du contrôleur), si bien qu'une
+ *     vue abandonnée (déconnexion) disparaît sans désabonnement explicite.</li>
+ *     <li>Une exception levée par un écouteur est journalisée et n'interrompt
+ *     ni les autres écouteurs ni l'écriture qui a publié l'événement.</li>
+ * </ul>
+ */
+public final class DomainEventBus {
+
+    private static final List<Registration<?>> REGISTRATIONS = new CopyOnWriteArrayList<>();
+
+    private DomainEventBus() {}
+
+    private static final class Registration<E extends DomainEvent> {
+        final Class<E> type;
+        final WeakReference<Consumer<? super E>> listener;
+
+        Registration(Class<E> type, Consumer<? super E> listener) {
+            this.type = type;
+            this.listener = new WeakReference<>(listener);
+        }
+
+        /** @return false si l'écouteur a été libéré */
+        boolean deliver(DomainEvent event) {
+            Consumer<? super E> l = listener.get();
+            if (l == null) return false;
+            if (type.isInstance(event)) {
+                try {
+                    l.accept(type.cast(event));
+                } catch (RuntimeException e) {
+                    System.err.println("Écouteur d'événement en erreur (" + event.getClass().getSimpleName() + ") : " + e);
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Abonne un écouteur aux événements d'un type (et de ses sous-types).
+     *
+     * @param type     type d'événement, {@code DomainEvent.class} pour tous
+     * @param listener écouteur, à conserver par l'appelant
+     * @param <E>      type d'événement
+     */
+    public static <E extends DomainEvent> void subscribe(Class<E> type, Consumer<? super E> listener) {
+        REGISTRATIONS.add(new Registration<>(type, listener));
+    }
+
+    /**
+     * Désabonne un écouteur.
+     *
+     * @param listener écouteur passé à {@link #subscribe(Class, Consumer)}
+     */
+    public static void unsubscribe(Consumer<?> listener) {
+        REGISTRATIONS.removeIf(r -> {
+            Object l = r.listener.get();
+            return l == null || l == listener;
+        });
+    }
+
+    /**
+     * Publie un événement auprès de tous les écouteurs concernés.
+     *
+     * @param event événement à diffuser
+     */
+    public static void publish(DomainEvent event) {
+        boolean stale = false;
+        for (Registration<?> r : REGISTRATIONS) {
+            if (!r.deliver(event)) stale = true;
+        }
+        if (stale) {
+            REGISTRATIONS.removeIf(r -> r.listener.get() == null);
+        }
+    }
+}
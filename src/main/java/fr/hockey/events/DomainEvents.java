@@ -0,0 +1,189 @@
+package fr.hockey.events;
+
+import fr.hockey.models.Coach;
+import fr.hockey.models.GameEvent;
+import fr.hockey.models.License;
+import fr.hockey.models.Player;
+
+/**
+ * Événements métier publiés par les DAO.
+ *
+ * <p>Les objets transportés sont des copies figées au moment de l'écriture :
+ * chaque getter renvoie une nouvelle copie, qu'un abonné peut insérer dans
+ * sa propre liste sans la partager avec les autres vues.</p>
+ */
+public final class DomainEvents {
+
+    private DomainEvents() {}
+
+    /** Joueur créé ou modifié (sans sa licence, inchangée). */
+    public static final class PlayerSaved implements DomainEvent {
+        private final Player player;
+        private final boolean created;
+
+        public PlayerSaved(Player player, boolean created) {
+            this.player = copy(player);
+            this.created = created;
+        }
+
+        /** @return copie du joueur enregistré, licence non renseignée */
+        public Player getPlayer() { return copy(player); }
+
+        public int getPlayerId() { return player.getId(); }
+
+        /** @return true pour une création, false pour une modification */
+        public boolean isCreated() { return created; }
+
+        private static Player copy(Player p) {
+            Player c = new Player(p.getId(), p.getFirstName(), p.getLastName(), p.getCategory(), p.getRole(), p.getPosition());
+            c.setNumber(p.getNumber());
+            c.setContactEmail(p.getContactEmail());
+            return c;
+        }
+    }
+
+    /** Joueur supprimé. */
+    public static final class PlayerDeleted implements DomainEvent {
+        private final int playerId;
+
+        public PlayerDeleted(int playerId) {
+            this.playerId = playerId;
+        }
+
+        public int getPlayerId() { return playerId; }
+    }
+
+    /** Licence créée ou modifiée (montant, expiration, statut). */
+    public static final class LicenseSaved implements DomainEvent {
+        private final License license;
+
+        public LicenseSaved(License license) {
+            this.license = copy(license);
+        }
+
+        /** @return copie de la licence enregistrée */
+        public License getLicense() { return copy(license); }
+
+        public int getPlayerId() { return license.getPlayerId(); }
+
+        private static License copy(License l) {
+            return new License(l.getId(), l.getPlayerId(), l.isPaid(), l.getExpirationDate(), l.getAmount());
+        }
+    }
+
+    /** Statut payé / non payé d'une licence modifié. */
+    public static final class LicensePaid implements DomainEvent {
+        private final int licenseId;
+        private final boolean paid;
+
+        public LicensePaid(int licenseId, boolean paid) {
+            this.licenseId = licenseId;
+            this.paid = paid;
+        }
+
+        public int getLicenseId() { return licenseId; }
+
+        public boolean isPaid() { return paid; }
+    }
+
+    /** Licence d'un joueur supprimée. */
+    public static final class LicenseDeleted implements DomainEvent {
+        private final int playerId;
+
+        public LicenseDeleted(int playerId) {
+            this.playerId = playerId;
+        }
+
+        public int getPlayerId() { return playerId; }
+    }
+
+    /** Coach créé ou modifié (sans ses équipes, voir {@link CoachTeamsChanged}). */
+    public static final class CoachSaved implements DomainEvent {
+        private final int coachId;
+        private final String firstName;
+        private final String lastName;
+        private final String username;
+        private final String email;
+        private final boolean created;
+
+        public CoachSaved(int coachId, String firstName, String lastName, String username, String email, boolean created) {
+            this.coachId = coachId;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.username = username;
+            this.email = email;
+            this.created = created;
+        }
+
+        /** @return nouveau coach portant les valeurs enregistrées, sans équipe */
+        public Coach getCoach() { return new Coach(coachId, firstName, lastName, username, email); }
+
+        public int getCoachId() { return coachId; }
+
+        /** @return true pour une création, false pour une modification */
+        public boolean isCreated() { return created; }
+    }
+
+    /** Coach supprimé. */
+    public static final class CoachDeleted implements DomainEvent {
+        private final int coachId;
+
+        public CoachDeleted(int coachId) {
+            this.coachId = coachId;
+        }
+
+        public int getCoachId() { return coachId; }
+    }
+
+    /** Équipes d'un coach modifiées : une catégorie ajoutée, ou toutes retirées. */
+    public static final class CoachTeamsChanged implements DomainEvent {
+        private final int coachId;
+        private final String addedCategory;
+
+        private CoachTeamsChanged(int coachId, String addedCategory) {
+            this.coachId = coachId;
+            this.addedCategory = addedCategory;
+        }
+
+        /** @return événement "catégorie ajoutée" */
+        public static CoachTeamsChanged added(int coachId, String category) {
+            return new CoachTeamsChanged(coachId, category);
+        }
+
+        /** @return événement "toutes les équipes retirées" */
+        public static CoachTeamsChanged cleared(int coachId) {
+            return new CoachTeamsChanged(coachId, null);
+        }
+
+        public int getCoachId() { return coachId; }
+
+        /** @return catégorie ajoutée, ou null si toutes les équipes ont été retirées */
+        public String getAddedCategory() { return addedCategory; }
+
+        public boolean isCleared() { return addedCategory == null; }
+    }
+
+    /**
+     * Action de match saisie au banc (ou annulation). Publiée par {@code LiveScoringService}
+     * après la mise à jour de ses statistiques, pas lors de leur reconstruction.
+     */
+    public static final class GameEventRecorded implements DomainEvent {
+        private final GameEvent event;
+        private final GameEvent cancelled;
+
+        public GameEventRecorded(GameEvent event, GameEvent cancelled) {
+            this.event = event;
+            this.cancelled = cancelled;
+        }
+
+        /** @return action enregistrée (immuable) */
+        public GameEvent getEvent() { return event; }
+
+        /** @return action annulée par celle-ci, ou null */
+        public GameEvent getCancelled() { return cancelled; }
+    }
+
+    /** Statistiques de match reconstruites à partir du journal (ouverture, fermeture). */
+    public static final class GameStatsReloaded implements DomainEvent {
+    }
+}
@@ -33,6 +33,9 @@ public class Admin {
     /** Rôle de l'utilisateur, généralement "ADMIN". */
     private String role;
 
+    /** Club administré (voir {@link Club}). */
+    private int clubId = Club.DEFAULT_ID;
+
     /**
      * Constructeur par défaut.
      */
@@ -95,6 +98,9 @@ public class Admin {
     public String getRole() { return role; }
     public void setRole(String role) { this.role = role; }
 
+    public int getClubId() { return clubId; }
+    public void setClubId(int clubId) { this.clubId = clubId; }
+
     /**
      * Retourne le nom complet de l'administrateur.
      *
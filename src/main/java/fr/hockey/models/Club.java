@@ -0,0 +1,38 @@
+package fr.hockey.models;
+
+/**
+ * Club de la ligue (table {@code clubs}).
+ *
+ * <p>Une même base peut héberger plusieurs clubs : chaque ligne des tables métier porte
+ * l'identifiant de son club ({@code club_id}) et n'est visible que des comptes de ce club.
+ * Une installation mono-club utilise le club {@link #DEFAULT_ID}.</p>
+ */
+public class Club {
+
+    /** Club des installations mono-club et des données antérieures au multi-club. */
+    public static final int DEFAULT_ID = 1;
+
+    private int id;
+    private String name;
+
+    public Club() {
+    }
+
+    public Club(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public int getId() { return id; }
+
+    public void setId(int id) { this.id = id; }
+
+    public String getName() { return name; }
+
+    public void setName(String name) { this.name = name; }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -30,6 +30,9 @@ public class Coach {
     /** Liste des catégories d'équipes entraînées par ce coach. */
     private List<String> teams;
 
+    /** Club du coach (voir {@link Club}). */
+    private int clubId = Club.DEFAULT_ID;
+
     /**
      * Constructeur par défaut.
      * Initialise la liste des équipes.
@@ -124,6 +127,16 @@ public class Coach {
         this.teams = teams;
     }
 
+    /** @return identifiant du club du coach */
+    public int getClubId() {
+        return clubId;
+    }
+
+    /** @param clubId identifiant du club du coach */
+    public void setClubId(int clubId) {
+        this.clubId = clubId;
+    }
+
     /**
      * Ajoute une équipe entraînée par ce coach.
      *
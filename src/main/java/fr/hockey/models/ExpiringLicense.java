@@ -0,0 +1,87 @@
+package fr.hockey.models;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * Licence arrivant à échéance (ou échue depuis peu), avec l'identité de son joueur.
+ *
+ * <p>Instances immuables produites par {@code LicenseDAO#findExpiringBetween} et
+ * tenues à jour par {@code LicenseExpiryScanner} pour les rappels du tableau de bord.</p>
+ */
+public final class ExpiringLicense {
+
+    private final int playerId;
+    private final int licenseId;
+    private final String firstName;
+    private final String lastName;
+    private final String category;
+    private final LocalDate expirationDate;
+    private final boolean paid;
+
+    public ExpiringLicense(int playerId, int licenseId, String firstName, String lastName, String category,
+                           LocalDate expirationDate, boolean paid) {
+        this.playerId = playerId;
+        this.licenseId = licenseId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.category = category;
+        this.expirationDate = expirationDate;
+        this.paid = paid;
+    }
+
+    /**
+     * Construit le rappel d'un joueur et de sa licence.
+     *
+     * @param player joueur possédant une licence
+     * @return rappel correspondant
+     */
+    public static ExpiringLicense of(Player player) {
+        License l = player.getLicense();
+        return new ExpiringLicense(player.getId(), l.getId(), player.getFirstName(), player.getLastName(),
+                player.getCategory(), l.getExpirationDate(), l.isPaid());
+    }
+
+    public int getPlayerId() { return playerId; }
+
+    public int getLicenseId() { return licenseId; }
+
+    public String getFirstName() { return firstName; }
+
+    public String getLastName() { return lastName; }
+
+    public String getCategory() { return category; }
+
+    public LocalDate getExpirationDate() { return expirationDate; }
+
+    public boolean isPaid() { return paid; }
+
+    /**
+     * @param today date du jour
+     * @return jours restants avant l'échéance (négatif si la licence est échue)
+     */
+    public long daysLeft(LocalDate today) {
+        return ChronoUnit.DAYS.between(today, expirationDate);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ExpiringLicense)) return false;
+        ExpiringLicense e = (ExpiringLicense) o;
+        return playerId == e.playerId && licenseId == e.licenseId && paid == e.paid
+                && Objects.equals(firstName, e.firstName) && Objects.equals(lastName, e.lastName)
+                && Objects.equals(category, e.category) && Objects.equals(expirationDate, e.expirationDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(playerId, licenseId, expirationDate);
+    }
+
+    @Override
+    public String toString() {
+        return lastName + " " + firstName + " (" + category + ") — " + expirationDate;
+    }
+}
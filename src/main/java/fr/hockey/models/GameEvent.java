@@ -0,0 +1,100 @@
+package fr.hockey.models;
+
+import java.time.LocalDate;
+
+/**
+ * Action de jeu saisie au banc pendant un match : but, passe décisive, tir, pénalité,
+ * présence sur la glace, ou annulation d'une saisie erronée.
+ *
+ * <p>Instances immuables, numérotées dans l'ordre de saisie ({@link #getSeq()}) et écrites
+ * telles quelles dans le journal des matchs ({@code GameEventLog}). Le match est désigné
+ * par l'identifiant de sa feuille de match ({@link #fixtureId}).</p>
+ */
+public final class GameEvent {
+
+    /** Nature de l'action. */
+    public enum Type {
+        /** But marqué. */
+        GOAL,
+        /** Passe décisive. */
+        ASSIST,
+        /** Tir cadré. */
+        SHOT,
+        /** Pénalité, durée en minutes dans {@link #getValue()}. */
+        PENALTY,
+        /** Présence sur la glace, durée en secondes dans {@link #getValue()}. */
+        SHIFT,
+        /** Annulation de l'action numéro {@link #getValue()}. */
+        CANCEL
+    }
+
+    private final long seq;
+    private final long recordedAt;
+    private final String gameId;
+    private final String category;
+    private final int playerId;
+    private final Type type;
+    private final int period;
+    private final int clock;
+    private final int value;
+
+    /**
+     * @param seq        numéro d'ordre dans le journal
+     * @param recordedAt instant de saisie (ms depuis l'époque)
+     * @param gameId     identifiant du match ({@link #fixtureId})
+     * @param category   catégorie de l'équipe
+     * @param playerId   joueur concerné (celui de l'action annulée pour une annulation)
+     * @param type       nature de l'action
+     * @param period     période (1 à 3, 4 pour la prolongation)
+     * @param clock      temps écoulé dans la période, en secondes
+     * @param value      durée de pénalité ou de présence, numéro annulé, 0 sinon
+     */
+    public GameEvent(long seq, long recordedAt, String gameId, String category, int playerId, Type type,
+                     int period, int clock, int value) {
+        this.seq = seq;
+        this.recordedAt = recordedAt;
+        this.gameId = gameId;
+        this.category = category;
+        this.playerId = playerId;
+        this.type = type;
+        this.period = period;
+        this.clock = clock;
+        this.value = value;
+    }
+
+    /**
+     * Identifiant d'un match, construit comme le nom de sa feuille de match.
+     *
+     * @param category catégorie
+     * @param date     date du match
+     * @param opponent adversaire (éventuellement vide)
+     * @return identifiant {@code U13/2026-10-19/Adversaire}
+     */
+    public static String fixtureId(String category, LocalDate date, String opponent) {
+        return category + "/" + date + "/" + (opponent == null ? "" : opponent.trim());
+    }
+
+    public long getSeq() { return seq; }
+
+    public long getRecordedAt() { return recordedAt; }
+
+    public String getGameId() { return gameId; }
+
+    public String getCategory() { return category; }
+
+    public int getPlayerId() { return playerId; }
+
+    public Type getType() { return type; }
+
+    public int getPeriod() { return period; }
+
+    public int getClock() { return clock; }
+
+    public int getValue() { return value; }
+
+    @Override
+    public String toString() {
+        return "#" + seq + " P" + period + " " + String.format("%02d:%02d", clock / 60, clock % 60) + " " + type
+                + " joueur " + playerId + (value != 0 ? " (" + value + ")" : "");
+    }
+}
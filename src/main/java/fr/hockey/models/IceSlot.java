@@ -0,0 +1,78 @@
+package fr.hockey.models;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+/**
+ * Créneau de glace hebdomadaire d'une patinoire et équipe (catégorie) qui l'occupe.
+ *
+ * <p>Les créneaux disponibles sont saisis une fois pour la saison ; le planificateur
+ * ({@code IceScheduler}) leur attribue une catégorie, ou les laisse libres.</p>
+ */
+public class IceSlot {
+
+    private int id;
+    private String rink;
+    private DayOfWeek day;
+    private LocalTime start;
+    private LocalTime end;
+    private String category;
+
+    public IceSlot() {
+    }
+
+    public IceSlot(int id, String rink, DayOfWeek day, LocalTime start, LocalTime end, String category) {
+        this.id = id;
+        this.rink = rink;
+        this.day = day;
+        this.start = start;
+        this.end = end;
+        this.category = category;
+    }
+
+    /** @return copie indépendante */
+    public IceSlot copy() {
+        return new IceSlot(id, rink, day, start, end, category);
+    }
+
+    /**
+     * @param other autre créneau
+     * @return true si les deux créneaux se chevauchent dans la semaine (même jour, horaires croisés)
+     */
+    public boolean overlaps(IceSlot other) {
+        return day == other.day && start.isBefore(other.end) && other.start.isBefore(end);
+    }
+
+    public int getId() { return id; }
+
+    public void setId(int id) { this.id = id; }
+
+    public String getRink() { return rink; }
+
+    public void setRink(String rink) { this.rink = rink; }
+
+    public DayOfWeek getDay() { return day; }
+
+    public void setDay(DayOfWeek day) { this.day = day; }
+
+    public LocalTime getStart() { return start; }
+
+    public void setStart(LocalTime start) { this.start = start; }
+
+    public LocalTime getEnd() { return end; }
+
+    public void setEnd(LocalTime end) { this.end = end; }
+
+    /** @return catégorie attribuée, ou null si le créneau est libre */
+    public String getCategory() { return category; }
+
+    public void setCategory(String category) { this.category = category; }
+
+    @Override
+    public String toString() {
+        return day.getDisplayName(TextStyle.FULL, Locale.FRENCH) + " " + start + "-" + end + " " + rink
+                + (category != null ? " : " + category : "");
+    }
+}
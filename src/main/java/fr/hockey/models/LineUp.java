@@ -0,0 +1,38 @@
+package fr.hockey.models;
+
+import java.util.List;
+
+/**
+ * Composition d'équipe pour un match : gardiens, trios d'attaque, paires de défense et
+ * remplaçants.
+ *
+ * <p>Proposée par {@code LineBuilder} et imprimée par {@code MatchSheetPdfGenerator} ;
+ * les lignes sont données de la première à la dernière.</p>
+ */
+public final class LineUp {
+
+    private final List<Player> goalies;
+    private final List<List<Player>> forwardLines;
+    private final List<List<Player>> defensePairs;
+    private final List<Player> extras;
+
+    public LineUp(List<Player> goalies, List<List<Player>> forwardLines, List<List<Player>> defensePairs,
+                  List<Player> extras) {
+        this.goalies = List.copyOf(goalies);
+        this.forwardLines = forwardLines.stream().map(List::copyOf).toList();
+        this.defensePairs = defensePairs.stream().map(List::copyOf).toList();
+        this.extras = List.copyOf(extras);
+    }
+
+    /** @return gardiens, titulaire en premier */
+    public List<Player> getGoalies() { return goalies; }
+
+    /** @return trios d'attaque (le dernier peut être incomplet si l'effectif est court) */
+    public List<List<Player>> getForwardLines() { return forwardLines; }
+
+    /** @return paires de défense */
+    public List<List<Player>> getDefensePairs() { return defensePairs; }
+
+    /** @return joueurs hors lignes (surnombre ou poste non renseigné) */
+    public List<Player> getExtras() { return extras; }
+}
@@ -10,6 +10,7 @@ package fr.hockey.models;
  *     <li>un rôle dans l'équipe (CAPITAINE, ASSISTANT, JOUEUR) ;</li>
  *     <li>un poste (GARDIEN, DEFENSEUR, ATTAQUANT) ;</li>
  *     <li>un numéro de maillot ;</li>
+ *     <li>une adresse e-mail de contact (relances de cotisation) ;</li>
  *     <li>une licence (optionnelle), gérée via {@link fr.hockey.models.License}.</li>
  * </ul>
  *
@@ -42,6 +43,9 @@ public class Player {
     /** Licence associée au joueur, si elle existe. */
     private License license;
 
+    /** Adresse e-mail de contact (joueur ou parent), ou null. */
+    private String contactEmail;
+
     /**
      * Constructeur par défaut.
      */
@@ -147,6 +151,16 @@ public class Player {
         this.license = license;
     }
 
+    /** @return adresse e-mail de contact (ou null si inconnue) */
+    public String getContactEmail() {
+        return contactEmail;
+    }
+
+    /** @param contactEmail adresse e-mail de contact */
+    public void setContactEmail(String contactEmail) {
+        this.contactEmail = contactEmail;
+    }
+
     /**
      * Retourne une version texte du joueur : "Prénom Nom (Catégorie - Poste)".
      *
@@ -0,0 +1,62 @@
+package fr.hockey.models;
+
+import fr.hockey.utils.CompactBitmap;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Séance d'entraînement d'une catégorie et joueurs présents.
+ *
+ * <p>Les présents sont l'ensemble compressé ({@link CompactBitmap}) de leurs identifiants :
+ * c'est la forme stockée en base, et celle sur laquelle se calculent les taux de
+ * présence et les absences répétées.</p>
+ */
+public class PracticeSession {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private int id;
+    private String category;
+    private LocalDate date;
+    private String label;
+    private CompactBitmap present = new CompactBitmap();
+
+    public PracticeSession() {
+    }
+
+    public PracticeSession(int id, String category, LocalDate date, String label, CompactBitmap present) {
+        this.id = id;
+        this.category = category;
+        this.date = date;
+        this.label = label;
+        this.present = present;
+    }
+
+    public int getId() { return id; }
+
+    public void setId(int id) { this.id = id; }
+
+    public String getCategory() { return category; }
+
+    public void setCategory(String category) { this.category = category; }
+
+    public LocalDate getDate() { return date; }
+
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public String getLabel() { return label; }
+
+    public void setLabel(String label) { this.label = label; }
+
+    /** @return identifiants des joueurs présents */
+    public CompactBitmap getPresent() { return present; }
+
+    public void setPresent(CompactBitmap present) { this.present = present; }
+
+    @Override
+    public String toString() {
+        return date.format(DATE) + (label == null || label.isBlank() ? "" : " — " + label)
+                + " (" + present.getCardinality() + " présents)";
+    }
+}
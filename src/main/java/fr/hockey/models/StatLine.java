@@ -0,0 +1,71 @@
+package fr.hockey.models;
+
+/**
+ * Statistiques cumulées d'un joueur ou d'un match : buts, passes, tirs, minutes de
+ * pénalité, présences et temps de glace.
+ *
+ * <p>Mises à jour action par action ({@link #apply}) ; une annulation applique la même
+ * action avec le signe opposé.</p>
+ */
+public final class StatLine {
+
+    private int goals;
+    private int assists;
+    private int shots;
+    private int penaltyMinutes;
+    private int shifts;
+    private int iceTimeSeconds;
+
+    /**
+     * Ajoute (ou retire) une action.
+     *
+     * @param e    action
+     * @param sign 1 pour l'ajouter, -1 pour l'annuler
+     */
+    public void apply(GameEvent e, int sign) {
+        switch (e.getType()) {
+            case GOAL: goals += sign; break;
+            case ASSIST: assists += sign; break;
+            case SHOT: shots += sign; break;
+            case PENALTY: penaltyMinutes += sign * e.getValue(); break;
+            case SHIFT:
+                shifts += sign;
+                iceTimeSeconds += sign * e.getValue();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /** @return copie indépendante */
+    public StatLine copy() {
+        StatLine c = new StatLine();
+        c.goals = goals;
+        c.assists = assists;
+        c.shots = shots;
+        c.penaltyMinutes = penaltyMinutes;
+        c.shifts = shifts;
+        c.iceTimeSeconds = iceTimeSeconds;
+        return c;
+    }
+
+    public int getGoals() { return goals; }
+
+    public int getAssists() { return assists; }
+
+    /** @return buts + passes */
+    public int getPoints() { return goals + assists; }
+
+    public int getShots() { return shots; }
+
+    public int getPenaltyMinutes() { return penaltyMinutes; }
+
+    public int getShifts() { return shifts; }
+
+    public int getIceTimeSeconds() { return iceTimeSeconds; }
+
+    @Override
+    public String toString() {
+        return goals + "B " + assists + "A " + shots + "T " + penaltyMinutes + "min";
+    }
+}
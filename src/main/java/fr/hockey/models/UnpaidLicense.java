@@ -0,0 +1,52 @@
+package fr.hockey.models;
+
+import java.time.LocalDate;
+
+/**
+ * Licence non payée d'un joueur joignable par e-mail, telle que lue pour les relances
+ * de cotisation ({@code LicenseDAO#findUnpaidWithContact}).
+ */
+public final class UnpaidLicense {
+
+    private final int playerId;
+    private final int licenseId;
+    private final String firstName;
+    private final String lastName;
+    private final String category;
+    private final String contactEmail;
+    private final double amount;
+    private final LocalDate expirationDate;
+
+    public UnpaidLicense(int playerId, int licenseId, String firstName, String lastName, String category,
+                         String contactEmail, double amount, LocalDate expirationDate) {
+        this.playerId = playerId;
+        this.licenseId = licenseId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.category = category;
+        this.contactEmail = contactEmail;
+        this.amount = amount;
+        this.expirationDate = expirationDate;
+    }
+
+    public int getPlayerId() { return playerId; }
+
+    public int getLicenseId() { return licenseId; }
+
+    public String getFirstName() { return firstName; }
+
+    public String getLastName() { return lastName; }
+
+    public String getCategory() { return category; }
+
+    public String getContactEmail() { return contactEmail; }
+
+    public double getAmount() { return amount; }
+
+    public LocalDate getExpirationDate() { return expirationDate; }
+
+    @Override
+    public String toString() {
+        return lastName + " " + firstName + " <" + contactEmail + "> — " + amount;
+    }
+}
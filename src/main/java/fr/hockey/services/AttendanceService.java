@@ -0,0 +1,124 @@
+package fr.hockey.services;
+
+import fr.hockey.dao.PracticeSessionDAO;
+import fr.hockey.dao.RosterCache;
+import fr.hockey.models.PracticeSession;
+import fr.hockey.models.Player;
+import fr.hockey.utils.CompactBitmap;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Suivi des présences aux entraînements : taux de présence et absences répétées.
+ *
+ * <p>Les calculs portent sur les ensembles de présents de chaque séance ({@link CompactBitmap})
+ * et sur l'ensemble des joueurs de la catégorie, sans jointure ligne à ligne :</p>
+ * <ul>
+ *     <li>présences d'un joueur : parcours des présents de chaque séance, restreints à l'effectif ;</li>
+ *     <li>absents de {@code n} séances consécutives : effectif privé de l'union des présents de
+ *     ces {@code n} séances, pour chaque fenêtre de la période.</li>
+ * </ul>
+ */
+public class AttendanceService {
+
+    private static final AttendanceService INSTANCE = new AttendanceService(new PracticeSessionDAO(), RosterCache.getInstance());
+
+    private final PracticeSessionDAO sessionDAO;
+    private final RosterCache rosterCache;
+
+    /**
+     * Bilan des présences d'une catégorie sur une période.
+     */
+    public static final class Report {
+        private final List<PracticeSession> sessions;
+        private final Map<Integer, Integer> presences;
+        private final CompactBitmap missedInARow;
+
+        Report(List<PracticeSession> sessions, Map<Integer, Integer> presences, CompactBitmap missedInARow) {
+            this.sessions = sessions;
+            this.presences = presences;
+            this.missedInARow = missedInARow;
+        }
+
+        /** @return séances de la période, par date croissante */
+        public List<PracticeSession> getSessions() { return sessions; }
+
+        /**
+         * @param playerId joueur de la catégorie
+         * @return nombre de séances auxquelles il a assisté
+         */
+        public int getPresences(int playerId) { return presences.getOrDefault(playerId, 0); }
+
+        /**
+         * @param playerId joueur de la catégorie
+         * @return part des séances auxquelles il a assisté (0 sans séance)
+         */
+        public double getRate(int playerId) {
+            return sessions.isEmpty() ? 0 : getPresences(playerId) / (double) sessions.size();
+        }
+
+        /** @return joueurs absents d'au moins une série de séances consécutives */
+        public CompactBitmap getMissedInARow() { return missedInARow; }
+    }
+
+    AttendanceService(PracticeSessionDAO sessionDAO, RosterCache rosterCache) {
+        this.sessionDAO = sessionDAO;
+        this.rosterCache = rosterCache;
+    }
+
+    /** @return service partagé de l'application */
+    public static AttendanceService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Bilan des présences d'une catégorie.
+     *
+     * @param category catégorie
+     * @param from     premier jour inclus (début de saison, par exemple)
+     * @param to       dernier jour inclus
+     * @param streak   nombre de séances consécutives manquées à signaler (3 par exemple)
+     * @return bilan, restreint aux joueurs actuels de la catégorie
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public Report report(String category, LocalDate from, LocalDate to, int streak) throws SQLException {
+        List<PracticeSession> sessions = sessionDAO.findByCategory(category, from, to);
+        CompactBitmap roster = new CompactBitmap();
+        for (Player p : rosterCache.findPlayersByCategory(category)) roster.add(p.getId());
+        return new Report(sessions, presenceCounts(sessions, roster), missedInARow(sessions, roster, streak));
+    }
+
+    /**
+     * @param sessions séances
+     * @param roster   joueurs retenus
+     * @return nombre de présences de chaque joueur retenu présent au moins une fois
+     */
+    public static Map<Integer, Integer> presenceCounts(List<PracticeSession> sessions, CompactBitmap roster) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (PracticeSession s : sessions) {
+            s.getPresent().and(roster).forEach(id -> counts.merge(id, 1, Integer::sum));
+        }
+        return counts;
+    }
+
+    /**
+     * @param sessions séances, par date croissante
+     * @param roster   joueurs retenus
+     * @param streak   longueur de la série d'absences
+     * @return joueurs retenus absents de {@code streak} séances consécutives au moins une fois
+     */
+    public static CompactBitmap missedInARow(List<PracticeSession> sessions, CompactBitmap roster, int streak) {
+        if (streak <= 0) throw new IllegalArgumentException("Série d'absences invalide : " + streak);
+        CompactBitmap missed = new CompactBitmap();
+        for (int start = 0; start + streak <= sessions.size(); start++) {
+            CompactBitmap present = new CompactBitmap();
+            for (int i = start; i < start + streak; i++) present = present.or(sessions.get(i).getPresent());
+            missed = missed.or(roster.andNot(present));
+        }
+        return missed;
+    }
+}
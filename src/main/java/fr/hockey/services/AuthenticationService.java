@@ -0,0 +1,159 @@
+package fr.hockey.services;
+
+import fr.hockey.dao.AccountDAO;
+import fr.hockey.dao.CoachDAO;
+import fr.hockey.models.Admin;
+import fr.hockey.models.Coach;
+import fr.hockey.utils.PasswordHasher;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Service d'authentification unifié (administrateurs et coachs).
+ *
+ * <ul>
+ *     <li>le compte est résolu en une seule requête ({@link AccountDAO#findByUsername(String)}) ;</li>
+ *     <li>la vérification BCrypt s'exécute sur un pool de threads dédié, jamais sur le thread
+ *     JavaFX ; le pool borne aussi le nombre de hashs calculés en parallèle ;</li>
+ *     <li>un nom d'utilisateur inconnu coûte une vérification BCrypt factice, pour ne pas
+ *     révéler par le temps de réponse si le compte existe ;</li>
+ *     <li>après une connexion réussie, un hash produit avec un autre coût que celui configuré
+ *     ({@link PasswordHasher#getCost()}) est recalculé en arrière-plan.</li>
+ * </ul>
+ */
+public class AuthenticationService {
+
+    /** Pool partagé des vérifications BCrypt (threads démons). */
+    private static final ExecutorService BCRYPT_POOL = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)),
+            new WorkerFactory());
+
+    /** Hash d'un mot de passe aléatoire, vérifié lorsque le compte n'existe pas. */
+    private static final String DUMMY_HASH = PasswordHasher.hash("dummy-" + System.nanoTime());
+
+    private final AccountDAO accountDAO;
+    private final CoachDAO coachDAO;
+    private final IntSupplier targetCost;
+    private final Executor rehashExecutor;
+
+    /**
+     * Résultat d'une authentification réussie.
+     */
+    public static final class Result {
+        private final Admin admin;
+        private final Coach coach;
+
+        private Result(Admin admin, Coach coach) {
+            this.admin = admin;
+            this.coach = coach;
+        }
+
+        public boolean isAdmin() { return admin != null; }
+
+        /** @return administrateur authentifié, ou null */
+        public Admin getAdmin() { return admin; }
+
+        /** @return coach authentifié (équipes chargées), ou null */
+        public Coach getCoach() { return coach; }
+
+        /** @return {@link AccountDAO#TYPE_ADMIN} ou {@link AccountDAO#TYPE_COACH} */
+        public String getAccountType() { return admin != null ? AccountDAO.TYPE_ADMIN : AccountDAO.TYPE_COACH; }
+    }
+
+    /**
+     * Service utilisant les DAO par défaut et le coût BCrypt configuré.
+     */
+    public AuthenticationService() {
+        this(new AccountDAO(), new CoachDAO(), PasswordHasher::getCost, BCRYPT_POOL);
+    }
+
+    /**
+     * @param accountDAO     accès aux comptes
+     * @param coachDAO       accès aux équipes des coachs
+     * @param targetCost     coût BCrypt attendu pour les hashs stockés
+     * @param rehashExecutor exécution du re-hashage après connexion
+     */
+    AuthenticationService(AccountDAO accountDAO, CoachDAO coachDAO, IntSupplier targetCost, Executor rehashExecutor) {
+        this.accountDAO = accountDAO;
+        this.coachDAO = coachDAO;
+        this.targetCost = targetCost;
+        this.rehashExecutor = rehashExecutor;
+    }
+
+    /**
+     * Authentifie un utilisateur sans bloquer le thread appelant.
+     *
+     * @param username nom d'utilisateur
+     * @param password mot de passe en clair
+     * @return future complétée avec le résultat, avec null si les identifiants sont invalides,
+     *         ou en erreur ({@link SQLException} en cause) si la base est inaccessible
+     */
+    public CompletableFuture<Result> authenticateAsync(String username, String password) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return authenticate(username, password);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, BCRYPT_POOL);
+    }
+
+    /**
+     * Authentifie un utilisateur sur le thread courant.
+     *
+     * @param username nom d'utilisateur
+     * @param password mot de passe en clair
+     * @return résultat, ou null si les identifiants sont invalides
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public Result authenticate(String username, String password) throws SQLException {
+        AccountDAO.Credentials account = accountDAO.findByUsername(username);
+        if (account == null) {
+            PasswordHasher.verify(password, DUMMY_HASH);
+            return null;
+        }
+        if (!PasswordHasher.verify(password, account.getPasswordHash())) {
+            return null;
+        }
+
+        int cost = targetCost.getAsInt();
+        if (PasswordHasher.needsRehash(account.getPasswordHash(), cost)) {
+            rehashExecutor.execute(() -> rehash(account, password, cost));
+        }
+
+        if (account.isAdmin()) {
+            return new Result(account.toAdmin(), null);
+        }
+        Coach coach = account.toCoach();
+        coach.setTeams(coachDAO.findTeams(coach.getId()));
+        return new Result(null, coach);
+    }
+
+    private void rehash(AccountDAO.Credentials account, String password, int cost) {
+        try {
+            accountDAO.replacePasswordHash(account, PasswordHasher.hash(password, cost));
+        } catch (SQLException e) {
+            System.err.println("Re-hashage impossible pour le compte " + account.getId() + " : " + e.getMessage());
+        }
+    }
+
+    /** Threads démons nommés, pour ne pas retenir la fermeture de l'application. */
+    private static final class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "bcrypt-worker-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
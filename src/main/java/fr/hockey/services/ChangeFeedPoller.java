@@ -0,0 +1,170 @@
+package fr.hockey.services;
+
+import fr.hockey.dao.ChangeLog;
+import fr.hockey.dao.CoachDAO;
+import fr.hockey.dao.Delta;
+import fr.hockey.dao.PlayerDAO;
+import fr.hockey.dao.QueryMetrics;
+import fr.hockey.events.DomainEventBus;
+import fr.hockey.events.DomainEvents;
+import fr.hockey.models.Coach;
+import fr.hockey.models.Player;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Flux de modifications entre postes : relaie dans ce client les écritures faites par les
+ * autres postes connectés à la même base.
+ *
+ * <ul>
+ *     <li>Le journal {@code change_log} est interrogé sur un thread démon ; seules les lignes
+ *     écrites par un autre poste ({@link ChangeLog#getOrigin()}) pour le club de la session
+ *     déclenchent une relecture, les écritures locales ayant déjà été diffusées sur place.</li>
+ *     <li>Les lignes modifiées sont relues par les {@code findChangedSince} des DAO puis
+ *     republiées comme événements métier : le cache de l'effectif, l'index de recherche et
+ *     les vues ouvertes se mettent à jour comme pour une écriture locale.</li>
+ *     <li>L'intervalle s'adapte à l'activité : court juste après une modification, doublé à
+ *     chaque interrogation sans nouveauté, jusqu'à {@link #MAX_INTERVAL_MS}.</li>
+ *     <li>Un identifiant du journal peut être validé après un identifiant plus grand
+ *     (transactions concurrentes) : le flux ne lit que jusqu'au watermark sûr du journal
+ *     ({@link ChangeLog#safeWatermark(long)}), la règle commune à tous les lecteurs.</li>
+ * </ul>
+ */
+public class ChangeFeedPoller {
+
+    /** Intervalle après une modification. */
+    static final long MIN_INTERVAL_MS = 1_000;
+    /** Intervalle maximal sans modification. */
+    static final long MAX_INTERVAL_MS = 15_000;
+    /** Nombre maximal de lignes du journal lues par interrogation. */
+    private static final int BATCH = 500;
+
+    private static final ChangeFeedPoller INSTANCE = new ChangeFeedPoller(new PlayerDAO(), new CoachDAO());
+
+    private final PlayerDAO playerDAO;
+    private final CoachDAO coachDAO;
+
+    private Thread thread;
+    private volatile boolean running;
+
+    private long watermark = -1;
+    private long interval = MIN_INTERVAL_MS;
+
+    ChangeFeedPoller(PlayerDAO playerDAO, CoachDAO coachDAO) {
+        this.playerDAO = playerDAO;
+        this.coachDAO = coachDAO;
+    }
+
+    /** @return flux partagé de l'application */
+    public static ChangeFeedPoller getInstance() {
+        return INSTANCE;
+    }
+
+    /** @return true si l'interrogation est en cours */
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Démarre l'interrogation du journal s'il ne l'est pas déjà.
+     * Seules les modifications postérieures au démarrage sont relayées.
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::run, "change-feed");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Arrête l'interrogation (déconnexion, fermeture de l'application). */
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                pollOnce();
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("Flux de modifications indisponible : " + e.getMessage());
+                interval = MAX_INTERVAL_MS;
+            }
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Interroge le journal une fois et republie les modifications des autres postes.
+     *
+     * @return nombre de lignes du journal écrites par un autre poste
+     * @throws SQLException en cas d'erreur SQL
+     */
+    synchronized int pollOnce() throws SQLException {
+        if (watermark < 0) {
+            watermark = ChangeLog.safeWatermark(0);
+            return 0;
+        }
+        long to = ChangeLog.safeWatermark(watermark);
+        List<ChangeLog.Entry> entries = to > watermark ? ChangeLog.readSince(watermark, to, BATCH) : List.of();
+        if (entries.isEmpty()) {
+            interval = Math.min(interval * 2, MAX_INTERVAL_MS);
+            return 0;
+        }
+        interval = MIN_INTERVAL_MS;
+
+        int remote = 0;
+        boolean players = false;
+        boolean coaches = false;
+        for (ChangeLog.Entry e : entries) {
+            if (e.isLocal() || !e.isCurrentClub()) continue;
+            remote++;
+            players |= e.isPlayerChange();
+            coaches |= e.isCoachChange();
+        }
+
+        if (players) publishPlayers(playerDAO.findChangedSince(watermark));
+        if (coaches) publishCoaches(coachDAO.findChangedSince(watermark));
+        if (remote > 0) QueryMetrics.recordRemoteWrite();
+        watermark = entries.size() == BATCH ? entries.get(entries.size() - 1).getId() : to;
+        return remote;
+    }
+
+    private void publishPlayers(Delta<Player> delta) {
+        for (Player p : delta.getChanged()) {
+            DomainEventBus.publish(new DomainEvents.PlayerSaved(p, false));
+            if (p.getLicense() != null) {
+                DomainEventBus.publish(new DomainEvents.LicenseSaved(p.getLicense()));
+            } else {
+                DomainEventBus.publish(new DomainEvents.LicenseDeleted(p.getId()));
+            }
+        }
+        for (int id : delta.getDeletedIds()) {
+            DomainEventBus.publish(new DomainEvents.LicenseDeleted(id));
+            DomainEventBus.publish(new DomainEvents.PlayerDeleted(id));
+        }
+    }
+
+    private void publishCoaches(Delta<Coach> delta) {
+        for (Coach c : delta.getChanged()) {
+            DomainEventBus.publish(new DomainEvents.CoachSaved(c.getId(), c.getFirstName(), c.getLastName(),
+                    c.getUsername(), c.getEmail(), false));
+            DomainEventBus.publish(DomainEvents.CoachTeamsChanged.cleared(c.getId()));
+            for (String category : c.getTeams()) {
+                DomainEventBus.publish(DomainEvents.CoachTeamsChanged.added(c.getId(), category));
+            }
+        }
+        for (int id : delta.getDeletedIds()) {
+            DomainEventBus.publish(new DomainEvents.CoachDeleted(id));
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package fr.hockey.services;
+
+import fr.hockey.models.Coach;
+import fr.hockey.models.IceSlot;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Planification des créneaux de glace hebdomadaires entre les équipes (catégories).
+ *
+ * <p>Chaque créneau disponible reçoit une catégorie ou reste libre. Le coût d'un planning
+ * additionne, par ordre de gravité :</p>
+ * <ol>
+ *     <li>les conflits : deux créneaux qui se chevauchent attribués à la même catégorie, ou à
+ *     deux catégories ayant un coach en commun ({@code coach_teams}) ;</li>
+ *     <li>l'écart entre le nombre de créneaux attribués et le besoin de chaque catégorie ;</li>
+ *     <li>deux créneaux le même jour pour une catégorie, et les créneaux tardifs pour les plus jeunes.</li>
+ * </ol>
+ *
+ * <p>La recherche est un recuit simulé (changement de catégorie d'un créneau, échange de deux
+ * créneaux) au coût mis à jour par différence. Plusieurs recherches indépendantes, de graines
+ * différentes, sont réparties par fork/join sur les cœurs disponibles jusqu'au délai imparti ;
+ * le meilleur planning trouvé est retenu. Un planning de coût nul arrête toutes les recherches.</p>
+ */
+public class IceScheduler {
+
+    static final long CONFLICT = 1_000_000;
+    static final long SHORTFALL = 1_000;
+    static final long SAME_DAY = 10;
+    static final long LATE = 3;
+
+    /** Catégories pour lesquelles un créneau commençant après {@link #LATE_START} est pénalisé. */
+    private static final Set<String> YOUNG = Set.of("U9", "U11");
+    private static final LocalTime LATE_START = LocalTime.of(19, 30);
+
+    private final int parallelism;
+
+    /**
+     * Planning proposé.
+     */
+    public static final class Plan {
+        private final List<IceSlot> slots;
+        private final int conflicts;
+        private final Map<String, Integer> shortfall;
+        private final long cost;
+        private final long iterations;
+        private final long millis;
+
+        Plan(List<IceSlot> slots, int conflicts, Map<String, Integer> shortfall, long cost, long iterations, long millis) {
+            this.slots = slots;
+            this.conflicts = conflicts;
+            this.shortfall = shortfall;
+            this.cost = cost;
+            this.iterations = iterations;
+            this.millis = millis;
+        }
+
+        /** @return copies des créneaux, catégorie attribuée renseignée (null si libre) */
+        public List<IceSlot> getSlots() { return slots; }
+
+        /** @return nombre de paires de créneaux en conflit (0 pour un planning réalisable) */
+        public int getConflicts() { return conflicts; }
+
+        public boolean isFeasible() { return conflicts == 0; }
+
+        /** @return créneaux manquants (positif) ou en trop (négatif) par catégorie, écarts nuls omis */
+        public Map<String, Integer> getShortfall() { return shortfall; }
+
+        public long getCost() { return cost; }
+
+        /** @return nombre total de mouvements évalués */
+        public long getIterations() { return iterations; }
+
+        public long getMillis() { return millis; }
+    }
+
+    /**
+     * @param parallelism nombre de recherches menées en parallèle
+     */
+    public IceScheduler(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /** Planificateur utilisant tous les cœurs. */
+    public IceScheduler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Coachs de chaque catégorie.
+     *
+     * @param coaches coachs avec leurs équipes
+     * @return identifiants des coachs par catégorie
+     */
+    public static Map<String, Set<Integer>> coachesByCategory(List<Coach> coaches) {
+        Map<String, Set<Integer>> map = new LinkedHashMap<>();
+        for (Coach c : coaches) {
+            for (String team : c.getTeams()) map.computeIfAbsent(team, k -> new HashSet<>()).add(c.getId());
+        }
+        return map;
+    }
+
+    /**
+     * Cherche le meilleur planning dans le délai imparti.
+     *
+     * @param slots       créneaux disponibles (non modifiés ; leur catégorie actuelle sert de point de départ)
+     * @param demands     nombre de créneaux voulus par catégorie
+     * @param coaches     coachs de chaque catégorie ({@link #coachesByCategory})
+     * @param timeLimitMs délai de recherche
+     * @return meilleur planning trouvé
+     */
+    public Plan plan(List<IceSlot> slots, Map<String, Integer> demands, Map<String, Set<Integer>> coaches, long timeLimitMs) {
+        return plan(slots, demands, coaches, timeLimitMs, System.nanoTime());
+    }
+
+    Plan plan(List<IceSlot> slots, Map<String, Integer> demands, Map<String, Set<Integer>> coaches, long timeLimitMs, long seed) {
+        long started = System.nanoTime();
+        Problem problem = new Problem(slots, demands, coaches);
+        long deadline = started + timeLimitMs * 1_000_000L;
+        AtomicBoolean optimal = new AtomicBoolean();
+        LongAdder iterations = new LongAdder();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Search best;
+        try {
+            best = pool.invoke(new SearchTask(problem, 0, parallelism, seed, deadline, optimal, iterations));
+        } finally {
+            pool.shutdown();
+        }
+
+        List<IceSlot> planned = new ArrayList<>(slots.size());
+        for (int s = 0; s < slots.size(); s++) {
+            IceSlot copy = slots.get(s).copy();
+            int team = best.bestAssign[s];
+            copy.setCategory(team < 0 ? null : problem.teams[team]);
+            planned.add(copy);
+        }
+        Map<String, Integer> shortfall = new LinkedHashMap<>();
+        int[] count = new int[problem.teams.length];
+        for (int team : best.bestAssign) if (team >= 0) count[team]++;
+        for (int t = 0; t < problem.teams.length; t++) {
+            if (count[t] != problem.demand[t]) shortfall.put(problem.teams[t], problem.demand[t] - count[t]);
+        }
+        return new Plan(planned, problem.conflicts(best.bestAssign), shortfall, best.bestCost,
+                iterations.sum(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /** Données figées du problème, partagées en lecture par toutes les recherches. */
+    private static final class Problem {
+        final String[] teams;
+        final int[] demand;
+        final boolean[][] clash;
+        final boolean[] young;
+        final int[][] overlaps;
+        final int[] day;
+        final boolean[] late;
+        final int[] initial;
+
+        Problem(List<IceSlot> slots, Map<String, Integer> demands, Map<String, Set<Integer>> coaches) {
+            List<String> names = new ArrayList<>();
+            for (Map.Entry<String, Integer> e : demands.entrySet()) {
+                if (e.getValue() != null && e.getValue() > 0) names.add(e.getKey());
+            }
+            teams = names.toArray(new String[0]);
+            int t = teams.length;
+            demand = new int[t];
+            young = new boolean[t];
+            clash = new boolean[t][t];
+            for (int a = 0; a < t; a++) {
+                demand[a] = demands.get(teams[a]);
+                young[a] = YOUNG.contains(teams[a]);
+                Set<Integer> ca = coaches.getOrDefault(teams[a], Set.of());
+                for (int b = 0; b < t; b++) {
+                    if (a == b) {
+                        clash[a][b] = true;
+                    } else {
+                        for (Integer coach : coaches.getOrDefault(teams[b], Set.of())) {
+                            if (ca.contains(coach)) {
+                                clash[a][b] = true;
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+            int n = slots.size();
+            overlaps = new int[n][];
+            day = new int[n];
+            late = new boolean[n];
+            initial = new int[n];
+            for (int s = 0; s < n; s++) {
+                IceSlot slot = slots.get(s);
+                day[s] = slot.getDay().getValue() - 1;
+                late[s] = !slot.getStart().isBefore(LATE_START);
+                initial[s] = slot.getCategory() == null ? -1 : names.indexOf(slot.getCategory());
+                List<Integer> list = new ArrayList<>();
+                for (int o = 0; o < n; o++) {
+                    if (o != s && slot.overlaps(slots.get(o))) list.add(o);
+                }
+                overlaps[s] = list.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+
+        int conflicts(int[] assign) {
+            int pairs = 0;
+            for (int s = 0; s < assign.length; s++) {
+                if (assign[s] < 0) continue;
+                for (int o : overlaps[s]) {
+                    if (o > s && assign[o] >= 0 && clash[assign[s]][assign[o]]) pairs++;
+                }
+            }
+            return pairs;
+        }
+    }
+
+    /** Une recherche : état courant, coût tenu à jour par différence, meilleur état vu. */
+    private static final class Search {
+        final Problem p;
+        final Random random;
+        final int[] assign;
+        final int[] count;
+        final int[][] perDay;
+        long cost;
+        int[] bestAssign;
+        long bestCost;
+        long iterations;
+
+        Search(Problem p, long seed) {
+            this.p = p;
+            this.random = new Random(seed);
+            assign = new int[p.day.length];
+            Arrays.fill(assign, -1);
+            count = new int[p.teams.length];
+            perDay = new int[p.teams.length][7];
+            cost = 0;
+            for (int t = 0; t < p.teams.length; t++) cost += SHORTFALL * p.demand[t];
+            for (int s = 0; s < assign.length; s++) {
+                if (p.initial[s] >= 0) set(s, p.initial[s]);
+            }
+            greedyFill();
+            bestAssign = assign.clone();
+            bestCost = cost;
+        }
+
+        /** Complète le départ : chaque besoin non couvert prend le créneau libre le moins coûteux. */
+        private void greedyFill() {
+            boolean progress = true;
+            while (progress) {
+                progress = false;
+                for (int t = 0; t < p.teams.length; t++) {
+                    if (count[t] >= p.demand[t]) continue;
+                    int bestSlot = -1;
+                    long bestDelta = 0;
+                    int start = assign.length == 0 ? 0 : random.nextInt(assign.length);
+                    for (int k = 0; k < assign.length; k++) {
+                        int s = (start + k) % assign.length;
+                        if (assign[s] >= 0) continue;
+                        long d = delta(s, t);
+                        if (d < bestDelta) {
+                            bestDelta = d;
+                            bestSlot = s;
+                        }
+                    }
+                    if (bestSlot >= 0) {
+                        set(bestSlot, t);
+                        progress = true;
+                    }
+                }
+            }
+        }
+
+        /** Variation du coût si le créneau {@code s} passe à la catégorie {@code b} (-1 : libre). */
+        long delta(int s, int b) {
+            int a = assign[s];
+            if (a == b) return 0;
+            long d = 0;
+            for (int o : p.overlaps[s]) {
+                int t = assign[o];
+                if (t < 0) continue;
+                if (a >= 0 && p.clash[a][t]) d -= CONFLICT;
+                if (b >= 0 && p.clash[b][t]) d += CONFLICT;
+            }
+            int day = p.day[s];
+            if (a >= 0) {
+                d += SHORTFALL * (Math.abs(count[a] - 1 - p.demand[a]) - Math.abs(count[a] - p.demand[a]));
+                if (perDay[a][day] >= 2) d -= SAME_DAY;
+                if (p.late[s] && p.young[a]) d -= LATE;
+            }
+            if (b >= 0) {
+                d += SHORTFALL * (Math.abs(count[b] + 1 - p.demand[b]) - Math.abs(count[b] - p.demand[b]));
+                if (perDay[b][day] >= 1) d += SAME_DAY;
+                if (p.late[s] && p.young[b]) d += LATE;
+            }
+            return d;
+        }
+
+        void set(int s, int b) {
+            cost += delta(s, b);
+            int a = assign[s];
+            if (a >= 0) {
+                count[a]--;
+                perDay[a][p.day[s]]--;
+            }
+            if (b >= 0) {
+                count[b]++;
+                perDay[b][p.day[s]]++;
+            }
+            assign[s] = b;
+        }
+
+        void run(long deadline, AtomicBoolean optimal) {
+            int n = assign.length;
+            int teams = p.teams.length;
+            if (n == 0 || teams == 0) return;
+            long start = System.nanoTime();
+            long span = Math.max(1, deadline - start);
+            double t0 = SHORTFALL, tEnd = 0.5;
+            double temperature = t0;
+            while (bestCost > 0) {
+                if ((iterations & 1023) == 0) {
+                    long now = System.nanoTime();
+                    if (now >= deadline || optimal.get()) break;
+                    temperature = t0 * Math.pow(tEnd / t0, (now - start) / (double) span);
+                }
+                iterations++;
+                int s = random.nextInt(n);
+                if (random.nextInt(3) == 0) {
+                    // Échange des catégories de deux créneaux
+                    int o = random.nextInt(n);
+                    int a = assign[s], b = assign[o];
+                    if (a == b) continue;
+                    long before = cost;
+                    set(s, b);
+                    set(o, a);
+                    if (!accept(cost - before, temperature)) {
+                        set(o, b);
+                        set(s, a);
+                    }
+                } else {
+                    int b = random.nextInt(teams + 1) - 1;
+                    if (b != assign[s] && accept(delta(s, b), temperature)) set(s, b);
+                }
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    System.arraycopy(assign, 0, bestAssign, 0, n);
+                }
+            }
+            if (bestCost == 0) optimal.set(true);
+        }
+
+        private boolean accept(long delta, double temperature) {
+            return delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature);
+        }
+    }
+
+    /** Répartit les recherches par moitiés ; chaque feuille mène une recherche complète. */
+    private static final class SearchTask extends RecursiveTask<Search> {
+        private static final long serialVersionUID = 1L;
+
+        private final Problem problem;
+        private final int from;
+        private final int to;
+        private final long seed;
+        private final long deadline;
+        private final AtomicBoolean optimal;
+        private final LongAdder iterations;
+
+        SearchTask(Problem problem, int from, int to, long seed, long deadline, AtomicBoolean optimal,
+                   LongAdder iterations) {
+            this.problem = problem;
+            this.from = from;
+            this.to = to;
+            this.seed = seed;
+            this.deadline = deadline;
+            this.optimal = optimal;
+            this.iterations = iterations;
+        }
+
+        @Override
+        protected Search compute() {
+            if (to - from == 1) {
+                Search search = new Search(problem, seed + from * 0x9E3779B97F4A7C15L);
+                search.run(deadline, optimal);
+                iterations.add(search.iterations);
+                return search;
+            }
+            int mid = (from + to) >>> 1;
+            SearchTask left = new SearchTask(problem, from, mid, seed, deadline, optimal, iterations);
+            left.fork();
+            Search right = new SearchTask(problem, mid, to, seed, deadline, optimal, iterations).compute();
+            Search l = left.join();
+            return l.bestCost <= right.bestCost ? l : right;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package fr.hockey.services;
+
+import fr.hockey.events.DomainEventBus;
+import fr.hockey.events.DomainEvents;
+import fr.hockey.models.GameEvent;
+import fr.hockey.models.StatLine;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Classements des joueurs (meilleurs marqueurs, pointeurs...) par catégorie et par saison.
+ *
+ * <ul>
+ *     <li>Chaque classement est un ensemble trié (valeur décroissante, puis numéro de joueur)
+ *     tenu à jour action par action à partir des événements {@link DomainEvents.GameEventRecorded} :
+ *     une action déplace un seul joueur, en O(log n).</li>
+ *     <li>Les {@code k} premiers se lisent en parcourant le début de l'ensemble, en O(k), sans
+ *     jamais réagréger les actions.</li>
+ *     <li>Une annulation retire l'action annulée ; une reconstruction des statistiques
+ *     ({@link DomainEvents.GameStatsReloaded}) recharge tous les classements.</li>
+ * </ul>
+ */
+public class LeaderboardService {
+
+    private static final LeaderboardService INSTANCE = new LeaderboardService(LiveScoringService.getInstance());
+
+    /** Mois de début de saison (les licences expirent fin août). */
+    private static final int SEASON_START_MONTH = 9;
+
+    /** Statistique classée. */
+    public enum Stat {
+        GOALS("Buts", StatLine::getGoals),
+        ASSISTS("Passes", StatLine::getAssists),
+        POINTS("Points", StatLine::getPoints),
+        SHOTS("Tirs", StatLine::getShots),
+        PENALTY_MINUTES("Minutes de pénalité", StatLine::getPenaltyMinutes),
+        ICE_TIME("Temps de glace", StatLine::getIceTimeSeconds);
+
+        private final String label;
+        private final ToIntFunction<StatLine> value;
+
+        Stat(String label, ToIntFunction<StatLine> value) {
+            this.label = label;
+            this.value = value;
+        }
+
+        public int of(StatLine s) {
+            return value.applyAsInt(s);
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * Position d'un joueur dans un classement (immuable).
+     */
+    public static final class Leader {
+        private final int playerId;
+        private final int value;
+
+        Leader(int playerId, int value) {
+            this.playerId = playerId;
+            this.value = value;
+        }
+
+        public int getPlayerId() { return playerId; }
+
+        public int getValue() { return value; }
+
+        @Override
+        public String toString() {
+            return "joueur " + playerId + " : " + value;
+        }
+    }
+
+    private static final Comparator<Leader> ORDER =
+            Comparator.comparingInt((Leader l) -> -l.value).thenComparingInt(l -> l.playerId);
+
+    /** Totaux et classements d'une catégorie sur une saison. */
+    private static final class Board {
+        final Map<Integer, StatLine> totals = new HashMap<>();
+        final Map<Stat, TreeSet<Leader>> ranks = new EnumMap<>(Stat.class);
+
+        Board() {
+            for (Stat stat : Stat.values()) ranks.put(stat, new TreeSet<>(ORDER));
+        }
+
+        void apply(GameEvent e, int sign) {
+            StatLine line = totals.computeIfAbsent(e.getPlayerId(), id -> new StatLine());
+            int[] before = new int[Stat.values().length];
+            for (Stat stat : Stat.values()) before[stat.ordinal()] = stat.of(line);
+            line.apply(e, sign);
+            for (Stat stat : Stat.values()) {
+                int after = stat.of(line);
+                int old = before[stat.ordinal()];
+                if (after == old) continue;
+                TreeSet<Leader> rank = ranks.get(stat);
+                if (old != 0) rank.remove(new Leader(e.getPlayerId(), old));
+                if (after != 0) rank.add(new Leader(e.getPlayerId(), after));
+            }
+        }
+    }
+
+    private final LiveScoringService scoring;
+    private final Map<String, Board> boards = new HashMap<>();
+
+    /** Écouteurs conservés ici : le bus ne les retient que faiblement. */
+    private final Consumer<DomainEvents.GameEventRecorded> recordedListener = this::onRecorded;
+    private final Consumer<DomainEvents.GameStatsReloaded> reloadedListener = e -> reload();
+
+    LeaderboardService(LiveScoringService scoring) {
+        this.scoring = scoring;
+        DomainEventBus.subscribe(DomainEvents.GameEventRecorded.class, recordedListener);
+        DomainEventBus.subscribe(DomainEvents.GameStatsReloaded.class, reloadedListener);
+        reload();
+    }
+
+    /** @return service partagé de l'application */
+    public static LeaderboardService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Premiers d'un classement.
+     *
+     * @param category catégorie
+     * @param season   saison ({@link #seasonOf})
+     * @param stat     statistique classée
+     * @param k        nombre de joueurs voulus
+     * @return au plus {@code k} joueurs, du premier au dernier ; les joueurs à 0 ne sont pas classés
+     */
+    public synchronized List<Leader> top(String category, String season, Stat stat, int k) {
+        Board board = boards.get(key(category, season));
+        if (board == null || k <= 0) return List.of();
+        List<Leader> result = new ArrayList<>(k);
+        Iterator<Leader> it = board.ranks.get(stat).iterator();
+        while (result.size() < k && it.hasNext()) result.add(it.next());
+        return result;
+    }
+
+    /**
+     * @param category catégorie
+     * @param season   saison ({@link #seasonOf})
+     * @param playerId joueur
+     * @return statistiques du joueur dans cette catégorie sur la saison (copie)
+     */
+    public synchronized StatLine getTotals(String category, String season, int playerId) {
+        Board board = boards.get(key(category, season));
+        StatLine s = board == null ? null : board.totals.get(playerId);
+        return s == null ? new StatLine() : s.copy();
+    }
+
+    /**
+     * @param date date d'un match
+     * @return saison de ce match, par exemple {@code 2026-2027} de septembre 2026 à août 2027
+     */
+    public static String seasonOf(LocalDate date) {
+        int start = seasonStart(date).getYear();
+        return start + "-" + (start + 1);
+    }
+
+    /**
+     * @param date jour quelconque
+     * @return premier jour de la saison contenant ce jour (1er septembre)
+     */
+    public static LocalDate seasonStart(LocalDate date) {
+        int start = date.getMonthValue() >= SEASON_START_MONTH ? date.getYear() : date.getYear() - 1;
+        return LocalDate.of(start, SEASON_START_MONTH, 1);
+    }
+
+    /**
+     * Recharge tous les classements à partir des actions en vigueur.
+     */
+    public void reload() {
+        // Même ordre de verrouillage qu'une saisie, qui publie sous le verrou du service de saisie
+        synchronized (scoring) {
+            synchronized (this) {
+                boards.clear();
+                for (GameEvent e : scoring.getEffectiveEvents()) board(e).apply(e, 1);
+            }
+        }
+    }
+
+    private synchronized void onRecorded(DomainEvents.GameEventRecorded event) {
+        GameEvent cancelled = event.getCancelled();
+        if (cancelled != null) {
+            board(cancelled).apply(cancelled, -1);
+        } else if (event.getEvent().getType() != GameEvent.Type.CANCEL) {
+            board(event.getEvent()).apply(event.getEvent(), 1);
+        }
+    }
+
+    private Board board(GameEvent e) {
+        return boards.computeIfAbsent(key(e.getCategory(), seasonOf(gameDate(e))), k -> new Board());
+    }
+
+    /** Date du match, lue dans son identifiant ; à défaut, date de saisie. */
+    private static LocalDate gameDate(GameEvent e) {
+        String[] parts = e.getGameId().split("/", 3);
+        if (parts.length >= 2) {
+            try {
+                return LocalDate.parse(parts[1]);
+            } catch (DateTimeParseException ignored) {
+                // Identifiant libre : date de saisie
+            }
+        }
+        return Instant.ofEpochMilli(e.getRecordedAt()).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private static String key(String category, String season) {
+        return category + "|" + season;
+    }
+}
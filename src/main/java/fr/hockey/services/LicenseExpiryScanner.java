@@ -0,0 +1,264 @@
+package fr.hockey.services;
+
+import fr.hockey.dao.ChangeLog;
+import fr.hockey.dao.Delta;
+import fr.hockey.dao.LicenseDAO;
+import fr.hockey.dao.PlayerDAO;
+import fr.hockey.models.ExpiringLicense;
+import fr.hockey.models.Player;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Surveillance en arrière-plan des licences arrivant à échéance.
+ *
+ * <ul>
+ *     <li>Au démarrage, une requête par plage de dates ({@code expiration_date}, indexée)
+ *     charge les licences échues depuis moins de {@link #OVERDUE_DAYS} jours ou expirant
+ *     dans les {@link #HORIZON_DAYS} prochains jours.</li>
+ *     <li>Elles sont tenues dans une file de priorité par échéance ; une licence modifiée
+ *     y est remplacée, l'ancienne entrée étant ignorée au passage (suppression paresseuse).</li>
+ *     <li>Chaque passage ne relit que les joueurs modifiés depuis le précédent
+ *     ({@link PlayerDAO#findChangedSince}, jusqu'au watermark sûr du journal, qui attend les
+ *     transactions validées en retard) ; quand la date change, seuls les jours entrés
+ *     dans la fenêtre sont lus et les échéances sorties de la fenêtre sont retirées.</li>
+ *     <li>La liste triée est transmise au tableau de bord après chaque changement et
+ *     peut être exportée en CSV.</li>
+ * </ul>
+ */
+public class LicenseExpiryScanner {
+
+    /** Jours à venir surveillés. */
+    static final int HORIZON_DAYS = 30;
+    /** Jours pendant lesquels une licence échue reste signalée. */
+    static final int OVERDUE_DAYS = 30;
+    /** Intervalle entre deux passages. */
+    static final long SCAN_INTERVAL_MS = 60_000;
+
+    private static final Comparator<ExpiringLicense> ORDER = Comparator
+            .comparing(ExpiringLicense::getExpirationDate)
+            .thenComparing(ExpiringLicense::getLastName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(ExpiringLicense::getFirstName, String.CASE_INSENSITIVE_ORDER);
+
+    private static final LicenseExpiryScanner INSTANCE = new LicenseExpiryScanner(new LicenseDAO(), new PlayerDAO());
+
+    private final LicenseDAO licenseDAO;
+    private final PlayerDAO playerDAO;
+
+    /** Échéances par date ; peut contenir des entrées remplacées (voir {@link #current}). */
+    private final PriorityQueue<ExpiringLicense> queue = new PriorityQueue<>(ORDER);
+    /** Entrée en vigueur par joueur. */
+    private final Map<Integer, ExpiringLicense> current = new HashMap<>();
+
+    private long watermark = -1;
+    private LocalDate windowFrom;
+    private LocalDate windowTo;
+    private volatile List<ExpiringLicense> snapshot = List.of();
+    private volatile Consumer<List<ExpiringLicense>> listener;
+
+    private Thread thread;
+    private volatile boolean running;
+
+    LicenseExpiryScanner(LicenseDAO licenseDAO, PlayerDAO playerDAO) {
+        this.licenseDAO = licenseDAO;
+        this.playerDAO = playerDAO;
+    }
+
+    /** @return surveillance partagée de l'application */
+    public static LicenseExpiryScanner getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Définit l'écouteur appelé (sur le thread de surveillance) avec la liste triée
+     * après chaque changement, et immédiatement avec la liste actuelle.
+     *
+     * @param l écouteur, ou null
+     */
+    public void setListener(Consumer<List<ExpiringLicense>> l) {
+        listener = l;
+        if (l != null) l.accept(snapshot);
+    }
+
+    /** @return échéances surveillées, de la plus proche à la plus lointaine */
+    public List<ExpiringLicense> getUpcoming() {
+        return snapshot;
+    }
+
+    /** Démarre la surveillance si elle ne l'est pas déjà. */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::run, "license-expiry");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Arrête la surveillance et oublie son état (déconnexion, fermeture de l'application). */
+    public synchronized void stop() {
+        running = false;
+        listener = null;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+        queue.clear();
+        current.clear();
+        watermark = -1;
+        snapshot = List.of();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                scanOnce(LocalDate.now());
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("Surveillance des échéances indisponible : " + e.getMessage());
+            }
+            try {
+                Thread.sleep(SCAN_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Effectue un passage : chargement initial, puis seules les modifications et les
+     * jours entrés dans la fenêtre.
+     *
+     * @param today date du jour
+     * @return true si la liste a changé
+     * @throws SQLException en cas d'erreur SQL
+     */
+    synchronized boolean scanOnce(LocalDate today) throws SQLException {
+        LocalDate from = today.minusDays(OVERDUE_DAYS);
+        LocalDate to = today.plusDays(HORIZON_DAYS);
+        boolean changed = false;
+
+        if (watermark < 0) {
+            watermark = ChangeLog.safeWatermark(0);
+            windowFrom = from;
+            windowTo = to;
+            for (ExpiringLicense e : licenseDAO.findExpiringBetween(from, to)) changed |= put(e);
+        } else {
+            // Fenêtre glissante : seuls les jours nouvellement couverts sont lus
+            if (to.isAfter(windowTo)) {
+                LocalDate start = from.isAfter(windowTo) ? from : windowTo.plusDays(1);
+                for (ExpiringLicense e : licenseDAO.findExpiringBetween(start, to)) changed |= put(e);
+                windowTo = to;
+            }
+            if (from.isAfter(windowFrom)) {
+                windowFrom = from;
+                changed |= evictBefore(from);
+            }
+
+            Delta<Player> delta = playerDAO.findChangedSince(watermark);
+            for (Player p : delta.getChanged()) {
+                if (p.getLicense() != null && inWindow(p.getLicense().getExpirationDate())) {
+                    changed |= put(ExpiringLicense.of(p));
+                } else {
+                    changed |= remove(p.getId());
+                }
+            }
+            for (int id : delta.getDeletedIds()) changed |= remove(id);
+            watermark = delta.getWatermark();
+        }
+
+        if (changed) {
+            snapshot = sorted();
+            Consumer<List<ExpiringLicense>> l = listener;
+            if (l != null) l.accept(snapshot);
+        }
+        return changed;
+    }
+
+    private boolean inWindow(LocalDate date) {
+        return !date.isBefore(windowFrom) && !date.isAfter(windowTo);
+    }
+
+    private boolean put(ExpiringLicense e) {
+        ExpiringLicense old = current.put(e.getPlayerId(), e);
+        if (e.equals(old)) {
+            current.put(e.getPlayerId(), old);
+            return false;
+        }
+        queue.add(e);
+        compactIfNeeded();
+        return true;
+    }
+
+    private boolean remove(int playerId) {
+        if (current.remove(playerId) == null) return false;
+        compactIfNeeded();
+        return true;
+    }
+
+    /** Retire par la tête de file les échéances sorties de la fenêtre. */
+    private boolean evictBefore(LocalDate from) {
+        boolean changed = false;
+        while (!queue.isEmpty() && queue.peek().getExpirationDate().isBefore(from)) {
+            ExpiringLicense e = queue.poll();
+            if (current.get(e.getPlayerId()) == e) {
+                current.remove(e.getPlayerId());
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /** Reconstruit la file lorsque les entrées remplacées y deviennent majoritaires. */
+    private void compactIfNeeded() {
+        if (queue.size() <= 2 * current.size() + 64) return;
+        queue.clear();
+        queue.addAll(current.values());
+    }
+
+    private List<ExpiringLicense> sorted() {
+        PriorityQueue<ExpiringLicense> copy = new PriorityQueue<>(queue);
+        List<ExpiringLicense> list = new ArrayList<>(current.size());
+        while (!copy.isEmpty()) {
+            ExpiringLicense e = copy.poll();
+            if (current.get(e.getPlayerId()) == e) list.add(e);
+        }
+        return List.copyOf(list);
+    }
+
+    /**
+     * Exporte une liste d'échéances en CSV.
+     *
+     * @param licenses échéances à exporter
+     * @param today    date de référence des jours restants
+     * @param file     fichier créé ou remplacé
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public static void exportCsv(List<ExpiringLicense> licenses, LocalDate today, Path file) throws IOException {
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write('\uFEFF');
+            w.write("last_name,first_name,category,expiration_date,days_left,paid\r\n");
+            for (ExpiringLicense e : licenses) {
+                w.write(csv(e.getLastName()) + "," + csv(e.getFirstName()) + "," + csv(e.getCategory()) + ","
+                        + e.getExpirationDate() + "," + e.daysLeft(today) + "," + e.isPaid() + "\r\n");
+            }
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf(';') < 0) return value;
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
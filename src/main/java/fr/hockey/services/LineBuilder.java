@@ -0,0 +1,339 @@
+package fr.hockey.services;
+
+import fr.hockey.models.LineUp;
+import fr.hockey.models.Player;
+import fr.hockey.models.StatLine;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Proposition de lignes équilibrées pour un match : trios d'attaque, paires de défense et
+ * ordre des gardiens.
+ *
+ * <p>Chaque joueur reçoit une note ({@link #rating}) tirée de ses statistiques de la saison
+ * et de sa présence aux entraînements. Pour les attaquants comme pour les défenseurs, le coût
+ * d'une répartition additionne, par ordre de gravité :</p>
+ * <ol>
+ *     <li>les notes des joueurs laissés hors lignes, pour que les mieux notés jouent ;</li>
+ *     <li>les capitaines et assistants en surnombre sur une même ligne ;</li>
+ *     <li>l'écart des forces des lignes (somme des notes) à leur moyenne, au carré.</li>
+ * </ol>
+ *
+ * <p>La recherche échange deux joueurs et garde l'échange s'il ne dégrade pas le coût, avec
+ * redémarrage aléatoire quand elle stagne. Plusieurs recherches de graines différentes
+ * tournent en parallèle jusqu'au délai imparti ; la meilleure est retenue. Elles s'arrêtent
+ * plus tôt si une répartition atteint le coût minimal possible.</p>
+ */
+public class LineBuilder {
+
+    static final double BENCH = 100;
+    static final double LEADERS = 1;
+
+    private static final int MAX_FORWARD_LINES = 4;
+    private static final int MAX_DEFENSE_PAIRS = 3;
+
+    /** Échanges sans amélioration (par joueur) avant un redémarrage. */
+    private static final int RESTART_AFTER = 50;
+
+    private final int parallelism;
+
+    /**
+     * @param parallelism nombre de recherches menées en parallèle
+     */
+    public LineBuilder(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /** Constructeur utilisant tous les cœurs. */
+    public LineBuilder() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Note d'un joueur : points et tirs, pondérés par l'assiduité (un joueur jamais présent
+     * compte pour moitié).
+     *
+     * @param stats      statistiques de la saison
+     * @param attendance part des entraînements suivis, entre 0 et 1
+     * @return note strictement positive
+     */
+    public static double rating(StatLine stats, double attendance) {
+        return (1 + stats.getPoints() + 0.1 * stats.getShots()) * (0.5 + 0.5 * attendance);
+    }
+
+    /**
+     * Notes des joueurs d'une catégorie à une date : statistiques de la saison en cours
+     * ({@link LeaderboardService}) et présence aux entraînements depuis son début
+     * ({@link AttendanceService}, assiduité complète sans aucune séance saisie).
+     *
+     * @param category catégorie
+     * @param date     date du match
+     * @param roster   joueurs de la catégorie
+     * @return note de chaque joueur
+     * @throws SQLException en cas d’erreur SQL
+     */
+    public static Map<Integer, Double> ratings(String category, LocalDate date, List<Player> roster) throws SQLException {
+        String season = LeaderboardService.seasonOf(date);
+        AttendanceService.Report report = AttendanceService.getInstance()
+                .report(category, LeaderboardService.seasonStart(date), date, 1);
+        LeaderboardService boards = LeaderboardService.getInstance();
+        Map<Integer, Double> ratings = new HashMap<>();
+        for (Player p : roster) {
+            double attendance = report.getSessions().isEmpty() ? 1 : report.getRate(p.getId());
+            ratings.put(p.getId(), rating(boards.getTotals(category, season, p.getId()), attendance));
+        }
+        return ratings;
+    }
+
+    /**
+     * Cherche la meilleure composition dans le délai imparti.
+     *
+     * @param roster      joueurs disponibles pour le match
+     * @param ratings     note de chaque joueur ({@link #ratings}) ; 1 pour un joueur absent de la table
+     * @param timeLimitMs délai de recherche
+     * @return composition, lignes de la plus forte à la plus faible
+     */
+    public LineUp build(List<Player> roster, Map<Integer, Double> ratings, long timeLimitMs) {
+        return build(roster, ratings, timeLimitMs, System.nanoTime());
+    }
+
+    LineUp build(List<Player> roster, Map<Integer, Double> ratings, long timeLimitMs, long seed) {
+        long deadline = System.nanoTime() + timeLimitMs * 1_000_000L;
+        List<Player> goalies = new ArrayList<>();
+        List<Player> forwards = new ArrayList<>();
+        List<Player> defense = new ArrayList<>();
+        List<Player> extras = new ArrayList<>();
+        for (Player p : roster) {
+            String pos = p.getPosition() == null ? "" : p.getPosition().trim().toUpperCase();
+            switch (pos) {
+                case "GARDIEN": goalies.add(p); break;
+                case "ATTAQUANT": forwards.add(p); break;
+                case "DEFENSEUR": defense.add(p); break;
+                default: extras.add(p); break;
+            }
+        }
+        double max = roster.stream().mapToDouble(p -> ratings.getOrDefault(p.getId(), 1.0)).max().orElse(1);
+        Pool[] pools = {
+                new Pool(forwards, ratings, max, 3, MAX_FORWARD_LINES),
+                new Pool(defense, ratings, max, 2, MAX_DEFENSE_PAIRS)
+        };
+
+        Search best;
+        if (pools[0].fixed() && pools[1].fixed()) {
+            best = new Search(pools, seed);
+        } else {
+            AtomicBoolean optimal = new AtomicBoolean();
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                best = pool.submit(() -> IntStream.range(0, parallelism).parallel()
+                        .mapToObj(i -> {
+                            Search search = new Search(pools, seed + i * 0x9E3779B97F4A7C15L);
+                            search.run(deadline, optimal);
+                            return search;
+                        })
+                        .min(Comparator.comparingDouble(Search::bestTotal))
+                        .orElseThrow()).join();
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        Comparator<Player> byRating = Comparator.comparingDouble((Player p) -> -ratings.getOrDefault(p.getId(), 1.0))
+                .thenComparing(p -> p.getLastName() == null ? "" : p.getLastName(), String.CASE_INSENSITIVE_ORDER);
+        goalies.sort(byRating);
+        List<List<Player>> forwardLines = pools[0].lines(best.best[0], byRating);
+        List<List<Player>> defensePairs = pools[1].lines(best.best[1], byRating);
+        List<Player> bench = new ArrayList<>(pools[0].bench(best.best[0]));
+        bench.addAll(pools[1].bench(best.best[1]));
+        bench.sort(byRating);
+        bench.addAll(extras);
+        return new LineUp(goalies, forwardLines, defensePairs, bench);
+    }
+
+    /** Joueurs d'un poste, répartis en lignes de {@code size} ; données figées partagées par les recherches. */
+    private static final class Pool {
+        final List<Player> players;
+        final double[] rating;
+        final boolean[] leader;
+        final int size;
+        final int groups;
+        final int slots;
+        /** Coût minimal possible : les plus faibles hors lignes, lignes parfaitement équilibrées. */
+        final double floor;
+
+        Pool(List<Player> players, Map<Integer, Double> ratings, double max, int size, int maxGroups) {
+            this.players = players;
+            this.size = size;
+            int n = players.size();
+            groups = n == 0 ? 0 : Math.max(1, Math.min(maxGroups, n / size));
+            slots = Math.min(n, groups * size);
+            rating = new double[n];
+            leader = new boolean[n];
+            for (int i = 0; i < n; i++) {
+                Player p = players.get(i);
+                rating[i] = ratings.getOrDefault(p.getId(), 1.0) / max;
+                String role = p.getRole() == null ? "" : p.getRole().trim();
+                leader[i] = "CAPITAINE".equalsIgnoreCase(role) || "ASSISTANT".equalsIgnoreCase(role);
+            }
+            double[] sorted = rating.clone();
+            Arrays.sort(sorted);
+            double benched = 0;
+            for (int i = 0; i < n - slots; i++) benched += sorted[i];
+            floor = BENCH * benched;
+        }
+
+        int group(int position) {
+            return position < slots ? position / size : -1;
+        }
+
+        /** Une ligne unique et personne hors lignes : rien à chercher. */
+        boolean fixed() {
+            return groups <= 1 && slots == players.size();
+        }
+
+        double cost(int[] order) {
+            double[] strength = new double[groups];
+            int[] leaders = new int[groups];
+            double cost = 0, total = 0;
+            for (int i = 0; i < order.length; i++) {
+                int g = group(i);
+                double r = rating[order[i]];
+                if (g < 0) {
+                    cost += BENCH * r;
+                } else {
+                    strength[g] += r;
+                    total += r;
+                    if (leader[order[i]]) leaders[g]++;
+                }
+            }
+            double mean = groups == 0 ? 0 : total / groups;
+            for (int g = 0; g < groups; g++) {
+                if (leaders[g] > 1) cost += LEADERS * (leaders[g] - 1);
+                cost += (strength[g] - mean) * (strength[g] - mean);
+            }
+            return cost;
+        }
+
+        List<List<Player>> lines(int[] order, Comparator<Player> byRating) {
+            List<List<Player>> lines = new ArrayList<>();
+            List<Double> strengths = new ArrayList<>();
+            for (int g = 0; g < groups; g++) {
+                List<Player> line = new ArrayList<>();
+                double strength = 0;
+                for (int i = g * size; i < Math.min(slots, (g + 1) * size); i++) {
+                    line.add(players.get(order[i]));
+                    strength += rating[order[i]];
+                }
+                line.sort(byRating);
+                int at = 0;
+                while (at < strengths.size() && strengths.get(at) >= strength) at++;
+                strengths.add(at, strength);
+                lines.add(at, line);
+            }
+            return lines;
+        }
+
+        List<Player> bench(int[] order) {
+            List<Player> bench = new ArrayList<>();
+            for (int i = slots; i < order.length; i++) bench.add(players.get(order[i]));
+            return bench;
+        }
+    }
+
+    /** Une recherche : ordre courant des joueurs de chaque poste et meilleur ordre vu. */
+    private static final class Search {
+        final Pool[] pools;
+        final Random random;
+        final int[][] order;
+        final double[] cost;
+        final int[][] best;
+        final double[] bestCost;
+
+        Search(Pool[] pools, long seed) {
+            this.pools = pools;
+            this.random = new Random(seed);
+            order = new int[pools.length][];
+            cost = new double[pools.length];
+            best = new int[pools.length][];
+            bestCost = new double[pools.length];
+            for (int k = 0; k < pools.length; k++) {
+                order[k] = IntStream.range(0, pools[k].players.size()).toArray();
+                shuffle(k);
+                best[k] = order[k].clone();
+                bestCost[k] = cost[k];
+            }
+        }
+
+        double bestTotal() {
+            double total = 0;
+            for (double c : bestCost) total += c;
+            return total;
+        }
+
+        private void shuffle(int k) {
+            int[] o = order[k];
+            for (int i = o.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int t = o[i];
+                o[i] = o[j];
+                o[j] = t;
+            }
+            cost[k] = pools[k].cost(o);
+        }
+
+        private boolean done() {
+            for (int k = 0; k < pools.length; k++) {
+                if (!pools[k].fixed() && bestCost[k] > pools[k].floor + 1e-9) return false;
+            }
+            return true;
+        }
+
+        void run(long deadline, AtomicBoolean optimal) {
+            int[] stale = new int[pools.length];
+            long iterations = 0;
+            while (!done()) {
+                if ((iterations & 255) == 0 && (System.nanoTime() >= deadline || optimal.get())) return;
+                iterations++;
+                int k = random.nextInt(pools.length);
+                Pool pool = pools[k];
+                int n = order[k].length;
+                if (pool.fixed()) continue;
+                int a = random.nextInt(n), b = random.nextInt(n);
+                if (pool.group(a) == pool.group(b)) continue;
+                int[] o = order[k];
+                int t = o[a];
+                o[a] = o[b];
+                o[b] = t;
+                double c = pool.cost(o);
+                if (c <= cost[k]) {
+                    stale[k] = c < cost[k] ? 0 : stale[k] + 1;
+                    cost[k] = c;
+                    if (c < bestCost[k]) {
+                        bestCost[k] = c;
+                        System.arraycopy(o, 0, best[k], 0, n);
+                    }
+                } else {
+                    o[b] = o[a];
+                    o[a] = t;
+                    stale[k]++;
+                }
+                if (stale[k] > RESTART_AFTER * n) {
+                    shuffle(k);
+                    stale[k] = 0;
+                }
+            }
+            optimal.set(true);
+        }
+    }
+}
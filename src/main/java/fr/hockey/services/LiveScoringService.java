@@ -0,0 +1,235 @@
+package fr.hockey.services;
+
+import fr.hockey.dao.GameEventLog;
+import fr.hockey.events.DomainEventBus;
+import fr.hockey.events.DomainEvents;
+import fr.hockey.models.GameEvent;
+import fr.hockey.models.StatLine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Saisie des actions de match au banc et statistiques en direct.
+ *
+ * <ul>
+ *     <li>Chaque action est numérotée, ajoutée au journal ({@link GameEventLog}, écrit par
+ *     lots en arrière-plan) puis appliquée aux statistiques en mémoire : par joueur sur la
+ *     saison, par joueur et au total pour chaque match. Aucun accès disque ni base n'a lieu
+ *     pendant la saisie.</li>
+ *     <li>Une erreur de saisie se corrige par une action d'annulation, elle aussi journalisée :
+ *     le journal n'est jamais réécrit.</li>
+ *     <li>Les statistiques sont reconstruites à l'ouverture (ou par {@link #rebuild()}) en
+ *     relisant le journal.</li>
+ * </ul>
+ *
+ * <p>Chaque action enregistrée est publiée sur le {@link DomainEventBus}
+ * ({@link DomainEvents.GameEventRecorded}), ainsi que chaque reconstruction
+ * ({@link DomainEvents.GameStatsReloaded}).</p>
+ */
+public class LiveScoringService {
+
+    private static final LiveScoringService INSTANCE = new LiveScoringService();
+
+    /** Statistiques et actions d'un match. */
+    private static final class Game {
+        final StatLine totals = new StatLine();
+        final Map<Integer, StatLine> players = new LinkedHashMap<>();
+        final List<GameEvent> events = new ArrayList<>();
+    }
+
+    private GameEventLog log;
+    private final Map<Integer, StatLine> players = new HashMap<>();
+    private final Map<String, Game> games = new HashMap<>();
+    /** Actions dans l'ordre du journal. */
+    private final Map<Long, GameEvent> bySeq = new LinkedHashMap<>();
+    private final Set<Long> cancelled = new HashSet<>();
+
+    LiveScoringService() {
+    }
+
+    /** @return service partagé de l'application */
+    public static LiveScoringService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Ouvre le journal et reconstruit les statistiques, si ce n'est déjà fait.
+     *
+     * @param file fichier du journal
+     * @throws IOException en cas d'erreur de lecture du journal
+     */
+    public synchronized void open(Path file) throws IOException {
+        if (log != null) return;
+        log = new GameEventLog(file);
+        rebuild();
+    }
+
+    /**
+     * Écrit les actions en attente et ferme le journal.
+     */
+    public synchronized void close() {
+        if (log == null) return;
+        try {
+            log.close();
+        } catch (IOException e) {
+            System.err.println("Fermeture du journal des matchs : " + e.getMessage());
+        }
+        log = null;
+        clear();
+        DomainEventBus.publish(new DomainEvents.GameStatsReloaded());
+    }
+
+    /**
+     * Enregistre une action de jeu.
+     *
+     * @param gameId   identifiant du match ({@link GameEvent#fixtureId})
+     * @param category catégorie de l'équipe
+     * @param playerId joueur concerné
+     * @param type     nature de l'action (hors annulation, voir {@link #cancel})
+     * @param period   période (1 à 4)
+     * @param clock    temps écoulé dans la période, en secondes
+     * @param value    minutes de pénalité, secondes de présence, 0 sinon
+     * @return action enregistrée
+     * @throws IOException si le journal n'est pas ouvert ou n'a pas pu être écrit
+     */
+    public synchronized GameEvent record(String gameId, String category, int playerId, GameEvent.Type type,
+                                         int period, int clock, int value) throws IOException {
+        if (type == GameEvent.Type.CANCEL) throw new IllegalArgumentException("Utiliser cancel() pour annuler une action");
+        if (playerId <= 0) throw new IllegalArgumentException("Joueur non sélectionné");
+        if (period < 1 || period > 4 || clock < 0) throw new IllegalArgumentException("Période ou temps de jeu invalide");
+        if ((type == GameEvent.Type.PENALTY || type == GameEvent.Type.SHIFT) && value <= 0) {
+            throw new IllegalArgumentException("Durée obligatoire pour " + type);
+        }
+        return append(new GameEvent(requireLog().getLastSeq() + 1, System.currentTimeMillis(), gameId, category,
+                playerId, type, period, clock, value), null);
+    }
+
+    /**
+     * Annule une action précédemment enregistrée.
+     *
+     * @param seq numéro de l'action
+     * @return action d'annulation enregistrée
+     * @throws IOException si le journal n'est pas ouvert ou n'a pas pu être écrit
+     */
+    public synchronized GameEvent cancel(long seq) throws IOException {
+        GameEvent original = bySeq.get(seq);
+        if (original == null || original.getType() == GameEvent.Type.CANCEL || cancelled.contains(seq)) {
+            throw new IllegalArgumentException("Action #" + seq + " introuvable ou déjà annulée");
+        }
+        return append(new GameEvent(requireLog().getLastSeq() + 1, System.currentTimeMillis(), original.getGameId(),
+                original.getCategory(), original.getPlayerId(), GameEvent.Type.CANCEL, original.getPeriod(),
+                original.getClock(), (int) seq), original);
+    }
+
+    private GameEvent append(GameEvent e, GameEvent original) throws IOException {
+        requireLog().append(e);
+        apply(e);
+        DomainEventBus.publish(new DomainEvents.GameEventRecorded(e, original));
+        return e;
+    }
+
+    private GameEventLog requireLog() throws IOException {
+        if (log == null) throw new IOException("Journal des matchs non ouvert");
+        return log;
+    }
+
+    /**
+     * Reconstruit toutes les statistiques à partir du journal.
+     *
+     * @throws IOException en cas d'erreur de lecture
+     */
+    public synchronized void rebuild() throws IOException {
+        clear();
+        requireLog().replay(this::apply);
+        DomainEventBus.publish(new DomainEvents.GameStatsReloaded());
+    }
+
+    private void clear() {
+        players.clear();
+        games.clear();
+        bySeq.clear();
+        cancelled.clear();
+    }
+
+    private void apply(GameEvent e) {
+        int sign = 1;
+        GameEvent target = e;
+        if (e.getType() == GameEvent.Type.CANCEL) {
+            target = bySeq.get((long) e.getValue());
+            if (target == null || !cancelled.add(target.getSeq())) return;
+            sign = -1;
+        }
+        bySeq.put(e.getSeq(), e);
+        Game game = games.computeIfAbsent(e.getGameId(), id -> new Game());
+        game.events.add(e);
+        game.totals.apply(target, sign);
+        game.players.computeIfAbsent(target.getPlayerId(), id -> new StatLine()).apply(target, sign);
+        players.computeIfAbsent(target.getPlayerId(), id -> new StatLine()).apply(target, sign);
+    }
+
+    /**
+     * @param playerId joueur
+     * @return statistiques cumulées du joueur sur tous les matchs (copie)
+     */
+    public synchronized StatLine getPlayerStats(int playerId) {
+        StatLine s = players.get(playerId);
+        return s == null ? new StatLine() : s.copy();
+    }
+
+    /**
+     * @param gameId match
+     * @return statistiques de chaque joueur du match, dans l'ordre de première action (copies)
+     */
+    public synchronized Map<Integer, StatLine> getGameStats(String gameId) {
+        Map<Integer, StatLine> copy = new LinkedHashMap<>();
+        Game game = games.get(gameId);
+        if (game != null) game.players.forEach((id, s) -> copy.put(id, s.copy()));
+        return copy;
+    }
+
+    /**
+     * @param gameId match
+     * @return totaux du match (copie)
+     */
+    public synchronized StatLine getGameTotals(String gameId) {
+        Game game = games.get(gameId);
+        return game == null ? new StatLine() : game.totals.copy();
+    }
+
+    /**
+     * @param gameId match
+     * @return actions du match, annulations comprises, dans l'ordre de saisie
+     */
+    public synchronized List<GameEvent> getGameEvents(String gameId) {
+        Game game = games.get(gameId);
+        return game == null ? List.of() : List.copyOf(game.events);
+    }
+
+    /**
+     * @return actions de jeu en vigueur de tous les matchs (ni annulées, ni annulations),
+     *         dans l'ordre de saisie
+     */
+    public synchronized List<GameEvent> getEffectiveEvents() {
+        List<GameEvent> effective = new ArrayList<>(bySeq.size());
+        for (GameEvent e : bySeq.values()) {
+            if (e.getType() != GameEvent.Type.CANCEL && !cancelled.contains(e.getSeq())) effective.add(e);
+        }
+        return effective;
+    }
+
+    /**
+     * @param seq numéro d'action
+     * @return true si l'action a été annulée
+     */
+    public synchronized boolean isCancelled(long seq) {
+        return cancelled.contains(seq);
+    }
+}
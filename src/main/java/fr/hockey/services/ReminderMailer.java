@@ -0,0 +1,277 @@
+package fr.hockey.services;
+
+import fr.hockey.dao.LicenseDAO;
+import fr.hockey.dao.MailOutbox;
+import fr.hockey.models.UnpaidLicense;
+import fr.hockey.utils.AppSettings;
+import fr.hockey.utils.AuditLogger;
+import fr.hockey.utils.MailTemplate;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Relances par e-mail des licences non payées.
+ *
+ * <ol>
+ *     <li>{@link #enqueueUnpaid} lit en une requête les licences non payées des joueurs
+ *     ayant une adresse de contact, rend les messages à partir de modèles compilés
+ *     ({@link MailTemplate}) et les met en file ({@link MailOutbox}) sous une clé
+ *     d'idempotence {@code relance:<campagne>:<licence>} : relancer la même campagne
+ *     n'envoie rien deux fois.</li>
+ *     <li>{@link #sendPending} envoie la file sur un nombre limité de connexions SMTP
+ *     réutilisées d'un message à l'autre, avec un débit plafonné. Un refus temporaire
+ *     (4xx) repousse le message avec un délai doublé à chaque tentative ; un refus
+ *     définitif (5xx) ou {@link #MAX_ATTEMPTS} échecs l'abandonnent.</li>
+ * </ol>
+ *
+ * <p>Une erreur réseau arrête la connexion concernée : les messages restants sont repris
+ * par les autres connexions, ou au prochain lancement.</p>
+ */
+public class ReminderMailer {
+
+    /** Objet par défaut des relances. */
+    public static final String DEFAULT_SUBJECT = "{{club}} — cotisation {{categorie}} en attente";
+
+    /** Texte par défaut des relances. */
+    public static final String DEFAULT_BODY = "Bonjour,\n\n" +
+            "Sauf erreur de notre part, la cotisation de {{prenom}} {{nom}} ({{categorie}}) d'un montant de " +
+            "{{montant}} € n'a pas encore été réglée. La licence est valable jusqu'au {{echeance}}.\n\n" +
+            "Merci de régulariser la situation auprès du trésorier.\n\n" +
+            "Sportivement,\n{{club}}\n";
+
+    /** Tentatives avant abandon d'un message. */
+    static final int MAX_ATTEMPTS = 5;
+    /** Délai avant la première nouvelle tentative, doublé ensuite. */
+    static final long RETRY_DELAY_MS = 60_000;
+    /** Délai maximal entre deux tentatives. */
+    private static final long MAX_RETRY_DELAY_MS = 6 * 3_600_000L;
+    /** Messages lus par page dans la file. */
+    private static final int PAGE_SIZE = 500;
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final LicenseDAO licenseDAO;
+    private final MailOutbox outbox;
+    private final Supplier<SmtpClient> connections;
+    private final String from;
+    private final int concurrency;
+    private final long intervalNanos;
+
+    /** Prochain instant d'envoi autorisé (débit plafonné). */
+    private long nextSlot;
+
+    /**
+     * Résultat d'un envoi.
+     */
+    public static final class Result {
+        private final int sent;
+        private final int retried;
+        private final int failed;
+        private final long millis;
+
+        Result(int sent, int retried, int failed, long millis) {
+            this.sent = sent;
+            this.retried = retried;
+            this.failed = failed;
+            this.millis = millis;
+        }
+
+        /** @return messages envoyés */
+        public int getSent() { return sent; }
+
+        /** @return messages repoussés après un refus temporaire */
+        public int getRetried() { return retried; }
+
+        /** @return messages abandonnés */
+        public int getFailed() { return failed; }
+
+        /** @return durée de l'envoi */
+        public long getMillis() { return millis; }
+    }
+
+    /**
+     * @param licenseDAO    DAO des licences
+     * @param outbox        file d'envoi
+     * @param connections   fabrique de connexions SMTP (une par thread d'envoi)
+     * @param from          adresse d'expédition
+     * @param concurrency   connexions simultanées
+     * @param ratePerSecond messages envoyés par seconde au plus
+     */
+    public ReminderMailer(LicenseDAO licenseDAO, MailOutbox outbox, Supplier<SmtpClient> connections,
+                          String from, int concurrency, int ratePerSecond) {
+        this.licenseDAO = licenseDAO;
+        this.outbox = outbox;
+        this.connections = connections;
+        this.from = from;
+        this.concurrency = concurrency;
+        this.intervalNanos = 1_000_000_000L / ratePerSecond;
+    }
+
+    /**
+     * Crée le service à partir des réglages SMTP ({@link AppSettings}).
+     *
+     * @return service configuré
+     */
+    public static ReminderMailer fromSettings() {
+        String host = AppSettings.getSmtpHost();
+        int port = AppSettings.getSmtpPort();
+        boolean ssl = AppSettings.isSmtpSsl();
+        String user = AppSettings.getSmtpUser();
+        String password = AppSettings.getSmtpPassword();
+        return new ReminderMailer(new LicenseDAO(), new MailOutbox(),
+                () -> new SmtpClient(host, port, ssl, user, password, 30_000),
+                AppSettings.getSmtpFrom(), AppSettings.getSmtpConnections(), AppSettings.getSmtpRatePerSecond());
+    }
+
+    /**
+     * Met en file une relance par licence non payée.
+     *
+     * @param campaign identifiant de la campagne (ex. {@code 2026-10}) : une seule relance
+     *                 par licence et par campagne
+     * @param subject  modèle de l'objet
+     * @param body     modèle du texte
+     * @param club     nom du club ({@code {{club}}})
+     * @return nombre de relances ajoutées à la file
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public int enqueueUnpaid(String campaign, String subject, String body, String club) throws SQLException {
+        MailTemplate subjectTemplate = MailTemplate.compile(subject);
+        MailTemplate bodyTemplate = MailTemplate.compile(body);
+        List<MailOutbox.Message> messages = new ArrayList<>();
+        Map<String, String> values = new HashMap<>();
+        values.put("club", club);
+        for (UnpaidLicense l : licenseDAO.findUnpaidWithContact()) {
+            values.put("prenom", l.getFirstName());
+            values.put("nom", l.getLastName());
+            values.put("categorie", l.getCategory());
+            values.put("montant", String.format(Locale.FRANCE, "%.2f", l.getAmount()));
+            values.put("echeance", l.getExpirationDate().format(DATE_FORMAT));
+            messages.add(new MailOutbox.Message(0, "relance:" + campaign + ":" + l.getLicenseId(), l.getContactEmail(),
+                    subjectTemplate.render(values), bodyTemplate.render(values), 0));
+        }
+        int added = outbox.enqueueAll(messages);
+        AuditLogger.logChange("mail_outbox", "ENQUEUE", campaign,
+                String.format("unpaid=%d,queued=%d", messages.size(), added));
+        return added;
+    }
+
+    /**
+     * Envoie les messages dus de la file.
+     *
+     * @return bilan de l'envoi
+     * @throws SQLException         en cas d'erreur SQL
+     * @throws InterruptedException si l'envoi est interrompu
+     */
+    public Result sendPending() throws SQLException, InterruptedException {
+        return sendPending(System.currentTimeMillis());
+    }
+
+    /**
+     * Envoie les messages dus à un instant donné.
+     *
+     * @param now instant de référence (tentatives repoussées, délais de nouvelle tentative)
+     */
+    Result sendPending(long now) throws SQLException, InterruptedException {
+        long start = System.nanoTime();
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger retried = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<SQLException> errors = new ArrayList<>();
+        synchronized (this) {
+            nextSlot = System.nanoTime();
+        }
+
+        while (true) {
+            // Les messages traités ne sont plus dus (envoyés, abandonnés ou repoussés) : chaque page est nouvelle
+            List<MailOutbox.Message> page = outbox.findDue(new Timestamp(now), PAGE_SIZE);
+            if (page.isEmpty()) break;
+
+            ConcurrentLinkedQueue<MailOutbox.Message> queue = new ConcurrentLinkedQueue<>(page);
+            List<Thread> workers = new ArrayList<>();
+            for (int i = 0; i < Math.min(concurrency, page.size()); i++) {
+                Thread t = new Thread(() -> {
+                    try {
+                        drain(queue, now, sent, retried, failed);
+                    } catch (SQLException e) {
+                        synchronized (errors) {
+                            errors.add(e);
+                        }
+                    }
+                }, "mail-sender-" + i);
+                t.setDaemon(true);
+                t.start();
+                workers.add(t);
+            }
+            for (Thread t : workers) t.join();
+            if (!errors.isEmpty()) throw errors.get(0);
+            // Toutes les connexions sont tombées : le reste attendra le prochain lancement
+            if (!queue.isEmpty()) break;
+        }
+
+        Result result = new Result(sent.get(), retried.get(), failed.get(), (System.nanoTime() - start) / 1_000_000);
+        AuditLogger.logChange("mail_outbox", "SEND", "-",
+                String.format("sent=%d,retried=%d,failed=%d,ms=%d", result.getSent(), result.getRetried(),
+                        result.getFailed(), result.getMillis()));
+        return result;
+    }
+
+    /** Envoie les messages de la file sur une connexion, jusqu'à épuisement ou erreur réseau. */
+    private void drain(ConcurrentLinkedQueue<MailOutbox.Message> queue, long now,
+                       AtomicInteger sent, AtomicInteger retried, AtomicInteger failed) throws SQLException {
+        try (SmtpClient smtp = connections.get()) {
+            MailOutbox.Message m;
+            while ((m = queue.poll()) != null) {
+                try {
+                    awaitSlot();
+                    smtp.send(from, m.getRecipient(), m.getSubject(), m.getBody(), m.getKey() + "@hockeyclubmanager");
+                    outbox.markSent(m.getId());
+                    sent.incrementAndGet();
+                } catch (SmtpClient.SmtpException e) {
+                    if (retryOrFail(m, e, now)) retried.incrementAndGet(); else failed.incrementAndGet();
+                } catch (IOException e) {
+                    if (retryOrFail(m, e, now)) retried.incrementAndGet(); else failed.incrementAndGet();
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /** @return true si le message est repoussé, false s'il est abandonné */
+    private boolean retryOrFail(MailOutbox.Message m, IOException e, long now) throws SQLException {
+        int attempts = m.getAttempts() + 1;
+        boolean permanent = e instanceof SmtpClient.SmtpException && ((SmtpClient.SmtpException) e).isPermanent();
+        if (permanent || attempts >= MAX_ATTEMPTS) {
+            outbox.markFailed(m.getId(), e.getMessage(), null);
+            return false;
+        }
+        long delay = Math.min(MAX_RETRY_DELAY_MS, RETRY_DELAY_MS << (attempts - 1));
+        outbox.markFailed(m.getId(), e.getMessage(), new Timestamp(now + delay));
+        return true;
+    }
+
+    /** Attend le prochain créneau d'envoi pour respecter le débit maximal. */
+    private void awaitSlot() throws InterruptedException {
+        long wait;
+        synchronized (this) {
+            long t = System.nanoTime();
+            if (nextSlot - t < 0) nextSlot = t;
+            wait = nextSlot - t;
+            nextSlot += intervalNanos;
+        }
+        if (wait > 0) Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+    }
+}
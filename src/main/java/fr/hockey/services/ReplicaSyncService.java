@@ -0,0 +1,124 @@
+package fr.hockey.services;
+
+import fr.hockey.dao.CoachDAO;
+import fr.hockey.dao.DatabaseConnection;
+import fr.hockey.dao.LocalReplica;
+import fr.hockey.dao.PlayerDAO;
+import fr.hockey.events.DomainEventBus;
+import fr.hockey.events.DomainEvents;
+import fr.hockey.models.Coach;
+import fr.hockey.models.Player;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Synchronisation en arrière-plan de la réplique locale ({@link LocalReplica}) avec le serveur.
+ *
+ * <ul>
+ *     <li>En ligne, la réplique est resynchronisée régulièrement, plus souvent lorsqu'une
+ *     écriture la rend périmée (les lectures repassent alors par le serveur).</li>
+ *     <li>Hors ligne, chaque passage tente de joindre le serveur ; dès qu'il répond, les
+ *     modifications en attente sont renvoyées et le mode connecté reprend.</li>
+ *     <li>Les joueurs et coachs créés hors ligne changent d'identifiant au renvoi : ils sont
+ *     republiés sous leur identifiant définitif pour que le cache et les vues ouvertes suivent.</li>
+ * </ul>
+ */
+public class ReplicaSyncService {
+
+    /** Intervalle lorsque la réplique est à jour. */
+    static final long IDLE_INTERVAL_MS = 10_000;
+    /** Intervalle lorsqu'elle est périmée ou hors ligne. */
+    static final long STALE_INTERVAL_MS = 2_000;
+
+    private static final ReplicaSyncService INSTANCE = new ReplicaSyncService();
+
+    private final PlayerDAO playerDAO = new PlayerDAO();
+    private final CoachDAO coachDAO = new CoachDAO();
+
+    private LocalReplica replica;
+    private Thread thread;
+    private volatile boolean running;
+
+    ReplicaSyncService() {}
+
+    /** @return service partagé de l'application */
+    public static ReplicaSyncService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Ouvre la réplique, l'active pour les DAO et démarre la synchronisation.
+     * Un échec (base locale inaccessible) est ignoré : l'application fonctionne sans.
+     *
+     * @param dir dossier de la réplique
+     */
+    public synchronized void start(Path dir) {
+        if (running) return;
+        try {
+            replica = LocalReplica.open(dir);
+        } catch (SQLException e) {
+            System.err.println("Réplique locale indisponible : " + e.getMessage());
+            return;
+        }
+        DatabaseConnection.setReplica(replica);
+        running = true;
+        thread = new Thread(this::run, "replica-sync");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Arrête la synchronisation et ferme la réplique (fermeture de l'application). */
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+        if (replica != null) {
+            DatabaseConnection.setReplica(null);
+            replica.close();
+            replica = null;
+        }
+    }
+
+    private void run() {
+        LocalReplica r = replica;
+        while (running) {
+            try {
+                publishRemapped(r.sync());
+            } catch (SQLException | RuntimeException e) {
+                if (!r.isOffline()) System.err.println("Synchronisation de la réplique impossible : " + e.getMessage());
+            }
+            try {
+                Thread.sleep(r.isCurrent() ? IDLE_INTERVAL_MS : STALE_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /** Republie les lignes créées hors ligne sous leur identifiant définitif. */
+    private void publishRemapped(LocalReplica.SyncResult result) throws SQLException {
+        for (Map.Entry<Integer, Integer> e : result.getPlayerIds().entrySet()) {
+            DomainEventBus.publish(new DomainEvents.PlayerDeleted(e.getKey()));
+            Player p = playerDAO.findById(e.getValue());
+            if (p == null) continue;
+            DomainEventBus.publish(new DomainEvents.PlayerSaved(p, true));
+            if (p.getLicense() != null) DomainEventBus.publish(new DomainEvents.LicenseSaved(p.getLicense()));
+        }
+        if (result.getCoachIds().isEmpty()) return;
+        for (Coach c : coachDAO.findAll()) {
+            if (!result.getCoachIds().containsValue(c.getId())) continue;
+            DomainEventBus.publish(new DomainEvents.CoachSaved(c.getId(), c.getFirstName(), c.getLastName(),
+                    c.getUsername(), c.getEmail(), true));
+            for (String category : coachDAO.findTeams(c.getId())) {
+                DomainEventBus.publish(DomainEvents.CoachTeamsChanged.added(c.getId(), category));
+            }
+        }
+        for (int localId : result.getCoachIds().keySet()) {
+            DomainEventBus.publish(new DomainEvents.CoachDeleted(localId));
+        }
+    }
+}
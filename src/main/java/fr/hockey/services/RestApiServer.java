@@ -0,0 +1,364 @@
+package fr.hockey.services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import fr.hockey.dao.DatabaseConnection;
+import fr.hockey.dao.LocalReplica;
+import fr.hockey.dao.RevenueDAO;
+import fr.hockey.dao.RosterCache;
+import fr.hockey.models.License;
+import fr.hockey.models.Player;
+import fr.hockey.models.RevenueItem;
+import fr.hockey.utils.AppSettings;
+import fr.hockey.utils.JsonWriter;
+import fr.hockey.utils.MatchSheetPdfGenerator;
+import fr.hockey.utils.RosterIndex;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * API REST en lecture seule (serveur HTTP embarqué du JDK) : joueurs, licences, recettes
+ * et feuilles de match, pour une consultation depuis un téléphone.
+ *
+ * <ul>
+ *     <li>{@code GET /api/health} : état du serveur (et du mode hors ligne)</li>
+ *     <li>{@code GET /api/players?category=&position=} : joueurs avec leur licence</li>
+ *     <li>{@code GET /api/players/{id}} : un joueur</li>
+ *     <li>{@code GET /api/licenses?status=PAID|UNPAID|NONE&category=} : statut des licences</li>
+ *     <li>{@code GET /api/revenue} : recettes par catégorie</li>
+ *     <li>{@code GET /api/matchsheet?category=&opponent=&date=} : feuille de match PDF</li>
+ * </ul>
+ *
+ * <p>Chaque requête doit porter l'en-tête {@code Authorization: Bearer <jeton>}.
+ * Les lectures passent par le {@link RosterCache} partagé et le réservoir de connexions de
+ * {@link DatabaseConnection} ; les réponses JSON sont écrites en flux ({@link JsonWriter}).
+ * Les requêtes sont traitées sur des threads virtuels lorsque la JVM en propose (Java 21+),
+ * sinon sur un réservoir de threads borné.</p>
+ */
+public class RestApiServer {
+
+    /** Threads du réservoir utilisé sans threads virtuels. */
+    static final int FALLBACK_THREADS = Math.max(32, Runtime.getRuntime().availableProcessors() * 8);
+
+    private final RosterCache rosterCache;
+    private final RevenueDAO revenueDAO = new RevenueDAO();
+    private final byte[] token;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param rosterCache cache de l'effectif
+     * @param token       jeton attendu dans l'en-tête {@code Authorization}
+     */
+    public RestApiServer(RosterCache rosterCache, String token) {
+        this.rosterCache = rosterCache;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Démarre le serveur.
+     *
+     * @param port port d'écoute (0 pour un port libre)
+     * @throws IOException si le port ne peut pas être ouvert
+     */
+    public synchronized void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 256);
+        executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+        server.start();
+    }
+
+    /** @return port effectivement ouvert */
+    public synchronized int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /** Arrête le serveur en laissant une seconde aux requêtes en cours. */
+    public synchronized void stop() {
+        if (server == null) return;
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    /**
+     * Exécuteur des requêtes : un thread virtuel par requête si la JVM le permet
+     * (recherché par réflexion, le projet compilant en Java 17), sinon un réservoir borné.
+     * Les requêtes simultanées se partagent les connexions bornées de
+     * {@link DatabaseConnection} : au-delà, elles attendent leur tour.
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger n = new AtomicInteger();
+            ThreadFactory factory = r -> {
+                Thread t = new Thread(r, "api-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            };
+            return Executors.newFixedThreadPool(FALLBACK_THREADS, factory);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!authorized(exchange)) {
+                error(exchange, 401, "Jeton d'accès manquant ou invalide");
+                return;
+            }
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                error(exchange, 405, "Méthode non autorisée");
+                return;
+            }
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            try {
+                if (path.equals("/api/health")) {
+                    health(exchange);
+                } else if (path.equals("/api/players")) {
+                    players(exchange, query);
+                } else if (path.startsWith("/api/players/")) {
+                    player(exchange, path.substring("/api/players/".length()));
+                } else if (path.equals("/api/licenses")) {
+                    licenses(exchange, query);
+                } else if (path.equals("/api/revenue")) {
+                    revenue(exchange);
+                } else if (path.equals("/api/matchsheet")) {
+                    matchSheet(exchange, query);
+                } else {
+                    error(exchange, 404, "Ressource inconnue");
+                }
+            } catch (IllegalArgumentException e) {
+                error(exchange, 400, e.getMessage());
+            } catch (SQLException e) {
+                System.err.println("API " + path + " : " + e.getMessage());
+                error(exchange, 500, "Erreur d'accès aux données");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private boolean authorized(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) return false;
+        byte[] given = header.substring(7).trim().getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(given, token);
+    }
+
+    // -------------------------------------------------------------------------
+    //  Ressources
+    // -------------------------------------------------------------------------
+
+    private void health(HttpExchange exchange) throws IOException {
+        LocalReplica replica = DatabaseConnection.getReplica();
+        try (JsonWriter json = json(exchange, 200)) {
+            json.beginObject()
+                    .name("status").value("ok")
+                    .name("offline").value(replica != null && replica.isOffline())
+                    .endObject();
+        }
+    }
+
+    private void players(HttpExchange exchange, Map<String, String> query) throws IOException, SQLException {
+        String category = query.get("category");
+        String position = query.get("position");
+        List<Player> players;
+        if (category != null && position != null) {
+            players = rosterCache.findPlayersByCategoryAndPosition(category, position);
+        } else if (category != null) {
+            players = rosterCache.findPlayersByCategory(category);
+        } else if (position != null) {
+            players = rosterCache.findPlayersByPosition(position);
+        } else {
+            players = rosterCache.findAllPlayers();
+        }
+        try (JsonWriter json = json(exchange, 200)) {
+            json.beginArray();
+            for (Player p : players) writePlayer(json, p);
+            json.endArray();
+        }
+    }
+
+    private void player(HttpExchange exchange, String id) throws IOException, SQLException {
+        Player p = rosterCache.findPlayer(parseInt(id, "identifiant"));
+        if (p == null) {
+            error(exchange, 404, "Joueur introuvable");
+            return;
+        }
+        try (JsonWriter json = json(exchange, 200)) {
+            writePlayer(json, p);
+        }
+    }
+
+    private void licenses(HttpExchange exchange, Map<String, String> query) throws IOException, SQLException {
+        RosterIndex.LicenseStatus status = null;
+        if (query.get("status") != null) {
+            try {
+                status = RosterIndex.LicenseStatus.valueOf(query.get("status").toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Statut inconnu : " + query.get("status"));
+            }
+        }
+        String category = query.get("category");
+        List<Player> players = category != null ? rosterCache.findPlayersByCategory(category) : rosterCache.findAllPlayers();
+        try (JsonWriter json = json(exchange, 200)) {
+            json.beginArray();
+            for (Player p : players) {
+                RosterIndex.LicenseStatus s = RosterIndex.LicenseStatus.of(p);
+                if (status != null && s != status) continue;
+                License l = p.getLicense();
+                json.beginObject()
+                        .name("playerId").value(p.getId())
+                        .name("firstName").value(p.getFirstName())
+                        .name("lastName").value(p.getLastName())
+                        .name("category").value(p.getCategory())
+                        .name("status").value(s.name())
+                        .name("expirationDate").value(l == null || l.getExpirationDate() == null ? null : l.getExpirationDate().toString())
+                        .endObject();
+            }
+            json.endArray();
+        }
+    }
+
+    private void revenue(HttpExchange exchange) throws IOException, SQLException {
+        List<RevenueItem> items = revenueDAO.getRevenueByCategory();
+        double paid = revenueDAO.getTotalPaid();
+        double expected = revenueDAO.getTotalExpected();
+        try (JsonWriter json = json(exchange, 200)) {
+            json.beginObject()
+                    .name("totalPaid").value(paid)
+                    .name("totalExpected").value(expected)
+                    .name("categories").beginArray();
+            for (RevenueItem item : items) {
+                json.beginObject()
+                        .name("category").value(item.getCategory())
+                        .name("paidCount").value(item.getPaidCount())
+                        .name("paidTotal").value(item.getPaidTotal())
+                        .name("unpaidCount").value(item.getUnpaidCount())
+                        .name("unpaidTotal").value(item.getUnpaidTotal())
+                        .endObject();
+            }
+            json.endArray().endObject();
+        }
+    }
+
+    private void matchSheet(HttpExchange exchange, Map<String, String> query) throws IOException, SQLException {
+        String category = query.get("category");
+        if (category == null || category.isBlank()) throw new IllegalArgumentException("Paramètre category obligatoire");
+        LocalDate date;
+        try {
+            date = query.get("date") == null ? LocalDate.now() : LocalDate.parse(query.get("date"));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Date invalide (attendu : AAAA-MM-JJ)");
+        }
+        String logoPath = AppSettings.getLogoPath();
+        File logo = logoPath == null || logoPath.isBlank() ? null : new File(logoPath);
+
+        Path pdf = Files.createTempFile("feuille-match-", ".pdf");
+        try {
+            MatchSheetPdfGenerator.generate(category, rosterCache.findPlayersByCategory(category), pdf.toFile(),
+                    date, query.getOrDefault("opponent", ""), logo);
+            exchange.getResponseHeaders().set("Content-Type", "application/pdf");
+            exchange.getResponseHeaders().set("Content-Disposition",
+                    "inline; filename=\"feuille-match-" + category + "-" + date + ".pdf\"");
+            exchange.sendResponseHeaders(200, Files.size(pdf));
+            try (OutputStream out = exchange.getResponseBody()) {
+                Files.copy(pdf, out);
+            }
+        } finally {
+            Files.deleteIfExists(pdf);
+        }
+    }
+
+    private static void writePlayer(JsonWriter json, Player p) throws IOException {
+        json.beginObject()
+                .name("id").value(p.getId())
+                .name("firstName").value(p.getFirstName())
+                .name("lastName").value(p.getLastName())
+                .name("category").value(p.getCategory())
+                .name("role").value(p.getRole())
+                .name("position").value(p.getPosition())
+                .name("number").value(p.getNumber())
+                .name("license");
+        License l = p.getLicense();
+        if (l == null) {
+            json.nullValue();
+        } else {
+            json.beginObject()
+                    .name("id").value(l.getId())
+                    .name("paid").value(l.isPaid())
+                    .name("expirationDate").value(l.getExpirationDate() == null ? null : l.getExpirationDate().toString())
+                    .name("amount").value(l.getAmount())
+                    .endObject();
+        }
+        json.endObject();
+    }
+
+    // -------------------------------------------------------------------------
+    //  Outils
+    // -------------------------------------------------------------------------
+
+    /** Ouvre une réponse JSON envoyée en flux (longueur inconnue, transfert par blocs). */
+    private static JsonWriter json(HttpExchange exchange, int status) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, 0);
+        return new JsonWriter(new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 8192));
+    }
+
+    private static void error(HttpExchange exchange, int status, String message) throws IOException {
+        try (JsonWriter json = json(exchange, status)) {
+            json.beginObject().name("error").value(message).endObject();
+        }
+    }
+
+    private static Map<String, String> parseQuery(String raw) {
+        Map<String, String> params = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return params;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            if (!value.isEmpty()) params.put(key, value);
+        }
+        return params;
+    }
+
+    private static int parseInt(String value, String what) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valeur invalide pour " + what + " : " + value);
+        }
+    }
+}
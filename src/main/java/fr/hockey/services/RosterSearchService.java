@@ -0,0 +1,224 @@
+package fr.hockey.services;
+
+import fr.hockey.dao.RosterCache;
+import fr.hockey.events.DomainEvent;
+import fr.hockey.events.DomainEventBus;
+import fr.hockey.events.DomainEvents;
+import fr.hockey.models.Coach;
+import fr.hockey.models.Player;
+import fr.hockey.utils.NameSearchIndex;
+import fr.hockey.utils.SessionManager;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * Recherche approchée des joueurs et des coachs par leur nom (recherche globale du tableau de bord).
+ *
+ * <ul>
+ *     <li>L'index ({@link NameSearchIndex}) est construit une fois, en arrière-plan, à partir du
+ *     {@link RosterCache} ; une recherche ne fait ensuite aucun accès à la base.</li>
+ *     <li>Il est tenu à jour de façon incrémentale par les événements métier des DAO
+ *     (joueur ou coach créé, modifié, supprimé).</li>
+ *     <li>Les événements reçus pendant la construction sont rejoués sur l'index construit,
+ *     pour ne pas être écrasés par les données lues juste avant.</li>
+ *     <li>Chaque club a son propre index : les recherches et les événements (publiés par les DAO
+ *     pour le club de la session) ne portent que sur celui du club de la session.</li>
+ * </ul>
+ */
+public class RosterSearchService {
+
+    private static final RosterSearchService INSTANCE = new RosterSearchService(RosterCache.getInstance());
+
+    private final RosterCache rosterCache;
+
+    /** Index de chaque club. */
+    private final ConcurrentMap<Integer, ClubIndex> indexes = new ConcurrentHashMap<>();
+
+    /** Écouteur conservé ici : le bus ne le retient que faiblement. */
+    private final Consumer<DomainEvent> eventListener = this::onDomainEvent;
+
+    /** Index d'un club, protégé par le service. */
+    private static final class ClubIndex {
+        final NameSearchIndex<Result> index = new NameSearchIndex<>();
+        /** Événements reçus pendant une construction en cours (null hors construction). */
+        List<DomainEvent> pending;
+        volatile boolean loaded;
+    }
+
+    /** Type d'un résultat. */
+    public enum Kind { PLAYER, COACH }
+
+    /**
+     * Résultat de recherche : joueur ou coach.
+     */
+    public static final class Result {
+        private final Kind kind;
+        private final int id;
+        private final String name;
+        private final String detail;
+
+        Result(Kind kind, int id, String name, String detail) {
+            this.kind = kind;
+            this.id = id;
+            this.name = name;
+            this.detail = detail;
+        }
+
+        public Kind getKind() { return kind; }
+
+        public int getId() { return id; }
+
+        /** @return prénom et nom */
+        public String getName() { return name; }
+
+        /** @return catégorie du joueur, ou "Coach" */
+        public String getDetail() { return detail; }
+
+        @Override
+        public String toString() {
+            return name + " (" + detail + ")";
+        }
+    }
+
+    RosterSearchService(RosterCache rosterCache) {
+        this.rosterCache = rosterCache;
+        DomainEventBus.subscribe(DomainEvent.class, eventListener);
+    }
+
+    /** @return service partagé de l'application */
+    public static RosterSearchService getInstance() {
+        return INSTANCE;
+    }
+
+    /** @return true une fois l'index du club de la session construit */
+    public boolean isLoaded() {
+        return current().loaded;
+    }
+
+    /**
+     * Construit l'index du club de la session sur un thread démon, s'il ne l'est pas déjà.
+     *
+     * @return tâche terminée lorsque l'index est prêt
+     */
+    public CompletableFuture<Void> loadAsync() {
+        if (isLoaded()) return CompletableFuture.completedFuture(null);
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Thread t = new Thread(() -> {
+            try {
+                reload();
+                done.complete(null);
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("Index de recherche non construit : " + e.getMessage());
+                done.completeExceptionally(e);
+            }
+        }, "search-index");
+        t.setDaemon(true);
+        t.start();
+        return done;
+    }
+
+    /**
+     * (Re)construit l'index du club de la session à partir de son effectif complet.
+     * Si le club de la session change pendant la lecture, l'index n'est pas remplacé.
+     *
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public void reload() throws SQLException {
+        int club = SessionManager.getInstance().getClubId();
+        ClubIndex part = indexes.computeIfAbsent(club, c -> new ClubIndex());
+        synchronized (this) {
+            part.pending = new ArrayList<>();
+        }
+        List<Player> players;
+        List<Coach> coaches;
+        try {
+            players = rosterCache.findAllPlayers();
+            coaches = rosterCache.findAllCoaches();
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                part.pending = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            List<DomainEvent> events = part.pending;
+            part.pending = null;
+            if (SessionManager.getInstance().getClubId() != club) return;
+            part.index.clear();
+            for (Player p : players) putPlayer(part, p);
+            for (Coach c : coaches) putCoach(part, c);
+            for (DomainEvent e : events) apply(part, e);
+            part.loaded = true;
+        }
+    }
+
+    /**
+     * Recherche approchée, insensible aux accents et tolérante aux fautes de frappe.
+     *
+     * @param query          saisie de l'utilisateur
+     * @param limit          nombre maximal de résultats
+     * @param includeCoaches false pour ne proposer que des joueurs
+     * @return résultats du club de la session triés par pertinence (vide tant que son index
+     *         n'est pas construit)
+     */
+    public List<Result> search(String query, int limit, boolean includeCoaches) {
+        List<Result> results = new ArrayList<>();
+        int wanted = includeCoaches ? limit : limit * 2;
+        for (NameSearchIndex.Match<Result> m : current().index.search(query, wanted)) {
+            if (results.size() == limit) break;
+            if (includeCoaches || m.getValue().getKind() == Kind.PLAYER) {
+                results.add(m.getValue());
+            }
+        }
+        return results;
+    }
+
+    /** @return index du club de la session */
+    private ClubIndex current() {
+        return indexes.computeIfAbsent(SessionManager.getInstance().getClubId(), c -> new ClubIndex());
+    }
+
+    /** Les DAO publient pour le club de la session : seul son index est mis à jour. */
+    private synchronized void onDomainEvent(DomainEvent event) {
+        ClubIndex part = indexes.get(SessionManager.getInstance().getClubId());
+        if (part == null) return;
+        if (part.pending != null) part.pending.add(event);
+        apply(part, event);
+    }
+
+    private static void apply(ClubIndex part, DomainEvent event) {
+        if (event instanceof DomainEvents.PlayerSaved) {
+            putPlayer(part, ((DomainEvents.PlayerSaved) event).getPlayer());
+        } else if (event instanceof DomainEvents.PlayerDeleted) {
+            part.index.remove(playerKey(((DomainEvents.PlayerDeleted) event).getPlayerId()));
+        } else if (event instanceof DomainEvents.CoachSaved) {
+            putCoach(part, ((DomainEvents.CoachSaved) event).getCoach());
+        } else if (event instanceof DomainEvents.CoachDeleted) {
+            part.index.remove(coachKey(((DomainEvents.CoachDeleted) event).getCoachId()));
+        }
+    }
+
+    private static void putPlayer(ClubIndex part, Player p) {
+        String name = p.getFirstName() + " " + p.getLastName();
+        part.index.put(playerKey(p.getId()), name, new Result(Kind.PLAYER, p.getId(), name, p.getCategory()));
+    }
+
+    private static void putCoach(ClubIndex part, Coach c) {
+        String name = c.getFirstName() + " " + c.getLastName();
+        part.index.put(coachKey(c.getId()), name, new Result(Kind.COACH, c.getId(), name, "Coach"));
+    }
+
+    private static String playerKey(int id) {
+        return "player:" + id;
+    }
+
+    private static String coachKey(int id) {
+        return "coach:" + id;
+    }
+}
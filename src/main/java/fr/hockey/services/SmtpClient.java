@@ -0,0 +1,262 @@
+package fr.hockey.services;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Client SMTP minimal pour l'envoi de messages texte (UTF-8).
+ *
+ * <p>La connexion est ouverte au premier envoi puis réutilisée pour les suivants (une
+ * transaction {@code MAIL FROM / RCPT TO / DATA} par message) ; elle est rouverte
+ * automatiquement après une erreur réseau. Une instance n'est pas partagée entre threads.</p>
+ *
+ * <p>Prend en charge SMTP chiffré dès la connexion (SMTPS, port 465) ou après
+ * {@code STARTTLS} lorsque le serveur le propose, et l'authentification {@code AUTH PLAIN}.
+ * Le certificat du serveur est vérifié pour son nom d'hôte (SNI compris) ; les identifiants
+ * ne sont jamais envoyés sur une connexion en clair. Le corps est encodé en base64 : aucune
+ * ligne ne commence par un point et les accents passent tous les relais.</p>
+ */
+public class SmtpClient implements AutoCloseable {
+
+    /**
+     * Réponse d'erreur du serveur. Les codes 5xx sont définitifs (adresse refusée…),
+     * les autres (4xx, coupure) justifient une nouvelle tentative.
+     */
+    public static class SmtpException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final int code;
+
+        public SmtpException(int code, String message) {
+            super(code + " " + message);
+            this.code = code;
+        }
+
+        /** @return code de réponse SMTP */
+        public int getCode() {
+            return code;
+        }
+
+        /** @return true si renvoyer le même message échouerait de nouveau */
+        public boolean isPermanent() {
+            return code >= 500;
+        }
+    }
+
+    private final String host;
+    private final int port;
+    private final boolean ssl;
+    private final String user;
+    private final String password;
+    private final int timeoutMs;
+
+    private Socket socket;
+    private InputStream in;
+    private OutputStream out;
+
+    /**
+     * @param host      serveur SMTP
+     * @param port      port (25, 587 ou 465 pour SMTPS)
+     * @param ssl       true pour une connexion chiffrée d'emblée (SMTPS)
+     * @param user      identifiant, ou vide sans authentification
+     * @param password  mot de passe
+     * @param timeoutMs délai maximal de connexion et de réponse
+     */
+    public SmtpClient(String host, int port, boolean ssl, String user, String password, int timeoutMs) {
+        this.host = host;
+        this.port = port;
+        this.ssl = ssl;
+        this.user = user;
+        this.password = password;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Envoie un message, sur la connexion en cours si elle est ouverte.
+     *
+     * @param from      expéditeur
+     * @param to        destinataire
+     * @param subject   objet
+     * @param body      texte du message
+     * @param messageId identifiant unique du message (en-tête {@code Message-ID})
+     * @throws SmtpException si le serveur refuse le message
+     * @throws IOException   en cas d'erreur réseau (la connexion est alors fermée)
+     */
+    public void send(String from, String to, String subject, String body, String messageId) throws IOException {
+        if (socket == null) connect();
+        try {
+            command("MAIL FROM:<" + from + ">", 250);
+            command("RCPT TO:<" + to + ">", 250, 251);
+            command("DATA", 354);
+            write(headers(from, to, subject, messageId));
+            write(Base64.getMimeEncoder().encodeToString(body.getBytes(StandardCharsets.UTF_8)));
+            command("\r\n.", 250);
+        } catch (SmtpException e) {
+            // Message refusé : la connexion reste utilisable pour les suivants
+            try {
+                command("RSET", 250);
+            } catch (IOException ignored) {
+                close();
+            }
+            throw e;
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void connect() throws IOException {
+        Socket s = new Socket();
+        try {
+            socket = s;
+            s.connect(new InetSocketAddress(host, port), timeoutMs);
+            s.setSoTimeout(timeoutMs);
+            if (ssl) s = startTls(s);
+            open(s);
+            expect(220);
+            List<String> extensions = command("EHLO " + localName(), 250);
+            boolean secure = ssl;
+            if (!secure && extensions.stream().anyMatch(e -> e.equalsIgnoreCase("STARTTLS"))) {
+                command("STARTTLS", 220);
+                open(startTls(s));
+                command("EHLO " + localName(), 250);
+                secure = true;
+            }
+            if (user != null && !user.isEmpty()) {
+                if (!secure) {
+                    throw new IOException("Le serveur SMTP " + host + " ne propose pas de chiffrement : "
+                            + "identifiants non envoyés (activer SMTPS ou STARTTLS)");
+                }
+                String token = Base64.getEncoder().encodeToString(
+                        ("\0" + user + "\0" + password).getBytes(StandardCharsets.UTF_8));
+                command("AUTH PLAIN " + token, 235);
+            }
+        } catch (SmtpException e) {
+            // Refus à l'ouverture (authentification…) : problème de connexion, pas du message
+            close();
+            throw new IOException("Connexion SMTP refusée : " + e.getMessage(), e);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /** Chiffre une connexion ouverte, avec vérification du nom d'hôte et SNI. */
+    private SSLSocket startTls(Socket plain) throws IOException {
+        SSLSocket tls = (SSLSocket) ((SSLSocketFactory) SSLSocketFactory.getDefault())
+                .createSocket(plain, host, port, true);
+        SSLParameters params = tls.getSSLParameters();
+        params.setEndpointIdentificationAlgorithm("HTTPS");
+        tls.setSSLParameters(params);
+        socket = tls;
+        tls.startHandshake();
+        return tls;
+    }
+
+    private void open(Socket s) throws IOException {
+        socket = s;
+        in = new BufferedInputStream(s.getInputStream());
+        out = new BufferedOutputStream(s.getOutputStream());
+    }
+
+    private static String localName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "localhost";
+        }
+    }
+
+    private static String headers(String from, String to, String subject, String messageId) {
+        return "From: " + from + "\r\n" +
+                "To: " + to + "\r\n" +
+                "Subject: =?UTF-8?B?" + Base64.getEncoder().encodeToString(subject.getBytes(StandardCharsets.UTF_8)) + "?=\r\n" +
+                "Date: " + DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now()) + "\r\n" +
+                "Message-ID: <" + messageId + ">\r\n" +
+                "MIME-Version: 1.0\r\n" +
+                "Content-Type: text/plain; charset=UTF-8\r\n" +
+                "Content-Transfer-Encoding: base64\r\n" +
+                "\r\n";
+    }
+
+    private void write(String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private List<String> command(String line, int... expected) throws IOException {
+        write(line + "\r\n");
+        out.flush();
+        return expect(expected);
+    }
+
+    /**
+     * Lit une réponse (éventuellement sur plusieurs lignes) et vérifie son code.
+     *
+     * @return texte de chaque ligne, sans le code (extensions annoncées par {@code EHLO})
+     */
+    private List<String> expect(int... expected) throws IOException {
+        List<String> lines = new ArrayList<>();
+        String line;
+        do {
+            line = readLine();
+            if (line.length() < 3) throw new IOException("Réponse SMTP invalide : " + line);
+            lines.add(line.length() > 4 ? line.substring(4).trim() : "");
+        } while (line.length() > 3 && line.charAt(3) == '-');
+        int code;
+        try {
+            code = Integer.parseInt(line.substring(0, 3));
+        } catch (NumberFormatException e) {
+            throw new IOException("Réponse SMTP invalide : " + line);
+        }
+        for (int c : expected) {
+            if (c == code) return lines;
+        }
+        throw new SmtpException(code, line.length() > 4 ? line.substring(4) : "");
+    }
+
+    private String readLine() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) throw new IOException("Connexion SMTP fermée par le serveur");
+            if (b != '\r') sb.append((char) b);
+        }
+        return sb.toString();
+    }
+
+    /** Termine la session ({@code QUIT}) et ferme la connexion. */
+    @Override
+    public void close() {
+        Socket s = socket;
+        socket = null;
+        if (s == null) return;
+        try {
+            if (!s.isClosed() && out != null) {
+                write("QUIT\r\n");
+                out.flush();
+            }
+        } catch (IOException ignored) {
+        }
+        try {
+            s.close();
+        } catch (IOException ignored) {
+        }
+        in = null;
+        out = null;
+    }
+}
@@ -0,0 +1,347 @@
+package fr.hockey.tools;
+
+import fr.hockey.dao.DatabaseConnection;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+/**
+ * Générateur déterministe de données synthétiques pour les tests de charge.
+ *
+ * <p>À partir d'une graine, d'un nombre de joueurs et d'une date de référence
+ * ({@link #DEFAULT_REFERENCE_DATE} par défaut), il produit toujours le même club :</p>
+ * <ul>
+ *     <li>des joueurs répartis sur les catégories U9 à U20 (postes, rôles et numéros réalistes) ;</li>
+ *     <li>des licences avec un mélange de statuts payé / non payé et d'échéances ;</li>
+ *     <li>des coachs entraînant une à trois catégories ({@code coach_teams}) ;</li>
+ *     <li>optionnellement un historique d'audit au format de {@code audit.log}.</li>
+ * </ul>
+ *
+ * <p>L'insertion se fait par lots JDBC (pensez à {@code rewriteBatchedStatements=true}
+ * dans l'URL MySQL) ou, avec {@code --load-data}, via {@code LOAD DATA LOCAL INFILE}
+ * (nécessite {@code allowLoadLocalInfile=true}). Le schéma doit déjà exister.</p>
+ *
+ * <pre>
+ *   java fr.hockey.tools.ClubDataGenerator --players=1000000 --seed=7 \
+ *        -Dhockey.db.url=jdbc:mysql://localhost:3306/club_manager?rewriteBatchedStatements=true
+ * </pre>
+ */
+public class ClubDataGenerator {
+
+    private static final String[] CATEGORIES = {"U9", "U11", "U13", "U15", "U17", "U20"};
+    private static final String[] FIRST_NAMES = {
+            "Lucas", "Léo", "Hugo", "Louis", "Gabriel", "Raphaël", "Arthur", "Jules", "Maël", "Noé",
+            "Chloé", "Léa", "Emma", "Inès", "Zoé", "Manon", "Jade", "Louise", "Anaïs", "Élise",
+            "Théo", "Mathéo", "Enzo", "Nathan", "Timéo", "Clément", "Aurélien", "Jérôme", "Benoît", "Stéphane"
+    };
+    private static final String[] LAST_NAMES = {
+            "Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard", "Petit", "Durand", "Leroy", "Moreau",
+            "Simon", "Laurent", "Lefèvre", "Michel", "García", "David", "Bertrand", "Roux", "Vincent", "Fournier",
+            "Girard", "Bonnet", "Dupont", "Lambert", "Fontaine", "Rousseau", "Mercier", "Blanc", "Guérin", "Chevalier",
+            "Gauthier", "Perrin", "Morel", "Clément", "Faure", "Dumont", "Lemaître", "Brunet", "Barbier", "Boucher"
+    };
+    private static final double[] FEES = {100.00, 150.00, 180.00, 220.00, 250.00, 300.00};
+
+    /**
+     * Hash BCrypt (coût 10) de "coach123", partagé par tous les coachs générés : une constante
+     * plutôt qu'un sel aléatoire, pour qu'une même graine donne les mêmes lignes.
+     */
+    private static final String COACH_PASSWORD_HASH = "$2a$10$d6nqfEfM8xwGkBQKwxzwOeSJ.yGwlmaceX8RA8CKdJGgoifk9T9Xe";
+
+    private static final int BATCH_SIZE = 5_000;
+
+    /** Date de référence par défaut des échéances de licence et de l'historique d'audit. */
+    public static final LocalDate DEFAULT_REFERENCE_DATE = LocalDate.of(2025, 9, 1);
+
+    private final long seed;
+    private final int players;
+    private final int coaches;
+    private LocalDate referenceDate = DEFAULT_REFERENCE_DATE;
+    private boolean useLoadData;
+    private Path auditFile;
+    private int auditEntries;
+
+    /**
+     * @param seed    graine du générateur pseudo-aléatoire (même graine → mêmes données)
+     * @param players nombre de joueurs à générer ; le nombre de coachs en est déduit (1 pour 40)
+     */
+    public ClubDataGenerator(long seed, int players) {
+        this.seed = seed;
+        this.players = players;
+        this.coaches = Math.max(6, players / 40);
+    }
+
+    /**
+     * @param referenceDate date autour de laquelle sont tirées les échéances de licence
+     *                      (de -30 à +365 jours) et qui clôt l'année d'historique d'audit
+     */
+    public void setReferenceDate(LocalDate referenceDate) {
+        this.referenceDate = referenceDate;
+    }
+
+    /** @param useLoadData true pour charger via {@code LOAD DATA LOCAL INFILE} (MySQL uniquement) */
+    public void setUseLoadData(boolean useLoadData) {
+        this.useLoadData = useLoadData;
+    }
+
+    /**
+     * Active la génération d'un historique d'audit.
+     *
+     * @param auditFile fichier de sortie (jamais le vrai audit.log de l'utilisateur par défaut)
+     * @param entries   nombre de lignes d'audit à produire
+     */
+    public void setAuditHistory(Path auditFile, int entries) {
+        this.auditFile = auditFile;
+        this.auditEntries = entries;
+    }
+
+    /** @return nombre de coachs générés */
+    public int getCoachCount() {
+        return coaches;
+    }
+
+    /**
+     * Génère et insère l'ensemble des données sur la connexion fournie, en une seule
+     * transaction : en cas d'erreur, rien n'est inséré.
+     * Les identifiants démarrent après le plus grand identifiant existant.
+     *
+     * @param conn connexion JDBC (MySQL ou H2 en mode MySQL)
+     * @throws SQLException en cas d'erreur SQL
+     * @throws IOException  en cas d'erreur d'écriture des fichiers temporaires ou d'audit
+     */
+    public void generate(Connection conn) throws SQLException, IOException {
+        int firstPlayerId = maxId(conn, "players") + 1;
+        int firstCoachId = maxId(conn, "coaches") + 1;
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            if (useLoadData) {
+                loadDataPlayersAndLicenses(conn, firstPlayerId);
+            } else {
+                insertPlayersAndLicenses(conn, firstPlayerId);
+            }
+            insertCoaches(conn, firstCoachId);
+            conn.commit();
+        } catch (SQLException | IOException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        if (auditFile != null && auditEntries > 0) {
+            writeAuditHistory(firstPlayerId);
+        }
+    }
+
+    /** Joueur synthétique n°{@code index} : mêmes valeurs pour une même graine. */
+    private String[] playerRow(Random random, int index) {
+        String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+        int slot = index % 20;
+        // Environ 2 gardiens, 7 défenseurs et 11 attaquants pour 20 joueurs
+        String position = slot < 2 ? "GARDIEN" : (slot < 9 ? "DEFENSEUR" : "ATTAQUANT");
+        String role = slot == 5 ? "CAPITAINE" : (slot == 12 || slot == 15 ? "ASSISTANT" : "JOUEUR");
+        return new String[]{
+                FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                category, role, position,
+                String.valueOf(1 + random.nextInt(99))
+        };
+    }
+
+    private void insertPlayersAndLicenses(Connection conn, int firstId) throws SQLException {
+        Random random = new Random(seed);
+        try (PreparedStatement pp = conn.prepareStatement(
+                "INSERT INTO players (id, first_name, last_name, category, role, position, number) VALUES (?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement lp = conn.prepareStatement(
+                     "INSERT INTO licenses (player_id, paid, expiration_date, amount) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < players; i++) {
+                int id = firstId + i;
+                String[] row = playerRow(random, i);
+                pp.setInt(1, id);
+                for (int c = 0; c < 5; c++) pp.setString(c + 2, row[c]);
+                pp.setInt(7, Integer.parseInt(row[5]));
+                pp.addBatch();
+
+                // ~90 % des joueurs sont licenciés, ~70 % des licences sont payées
+                if (random.nextInt(10) != 0) {
+                    lp.setInt(1, id);
+                    lp.setBoolean(2, random.nextInt(10) < 7);
+                    lp.setDate(3, Date.valueOf(referenceDate.plusDays(random.nextInt(395) - 30)));
+                    lp.setDouble(4, feeFor(row[2]));
+                    lp.addBatch();
+                }
+
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    pp.executeBatch();
+                    lp.executeBatch();
+                }
+            }
+            pp.executeBatch();
+            lp.executeBatch();
+        }
+    }
+
+    private void loadDataPlayersAndLicenses(Connection conn, int firstId) throws SQLException, IOException {
+        Random random = new Random(seed);
+        Path playersCsv = Files.createTempFile("players", ".csv");
+        Path licensesCsv = Files.createTempFile("licenses", ".csv");
+        try {
+            try (BufferedWriter pw = Files.newBufferedWriter(playersCsv, StandardCharsets.UTF_8);
+                 BufferedWriter lw = Files.newBufferedWriter(licensesCsv, StandardCharsets.UTF_8)) {
+                for (int i = 0; i < players; i++) {
+                    int id = firstId + i;
+                    String[] row = playerRow(random, i);
+                    pw.write(id + "," + String.join(",", row));
+                    pw.newLine();
+                    if (random.nextInt(10) != 0) {
+                        boolean paid = random.nextInt(10) < 7;
+                        LocalDate exp = referenceDate.plusDays(random.nextInt(395) - 30);
+                        lw.write(id + "," + (paid ? 1 : 0) + "," + exp + "," + feeFor(row[2]));
+                        lw.newLine();
+                    }
+                }
+            }
+            try (Statement st = conn.createStatement()) {
+                st.execute(loadDataSql(playersCsv, "players", "id, first_name, last_name, category, role, position, number"));
+                st.execute(loadDataSql(licensesCsv, "licenses", "player_id, paid, expiration_date, amount"));
+            }
+        } finally {
+            Files.deleteIfExists(playersCsv);
+            Files.deleteIfExists(licensesCsv);
+        }
+    }
+
+    private static String loadDataSql(Path file, String table, String columns) {
+        String path = file.toAbsolutePath().toString().replace("\\", "/").replace("'", "''");
+        return "LOAD DATA LOCAL INFILE '" + path + "' INTO TABLE " + table
+                + " CHARACTER SET utf8mb4 FIELDS TERMINATED BY ',' LINES TERMINATED BY '\\n' (" + columns + ")";
+    }
+
+    private void insertCoaches(Connection conn, int firstId) throws SQLException {
+        Random random = new Random(seed ^ 0x5DEECE66DL);
+        try (PreparedStatement cp = conn.prepareStatement(
+                "INSERT INTO coaches (id, first_name, last_name, username, email, password) VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement tp = conn.prepareStatement(
+                     "INSERT INTO coach_teams (coach_id, category) VALUES (?, ?)")) {
+            for (int i = 0; i < coaches; i++) {
+                int id = firstId + i;
+                String username = "coach" + id;
+                cp.setInt(1, id);
+                cp.setString(2, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+                cp.setString(3, LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                cp.setString(4, username);
+                cp.setString(5, username + "@club.fr");
+                cp.setString(6, COACH_PASSWORD_HASH);
+                cp.addBatch();
+
+                int first = random.nextInt(CATEGORIES.length);
+                int teams = 1 + random.nextInt(3);
+                for (int t = 0; t < teams; t++) {
+                    tp.setInt(1, id);
+                    tp.setString(2, CATEGORIES[(first + t) % CATEGORIES.length]);
+                    tp.addBatch();
+                }
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    cp.executeBatch();
+                    tp.executeBatch();
+                }
+            }
+            cp.executeBatch();
+            tp.executeBatch();
+        }
+    }
+
+    private void writeAuditHistory(int firstPlayerId) throws IOException {
+        Random random = new Random(seed ^ 0xA0D17L);
+        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("MMM dd, yyyy h:mm:ss a");
+        LocalDateTime start = referenceDate.atStartOfDay().minusDays(365);
+        String[] ops = {"INSERT", "UPDATE", "UPDATE_PAID", "UPDATE_PAID", "UPDATE"};
+        if (auditFile.getParent() != null) Files.createDirectories(auditFile.getParent());
+        try (BufferedWriter w = Files.newBufferedWriter(auditFile, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < auditEntries; i++) {
+                LocalDateTime when = start.plusSeconds((long) i * 31_536_000L / auditEntries);
+                String op = ops[random.nextInt(ops.length)];
+                String table = op.equals("UPDATE_PAID") ? "licenses" : "players";
+                int id = firstPlayerId + random.nextInt(Math.max(1, players));
+                // Même format que SimpleFormatter utilisé par AuditLogger
+                w.write(when.format(fmt) + " fr.hockey.utils.AuditLogger logChange");
+                w.newLine();
+                w.write("INFO: actor=ADMIN:admin | table=" + table + " | op=" + op + " | id=" + id + " | "
+                        + (op.equals("UPDATE_PAID") ? "paid=" + random.nextBoolean() : "generated=true"));
+                w.newLine();
+            }
+        }
+    }
+
+    private static double feeFor(String category) {
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            if (CATEGORIES[i].equals(category)) return FEES[i];
+        }
+        return FEES[0];
+    }
+
+    private static int maxId(Connection conn, String table) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Point d'entrée en ligne de commande.
+     *
+     * <p>Options : {@code --players=N} (défaut 10000), {@code --seed=S} (défaut 42),
+     * {@code --date=AAAA-MM-JJ} (défaut {@link #DEFAULT_REFERENCE_DATE}),
+     * {@code --load-data}, {@code --audit=N} et {@code --audit-file=chemin}
+     * (défaut ~/.hockeyclubmanager/audit-synthetic.log). La base cible se règle
+     * via les propriétés {@code hockey.db.*} de {@link DatabaseConnection}.</p>
+     *
+     * @param args options de génération
+     */
+    public static void main(String[] args) {
+        int players = 10_000;
+        long seed = 42L;
+        LocalDate date = DEFAULT_REFERENCE_DATE;
+        boolean loadData = false;
+        int audit = 0;
+        Path auditFile = Paths.get(System.getProperty("user.home"), ".hockeyclubmanager", "audit-synthetic.log");
+
+        for (String arg : args) {
+            if (arg.startsWith("--players=")) players = Integer.parseInt(arg.substring(10));
+            else if (arg.startsWith("--seed=")) seed = Long.parseLong(arg.substring(7));
+            else if (arg.startsWith("--date=")) date = LocalDate.parse(arg.substring(7));
+            else if (arg.equals("--load-data")) loadData = true;
+            else if (arg.startsWith("--audit=")) audit = Integer.parseInt(arg.substring(8));
+            else if (arg.startsWith("--audit-file=")) auditFile = Paths.get(arg.substring(13));
+            else {
+                System.err.println("Option inconnue : " + arg);
+                return;
+            }
+        }
+
+        ClubDataGenerator generator = new ClubDataGenerator(seed, players);
+        generator.setReferenceDate(date);
+        generator.setUseLoadData(loadData);
+        generator.setAuditHistory(auditFile, audit);
+
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            generator.generate(conn);
+            long ms = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("✅ " + players + " joueurs et " + generator.getCoachCount()
+                    + " coachs générés en " + ms + " ms (graine " + seed + ")");
+        } catch (Exception e) {
+            System.err.println("❌ Erreur lors de la génération : " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,503 @@
+package fr.hockey.tools;
+
+import fr.hockey.dao.ClubDAO;
+import fr.hockey.dao.CoachDAO;
+import fr.hockey.dao.DatabaseBackup;
+import fr.hockey.dao.IceScheduleDAO;
+import fr.hockey.dao.LicenseDAO;
+import fr.hockey.dao.PlayerDAO;
+import fr.hockey.dao.RevenueDAO;
+import fr.hockey.dao.SchemaMigrations;
+import fr.hockey.models.IceSlot;
+import fr.hockey.models.License;
+import fr.hockey.models.Player;
+import fr.hockey.models.RevenueItem;
+import fr.hockey.services.IceScheduler;
+import fr.hockey.services.ReminderMailer;
+import fr.hockey.utils.AppSettings;
+import fr.hockey.utils.MatchSheetPdfGenerator;
+import fr.hockey.utils.RosterExporter;
+import fr.hockey.utils.SessionManager;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Outil en ligne de commande pour les traitements par lots, sans interface graphique.
+ *
+ * <p>Destiné aux tâches planifiées (cron) et aux scripts sur le serveur du club : il
+ * réutilise les DAO et les générateurs de l'application, mais ne charge aucune classe
+ * JavaFX ni le cache de l'effectif, ce qui garde un démarrage très court.</p>
+ *
+ * <ul>
+ *     <li>{@code import-players --file=joueurs.csv} : import en masse (une transaction) ;</li>
+ *     <li>{@code export-players --file=joueurs.xlsx [--category=U13] [--format=csv|xlsx]} : export
+ *     en flux au même format ({@link RosterExporter}) ;</li>
+ *     <li>{@code season-rollover --expiration=2027-08-31} : renouvellement des licences échues ;</li>
+ *     <li>{@code match-sheets --out=dossier [--category=U13] [--date=...] [--opponent=...]} :
+ *     feuilles de match PDF, une par catégorie ;</li>
+ *     <li>{@code revenue-report [--file=recettes.csv]} : recettes par catégorie (CSV) ;</li>
+ *     <li>{@code backup --file=club.hcmbak} / {@code restore --file=club.hcmbak} : sauvegarde
+ *     des données du club et des journaux ({@link DatabaseBackup}) ;</li>
+ *     <li>{@code send-reminders [--campaign=2026-10] [--template=relance.txt]} : relance par
+ *     e-mail des licences non payées ({@link ReminderMailer}), une fois par campagne ;</li>
+ *     <li>{@code plan-ice [--seconds=5] [--save=false]} : planning hebdomadaire des créneaux de
+ *     glace ({@link IceScheduler}), enregistré s'il est sans conflit.</li>
+ * </ul>
+ *
+ * <p>Format CSV (séparateur {@code ,} ou {@code ;}, première ligne d'en-tête) :
+ * {@code first_name, last_name, category, role, position, number, paid, expiration_date, amount, contact_email}.
+ * Les colonnes de licence et l'adresse de contact sont facultatives ; sans montant, le tarif de la catégorie s'applique.</p>
+ *
+ * <pre>
+ *   java -cp hockey-club-manager.jar fr.hockey.tools.HockeyCli season-rollover --expiration=2027-08-31 \
+ *        -Dhockey.db.url=jdbc:mysql://localhost:3306/club_manager
+ * </pre>
+ *
+ * <p>Toutes les commandes acceptent {@code --club=N} : elles portent alors sur ce club (vérifié
+ * dans la table {@code clubs}) au lieu du club par défaut.</p>
+ *
+ * <p>Le code de sortie vaut 0 en cas de succès, 1 en cas d'erreur et 2 pour un usage incorrect.</p>
+ */
+public class HockeyCli {
+
+    private static final List<String> CATEGORIES = Arrays.asList("U9", "U11", "U13", "U15", "U17", "U20");
+
+    private final PlayerDAO playerDAO = new PlayerDAO();
+    private final LicenseDAO licenseDAO = new LicenseDAO();
+    private final RevenueDAO revenueDAO = new RevenueDAO();
+    private final PrintStream out;
+
+    HockeyCli(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Point d’entrée du programme.
+     *
+     * @param args sous-commande suivie de ses options {@code --cle=valeur}
+     */
+    public static void main(String[] args) {
+        System.exit(new HockeyCli(System.out).run(args));
+    }
+
+    /**
+     * Exécute une sous-commande.
+     *
+     * @param args sous-commande suivie de ses options
+     * @return code de sortie
+     */
+    int run(String[] args) {
+        if (args.length == 0) {
+            usage();
+            return 2;
+        }
+        Map<String, String> options = new HashMap<>();
+        for (String arg : Arrays.copyOfRange(args, 1, args.length)) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                System.err.println("Option inconnue : " + arg);
+                return 2;
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        try {
+            SchemaMigrations.migrate();
+            if (options.containsKey("club")) selectClub(Integer.parseInt(options.remove("club")));
+            switch (args[0]) {
+                case "import-players":
+                    return importPlayers(Paths.get(require(options, "file")));
+                case "export-players":
+                    return exportPlayers(Paths.get(require(options, "file")), options.get("category"), options.get("format"));
+                case "season-rollover":
+                    return seasonRollover(LocalDate.parse(require(options, "expiration")));
+                case "match-sheets":
+                    return matchSheets(Paths.get(require(options, "out")), options.get("category"),
+                            options.containsKey("date") ? LocalDate.parse(options.get("date")) : LocalDate.now(),
+                            options.getOrDefault("opponent", ""));
+                case "backup":
+                    return backup(Paths.get(require(options, "file")));
+                case "restore":
+                    return restore(Paths.get(require(options, "file")));
+                case "revenue-report":
+                    return revenueReport(options.containsKey("file") ? Paths.get(options.get("file")) : null);
+                case "plan-ice":
+                    return planIce(Integer.parseInt(options.getOrDefault("seconds", "5")),
+                            Boolean.parseBoolean(options.getOrDefault("save", "true")));
+                case "send-reminders":
+                    return sendReminders(options.getOrDefault("campaign", YearMonth.now().toString()),
+                            options.containsKey("template") ? Paths.get(options.get("template")) : null);
+                default:
+                    System.err.println("Commande inconnue : " + args[0]);
+                    usage();
+                    return 2;
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println("❌ " + e.getMessage());
+            return 2;
+        } catch (SQLException | IOException e) {
+            System.err.println("❌ Erreur lors de « " + args[0] + " » : " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /** Choisit le club de la session, avant le premier appel aux DAO. */
+    private static void selectClub(int clubId) throws SQLException {
+        if (new ClubDAO().findById(clubId) == null) throw new IllegalArgumentException("Club inconnu : " + clubId);
+        SessionManager.getInstance().setClubId(clubId);
+    }
+
+    private static String require(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null || value.isBlank()) throw new IllegalArgumentException("Option requise : --" + name + "=...");
+        return value;
+    }
+
+    private static void usage() {
+        System.err.println("Usage : HockeyCli <commande> [--club=N] [--option=valeur ...]");
+        System.err.println("  import-players  --file=joueurs.csv");
+        System.err.println("  export-players  --file=joueurs.csv|.xlsx [--category=U13] [--format=csv|xlsx]");
+        System.err.println("  season-rollover --expiration=AAAA-MM-JJ");
+        System.err.println("  match-sheets    --out=dossier [--category=U13] [--date=AAAA-MM-JJ] [--opponent=nom]");
+        System.err.println("  revenue-report  [--file=recettes.csv]");
+        System.err.println("  backup          --file=club.hcmbak   (données du club choisi)");
+        System.err.println("  restore         --file=club.hcmbak   (sauvegarde de ce même club)");
+        System.err.println("  send-reminders  [--campaign=AAAA-MM] [--template=relance.txt]");
+        System.err.println("  plan-ice        [--seconds=5] [--save=true|false]");
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Import / export des joueurs
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Importe les joueurs d'un fichier CSV. Le fichier est entièrement validé avant
+     * l'insertion : une ligne invalide annule tout l'import.
+     */
+    private int importPlayers(Path file) throws IOException, SQLException {
+        List<Player> players = new ArrayList<>();
+        Map<String, Double> fees = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) throw new IllegalArgumentException("Fichier vide : " + file);
+            if (header.startsWith("\uFEFF")) header = header.substring(1);
+            char sep = header.indexOf(';') >= 0 && header.indexOf(',') < 0 ? ';' : ',';
+            Map<String, Integer> index = new LinkedHashMap<>();
+            List<String> names = parseCsvLine(header, sep);
+            for (int i = 0; i < names.size(); i++) index.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            for (String col : new String[]{"first_name", "last_name", "category", "position"}) {
+                if (!index.containsKey(col)) throw new IllegalArgumentException("Colonne manquante : " + col);
+            }
+
+            String line;
+            int lineNo = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+                List<String> cells = parseCsvLine(line, sep);
+                try {
+                    players.add(toPlayer(cells, index, fees));
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    throw new IllegalArgumentException("Ligne " + lineNo + " : " + e.getMessage());
+                }
+            }
+        }
+        long start = System.nanoTime();
+        int count = playerDAO.insertAll(players);
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        long licenses = players.stream().filter(p -> p.getLicense() != null).count();
+        out.println("✅ " + count + " joueurs importés (" + licenses + " licences) en " + ms + " ms");
+        return 0;
+    }
+
+    private Player toPlayer(List<String> cells, Map<String, Integer> index, Map<String, Double> fees) throws SQLException {
+        String firstName = cell(cells, index, "first_name");
+        String lastName = cell(cells, index, "last_name");
+        String category = cell(cells, index, "category").toUpperCase(Locale.ROOT);
+        String position = cell(cells, index, "position").toUpperCase(Locale.ROOT);
+        String role = cell(cells, index, "role").toUpperCase(Locale.ROOT);
+        if (firstName.isEmpty() || lastName.isEmpty()) throw new IllegalArgumentException("nom et prénom obligatoires");
+        if (!CATEGORIES.contains(category)) throw new IllegalArgumentException("catégorie inconnue « " + category + " »");
+        if (position.isEmpty()) throw new IllegalArgumentException("poste obligatoire");
+
+        Player p = new Player(0, firstName, lastName, category, role.isEmpty() ? "JOUEUR" : role, position);
+        String number = cell(cells, index, "number");
+        if (!number.isEmpty()) p.setNumber(Integer.parseInt(number));
+        String email = cell(cells, index, "contact_email");
+        if (!email.isEmpty()) {
+            if (email.indexOf('@') <= 0) throw new IllegalArgumentException("adresse e-mail invalide « " + email + " »");
+            p.setContactEmail(email);
+        }
+
+        String expiration = cell(cells, index, "expiration_date");
+        if (!expiration.isEmpty()) {
+            String amount = cell(cells, index, "amount");
+            Double fee = amount.isEmpty() ? fees.get(category) : Double.valueOf(amount.replace(',', '.'));
+            if (fee == null) {
+                fee = licenseDAO.getFeeForCategory(category);
+                fees.put(category, fee);
+            }
+            boolean paid = parseBoolean(cell(cells, index, "paid"));
+            p.setLicense(new License(0, 0, paid, LocalDate.parse(expiration), fee));
+        }
+        return p;
+    }
+
+    private static String cell(List<String> cells, Map<String, Integer> index, String column) {
+        Integer i = index.get(column);
+        if (i == null || i >= cells.size()) return "";
+        return cells.get(i).trim();
+    }
+
+    private static boolean parseBoolean(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "1": case "true": case "oui": case "yes": case "paye": case "payé": return true;
+            default: return false;
+        }
+    }
+
+    /** Exporte les joueurs au format d'import, en flux (CSV ou XLSX selon l'extension ou {@code --format}). */
+    private int exportPlayers(Path file, String category, String format) throws IOException, SQLException {
+        RosterExporter.Format f = format != null
+                ? RosterExporter.Format.valueOf(format.toUpperCase(Locale.ROOT))
+                : RosterExporter.Format.fromFileName(file.getFileName().toString());
+        long start = System.nanoTime();
+        long count = RosterExporter.export(playerDAO, category, f, file);
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        out.println("✅ " + count + " joueurs exportés dans " + file + " en " + ms + " ms");
+        return 0;
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Saison, feuilles de match, recettes
+    // ---------------------------------------------------------------------------------
+
+    private int seasonRollover(LocalDate expiration) throws SQLException {
+        int count = licenseDAO.rollover(expiration);
+        out.println("✅ " + count + " licences renouvelées jusqu'au " + expiration);
+        return 0;
+    }
+
+    /** Génère une feuille de match par catégorie ayant des joueurs (ou pour la seule catégorie demandée). */
+    private int matchSheets(Path dir, String category, LocalDate date, String opponent) throws IOException, SQLException {
+        Files.createDirectories(dir);
+        File logo = null;
+        String logoPath = AppSettings.getLogoPath();
+        if (logoPath != null && !logoPath.isBlank() && new File(logoPath).exists()) logo = new File(logoPath);
+
+        String dateStr = date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        String opponentSlug = opponent.isEmpty()
+                ? ""
+                : ("_" + opponent.replaceAll("[^A-Za-z0-9]+", "-")
+                .replaceAll("-+", "-")
+                .replaceAll("^-|-$", ""));
+
+        int generated = 0;
+        for (String cat : category != null ? List.of(category) : CATEGORIES) {
+            List<Player> players = playerDAO.findByCategory(cat);
+            if (players.isEmpty()) continue;
+            players.sort(Comparator
+                    .comparing((Player p) -> positionOrder(p.getPosition()))
+                    .thenComparing(p -> safe(p.getLastName()), String.CASE_INSENSITIVE_ORDER)
+                    .thenComparing(p -> safe(p.getFirstName()), String.CASE_INSENSITIVE_ORDER));
+            File pdf = dir.resolve("Feuille-de-match_" + cat + "_" + dateStr + opponentSlug + ".pdf").toFile();
+            MatchSheetPdfGenerator.generate(cat, players, pdf, date, opponent, logo);
+            out.println("   " + pdf);
+            generated++;
+        }
+        out.println("✅ " + generated + " feuilles de match générées dans " + dir);
+        return 0;
+    }
+
+    private static int positionOrder(String position) {
+        if (position == null) return 3;
+        switch (position.toUpperCase(Locale.ROOT)) {
+            case "GARDIEN": return 0;
+            case "DEFENSEUR": return 1;
+            case "ATTAQUANT": return 2;
+            default: return 3;
+        }
+    }
+
+    private static String safe(String s) {
+        return s == null ? "" : s;
+    }
+
+    /** Recettes par catégorie, dans un fichier CSV ou sur la sortie standard. */
+    private int revenueReport(Path file) throws IOException, SQLException {
+        List<RevenueItem> items = revenueDAO.getRevenueByCategory();
+        Writer w = file != null ? Files.newBufferedWriter(file, StandardCharsets.UTF_8) : null;
+        try {
+            StringBuilder sb = new StringBuilder("category,paid_count,paid_total,unpaid_count,unpaid_total,expected_total\n");
+            int paidCount = 0;
+            int unpaidCount = 0;
+            double paid = 0;
+            double unpaid = 0;
+            for (RevenueItem item : items) {
+                sb.append(revenueLine(item.getCategory(), item.getPaidCount(), item.getPaidTotal(),
+                        item.getUnpaidCount(), item.getUnpaidTotal()));
+                paidCount += item.getPaidCount();
+                unpaidCount += item.getUnpaidCount();
+                paid += item.getPaidTotal();
+                unpaid += item.getUnpaidTotal();
+            }
+            sb.append(revenueLine("TOTAL", paidCount, paid, unpaidCount, unpaid));
+            if (w != null) {
+                w.write(sb.toString());
+                out.println("✅ Rapport des recettes écrit dans " + file);
+            } else {
+                out.print(sb);
+            }
+        } finally {
+            if (w != null) w.close();
+        }
+        return 0;
+    }
+
+    private static String revenueLine(String category, int paidCount, double paid, int unpaidCount, double unpaid) {
+        return String.format(Locale.ROOT, "%s,%d,%.2f,%d,%.2f,%.2f%n",
+                category, paidCount, paid, unpaidCount, unpaid, paid + unpaid);
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Sauvegarde / restauration
+    // ---------------------------------------------------------------------------------
+
+    private int backup(Path file) throws IOException, SQLException {
+        DatabaseBackup.Summary s = DatabaseBackup.withDefaultLogDir().backup(file);
+        out.println("✅ Sauvegarde de " + s.getTables() + " tables (" + s.getRows() + " lignes) et "
+                + s.getFiles() + " journaux dans " + file + " en " + s.getMillis() + " ms");
+        return 0;
+    }
+
+    private int restore(Path file) throws IOException, SQLException {
+        DatabaseBackup.Summary s = DatabaseBackup.withDefaultLogDir().restore(file);
+        out.println("✅ Restauration de " + s.getTables() + " tables (" + s.getRows() + " lignes) en "
+                + s.getMillis() + " ms");
+        return 0;
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Relances de cotisation
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Met en file les relances de la campagne puis envoie la file (y compris les messages
+     * restés en attente d'une campagne précédente). Le modèle facultatif est un fichier texte
+     * dont la première ligne {@code Objet: ...} donne l'objet.
+     */
+    private int sendReminders(String campaign, Path template) throws IOException, SQLException {
+        String subject = ReminderMailer.DEFAULT_SUBJECT;
+        String body = ReminderMailer.DEFAULT_BODY;
+        if (template != null) {
+            body = Files.readString(template, StandardCharsets.UTF_8);
+            if (body.startsWith("Objet:")) {
+                int eol = body.indexOf('\n');
+                subject = (eol < 0 ? body.substring(6) : body.substring(6, eol)).trim();
+                body = eol < 0 ? "" : body.substring(eol + 1);
+            }
+        }
+        String club = AppSettings.getLegalName().isEmpty() ? "Le club" : AppSettings.getLegalName();
+        if (AppSettings.getSmtpFrom().isEmpty()) {
+            throw new IllegalArgumentException("Adresse d'expédition non configurée (smtp.from)");
+        }
+
+        ReminderMailer mailer = ReminderMailer.fromSettings();
+        int queued = mailer.enqueueUnpaid(campaign, subject, body, club);
+        ReminderMailer.Result r;
+        try {
+            r = mailer.sendPending();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Envoi interrompu", e);
+        }
+        out.println("✅ " + queued + " relances ajoutées (campagne " + campaign + "), " + r.getSent() + " envoyées, "
+                + r.getRetried() + " à réessayer, " + r.getFailed() + " en échec, en " + r.getMillis() + " ms");
+        return r.getFailed() > 0 ? 1 : 0;
+    }
+
+    /**
+     * Planifie les créneaux de glace de la semaine type et affiche le planning ; il n'est
+     * enregistré que s'il ne contient aucun conflit.
+     */
+    private int planIce(int seconds, boolean save) throws SQLException {
+        if (seconds <= 0) throw new IllegalArgumentException("Durée de recherche invalide : " + seconds);
+        IceScheduleDAO iceDAO = new IceScheduleDAO();
+        List<IceSlot> slots = iceDAO.findSlots();
+        Map<String, Integer> demands = iceDAO.findDemands();
+        if (slots.isEmpty() || demands.isEmpty()) {
+            throw new IllegalArgumentException("Aucun créneau ou aucun besoin de glace défini");
+        }
+        IceScheduler.Plan plan = new IceScheduler().plan(slots, demands,
+                IceScheduler.coachesByCategory(new CoachDAO().findAll()), seconds * 1000L);
+        for (IceSlot slot : plan.getSlots()) {
+            if (slot.getCategory() != null) out.println("  " + slot);
+        }
+        plan.getShortfall().forEach((category, missing) ->
+                out.println("  " + category + " : " + (missing > 0 ? missing + " créneau(x) manquant(s)" : -missing + " créneau(x) en trop")));
+        if (!plan.isFeasible()) {
+            System.err.println("❌ " + plan.getConflicts() + " conflit(s) de coach ou d'équipe, planning non enregistré");
+            return 1;
+        }
+        if (save) iceDAO.saveAssignments(plan.getSlots());
+        out.println("✅ Planning " + (save ? "enregistré" : "calculé") + " en " + plan.getMillis() + " ms ("
+                + plan.getIterations() + " essais)");
+        return 0;
+    }
+
+    // ---------------------------------------------------------------------------------
+    // CSV
+    // ---------------------------------------------------------------------------------
+
+    /** Découpe une ligne CSV (champs éventuellement entre guillemets, {@code ""} pour un guillemet). */
+    static List<String> parseCsvLine(String line, char sep) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cur.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == sep) {
+                cells.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        cells.add(cur.toString());
+        return cells;
+    }
+}
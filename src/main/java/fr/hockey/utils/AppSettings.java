@@ -1,5 +1,7 @@
 package fr.hockey.utils;
 
+import fr.hockey.models.Club;
+
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -19,6 +21,7 @@ import java.util.Properties;
  *     <li>le chemin vers le logo du club ;</li>
  *     <li>la couleur du thème ;</li>
  *     <li>les informations légales affichées dans le tableau de bord ;</li>
+ *     <li>le serveur SMTP des relances de cotisation ;</li>
  *     <li>tout autre paramètre persistant via un fichier properties.</li>
  * </ul>
  *
@@ -41,6 +44,18 @@ public class AppSettings {
     // --- Clés des propriétés générales ---
     private static final String KEY_LOGO_PATH = "logoPath";
     private static final String KEY_THEME_COLOR = "themeColor";
+    private static final String KEY_SLOW_QUERY_MS = "diagnostics.slowQueryMs";
+    private static final String KEY_BCRYPT_COST = "security.bcryptCost";
+    private static final String KEY_OFFLINE_REPLICA = "offline.replica";
+    private static final String KEY_API_TOKEN = "api.token";
+    private static final String KEY_SMTP_HOST = "smtp.host";
+    private static final String KEY_SMTP_PORT = "smtp.port";
+    private static final String KEY_SMTP_SSL = "smtp.ssl";
+    private static final String KEY_SMTP_USER = "smtp.user";
+    private static final String KEY_SMTP_PASSWORD = "smtp.password";
+    private static final String KEY_SMTP_FROM = "smtp.from";
+    private static final String KEY_SMTP_CONNECTIONS = "smtp.connections";
+    private static final String KEY_SMTP_RATE = "smtp.ratePerSecond";
 
     // --- Clés des propriétés liées aux informations légales ---
     private static final String KEY_LEGAL_NAME = "legal.name";
@@ -177,6 +192,199 @@ public class AppSettings {
         } catch (IOException ignored) {}
     }
 
+    // -------------------------------------------------------------------------
+    //  DIAGNOSTICS
+    // -------------------------------------------------------------------------
+
+    /**
+     * Seuil au-delà duquel une requête SQL est consignée dans le journal des requêtes lentes.
+     *
+     * @return seuil en millisecondes (200 par défaut)
+     */
+    public static long getSlowQueryThresholdMs() {
+        try {
+            String val = load().getProperty(KEY_SLOW_QUERY_MS);
+            if (val != null && !val.isBlank()) {
+                return Long.parseLong(val.trim());
+            }
+        } catch (IOException | NumberFormatException ignored) {}
+        return 200L;
+    }
+
+    /**
+     * Sauvegarde le seuil des requêtes lentes.
+     *
+     * @param ms seuil en millisecondes
+     */
+    public static void setSlowQueryThresholdMs(long ms) {
+        setProp(KEY_SLOW_QUERY_MS, String.valueOf(ms));
+    }
+
+    // -------------------------------------------------------------------------
+    //  SÉCURITÉ
+    // -------------------------------------------------------------------------
+
+    /**
+     * Facteur de coût BCrypt utilisé pour les nouveaux hashs de mots de passe.
+     * Chaque incrément double le temps de vérification d'une connexion.
+     *
+     * @return coût entre 4 et 30 (12 par défaut, coût des comptes existants)
+     */
+    public static int getBcryptCost() {
+        try {
+            String val = load().getProperty(KEY_BCRYPT_COST);
+            if (val != null && !val.isBlank()) {
+                return Math.max(4, Math.min(30, Integer.parseInt(val.trim())));
+            }
+        } catch (IOException | NumberFormatException ignored) {}
+        return 12;
+    }
+
+    /**
+     * @return true si un coût BCrypt a été explicitement configuré
+     */
+    public static boolean isBcryptCostConfigured() {
+        try {
+            String val = load().getProperty(KEY_BCRYPT_COST);
+            return val != null && !val.isBlank();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Sauvegarde le facteur de coût BCrypt.
+     *
+     * @param cost coût entre 4 et 30
+     */
+    public static void setBcryptCost(int cost) {
+        setProp(KEY_BCRYPT_COST, String.valueOf(cost));
+    }
+
+    // -------------------------------------------------------------------------
+    //  MODE HORS LIGNE
+    // -------------------------------------------------------------------------
+
+    /**
+     * Indique si la réplique locale (lectures locales, mode hors ligne) est activée.
+     *
+     * @return true par défaut
+     */
+    public static boolean isOfflineReplicaEnabled() {
+        try {
+            String val = load().getProperty(KEY_OFFLINE_REPLICA);
+            if (val != null && !val.isBlank()) {
+                return Boolean.parseBoolean(val.trim());
+            }
+        } catch (IOException ignored) {}
+        return true;
+    }
+
+    /**
+     * Active ou désactive la réplique locale (pris en compte au prochain démarrage).
+     *
+     * @param enabled true pour l'activer
+     */
+    public static void setOfflineReplicaEnabled(boolean enabled) {
+        setProp(KEY_OFFLINE_REPLICA, String.valueOf(enabled));
+    }
+
+    /** @return dossier de la réplique locale */
+    public static Path getReplicaDir() {
+        return CONFIG_DIR.resolve("replica");
+    }
+
+    /** @return journal des actions de match saisies au banc */
+    public static Path getGameLogFile() {
+        return CONFIG_DIR.resolve("games").resolve("events.log");
+    }
+
+    // -------------------------------------------------------------------------
+    //  API REST
+    // -------------------------------------------------------------------------
+
+    /**
+     * Jeton d'accès de l'API REST d'un club : chaque club a le sien, un jeton ne donne
+     * accès qu'aux données de son club.
+     *
+     * @param clubId identifiant du club
+     * @return jeton, ou chaîne vide s'il n'a pas encore été généré
+     */
+    public static String getApiToken(int clubId) {
+        return getProp(apiTokenKey(clubId));
+    }
+
+    /**
+     * Sauvegarde le jeton d'accès de l'API REST d'un club.
+     *
+     * @param clubId identifiant du club
+     * @param token  nouveau jeton
+     */
+    public static void setApiToken(int clubId, String token) {
+        setProp(apiTokenKey(clubId), token);
+    }
+
+    /** Le club par défaut garde la clé historique {@code api.token}. */
+    private static String apiTokenKey(int clubId) {
+        return clubId == Club.DEFAULT_ID ? KEY_API_TOKEN : KEY_API_TOKEN + "." + clubId;
+    }
+
+    // -------------------------------------------------------------------------
+    //  RELANCES PAR E-MAIL (réglages édités dans le fichier)
+    // -------------------------------------------------------------------------
+
+    /** @return serveur SMTP, {@code localhost} par défaut */
+    public static String getSmtpHost() {
+        String host = getProp(KEY_SMTP_HOST);
+        return host.isEmpty() ? "localhost" : host.trim();
+    }
+
+    /** @return true si la connexion SMTP est chiffrée d'emblée (SMTPS) */
+    public static boolean isSmtpSsl() {
+        return Boolean.parseBoolean(getProp(KEY_SMTP_SSL).trim());
+    }
+
+    /** @return port SMTP, 465 en SMTPS et 25 sinon par défaut */
+    public static int getSmtpPort() {
+        return getIntProp(KEY_SMTP_PORT, isSmtpSsl() ? 465 : 25);
+    }
+
+    /** @return identifiant SMTP, ou chaîne vide sans authentification */
+    public static String getSmtpUser() {
+        return getProp(KEY_SMTP_USER);
+    }
+
+    /** @return mot de passe SMTP */
+    public static String getSmtpPassword() {
+        return getProp(KEY_SMTP_PASSWORD);
+    }
+
+    /** @return adresse d'expédition, à défaut le contact des informations légales */
+    public static String getSmtpFrom() {
+        String from = getProp(KEY_SMTP_FROM);
+        return from.isEmpty() ? getLegalContact() : from.trim();
+    }
+
+    /** @return connexions SMTP simultanées (4 par défaut) */
+    public static int getSmtpConnections() {
+        return Math.max(1, getIntProp(KEY_SMTP_CONNECTIONS, 4));
+    }
+
+    /** @return nombre maximal de messages envoyés par seconde (20 par défaut) */
+    public static int getSmtpRatePerSecond() {
+        return Math.max(1, getIntProp(KEY_SMTP_RATE, 20));
+    }
+
+    private static int getIntProp(String key, int defaultValue) {
+        String val = getProp(key);
+        if (val.isEmpty()) return defaultValue;
+        try {
+            return Integer.parseInt(val.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
     // -------------------------------------------------------------------------
     //  INFORMATIONS LÉGALES
     // -------------------------------------------------------------------------
@@ -0,0 +1,395 @@
+package fr.hockey.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Ensemble d'entiers positifs compressé, sur le modèle des « roaring bitmaps ».
+ *
+ * <p>Les valeurs sont réparties par tranches de 65 536 (16 bits de poids fort). Chaque
+ * tranche non vide est un conteneur : tableau trié de 16 bits de poids faible tant
+ * qu'il contient au plus {@link #ARRAY_MAX} valeurs, table de bits de 8 Ko au-delà.
+ * Quelques dizaines de joueurs présents tiennent ainsi en quelques octets, et les
+ * unions, intersections et différences se font conteneur par conteneur.</p>
+ *
+ * <p>Les opérations ensemblistes renvoient un nouvel ensemble et ne modifient pas leurs
+ * opérandes.</p>
+ */
+public final class CompactBitmap {
+
+    /** Au-delà, un conteneur tableau devient une table de bits. */
+    static final int ARRAY_MAX = 4096;
+
+    private static final int WORDS = 1024;
+    private static final int FORMAT = 1;
+
+    /** Conteneur d'une tranche : tableau trié ({@code words == null}) ou table de bits. */
+    private static final class Container {
+        char[] values;
+        long[] words;
+        int cardinality;
+
+        static Container ofArray(char[] values, int cardinality) {
+            Container c = new Container();
+            c.values = values;
+            c.cardinality = cardinality;
+            return c;
+        }
+
+        /** Table de bits, repassée en tableau si elle est assez creuse. */
+        static Container ofWords(long[] words) {
+            int card = 0;
+            for (long w : words) card += Long.bitCount(w);
+            if (card > ARRAY_MAX) {
+                Container c = new Container();
+                c.words = words;
+                c.cardinality = card;
+                return c;
+            }
+            char[] values = new char[card];
+            int n = 0;
+            for (int i = 0; i < WORDS; i++) {
+                long w = words[i];
+                while (w != 0) {
+                    values[n++] = (char) (i * 64 + Long.numberOfTrailingZeros(w));
+                    w &= w - 1;
+                }
+            }
+            return ofArray(values, card);
+        }
+
+        boolean contains(char low) {
+            if (words != null) return (words[low >>> 6] & (1L << low)) != 0;
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        /** @return true si la valeur a été ajoutée */
+        boolean add(char low) {
+            if (words != null) {
+                long bit = 1L << low;
+                if ((words[low >>> 6] & bit) != 0) return false;
+                words[low >>> 6] |= bit;
+                cardinality++;
+                return true;
+            }
+            int i = Arrays.binarySearch(values, 0, cardinality, low);
+            if (i >= 0) return false;
+            i = -i - 1;
+            if (cardinality == ARRAY_MAX) {
+                words = toWords();
+                values = null;
+                words[low >>> 6] |= 1L << low;
+                cardinality++;
+                return true;
+            }
+            if (cardinality == values.length) values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = low;
+            cardinality++;
+            return true;
+        }
+
+        long[] toWords() {
+            if (words != null) return words.clone();
+            long[] w = new long[WORDS];
+            for (int i = 0; i < cardinality; i++) w[values[i] >>> 6] |= 1L << values[i];
+            return w;
+        }
+
+        Container copy() {
+            return words != null ? ofWords(words.clone()) : ofArray(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        void forEach(int high, IntConsumer action) {
+            int base = high << 16;
+            if (words == null) {
+                for (int i = 0; i < cardinality; i++) action.accept(base | values[i]);
+                return;
+            }
+            for (int i = 0; i < WORDS; i++) {
+                long w = words[i];
+                while (w != 0) {
+                    action.accept(base | (i * 64 + Long.numberOfTrailingZeros(w)));
+                    w &= w - 1;
+                }
+            }
+        }
+
+        static Container or(Container a, Container b) {
+            if (a.words == null && b.words == null && a.cardinality + b.cardinality <= ARRAY_MAX) {
+                char[] out = new char[a.cardinality + b.cardinality];
+                int i = 0, j = 0, n = 0;
+                while (i < a.cardinality && j < b.cardinality) {
+                    char x = a.values[i], y = b.values[j];
+                    if (x < y) { out[n++] = x; i++; }
+                    else if (y < x) { out[n++] = y; j++; }
+                    else { out[n++] = x; i++; j++; }
+                }
+                while (i < a.cardinality) out[n++] = a.values[i++];
+                while (j < b.cardinality) out[n++] = b.values[j++];
+                return ofArray(out, n);
+            }
+            long[] w = a.toWords();
+            if (b.words != null) {
+                for (int i = 0; i < WORDS; i++) w[i] |= b.words[i];
+            } else {
+                for (int i = 0; i < b.cardinality; i++) w[b.values[i] >>> 6] |= 1L << b.values[i];
+            }
+            return ofWords(w);
+        }
+
+        static Container and(Container a, Container b) {
+            if (a.words != null && b.words != null) {
+                long[] w = new long[WORDS];
+                for (int i = 0; i < WORDS; i++) w[i] = a.words[i] & b.words[i];
+                return ofWords(w);
+            }
+            Container small = a.words == null ? a : b;
+            Container other = small == a ? b : a;
+            char[] out = new char[small.cardinality];
+            int n = 0;
+            for (int i = 0; i < small.cardinality; i++) {
+                if (other.contains(small.values[i])) out[n++] = small.values[i];
+            }
+            return ofArray(out, n);
+        }
+
+        static Container andNot(Container a, Container b) {
+            if (a.words == null) {
+                char[] out = new char[a.cardinality];
+                int n = 0;
+                for (int i = 0; i < a.cardinality; i++) {
+                    if (!b.contains(a.values[i])) out[n++] = a.values[i];
+                }
+                return ofArray(out, n);
+            }
+            long[] w = a.words.clone();
+            if (b.words != null) {
+                for (int i = 0; i < WORDS; i++) w[i] &= ~b.words[i];
+            } else {
+                for (int i = 0; i < b.cardinality; i++) w[b.values[i] >>> 6] &= ~(1L << b.values[i]);
+            }
+            return ofWords(w);
+        }
+    }
+
+    /** Tranches non vides, par poids fort croissant. */
+    private char[] keys = new char[0];
+    private Container[] containers = new Container[0];
+    private int size;
+
+    /**
+     * @param values valeurs (positives ou nulles)
+     * @return ensemble contenant ces valeurs
+     */
+    public static CompactBitmap of(int... values) {
+        CompactBitmap b = new CompactBitmap();
+        for (int v : values) b.add(v);
+        return b;
+    }
+
+    /**
+     * Ajoute une valeur.
+     *
+     * @param value entier positif ou nul
+     * @return true si la valeur n'y était pas
+     */
+    public boolean add(int value) {
+        if (value < 0) throw new IllegalArgumentException("Valeur négative : " + value);
+        char high = (char) (value >>> 16);
+        int i = Arrays.binarySearch(keys, 0, size, high);
+        if (i < 0) {
+            i = -i - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(4, size * 2));
+                containers = Arrays.copyOf(containers, keys.length);
+            }
+            System.arraycopy(keys, i, keys, i + 1, size - i);
+            System.arraycopy(containers, i, containers, i + 1, size - i);
+            keys[i] = high;
+            containers[i] = Container.ofArray(new char[4], 0);
+            size++;
+        }
+        return containers[i].add((char) value);
+    }
+
+    /**
+     * @param value entier
+     * @return true si l'ensemble contient la valeur
+     */
+    public boolean contains(int value) {
+        if (value < 0) return false;
+        int i = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        return i >= 0 && containers[i].contains((char) value);
+    }
+
+    /** @return nombre de valeurs */
+    public int getCardinality() {
+        int n = 0;
+        for (int i = 0; i < size; i++) n += containers[i].cardinality;
+        return n;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Parcourt les valeurs par ordre croissant.
+     *
+     * @param action traitement de chaque valeur
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) containers[i].forEach(keys[i], action);
+    }
+
+    /** @return valeurs par ordre croissant */
+    public int[] toArray() {
+        int[] out = new int[getCardinality()];
+        int[] n = new int[1];
+        forEach(v -> out[n[0]++] = v);
+        return out;
+    }
+
+    /** @return union des deux ensembles */
+    public CompactBitmap or(CompactBitmap other) {
+        CompactBitmap r = new CompactBitmap();
+        int i = 0, j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                r.append(keys[i], containers[i].copy());
+                i++;
+            } else if (i == size || other.keys[j] < keys[i]) {
+                r.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                r.append(keys[i], Container.or(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return r;
+    }
+
+    /** @return intersection des deux ensembles */
+    public CompactBitmap and(CompactBitmap other) {
+        CompactBitmap r = new CompactBitmap();
+        int i = 0, j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (other.keys[j] < keys[i]) {
+                j++;
+            } else {
+                r.append(keys[i], Container.and(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return r;
+    }
+
+    /** @return valeurs de cet ensemble absentes de l'autre */
+    public CompactBitmap andNot(CompactBitmap other) {
+        CompactBitmap r = new CompactBitmap();
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) j++;
+            if (j < other.size && other.keys[j] == keys[i]) {
+                r.append(keys[i], Container.andNot(containers[i], other.containers[j]));
+            } else {
+                r.append(keys[i], containers[i].copy());
+            }
+        }
+        return r;
+    }
+
+    /** Ajoute une tranche en fin d'ensemble (poids fort croissant), si elle n'est pas vide. */
+    private void append(char high, Container c) {
+        if (c.cardinality == 0) return;
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, Math.max(4, size * 2));
+            containers = Arrays.copyOf(containers, keys.length);
+        }
+        keys[size] = high;
+        containers[size++] = c;
+    }
+
+    /**
+     * Forme sérialisée, pour le stockage en base.
+     *
+     * @return octets ({@link #fromBytes})
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8 + size * 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT);
+            out.writeShort(size);
+            for (int i = 0; i < size; i++) {
+                Container c = containers[i];
+                out.writeChar(keys[i]);
+                out.writeBoolean(c.words != null);
+                if (c.words != null) {
+                    for (long w : c.words) out.writeLong(w);
+                } else {
+                    out.writeShort(c.cardinality);
+                    for (int k = 0; k < c.cardinality; k++) out.writeChar(c.values[k]);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param data octets produits par {@link #toBytes()} (null ou vide : ensemble vide)
+     * @return ensemble relu
+     * @throws IllegalArgumentException si les octets ne sont pas une forme valide
+     */
+    public static CompactBitmap fromBytes(byte[] data) {
+        CompactBitmap b = new CompactBitmap();
+        if (data == null || data.length == 0) return b;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readByte() != FORMAT) throw new IllegalArgumentException("Format de présences inconnu");
+            int count = in.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                char high = in.readChar();
+                if (in.readBoolean()) {
+                    long[] words = new long[WORDS];
+                    for (int k = 0; k < WORDS; k++) words[k] = in.readLong();
+                    b.append(high, Container.ofWords(words));
+                } else {
+                    int card = in.readUnsignedShort();
+                    char[] values = new char[card];
+                    for (int k = 0; k < card; k++) values[k] = in.readChar();
+                    b.append(high, Container.ofArray(values, card));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Présences illisibles", e);
+        }
+        return b;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CompactBitmap && Arrays.equals(toArray(), ((CompactBitmap) o).toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,89 @@
+package fr.hockey.utils;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Enregistrement Java Flight Recorder "en continu" de l'application.
+ *
+ * <p>Au démarrage, un enregistrement circulaire en mémoire est lancé avec la configuration
+ * JFR {@code default} (surcoût ~1 %) et les événements de {@link FlightRecorderEvents}.
+ * Seules les dernières minutes sont conservées. Lorsqu'un utilisateur signale un blocage,
+ * {@link #dump()} écrit ces minutes dans un fichier {@code .jfr} analysable hors ligne
+ * (JDK Mission Control, {@code jfr print}).</p>
+ *
+ * <p>Les fichiers sont écrits dans {@code ~/.hockeyclubmanager/diagnostics/}.</p>
+ */
+public final class DiagnosticsRecorder {
+
+    private static final Path DIAGNOSTICS_DIR = Paths.get(System.getProperty("user.home"),
+            ".hockeyclubmanager", "diagnostics");
+
+    /** Durée d'historique conservée en mémoire. */
+    private static final Duration MAX_AGE = Duration.ofMinutes(5);
+
+    private static Recording recording;
+
+    private DiagnosticsRecorder() {}
+
+    /**
+     * Démarre l'enregistrement continu s'il ne l'est pas déjà.
+     * Un échec (JFR indisponible) est ignoré : l'application fonctionne sans.
+     */
+    public static synchronized void startContinuous() {
+        if (recording != null) return;
+        try {
+            Recording r = new Recording(Configuration.getConfiguration("default"));
+            r.setName("Hockey Club Manager");
+            r.setToDisk(false);
+            r.setMaxAge(MAX_AGE);
+            r.enable(FlightRecorderEvents.DaoCall.class).withThreshold(Duration.ZERO);
+            r.enable(FlightRecorderEvents.ViewLoad.class).withThreshold(Duration.ZERO);
+            r.enable(FlightRecorderEvents.Login.class).withThreshold(Duration.ZERO);
+            r.enable(FlightRecorderEvents.PdfRender.class).withThreshold(Duration.ZERO);
+            r.start();
+            recording = r;
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            System.err.println("Enregistrement JFR indisponible : " + e.getMessage());
+        }
+    }
+
+    /** @return true si l'enregistrement continu est actif */
+    public static synchronized boolean isRunning() {
+        return recording != null;
+    }
+
+    /**
+     * Écrit les dernières minutes enregistrées dans un fichier JFR horodaté.
+     *
+     * @return chemin du fichier écrit
+     * @throws IOException si l'écriture échoue ou si aucun enregistrement n'est actif
+     */
+    public static synchronized Path dump() throws IOException {
+        if (recording == null) {
+            throw new IOException("Aucun enregistrement JFR actif");
+        }
+        Files.createDirectories(DIAGNOSTICS_DIR);
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path file = DIAGNOSTICS_DIR.resolve("diagnostic-" + stamp + ".jfr");
+        recording.dump(file);
+        return file;
+    }
+
+    /** Arrête l'enregistrement continu (fermeture de l'application). */
+    public static synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package fr.hockey.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événements Java Flight Recorder propres à l'application.
+ *
+ * <p>Ils ne coûtent quasiment rien tant qu'aucun enregistrement JFR n'est actif
+ * ({@link Event#isEnabled()} renvoie false). Ils sont activés par
+ * {@link DiagnosticsRecorder} et visibles dans JDK Mission Control
+ * sous la catégorie "Hockey Club Manager".</p>
+ */
+public final class FlightRecorderEvents {
+
+    private FlightRecorderEvents() {}
+
+    /** Appel d'une méthode DAO : de l'obtention de la connexion à sa fermeture. */
+    @Name("fr.hockey.DaoCall")
+    @Label("Appel DAO")
+    @Category({"Hockey Club Manager", "Base de données"})
+    @Description("Durée d'une méthode DAO, requêtes et mappage compris")
+    @StackTrace(false)
+    public static class DaoCall extends Event {
+        @Label("Méthode")
+        public String method;
+
+        @Label("Requêtes exécutées")
+        public int statements;
+
+        @Label("Lignes")
+        @Description("Lignes lues ou modifiées")
+        public long rows;
+    }
+
+    /** Chargement d'une vue FXML dans le tableau de bord. */
+    @Name("fr.hockey.ViewLoad")
+    @Label("Chargement de vue")
+    @Category({"Hockey Club Manager", "Interface"})
+    @StackTrace(false)
+    public static class ViewLoad extends Event {
+        @Label("Vue")
+        public String fxml;
+
+        @Label("Nœuds")
+        @Description("Nombre de nœuds du graphe de scène chargé")
+        public int nodes;
+
+        @Label("Depuis le cache")
+        public boolean cached;
+
+        @Label("Succès")
+        public boolean success;
+    }
+
+    /** Tentative d'authentification depuis l'écran de connexion. */
+    @Name("fr.hockey.Login")
+    @Label("Authentification")
+    @Category({"Hockey Club Manager", "Sécurité"})
+    @StackTrace(false)
+    public static class Login extends Event {
+        @Label("Type de compte")
+        @Description("ADMIN, COACH ou vide si échec")
+        public String accountType;
+
+        @Label("Succès")
+        public boolean success;
+    }
+
+    /** Génération d'une feuille de match PDF. */
+    @Name("fr.hockey.PdfRender")
+    @Label("Génération PDF")
+    @Category({"Hockey Club Manager", "Documents"})
+    @StackTrace(false)
+    public static class PdfRender extends Event {
+        @Label("Catégorie")
+        public String category;
+
+        @Label("Joueurs")
+        public int players;
+
+        @Label("Pages")
+        public int pages;
+
+        @Label("Taille du fichier")
+        @DataAmount
+        public long fileSize;
+    }
+}
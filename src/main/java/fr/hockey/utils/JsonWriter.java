@@ -0,0 +1,145 @@
+package fr.hockey.utils;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Écriture JSON en flux : chaque valeur est écrite directement dans le {@link Writer}
+ * sous-jacent, sans construire de document en mémoire.
+ *
+ * <pre>
+ *   json.beginObject().name("id").value(12).name("nom").value("Dupont").endObject();
+ * </pre>
+ *
+ * <p>Les virgules sont placées automatiquement ; l'appelant est responsable de
+ * l'alternance nom / valeur dans les objets.</p>
+ */
+public class JsonWriter implements Closeable, Flushable {
+
+    private final Writer out;
+    /** Pour chaque objet ou tableau ouvert : true tant qu'aucun élément n'a été écrit. */
+    private final Deque<Boolean> first = new ArrayDeque<>();
+    /** true juste après {@link #name(String)} : la valeur suivante ne prend pas de virgule. */
+    private boolean afterName;
+
+    public JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        separator();
+        out.write('{');
+        first.push(true);
+        return this;
+    }
+
+    public JsonWriter endObject() throws IOException {
+        first.pop();
+        out.write('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        separator();
+        out.write('[');
+        first.push(true);
+        return this;
+    }
+
+    public JsonWriter endArray() throws IOException {
+        first.pop();
+        out.write(']');
+        return this;
+    }
+
+    public JsonWriter name(String name) throws IOException {
+        separator();
+        string(name);
+        out.write(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) throws IOException {
+        separator();
+        if (value == null) {
+            out.write("null");
+        } else {
+            string(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        separator();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(double value) throws IOException {
+        separator();
+        out.write(Double.isFinite(value) ? Double.toString(value) : "null");
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        separator();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonWriter nullValue() throws IOException {
+        separator();
+        out.write("null");
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void separator() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (first.isEmpty()) return;
+        if (first.peek()) {
+            first.pop();
+            first.push(false);
+        } else {
+            out.write(',');
+        }
+    }
+
+    private void string(String s) throws IOException {
+        out.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
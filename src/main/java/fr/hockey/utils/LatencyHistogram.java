@@ -0,0 +1,102 @@
+package fr.hockey.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogramme de latences à seaux logarithmiques (principe de HdrHistogram).
+ *
+ * <p>Chaque puissance de deux est découpée en {@value #SUB_BUCKETS} sous-seaux,
+ * ce qui garantit une erreur relative d'environ 3 % quel que soit l'ordre de grandeur,
+ * pour une empreinte mémoire fixe (~10 Ko). L'enregistrement est sans verrou
+ * et peut être appelé depuis plusieurs threads.</p>
+ *
+ * <p>Les valeurs sont exprimées en microsecondes.</p>
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /** Plus grande valeur distinguée : 2^40 µs (~12 jours), au-delà les valeurs sont plafonnées. */
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(SUB_BUCKETS + (MAX_EXPONENT - SUB_BITS + 1) * SUB_BUCKETS);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalValue = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Enregistre une mesure.
+     *
+     * @param micros durée en microsecondes (les valeurs négatives sont ramenées à 0)
+     */
+    public void record(long micros) {
+        long v = Math.min(Math.max(micros, 0), MAX_VALUE);
+        counts.incrementAndGet(indexOf(v));
+        totalCount.incrementAndGet();
+        totalValue.addAndGet(v);
+        maxValue.accumulateAndGet(v, Math::max);
+    }
+
+    /** @return nombre de mesures enregistrées */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /** @return moyenne des mesures en microsecondes (0 si vide) */
+    public double getMean() {
+        long n = totalCount.get();
+        return n == 0 ? 0 : (double) totalValue.get() / n;
+    }
+
+    /** @return plus grande mesure enregistrée en microsecondes */
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    /**
+     * Retourne la valeur en dessous de laquelle se trouve le pourcentage demandé des mesures.
+     * La valeur renvoyée est la borne haute du seau concerné.
+     *
+     * @param percentile pourcentage entre 0 et 100 (ex. 95.0)
+     * @return latence en microsecondes
+     */
+    public long getValueAtPercentile(double percentile) {
+        long n = totalCount.get();
+        if (n == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(n * Math.min(percentile, 100.0) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValueIn(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /** Remet l'histogramme à zéro. */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) counts.set(i, 0);
+        totalCount.set(0);
+        totalValue.set(0);
+        maxValue.set(0);
+    }
+
+    static int indexOf(long v) {
+        if (v < SUB_BUCKETS) return (int) v;
+        int exponent = 63 - Long.numberOfLeadingZeros(v);
+        int shift = exponent - SUB_BITS;
+        int sub = (int) (v >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + (exponent - SUB_BITS) * SUB_BUCKETS + sub;
+    }
+
+    static long highestValueIn(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,76 @@
+package fr.hockey.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Modèle de message à variables {@code {{nom}}}, compilé une seule fois.
+ *
+ * <p>Le texte est découpé à la compilation en parties fixes et en variables ; le rendu
+ * se limite ensuite à concaténer, sans nouvelle analyse du modèle. Les modèles compilés
+ * sont conservés dans un cache par texte source, partagé par les envois en parallèle.</p>
+ *
+ * <p>Une variable sans valeur fait échouer le rendu plutôt que d'envoyer un message
+ * incomplet.</p>
+ */
+public final class MailTemplate {
+
+    private static final Map<String, MailTemplate> CACHE = new ConcurrentHashMap<>();
+
+    /** Parties fixes : une de plus que de variables. */
+    private final String[] literals;
+    private final String[] names;
+
+    private MailTemplate(String[] literals, String[] names) {
+        this.literals = literals;
+        this.names = names;
+    }
+
+    /**
+     * Retourne le modèle compilé d'un texte, depuis le cache s'il a déjà été compilé.
+     *
+     * @param source texte du modèle
+     * @return modèle compilé
+     * @throws IllegalArgumentException si une variable n'est pas fermée
+     */
+    public static MailTemplate compile(String source) {
+        return CACHE.computeIfAbsent(source, MailTemplate::parse);
+    }
+
+    private static MailTemplate parse(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf("{{", pos);
+            if (open < 0) break;
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) throw new IllegalArgumentException("Variable non fermée à la position " + open);
+            literals.add(source.substring(pos, open));
+            names.add(source.substring(open + 2, close).trim());
+            pos = close + 2;
+        }
+        literals.add(source.substring(pos));
+        return new MailTemplate(literals.toArray(new String[0]), names.toArray(new String[0]));
+    }
+
+    /**
+     * Produit le texte du message.
+     *
+     * @param values valeurs des variables
+     * @return texte rendu
+     * @throws IllegalArgumentException si une variable n'a pas de valeur
+     */
+    public String render(Map<String, String> values) {
+        StringBuilder sb = new StringBuilder(literals[0].length() * 2 + 64);
+        sb.append(literals[0]);
+        for (int i = 0; i < names.length; i++) {
+            String value = values.get(names[i]);
+            if (value == null) throw new IllegalArgumentException("Variable sans valeur : " + names[i]);
+            sb.append(value).append(literals[i + 1]);
+        }
+        return sb.toString();
+    }
+}
@@ -1,5 +1,6 @@
 package fr.hockey.utils;
 
+import fr.hockey.models.LineUp;
 import fr.hockey.models.Player;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
@@ -23,7 +24,8 @@ import java.util.stream.Collectors;
  *     <li>le logo du club (si disponible),</li>
  *     <li>la date du match,</li>
  *     <li>le nom de l’adversaire,</li>
- *     <li>la liste des joueurs triés par poste (gardien, défenseur, attaquant).</li>
+ *     <li>la liste des joueurs triés par poste (gardien, défenseur, attaquant),</li>
+ *     <li>ou, si une composition est fournie, les trios d'attaque et paires de défense.</li>
  * </ul>
  *
  * <p>L'affichage est paginé automatiquement pour éviter les dépassements.</p>
@@ -48,6 +50,34 @@ public class MatchSheetPdfGenerator {
                                 LocalDate matchDate,
                                 String opponent,
                                 File logoFile) throws IOException {
+        generate(category, players, null, outFile, matchDate, opponent, logoFile);
+    }
+
+    /**
+     * Génère la feuille de match au format PDF, avec les lignes proposées.
+     *
+     * @param category  catégorie (U9, U11, etc.)
+     * @param players   liste des joueurs de la catégorie
+     * @param lineUp    composition (gardiens, trios, paires, remplaçants) ; null pour la liste par poste
+     * @param outFile   fichier PDF de sortie
+     * @param matchDate date du match
+     * @param opponent  nom de l’adversaire
+     * @param logoFile  fichier image du logo du club (optionnel)
+     *
+     * @throws IOException en cas d’erreur de création du PDF
+     */
+    public static void generate(String category,
+                                List<Player> players,
+                                LineUp lineUp,
+                                File outFile,
+                                LocalDate matchDate,
+                                String opponent,
+                                File logoFile) throws IOException {
+
+        FlightRecorderEvents.PdfRender event = new FlightRecorderEvents.PdfRender();
+        event.category = category;
+        event.players = players == null ? 0 : players.size();
+        event.begin();
 
         try (PDDocument doc = new PDDocument()) {
 
@@ -71,12 +101,26 @@ public class MatchSheetPdfGenerator {
             w.newParagraph();
 
             // Sections de joueurs
-            w.writeSection("Gardiens", filterBy(players, "GARDIEN"));
-            w.writeSection("Défenseurs", filterBy(players, "DEFENSEUR"));
-            w.writeSection("Attaquants", filterBy(players, "ATTAQUANT"));
+            if (lineUp == null) {
+                w.writeSection("Gardiens", filterBy(players, "GARDIEN"));
+                w.writeSection("Défenseurs", filterBy(players, "DEFENSEUR"));
+                w.writeSection("Attaquants", filterBy(players, "ATTAQUANT"));
+            } else {
+                w.writeSection("Gardiens", lineUp.getGoalies());
+                w.writeGroups("Attaque", "Trio", lineUp.getForwardLines());
+                w.writeGroups("Défense", "Paire", lineUp.getDefensePairs());
+                if (!lineUp.getExtras().isEmpty()) w.writeSection("Remplaçants", lineUp.getExtras());
+            }
 
             w.close();
             doc.save(outFile);
+            event.pages = doc.getNumberOfPages();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.fileSize = outFile.length();
+                event.commit();
+            }
         }
     }
 
@@ -197,15 +241,36 @@ public class MatchSheetPdfGenerator {
             }
 
             for (Player p : list) {
-                String roleSuffix = "";
-                String role = safe(p.getRole());
-                if ("CAPITAINE".equalsIgnoreCase(role)) roleSuffix = " (Capitaine)";
-                else if ("ASSISTANT".equalsIgnoreCase(role)) roleSuffix = " (Assistant)";
+                writeLine(playerLine(p));
+            }
 
-                String num = p.getNumber() > 0 ? "N°" + p.getNumber() + " " : "";
+            newParagraph();
+        }
 
-                String line = num + safe(p.getLastName()) + " " + safe(p.getFirstName()) + roleSuffix;
-                writeLine(line);
+        /**
+         * Écrit une section de lignes (ex: trios d'attaque) : chaque groupe numéroté, suivi de ses joueurs.
+         *
+         * @param title  titre de la section
+         * @param label  libellé d'un groupe, numéroté à partir de 1
+         * @param groups groupes de joueurs, du premier au dernier
+         */
+        void writeGroups(String title, String label, List<List<Player>> groups) throws IOException {
+            setFontBold(14);
+            writeLine(title);
+
+            if (groups == null || groups.isEmpty()) {
+                setFontRegular(12);
+                writeLine("Aucun joueur");
+                return;
+            }
+
+            for (int i = 0; i < groups.size(); i++) {
+                setFontBold(12);
+                writeLine(label + " " + (i + 1));
+                setFontRegular(12);
+                for (Player p : groups.get(i)) {
+                    writeLine("    " + playerLine(p));
+                }
             }
 
             newParagraph();
@@ -223,6 +288,23 @@ public class MatchSheetPdfGenerator {
      */
     private static String safe(String s) { return s == null ? "" : s.trim(); }
 
+    /**
+     * Libellé d'un joueur : numéro, nom, prénom et rôle éventuel.
+     *
+     * @param p joueur
+     * @return texte de la ligne
+     */
+    private static String playerLine(Player p) {
+        String roleSuffix = "";
+        String role = safe(p.getRole());
+        if ("CAPITAINE".equalsIgnoreCase(role)) roleSuffix = " (Capitaine)";
+        else if ("ASSISTANT".equalsIgnoreCase(role)) roleSuffix = " (Assistant)";
+
+        String num = p.getNumber() > 0 ? "N°" + p.getNumber() + " " : "";
+
+        return num + safe(p.getLastName()) + " " + safe(p.getFirstName()) + roleSuffix;
+    }
+
     /**
      * Filtre une liste de joueurs selon leur poste.
      *
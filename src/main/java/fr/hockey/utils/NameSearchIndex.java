@@ -0,0 +1,219 @@
+package fr.hockey.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Index de recherche approchée sur des noms, par trigrammes.
+ *
+ * <ul>
+ *     <li>Les noms et les recherches sont normalisés : minuscules, accents retirés
+ *     ("Hélène" et "helene" sont équivalents), ponctuation remplacée par des espaces.</li>
+ *     <li>Chaque mot est découpé en trigrammes, précédés de deux espaces et suivis d'un
+ *     ("  du", " du", "dup", …, "nt ") ; un index inversé associe chaque trigramme aux noms
+ *     qui le contiennent.</li>
+ *     <li>Le score d'un nom est la part des trigrammes de la recherche qu'il contient :
+ *     une faute de frappe ne fait perdre que quelques trigrammes. Le dernier mot de la
+ *     recherche n'est pas terminé par un espace, pour la saisie au fil de la frappe.</li>
+ * </ul>
+ *
+ * <p>Les mises à jour ({@link #put}, {@link #remove}) sont incrémentales.
+ * Toutes les méthodes sont synchronisées.</p>
+ *
+ * @param <T> valeur associée à chaque nom (résultat de recherche)
+ */
+public final class NameSearchIndex<T> {
+
+    /** Score minimal (part des trigrammes de la recherche retrouvés) pour qu'un nom soit proposé. */
+    public static final double DEFAULT_MIN_SCORE = 0.5;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private final double minScore;
+    private final Map<String, Doc<T>> docs = new HashMap<>();
+    private final Map<String, Set<Doc<T>>> postings = new HashMap<>();
+
+    private static final class Doc<T> {
+        final String key;
+        final String normalized;
+        final T value;
+        final Set<String> grams;
+
+        Doc(String key, String normalized, T value, Set<String> grams) {
+            this.key = key;
+            this.normalized = normalized;
+            this.value = value;
+            this.grams = grams;
+        }
+    }
+
+    /**
+     * Résultat de recherche.
+     *
+     * @param <T> valeur associée au nom
+     */
+    public static final class Match<T> {
+        private final String key;
+        private final T value;
+        private final double score;
+
+        Match(String key, T value, double score) {
+            this.key = key;
+            this.value = value;
+            this.score = score;
+        }
+
+        public String getKey() { return key; }
+
+        public T getValue() { return value; }
+
+        /** @return part des trigrammes de la recherche présents dans le nom (0 à 1) */
+        public double getScore() { return score; }
+    }
+
+    public NameSearchIndex() {
+        this(DEFAULT_MIN_SCORE);
+    }
+
+    /**
+     * @param minScore score minimal d'un résultat (0 à 1)
+     */
+    public NameSearchIndex(double minScore) {
+        this.minScore = minScore;
+    }
+
+    /**
+     * Ajoute ou remplace un nom.
+     *
+     * @param key   identifiant unique (par exemple "player:12")
+     * @param name  nom indexé (prénom et nom)
+     * @param value valeur renvoyée par la recherche
+     */
+    public synchronized void put(String key, String name, T value) {
+        remove(key);
+        String normalized = normalize(name);
+        Doc<T> doc = new Doc<>(key, normalized, value, trigrams(normalized, true));
+        docs.put(key, doc);
+        for (String g : doc.grams) {
+            postings.computeIfAbsent(g, k -> new HashSet<>()).add(doc);
+        }
+    }
+
+    /**
+     * Retire un nom (sans effet s'il n'est pas indexé).
+     *
+     * @param key identifiant passé à {@link #put}
+     */
+    public synchronized void remove(String key) {
+        Doc<T> old = docs.remove(key);
+        if (old == null) return;
+        for (String g : old.grams) {
+            Set<Doc<T>> set = postings.get(g);
+            if (set != null) {
+                set.remove(old);
+                if (set.isEmpty()) postings.remove(g);
+            }
+        }
+    }
+
+    /** Vide l'index. */
+    public synchronized void clear() {
+        docs.clear();
+        postings.clear();
+    }
+
+    /** @return nombre de noms indexés */
+    public synchronized int size() {
+        return docs.size();
+    }
+
+    /**
+     * Recherche les noms les plus proches d'une saisie.
+     * Les résultats sont triés par score décroissant ; à score égal, un nom qui commence
+     * par la saisie passe devant, puis le plus court.
+     *
+     * @param query saisie de l'utilisateur
+     * @param limit nombre maximal de résultats
+     * @return résultats, vide si la saisie ne contient ni lettre ni chiffre
+     */
+    public synchronized List<Match<T>> search(String query, int limit) {
+        String normalized = normalize(query);
+        Set<String> grams = trigrams(normalized, false);
+        if (grams.isEmpty() || limit <= 0) return List.of();
+
+        Map<Doc<T>, Integer> shared = new HashMap<>();
+        for (String g : grams) {
+            Set<Doc<T>> set = postings.get(g);
+            if (set == null) continue;
+            for (Doc<T> d : set) shared.merge(d, 1, Integer::sum);
+        }
+
+        List<Doc<T>> candidates = new ArrayList<>();
+        Map<Doc<T>, Double> scores = new HashMap<>();
+        for (Map.Entry<Doc<T>, Integer> e : shared.entrySet()) {
+            double score = (double) e.getValue() / grams.size();
+            if (score >= minScore) {
+                candidates.add(e.getKey());
+                scores.put(e.getKey(), score);
+            }
+        }
+        candidates.sort(Comparator
+                .comparing((Doc<T> d) -> scores.get(d)).reversed()
+                .thenComparing(d -> !startsWithWord(d.normalized, normalized))
+                .thenComparingInt(d -> d.normalized.length())
+                .thenComparing(d -> d.normalized));
+
+        List<Match<T>> result = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (Doc<T> d : candidates) {
+            if (result.size() == limit) break;
+            result.add(new Match<>(d.key, d.value, scores.get(d)));
+        }
+        return result;
+    }
+
+    /**
+     * Normalise un texte pour la comparaison : minuscules, sans accents ni ponctuation.
+     *
+     * @param text texte libre (null accepté)
+     * @return mots séparés par un espace
+     */
+    public static String normalize(String text) {
+        if (text == null) return "";
+        String s = Normalizer.normalize(text, Normalizer.Form.NFD);
+        s = DIACRITICS.matcher(s).replaceAll("").toLowerCase(Locale.ROOT)
+                .replace("œ", "oe").replace("æ", "ae");
+        return SEPARATORS.matcher(s).replaceAll(" ").trim();
+    }
+
+    /**
+     * @param normalized   texte normalisé
+     * @param terminateLast false pour une saisie en cours : pas d'espace final au dernier mot
+     */
+    private static Set<String> trigrams(String normalized, boolean terminateLast) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (normalized.isEmpty()) return grams;
+        String[] words = normalized.split(" ");
+        for (int w = 0; w < words.length; w++) {
+            boolean last = w == words.length - 1;
+            String padded = "  " + words[w] + (last && !terminateLast ? "" : " ");
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    private static boolean startsWithWord(String normalized, String query) {
+        return normalized.startsWith(query) || normalized.contains(" " + query);
+    }
+}
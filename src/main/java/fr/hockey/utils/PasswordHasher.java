@@ -0,0 +1,106 @@
+package fr.hockey.utils;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+/**
+ * Hashage et vérification des mots de passe (BCrypt).
+ *
+ * <p>Le facteur de coût des nouveaux hashs est lu dans {@link AppSettings}
+ * ({@code security.bcryptCost}). Un hash produit avec un autre coût reste valide :
+ * {@link #needsRehash(String, int)} permet de le remplacer lors de la prochaine connexion réussie.
+ * Sans coût explicitement configuré, un hash n'est jamais remplacé par un hash moins coûteux.</p>
+ */
+public final class PasswordHasher {
+
+    /** Coût courant des nouveaux hashs. */
+    private static volatile int cost = AppSettings.getBcryptCost();
+
+    /** Vrai si le coût a été choisi explicitement (réglage ou {@link #setCost(int)}). */
+    private static volatile boolean configured = AppSettings.isBcryptCostConfigured();
+
+    private PasswordHasher() {}
+
+    /** @return coût BCrypt appliqué aux nouveaux hashs */
+    public static int getCost() {
+        return cost;
+    }
+
+    /**
+     * Modifie (et persiste) le coût BCrypt des nouveaux hashs.
+     *
+     * @param newCost coût entre 4 et 30
+     */
+    public static void setCost(int newCost) {
+        if (newCost < 4 || newCost > 30) {
+            throw new IllegalArgumentException("Coût BCrypt hors limites (4-30) : " + newCost);
+        }
+        cost = newCost;
+        configured = true;
+        AppSettings.setBcryptCost(newCost);
+    }
+
+    /**
+     * Hashe un mot de passe avec le coût courant.
+     *
+     * @param plain mot de passe en clair
+     * @return hash BCrypt
+     */
+    public static String hash(String plain) {
+        return hash(plain, cost);
+    }
+
+    /**
+     * Hashe un mot de passe avec un coût donné.
+     *
+     * @param plain    mot de passe en clair
+     * @param withCost coût BCrypt
+     * @return hash BCrypt
+     */
+    public static String hash(String plain, int withCost) {
+        return BCrypt.hashpw(plain, BCrypt.gensalt(withCost));
+    }
+
+    /**
+     * Vérifie un mot de passe. Un hash absent ou mal formé est refusé.
+     *
+     * @param plain  mot de passe en clair
+     * @param hashed hash stocké
+     * @return true si le mot de passe correspond
+     */
+    public static boolean verify(String plain, String hashed) {
+        if (plain == null || hashed == null) return false;
+        try {
+            return BCrypt.checkpw(plain, hashed);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Extrait le coût d'un hash BCrypt ({@code $2a$10$...} → 10).
+     *
+     * @param hashed hash stocké
+     * @return coût, ou -1 si le hash n'est pas reconnu
+     */
+    public static int costOf(String hashed) {
+        if (hashed == null || hashed.length() < 7 || hashed.charAt(0) != '$' || hashed.charAt(3) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hashed.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param hashed     hash stocké
+     * @param targetCost coût attendu
+     * @return true si le hash est moins coûteux que le coût attendu, ou s'il en diffère
+     *         alors que le coût a été explicitement configuré
+     */
+    public static boolean needsRehash(String hashed, int targetCost) {
+        int current = costOf(hashed);
+        return current < targetCost || (configured && current != targetCost);
+    }
+}
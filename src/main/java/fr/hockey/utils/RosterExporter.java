@@ -0,0 +1,248 @@
+package fr.hockey.utils;
+
+import fr.hockey.dao.PlayerDAO;
+import fr.hockey.models.License;
+import fr.hockey.models.Player;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Export des joueurs et de leurs licences en CSV ou XLSX, en flux.
+ *
+ * <p>Les lignes sont lues par {@link PlayerDAO#streamAll} (curseur en avant uniquement) et
+ * écrites une à une dans un canal fichier bufferisé : aucune liste de joueurs n'est
+ * construite, la mémoire reste constante quelle que soit la taille de l'effectif.</p>
+ *
+ * <p>Les colonnes sont celles de l'import en ligne de commande ({@link #COLUMNS}), ce qui
+ * permet de réimporter un export. Le fichier XLSX est un classeur minimal (une feuille,
+ * chaînes en ligne) écrit directement dans l'archive, sans bibliothèque tierce.</p>
+ */
+public final class RosterExporter {
+
+    /** Colonnes exportées, dans l'ordre. */
+    public static final String[] COLUMNS = {
+            "first_name", "last_name", "category", "role", "position", "number", "paid", "expiration_date", "amount",
+            "contact_email"
+    };
+
+    /** Taille du tampon d'écriture. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Formats disponibles.
+     */
+    public enum Format {
+        CSV, XLSX;
+
+        /**
+         * @param fileName nom du fichier de sortie
+         * @return XLSX pour l'extension {@code .xlsx}, CSV sinon
+         */
+        public static Format fromFileName(String fileName) {
+            return fileName.toLowerCase(Locale.ROOT).endsWith(".xlsx") ? XLSX : CSV;
+        }
+    }
+
+    private RosterExporter() {}
+
+    /**
+     * Exporte l'effectif (ou une catégorie) dans un fichier.
+     *
+     * @param dao      DAO des joueurs
+     * @param category catégorie, ou null pour tous les joueurs
+     * @param format   format de sortie
+     * @param file     fichier créé ou remplacé
+     * @return nombre de joueurs exportés
+     * @throws IOException  en cas d'erreur d'écriture
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public static long export(PlayerDAO dao, String category, Format format, Path file) throws IOException, SQLException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE)) {
+            return export(dao, category, format, out);
+        }
+    }
+
+    /**
+     * Exporte l'effectif (ou une catégorie) dans un flux, laissé ouvert.
+     *
+     * @param dao      DAO des joueurs
+     * @param category catégorie, ou null pour tous les joueurs
+     * @param format   format de sortie
+     * @param out      flux de sortie (de préférence bufferisé)
+     * @return nombre de joueurs exportés
+     * @throws IOException  en cas d'erreur d'écriture
+     * @throws SQLException en cas d'erreur SQL
+     */
+    public static long export(PlayerDAO dao, String category, Format format, OutputStream out) throws IOException, SQLException {
+        if (format == Format.XLSX) {
+            ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+            writeXlsxParts(zip);
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+            Writer w = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+            w.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+                    "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+            w.write("<row>");
+            for (String c : COLUMNS) xlsxString(w, c);
+            w.write("</row>");
+            long count = dao.streamAll(category, p -> xlsxRow(w, p));
+            w.write("</sheetData></worksheet>");
+            w.flush();
+            zip.closeEntry();
+            zip.finish();
+            return count;
+        }
+
+        Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        w.write('\uFEFF'); // BOM : Excel reconnaît l'UTF-8
+        w.write(String.join(",", COLUMNS));
+        w.write("\r\n");
+        long count = dao.streamAll(category, p -> csvRow(w, p));
+        w.flush();
+        return count;
+    }
+
+    // ---------------------------------------------------------------------------------
+    // CSV
+    // ---------------------------------------------------------------------------------
+
+    private static void csvRow(Writer w, Player p) throws IOException {
+        License l = p.getLicense();
+        csvCell(w, p.getFirstName());
+        w.write(',');
+        csvCell(w, p.getLastName());
+        w.write(',');
+        csvCell(w, p.getCategory());
+        w.write(',');
+        csvCell(w, p.getRole());
+        w.write(',');
+        csvCell(w, p.getPosition());
+        w.write(',');
+        if (p.getNumber() > 0) w.write(Integer.toString(p.getNumber()));
+        w.write(',');
+        if (l != null) {
+            w.write(l.isPaid() ? "true" : "false");
+            w.write(',');
+            w.write(l.getExpirationDate().toString());
+            w.write(',');
+            w.write(String.format(Locale.ROOT, "%.2f", l.getAmount()));
+        } else {
+            w.write(",,");
+        }
+        w.write(',');
+        csvCell(w, p.getContactEmail());
+        w.write("\r\n");
+    }
+
+    private static void csvCell(Writer w, String value) throws IOException {
+        if (value == null) return;
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == ';' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            w.write(value);
+            return;
+        }
+        w.write('"');
+        w.write(value.replace("\"", "\"\""));
+        w.write('"');
+    }
+
+    // ---------------------------------------------------------------------------------
+    // XLSX (SpreadsheetML)
+    // ---------------------------------------------------------------------------------
+
+    private static void xlsxRow(Writer w, Player p) throws IOException {
+        License l = p.getLicense();
+        w.write("<row>");
+        xlsxString(w, p.getFirstName());
+        xlsxString(w, p.getLastName());
+        xlsxString(w, p.getCategory());
+        xlsxString(w, p.getRole());
+        xlsxString(w, p.getPosition());
+        if (p.getNumber() > 0) {
+            w.write("<c><v>");
+            w.write(Integer.toString(p.getNumber()));
+            w.write("</v></c>");
+        } else {
+            w.write("<c/>");
+        }
+        if (l != null) {
+            w.write(l.isPaid() ? "<c t=\"b\"><v>1</v></c>" : "<c t=\"b\"><v>0</v></c>");
+            xlsxString(w, l.getExpirationDate().toString());
+            w.write("<c><v>");
+            w.write(String.format(Locale.ROOT, "%.2f", l.getAmount()));
+            w.write("</v></c>");
+        } else {
+            w.write("<c/><c/><c/>");
+        }
+        xlsxString(w, p.getContactEmail());
+        w.write("</row>");
+    }
+
+    private static void xlsxString(Writer w, String value) throws IOException {
+        if (value == null) {
+            w.write("<c/>");
+            return;
+        }
+        w.write("<c t=\"inlineStr\"><is><t>");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&': w.write("&amp;"); break;
+                case '<': w.write("&lt;"); break;
+                case '>': w.write("&gt;"); break;
+                case '"': w.write("&quot;"); break;
+                default:
+                    // Caractères de contrôle interdits en XML 1.0
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') w.write(c);
+            }
+        }
+        w.write("</t></is></c>");
+    }
+
+    /** Écrit les parties fixes du classeur (types, relations, classeur). */
+    private static void writeXlsxParts(ZipOutputStream zip) throws IOException {
+        part(zip, "[Content_Types].xml",
+                "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">" +
+                "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>" +
+                "<Default Extension=\"xml\" ContentType=\"application/xml\"/>" +
+                "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>" +
+                "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>" +
+                "</Types>");
+        part(zip, "_rels/.rels",
+                "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+                "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>" +
+                "</Relationships>");
+        part(zip, "xl/workbook.xml",
+                "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" " +
+                "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">" +
+                "<sheets><sheet name=\"Licenciés\" sheetId=\"1\" r:id=\"rId1\"/></sheets></workbook>");
+        part(zip, "xl/_rels/workbook.xml.rels",
+                "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+                "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet1.xml\"/>" +
+                "</Relationships>");
+    }
+
+    private static void part(ZipOutputStream zip, String name, String xml) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" + xml).getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,127 @@
+package fr.hockey.utils;
+
+import fr.hockey.models.License;
+import fr.hockey.models.Player;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Index mémoire d'une liste de joueurs, pour filtrer sans requête SQL.
+ *
+ * <p>Pour chaque valeur de catégorie, de poste, de rôle et de statut de licence,
+ * l'index conserve un {@link BitSet} des positions des joueurs concernés dans la liste.
+ * Une combinaison de filtres se réduit alors à l'intersection de quelques bitsets,
+ * calculée une seule fois par {@link #predicate}, puis chaque ligne est testée par
+ * une simple lecture de bit.</p>
+ *
+ * <p>L'index est figé : il est reconstruit lorsque la liste change. Un joueur absent
+ * de l'index (ajouté depuis sa construction) est évalué directement sur ses champs.</p>
+ */
+public final class RosterIndex {
+
+    /** Statut de licence d'un joueur, tel qu'affiché dans la liste des joueurs. */
+    public enum LicenseStatus {
+        NONE, UNPAID, PAID;
+
+        /** @return statut de la licence du joueur */
+        public static LicenseStatus of(Player player) {
+            License license = player.getLicense();
+            if (license == null) return NONE;
+            return license.isPaid() ? PAID : UNPAID;
+        }
+    }
+
+    private final int size;
+    private final Map<Player, Integer> positions;
+    private final Map<String, BitSet> byCategory = new HashMap<>();
+    private final Map<String, BitSet> byPosition = new HashMap<>();
+    private final Map<String, BitSet> byRole = new HashMap<>();
+    private final Map<LicenseStatus, BitSet> byLicense = new HashMap<>();
+
+    /**
+     * Construit l'index d'une liste (parcours unique).
+     *
+     * @param players joueurs chargés
+     */
+    public RosterIndex(List<Player> players) {
+        this.size = players.size();
+        this.positions = new IdentityHashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            Player p = players.get(i);
+            positions.put(p, i);
+            set(byCategory, p.getCategory(), i);
+            set(byPosition, p.getPosition(), i);
+            set(byRole, p.getRole(), i);
+            set(byLicense, LicenseStatus.of(p), i);
+        }
+    }
+
+    /** @return nombre de joueurs indexés */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Positions des joueurs répondant à tous les critères donnés.
+     *
+     * @param category catégorie, ou null pour toutes
+     * @param position poste, ou null pour tous
+     * @param role     rôle, ou null pour tous
+     * @param license  statut de licence, ou null pour tous
+     * @return nouveau bitset (modifiable par l'appelant)
+     */
+    public BitSet select(String category, String position, String role, LicenseStatus license) {
+        BitSet result = new BitSet(size);
+        result.set(0, size);
+        intersect(result, byCategory, category);
+        intersect(result, byPosition, position);
+        intersect(result, byRole, role);
+        intersect(result, byLicense, license);
+        return result;
+    }
+
+    /**
+     * Prédicat de filtrage (pour une {@code FilteredList}) sur les critères donnés.
+     * L'intersection est calculée ici, une fois ; le test d'une ligne est une lecture de bit.
+     *
+     * @param category catégorie, ou null pour toutes
+     * @param position poste, ou null pour tous
+     * @param role     rôle, ou null pour tous
+     * @param license  statut de licence, ou null pour tous
+     * @return prédicat sur les joueurs
+     */
+    public Predicate<Player> predicate(String category, String position, String role, LicenseStatus license) {
+        BitSet selection = select(category, position, role, license);
+        return player -> {
+            Integer i = positions.get(player);
+            if (i != null) return selection.get(i);
+            return matches(category, player.getCategory())
+                    && matches(position, player.getPosition())
+                    && matches(role, player.getRole())
+                    && (license == null || license == LicenseStatus.of(player));
+        };
+    }
+
+    private static <K> void set(Map<K, BitSet> index, K key, int i) {
+        index.computeIfAbsent(key, k -> new BitSet()).set(i);
+    }
+
+    private static <K> void intersect(BitSet result, Map<K, BitSet> index, K key) {
+        if (key == null) return;
+        BitSet bits = index.get(key);
+        if (bits == null) {
+            result.clear();
+        } else {
+            result.and(bits);
+        }
+    }
+
+    private static boolean matches(String wanted, String actual) {
+        return wanted == null || wanted.equals(actual);
+    }
+}
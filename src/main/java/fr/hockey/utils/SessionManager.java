@@ -1,6 +1,7 @@
 package fr.hockey.utils;
 
 import fr.hockey.models.Admin;
+import fr.hockey.models.Club;
 import fr.hockey.models.Coach;
 
 /**
@@ -13,6 +14,10 @@ import fr.hockey.models.Coach;
  *
  * <p>Cette classe fournit également des méthodes utilitaires pour vérifier
  * le rôle de l'utilisateur courant.</p>
+ *
+ * <p>Elle porte enfin le club de la session ({@link #getClubId()}), auquel les DAO
+ * restreignent toutes leurs requêtes : celui du compte connecté, sinon le club par défaut
+ * (outils en ligne de commande, installation mono-club).</p>
  */
 public class SessionManager {
 
@@ -25,6 +30,9 @@ public class SessionManager {
     /** Coach actuellement connecté (ou null). */
     private Coach currentCoach;
 
+    /** Club de la session, lu aussi par les tâches de fond. */
+    private volatile int clubId = Club.DEFAULT_ID;
+
     /**
      * Constructeur privé pour empêcher l’instanciation directe.
      */
@@ -62,6 +70,7 @@ public class SessionManager {
     public void setCurrentAdmin(Admin admin) {
         this.currentAdmin = admin;
         this.currentCoach = null; // assure exclusivité
+        this.clubId = admin != null ? admin.getClubId() : Club.DEFAULT_ID;
     }
 
     /**
@@ -82,6 +91,7 @@ public class SessionManager {
     public void setCurrentCoach(Coach coach) {
         this.currentCoach = coach;
         this.currentAdmin = null; // assure exclusivité
+        this.clubId = coach != null ? coach.getClubId() : Club.DEFAULT_ID;
     }
 
     /**
@@ -90,6 +100,25 @@ public class SessionManager {
     public void clearSession() {
         this.currentAdmin = null;
         this.currentCoach = null;
+        this.clubId = Club.DEFAULT_ID;
+    }
+
+    /**
+     * Retourne le club de la session : celui du compte connecté, ou le club par défaut.
+     *
+     * @return identifiant du club
+     */
+    public int getClubId() {
+        return clubId;
+    }
+
+    /**
+     * Choisit le club de la session sans connexion (outils en ligne de commande).
+     *
+     * @param clubId identifiant du club
+     */
+    public void setClubId(int clubId) {
+        this.clubId = clubId;
     }
 
     /**
@@ -2,6 +2,13 @@
 CREATE DATABASE IF NOT EXISTS club_manager;
 USE club_manager;
 
+-- Clubs de la ligue : chaque table métier porte le club de ses lignes (club_id)
+CREATE TABLE IF NOT EXISTS clubs (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL UNIQUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
 -- Table des administrateurs
 CREATE TABLE IF NOT EXISTS admins (
     id INT AUTO_INCREMENT PRIMARY KEY,
@@ -10,7 +17,9 @@ CREATE TABLE IF NOT EXISTS admins (
     first_name VARCHAR(50) NOT NULL,
     last_name VARCHAR(50) NOT NULL,
     email VARCHAR(100) NOT NULL,
-    role ENUM('ADMIN') NOT NULL
+    role ENUM('ADMIN') NOT NULL,
+    club_id INT NOT NULL DEFAULT 1,
+    INDEX idx_admins_club (club_id, username)
 );
 
 -- Table des coachs
@@ -20,7 +29,11 @@ CREATE TABLE IF NOT EXISTS coaches (
     last_name VARCHAR(50) NOT NULL,
     username VARCHAR(50) NOT NULL UNIQUE,
     email VARCHAR(100) NOT NULL,
-    password VARCHAR(255) NOT NULL
+    password VARCHAR(255) NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    row_version BIGINT NOT NULL DEFAULT 1,
+    club_id INT NOT NULL DEFAULT 1,
+    INDEX idx_coaches_club (club_id, last_name, first_name)
 );
 
 -- Table des équipes par coach
@@ -28,14 +41,20 @@ CREATE TABLE IF NOT EXISTS coach_teams (
     id INT AUTO_INCREMENT PRIMARY KEY,
     coach_id INT NOT NULL,
     category VARCHAR(10) NOT NULL,
-    FOREIGN KEY (coach_id) REFERENCES coaches(id) ON DELETE CASCADE
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    row_version BIGINT NOT NULL DEFAULT 1,
+    club_id INT NOT NULL DEFAULT 1,
+    FOREIGN KEY (coach_id) REFERENCES coaches(id) ON DELETE CASCADE,
+    INDEX idx_coach_teams_club (club_id, category)
 );
 
 -- Table des tarifs par catégorie
 CREATE TABLE IF NOT EXISTS category_fees (
     id INT AUTO_INCREMENT PRIMARY KEY,
-    category VARCHAR(10) NOT NULL UNIQUE,
-    fee DECIMAL(10,2) NOT NULL
+    category VARCHAR(10) NOT NULL,
+    fee DECIMAL(10,2) NOT NULL,
+    club_id INT NOT NULL DEFAULT 1,
+    UNIQUE INDEX uq_category_fees_club (club_id, category)
 );
 
 -- Table des joueurs
@@ -46,7 +65,12 @@ CREATE TABLE IF NOT EXISTS players (
     category VARCHAR(10) NOT NULL,
     role ENUM('CAPITAINE', 'ASSISTANT', 'JOUEUR') NOT NULL,
     position ENUM('GARDIEN', 'DEFENSEUR', 'ATTAQUANT') NOT NULL,
-    number INT NULL
+    number INT NULL,
+    contact_email VARCHAR(120) NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    row_version BIGINT NOT NULL DEFAULT 1,
+    club_id INT NOT NULL DEFAULT 1,
+    INDEX idx_players_club_category (club_id, category, last_name, first_name)
 );
 
 -- Table des licences
@@ -56,7 +80,78 @@ CREATE TABLE IF NOT EXISTS licenses (
     paid BOOLEAN NOT NULL DEFAULT FALSE,
     expiration_date DATE NOT NULL,
     amount DECIMAL(10,2) NOT NULL,
-    FOREIGN KEY (player_id) REFERENCES players(id) ON DELETE CASCADE
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    row_version BIGINT NOT NULL DEFAULT 1,
+    club_id INT NOT NULL DEFAULT 1,
+    FOREIGN KEY (player_id) REFERENCES players(id) ON DELETE CASCADE,
+    INDEX idx_licenses_expiration (expiration_date),
+    INDEX idx_licenses_club_expiration (club_id, expiration_date)
+);
+
+-- Journal des modifications (rafraîchissement incrémental, flux de modifications entre postes)
+CREATE TABLE IF NOT EXISTS change_log (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    entity VARCHAR(20) NOT NULL,
+    entity_id INT NOT NULL,
+    player_id INT NULL,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    origin VARCHAR(36) NULL,
+    club_id INT NOT NULL DEFAULT 1,
+    INDEX idx_change_log_entity (entity, id),
+    INDEX idx_change_log_club (club_id, id)
+);
+
+-- File d'envoi des e-mails (relances de cotisation)
+CREATE TABLE IF NOT EXISTS mail_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    idempotency_key VARCHAR(100) NOT NULL UNIQUE,
+    recipient VARCHAR(120) NOT NULL,
+    subject VARCHAR(200) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(10) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NULL,
+    last_error VARCHAR(255) NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP NULL,
+    club_id INT NOT NULL DEFAULT 1,
+    INDEX idx_mail_outbox_status (status, next_attempt_at),
+    INDEX idx_mail_outbox_club (club_id, status, next_attempt_at)
+);
+
+-- Séances d'entraînement : présences compressées (ensemble des identifiants de joueurs présents)
+CREATE TABLE IF NOT EXISTS practice_sessions (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    category VARCHAR(10) NOT NULL,
+    session_date DATE NOT NULL,
+    label VARCHAR(100) NULL,
+    attendance BLOB NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    club_id INT NOT NULL DEFAULT 1,
+    INDEX idx_practice_sessions_category (category, session_date),
+    INDEX idx_practice_sessions_club (club_id, category, session_date)
+);
+
+-- Créneaux de glace hebdomadaires (day_of_week : 1 = lundi) et catégorie attribuée
+CREATE TABLE IF NOT EXISTS ice_slots (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    rink VARCHAR(50) NOT NULL,
+    day_of_week TINYINT NOT NULL,
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL,
+    category VARCHAR(10) NULL,
+    club_id INT NOT NULL DEFAULT 1,
+    INDEX idx_ice_slots_club (club_id, day_of_week, start_time)
+);
+
+-- Nombre de créneaux de glace voulus par catégorie et par semaine
+CREATE TABLE IF NOT EXISTS ice_demands (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    category VARCHAR(10) NOT NULL,
+    sessions_per_week INT NOT NULL,
+    club_id INT NOT NULL DEFAULT 1,
+    UNIQUE INDEX uq_ice_demands_club (club_id, category)
 );
 
 -- Table des informations légales
@@ -70,9 +165,14 @@ CREATE TABLE IF NOT EXISTS legal_informations (
     contact VARCHAR(100) NOT NULL,
     privacy TEXT NOT NULL,
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
-    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    club_id INT NOT NULL DEFAULT 1,
+    INDEX idx_legal_informations_club (club_id)
 );
 
+-- Club par défaut (installation mono-club)
+INSERT INTO clubs (name) VALUES ('Club');
+
 -- Insertion des données initiales pour les tarifs
 INSERT INTO category_fees (category, fee) VALUES
 ('U9', 100.00),
@@ -0,0 +1,70 @@
+package fr.hockey.bench;
+
+import fr.hockey.dao.DatabaseConnection;
+import fr.hockey.dao.SchemaMigrations;
+import fr.hockey.tools.ClubDataGenerator;
+
+import java.io.IOException;
+import java.sql.*;
+
+/**
+ * Base H2 en mémoire (mode MySQL) utilisée par les benchmarks JMH.
+ *
+ * <p>Le schéma reprend celui de {@code init_database.sql}, complété par {@link SchemaMigrations}
+ * ({@code club_id}, {@code row_version}, {@code change_log}…) comme au démarrage de l'application. Les DAO y sont redirigés
+ * via la propriété {@link DatabaseConnection#URL_PROPERTY} et les données sont produites
+ * par {@link ClubDataGenerator} (graine fixe pour des mesures comparables). Une connexion
+ * "témoin" reste ouverte pendant toute la mesure pour que la base ne soit pas détruite
+ * lorsque les DAO ferment leurs connexions.</p>
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+
+    private final Connection keeper;
+
+    /**
+     * Crée le schéma puis insère un jeu de données synthétique.
+     *
+     * @param name    nom de la base en mémoire (une base par jeu de paramètres)
+     * @param players nombre de joueurs à générer
+     */
+    BenchmarkDatabase(String name, int players) throws SQLException {
+        String url = "jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        System.setProperty(DatabaseConnection.URL_PROPERTY, url);
+        System.setProperty(DatabaseConnection.USER_PROPERTY, "sa");
+        System.setProperty(DatabaseConnection.PASSWORD_PROPERTY, "");
+        keeper = DriverManager.getConnection(url, "sa", "");
+        createSchema();
+        try {
+            new ClubDataGenerator(42L, players).generate(keeper);
+        } catch (IOException e) {
+            throw new SQLException(e);
+        }
+    }
+
+    private void createSchema() throws SQLException {
+        try (Statement st = keeper.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+            st.execute("CREATE TABLE coaches (id INT AUTO_INCREMENT PRIMARY KEY, first_name VARCHAR(50) NOT NULL," +
+                    " last_name VARCHAR(50) NOT NULL, username VARCHAR(50) NOT NULL UNIQUE, email VARCHAR(100) NOT NULL," +
+                    " password VARCHAR(255) NOT NULL)");
+            st.execute("CREATE TABLE coach_teams (id INT AUTO_INCREMENT PRIMARY KEY, coach_id INT NOT NULL," +
+                    " category VARCHAR(10) NOT NULL, FOREIGN KEY (coach_id) REFERENCES coaches(id) ON DELETE CASCADE)");
+            st.execute("CREATE TABLE players (id INT AUTO_INCREMENT PRIMARY KEY, first_name VARCHAR(50) NOT NULL," +
+                    " last_name VARCHAR(50) NOT NULL, category VARCHAR(10) NOT NULL, role VARCHAR(20) NOT NULL," +
+                    " position VARCHAR(20) NOT NULL, number INT NULL)");
+            st.execute("CREATE TABLE licenses (id INT AUTO_INCREMENT PRIMARY KEY, player_id INT NOT NULL," +
+                    " paid BOOLEAN NOT NULL DEFAULT FALSE, expiration_date DATE NOT NULL, amount DECIMAL(10,2) NOT NULL," +
+                    " FOREIGN KEY (player_id) REFERENCES players(id) ON DELETE CASCADE)");
+        }
+        SchemaMigrations.migrate(keeper);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try (Statement st = keeper.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+        } finally {
+            keeper.close();
+        }
+    }
+}
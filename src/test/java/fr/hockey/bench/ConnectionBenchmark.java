@@ -0,0 +1,40 @@
+package fr.hockey.bench;
+
+import fr.hockey.dao.DatabaseConnection;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure le coût d'acquisition d'une connexion via {@link DatabaseConnection},
+ * tel que payé par chaque méthode DAO (ouverture + fermeture en try-with-resources).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectionBenchmark {
+
+    private BenchmarkDatabase database;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = new BenchmarkDatabase("connection", 100);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Benchmark
+    public boolean acquireAndRelease() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return conn.getAutoCommit();
+        }
+    }
+}
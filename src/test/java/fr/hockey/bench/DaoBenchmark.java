@@ -0,0 +1,83 @@
+package fr.hockey.bench;
+
+import fr.hockey.dao.CoachDAO;
+import fr.hockey.dao.PlayerDAO;
+import fr.hockey.dao.RevenueDAO;
+import fr.hockey.models.Coach;
+import fr.hockey.models.Player;
+import fr.hockey.models.RevenueItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks des opérations DAO sur une base H2 peuplée de données synthétiques.
+ *
+ * <p>Chaque appel DAO inclut l'acquisition de la connexion, l'exécution de la requête
+ * et le mappage du ResultSet (ex. {@code PlayerDAO.mapPlayers}). Lancer avec le profil
+ * Maven {@code bench} pour obtenir les allocations ({@code -prof gc}) et un rapport JSON.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoBenchmark {
+
+    /** Nombre de joueurs générés (les coachs et licences sont proportionnels). */
+    @Param({"1000", "10000", "100000"})
+    public int players;
+
+    private BenchmarkDatabase database;
+    private final PlayerDAO playerDAO = new PlayerDAO();
+    private final CoachDAO coachDAO = new CoachDAO();
+    private final RevenueDAO revenueDAO = new RevenueDAO();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = new BenchmarkDatabase("dao_" + players, players);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Benchmark
+    public List<Player> playerFindAll() throws SQLException {
+        return playerDAO.findAll();
+    }
+
+    @Benchmark
+    public List<Player> playerFindByCategory() throws SQLException {
+        return playerDAO.findByCategory("U13");
+    }
+
+    @Benchmark
+    public List<Player> playerFindByCategoryAndPosition() throws SQLException {
+        return playerDAO.findByCategoryAndPosition("U13", "DEFENSEUR");
+    }
+
+    @Benchmark
+    public Player playerFindById() throws SQLException {
+        return playerDAO.findById(players / 2);
+    }
+
+    @Benchmark
+    public List<Coach> coachFindAll() throws SQLException {
+        return coachDAO.findAll();
+    }
+
+    @Benchmark
+    public List<RevenueItem> revenueByCategory() throws SQLException {
+        return revenueDAO.getRevenueByCategory();
+    }
+
+    @Benchmark
+    public double revenueTotals() throws SQLException {
+        return revenueDAO.getTotalPaid() + revenueDAO.getTotalExpected();
+    }
+}
@@ -0,0 +1,168 @@
+package fr.hockey.dao;
+
+import fr.hockey.models.Club;
+import fr.hockey.models.License;
+import fr.hockey.models.Player;
+import fr.hockey.utils.SessionManager;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatabaseBackupTest {
+    private static final String URL = "jdbc:h2:mem:test;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private Connection conn;
+    private final PlayerDAO playerDAO = new PlayerDAO();
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        System.setProperty(DatabaseConnection.URL_PROPERTY, URL);
+        System.setProperty(DatabaseConnection.USER_PROPERTY, "");
+        conn = DriverManager.getConnection(URL);
+        DatabaseConnection.setConnection(null);
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS licenses");
+            st.execute("DROP TABLE IF EXISTS players");
+            st.execute("DROP TABLE IF EXISTS coach_teams");
+            st.execute("DROP TABLE IF EXISTS coaches");
+            st.execute("DROP TABLE IF EXISTS category_fees");
+            st.execute("DROP TABLE IF EXISTS change_log");
+            st.execute("CREATE TABLE players (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50) NOT NULL," +
+                    "last_name VARCHAR(50) NOT NULL," +
+                    "category VARCHAR(10) NOT NULL," +
+                    "role VARCHAR(20) NOT NULL," +
+                    "position VARCHAR(20) NOT NULL," +
+                    "number INT NULL" +
+                    ")");
+            st.execute("CREATE INDEX idx_players_category ON players (category)");
+            st.execute("CREATE TABLE licenses (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "player_id INT NOT NULL," +
+                    "paid BOOLEAN NOT NULL DEFAULT FALSE," +
+                    "expiration_date DATE NOT NULL," +
+                    "amount DECIMAL(10,2) NOT NULL," +
+                    "FOREIGN KEY (player_id) REFERENCES players(id) ON DELETE CASCADE" +
+                    ")");
+            st.execute("CREATE TABLE category_fees (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "category VARCHAR(10) NOT NULL UNIQUE," +
+                    "fee DECIMAL(10,2) NOT NULL" +
+                    ")");
+            st.execute("INSERT INTO category_fees (category, fee) VALUES ('U13', 180.00)");
+        }
+        SchemaMigrations.migrate(conn);
+
+        Player dupont = new Player(0, "Jean", "Dupont", "U13", "CAPITAINE", "ATTAQUANT");
+        dupont.setNumber(9);
+        dupont.setLicense(new License(0, 0, true, LocalDate.of(2027, 8, 31), 180.0));
+        playerDAO.insertAll(List.of(dupont, new Player(0, "Marc", "Martin", "U13", "JOUEUR", "GARDIEN")));
+        Files.writeString(dir.resolve("audit.log"), "actor=ADMIN:admin | table=players\n", StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        SessionManager.getInstance().setClubId(Club.DEFAULT_ID);
+        DatabaseConnection.setConnection(null);
+        System.clearProperty(DatabaseConnection.URL_PROPERTY);
+        System.clearProperty(DatabaseConnection.USER_PROPERTY);
+        if (conn != null) conn.close();
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    void testBackupAndRestoreRoundTrip() throws Exception {
+        Path file = dir.resolve("club.hcmbak");
+        DatabaseBackup backup = new DatabaseBackup(dir);
+        DatabaseBackup.Summary saved = backup.backup(file);
+        assertEquals(6, saved.getTables()); // dont les tables créées par la migration
+        assertEquals(4, saved.getRows());
+        assertEquals(1, saved.getFiles());
+
+        // Modifications après la sauvegarde
+        List<Player> players = playerDAO.findAll();
+        Player dupont = players.stream().filter(p -> p.getLastName().equals("Dupont")).findFirst().orElseThrow();
+        playerDAO.delete(dupont.getId());
+        playerDAO.save(new Player(0, "Luc", "Bernard", "U15", "JOUEUR", "DEFENSEUR"));
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("UPDATE category_fees SET fee = 200.00");
+        }
+        Files.writeString(dir.resolve("audit.log"), "après\n", StandardCharsets.UTF_8);
+        long watermark = ChangeLog.currentWatermark();
+
+        DatabaseBackup.Summary restored = backup.restore(file);
+        assertEquals(4, restored.getRows());
+
+        players = playerDAO.findAll();
+        assertEquals(2, players.size());
+        Player back = players.stream().filter(p -> p.getLastName().equals("Dupont")).findFirst().orElseThrow();
+        assertEquals(dupont.getId(), back.getId());
+        assertEquals(9, back.getNumber());
+        assertTrue(back.getLicense().isPaid());
+        assertEquals(LocalDate.of(2027, 8, 31), back.getLicense().getExpirationDate());
+        assertEquals(180.0, new LicenseDAO().getFeeForCategory("U13"));
+
+        // Index conservé, identifiants suivants libres, autres postes prévenus
+        assertEquals(1, count("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'IDX_PLAYERS_CATEGORY'"));
+        Player next = new Player(0, "Paul", "Petit", "U13", "JOUEUR", "ATTAQUANT");
+        assertTrue(playerDAO.save(next));
+        assertEquals(3, count("SELECT COUNT(*) FROM change_log WHERE entity = 'players' AND id > " + watermark + " AND id <= "
+                + (watermark + 3)));
+        // Journaux communs à tous les clubs : laissés tels quels
+        assertEquals(0, restored.getFiles());
+        assertEquals("après\n", Files.readString(dir.resolve("audit.log"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testCorruptedBackupIsRejectedBeforeAnyWrite() throws Exception {
+        Path file = dir.resolve("club.hcmbak");
+        new DatabaseBackup(dir).backup(file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 10] ^= 0x5A;
+        Files.write(file, bytes);
+
+        playerDAO.save(new Player(0, "Luc", "Bernard", "U15", "JOUEUR", "DEFENSEUR"));
+        IOException e = assertThrows(IOException.class, () -> new DatabaseBackup(dir).restore(file));
+        assertTrue(e.getMessage().contains("contrôle"), e.getMessage());
+        assertEquals(3, playerDAO.findAll().size());
+    }
+
+    @Test
+    void testBackupAndRestoreAreScopedToTheSessionClub() throws Exception {
+        SessionManager.getInstance().setClubId(2);
+        playerDAO.save(new Player(0, "Paul", "Leroy", "U15", "JOUEUR", "GARDIEN"));
+        SessionManager.getInstance().setClubId(Club.DEFAULT_ID);
+
+        Path file = dir.resolve("club.hcmbak");
+        assertEquals(4, new DatabaseBackup(dir).backup(file).getRows());
+        playerDAO.save(new Player(0, "Luc", "Bernard", "U15", "JOUEUR", "DEFENSEUR"));
+        new DatabaseBackup(dir).restore(file);
+        assertEquals(2, playerDAO.findAll().size());
+        assertEquals(1, count("SELECT COUNT(*) FROM players WHERE club_id = 2"));
+        assertEquals(1, count("SELECT COUNT(*) FROM clubs"));
+
+        // La sauvegarde d'un club ne peut pas remplacer les données d'un autre
+        SessionManager.getInstance().setClubId(2);
+        IOException e = assertThrows(IOException.class, () -> new DatabaseBackup(dir).restore(file));
+        assertTrue(e.getMessage().contains("club"), e.getMessage());
+        assertEquals(1, playerDAO.findAll().size());
+    }
+}
@@ -42,6 +42,7 @@ public class LicenseDAOTest {
                     "fee DECIMAL(10,2) NOT NULL" +
                     ")");
         }
+        SchemaMigrations.migrate(conn);
         try (PreparedStatement ps = conn.prepareStatement("INSERT INTO players (first_name,last_name,category,role,position,number) VALUES (?,?,?,?,?,?)")) {
             ps.setString(1, "Jean");
             ps.setString(2, "Dupont");
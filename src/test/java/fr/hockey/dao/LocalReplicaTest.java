@@ -0,0 +1,165 @@
+package fr.hockey.dao;
+
+import fr.hockey.models.Player;
+import org.junit.jupiter.api.*;
+
+import java.sql.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalReplicaTest {
+    private static final String SERVER_URL = "jdbc:h2:mem:test;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private Connection conn;
+    private LocalReplica replica;
+    private final PlayerDAO playerDAO = new PlayerDAO();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        System.setProperty(DatabaseConnection.URL_PROPERTY, SERVER_URL);
+        System.setProperty(DatabaseConnection.USER_PROPERTY, "");
+        conn = DriverManager.getConnection(SERVER_URL);
+        DatabaseConnection.setConnection(null);
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS licenses");
+            st.execute("DROP TABLE IF EXISTS players");
+            st.execute("DROP TABLE IF EXISTS coach_teams");
+            st.execute("DROP TABLE IF EXISTS coaches");
+            st.execute("DROP TABLE IF EXISTS category_fees");
+            st.execute("CREATE TABLE players (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50) NOT NULL," +
+                    "last_name VARCHAR(50) NOT NULL," +
+                    "category VARCHAR(10) NOT NULL," +
+                    "role VARCHAR(20) NOT NULL," +
+                    "position VARCHAR(20) NOT NULL," +
+                    "number INT NULL" +
+                    ")");
+            st.execute("CREATE TABLE licenses (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "player_id INT NOT NULL," +
+                    "paid BOOLEAN NOT NULL DEFAULT FALSE," +
+                    "expiration_date DATE NOT NULL," +
+                    "amount DECIMAL(10,2) NOT NULL" +
+                    ")");
+            st.execute("CREATE TABLE coaches (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50) NOT NULL," +
+                    "last_name VARCHAR(50) NOT NULL," +
+                    "username VARCHAR(50) NOT NULL UNIQUE," +
+                    "email VARCHAR(100) NOT NULL," +
+                    "password VARCHAR(255) NOT NULL" +
+                    ")");
+            st.execute("CREATE TABLE coach_teams (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "coach_id INT NOT NULL," +
+                    "category VARCHAR(10) NOT NULL" +
+                    ")");
+            st.execute("CREATE TABLE category_fees (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "category VARCHAR(10) NOT NULL UNIQUE," +
+                    "fee DECIMAL(10,2) NOT NULL" +
+                    ")");
+            st.execute("INSERT INTO category_fees (category, fee) VALUES ('U13', 180.00)");
+        }
+        SchemaMigrations.migrate(conn);
+        replica = new LocalReplica("jdbc:h2:mem:replica;MODE=MySQL");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        DatabaseConnection.setReplica(null);
+        replica.close();
+        DatabaseConnection.setConnection(null);
+        System.clearProperty(DatabaseConnection.URL_PROPERTY);
+        System.clearProperty(DatabaseConnection.USER_PROPERTY);
+        if (conn != null) conn.close();
+    }
+
+    private Player save(String first, String last) throws SQLException {
+        Player p = new Player(0, first, last, "U13", "JOUEUR", "ATTAQUANT");
+        assertTrue(playerDAO.save(p));
+        return p;
+    }
+
+    private String serverLastName(int id) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT last_name FROM players WHERE id = ?")) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    @Test
+    void testReadsAreServedLocallyOnceSynced() throws Exception {
+        save("Jean", "Dupont");
+        DatabaseConnection.setReplica(replica);
+        assertFalse(replica.isCurrent());
+
+        LocalReplica.SyncResult result = replica.sync();
+        assertEquals(1, result.getPulled());
+        assertTrue(replica.isCurrent());
+        assertEquals(180.0, new LicenseDAO().getFeeForCategory("U13"));
+
+        // Une écriture rend la réplique périmée jusqu'à la synchronisation suivante
+        save("Marc", "Martin");
+        assertFalse(replica.isCurrent());
+        assertEquals(2, playerDAO.findAll().size());
+        replica.sync();
+        assertTrue(replica.isCurrent());
+        assertEquals(2, playerDAO.findAll().size());
+    }
+
+    @Test
+    void testOfflineWritesAreReplayedWithConflictDetection() throws Exception {
+        Player dupont = save("Jean", "Dupont");
+        Player martin = save("Marc", "Martin");
+        DatabaseConnection.setReplica(replica);
+        replica.sync();
+
+        // Identifiants refusés : serveur joignable, l'erreur remonte sans passer hors ligne
+        System.setProperty(DatabaseConnection.USER_PROPERTY, "intrus");
+        DatabaseConnection.closeConnection();
+        assertThrows(SQLException.class, () -> save("Paul", "Refusé"));
+        assertFalse(replica.isOffline());
+        assertEquals(0, replica.getPendingCount());
+        System.setProperty(DatabaseConnection.USER_PROPERTY, "");
+
+        // Coupure réseau : le serveur n'accepte plus de nouvelles connexions
+        System.setProperty(DatabaseConnection.URL_PROPERTY, "jdbc:h2:mem:absent;IFEXISTS=TRUE");
+        DatabaseConnection.closeConnection();
+        dupont.setLastName("Dupond");
+        assertTrue(playerDAO.save(dupont));
+        assertTrue(replica.isOffline());
+        Player bernard = save("Luc", "Bernard");
+        assertTrue(bernard.getId() >= LocalReplica.OFFLINE_ID_BASE);
+        martin.setLastName("Martinez");
+        assertTrue(playerDAO.save(martin));
+        assertEquals(3, replica.getPendingCount());
+
+        // Pendant ce temps, un autre poste modifie le même joueur
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("UPDATE players SET last_name = 'Martin-Roy' WHERE id = " + martin.getId());
+            st.executeUpdate("INSERT INTO change_log (entity, entity_id, player_id, deleted, origin) " +
+                    "VALUES ('players', " + martin.getId() + ", " + martin.getId() + ", FALSE, 'autre-poste')");
+        }
+
+        System.setProperty(DatabaseConnection.URL_PROPERTY, SERVER_URL);
+        LocalReplica.SyncResult result = replica.sync();
+        assertFalse(replica.isOffline());
+        assertEquals(2, result.getReplayed());
+        assertEquals(1, result.getConflicts());
+        assertEquals(0, replica.getPendingCount());
+
+        assertEquals("Dupond", serverLastName(dupont.getId()));
+        assertEquals("Martin-Roy", serverLastName(martin.getId()));
+        int bernardId = result.getPlayerIds().get(bernard.getId());
+        assertEquals("Bernard", serverLastName(bernardId));
+
+        List<Player> all = playerDAO.findAll();
+        assertEquals(3, all.size());
+        assertTrue(all.stream().anyMatch(p -> p.getId() == bernardId));
+        assertTrue(all.stream().anyMatch(p -> "Martin-Roy".equals(p.getLastName())));
+    }
+}
@@ -1,8 +1,12 @@
 package fr.hockey.dao;
 
+import fr.hockey.models.Club;
 import fr.hockey.models.Player;
+import fr.hockey.utils.SessionManager;
 import org.junit.jupiter.api.*;
 import java.sql.*;
+import java.time.LocalDate;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,10 +37,12 @@ public class PlayerDAOTest {
                     "amount DECIMAL(10,2) NOT NULL" +
                     ")");
         }
+        SchemaMigrations.migrate(conn);
     }
 
     @AfterEach
     void tearDown() throws Exception {
+        SessionManager.getInstance().setClubId(Club.DEFAULT_ID);
         if (conn != null) conn.close();
         DatabaseConnection.setConnection(null);
     }
@@ -109,4 +115,107 @@ public class PlayerDAOTest {
 
         System.out.println("TEST_INVALID_PLAYER=PASS (Exception SQL levée comme prévu)");
     }
+
+    @Test
+    void testChangesSinceWatermarkIncludeTombstones() throws Exception {
+        PlayerDAO dao = new PlayerDAO();
+        LicenseDAO licenses = new LicenseDAO();
+        long start = ChangeLog.currentWatermark();
+
+        Player a = new Player(0, "Jean", "Dupont", "U13", "JOUEUR", "ATTAQUANT");
+        Player b = new Player(0, "Marc", "Martin", "U15", "JOUEUR", "GARDIEN");
+        dao.save(a);
+        dao.save(b);
+        licenses.createForPlayer(a.getId(), 150.0, LocalDate.of(2027, 6, 30), false);
+
+        Delta<Player> first = dao.findChangedSince(start);
+        assertEquals(2, first.getChanged().size());
+        assertTrue(first.getDeletedIds().isEmpty());
+        assertTrue(dao.findChangedSince(first.getWatermark()).isEmpty());
+
+        b.setNumber(30);
+        dao.save(b);
+        licenses.deleteByPlayer(a.getId());
+        dao.delete(a.getId());
+
+        Delta<Player> second = dao.findChangedSince(first.getWatermark());
+        assertEquals(1, second.getChanged().size());
+        assertEquals(30, second.getChanged().get(0).getNumber());
+        assertEquals(List.of(a.getId()), second.getDeletedIds());
+        assertEquals(List.of(a.getId()), licenses.findChangedSince(first.getWatermark()).getDeletedIds());
+        System.out.println("DELTA_WATERMARKS=" + start + "->" + first.getWatermark() + "->" + second.getWatermark());
+    }
+
+    @Test
+    void testContactEmailIsSavedAndRead() throws Exception {
+        PlayerDAO dao = new PlayerDAO();
+        Player p = new Player(0, "Jean", "Dupont", "U13", "JOUEUR", "ATTAQUANT");
+        p.setContactEmail("parents.dupont@example.fr");
+        assertTrue(dao.save(p));
+        assertEquals("parents.dupont@example.fr", dao.findById(p.getId()).getContactEmail());
+
+        Player loaded = dao.findAll().get(0);
+        loaded.setContactEmail("jean.dupont@example.fr");
+        assertTrue(dao.save(loaded));
+        assertEquals("jean.dupont@example.fr", dao.findById(p.getId()).getContactEmail());
+    }
+
+    @Test
+    void testChangeCommittedLateIsNotSkipped() throws Exception {
+        PlayerDAO dao = new PlayerDAO();
+        Player slow = new Player(0, "Jean", "Dupont", "U13", "JOUEUR", "ATTAQUANT");
+        dao.save(slow);
+        long start = dao.findChangedSince(ChangeLog.currentWatermark()).getWatermark();
+
+        // Transaction lente : identifiant du journal attribué, validation plus tard
+        try (Connection other = DriverManager.getConnection("jdbc:h2:mem:test;MODE=MySQL;DB_CLOSE_DELAY=-1")) {
+            other.setAutoCommit(false);
+            try (PreparedStatement ps = other.prepareStatement("UPDATE players SET number = 12 WHERE id = ?")) {
+                ps.setInt(1, slow.getId());
+                ps.executeUpdate();
+            }
+            ChangeLog.record(other, ChangeLog.PLAYERS, slow.getId(), slow.getId(), false);
+
+            // Transaction rapide : identifiant plus grand, validée la première
+            Player fast = new Player(0, "Marc", "Martin", "U15", "JOUEUR", "GARDIEN");
+            dao.save(fast);
+            Delta<Player> first = dao.findChangedSince(start);
+            assertTrue(first.isEmpty());
+            assertEquals(start, first.getWatermark());
+
+            other.commit();
+            Delta<Player> second = dao.findChangedSince(first.getWatermark());
+            assertEquals(List.of(slow.getId(), fast.getId()),
+                    second.getChanged().stream().map(Player::getId).sorted().toList());
+            assertEquals(12, second.getChanged().stream().filter(p -> p.getId() == slow.getId())
+                    .findFirst().orElseThrow().getNumber());
+            assertEquals(ChangeLog.currentWatermark(), second.getWatermark());
+        }
+    }
+
+    @Test
+    void testPlayersAreIsolatedByClub() throws Exception {
+        PlayerDAO dao = new PlayerDAO();
+        long start = ChangeLog.currentWatermark();
+        Player home = new Player(0, "Jean", "Dupont", "U13", "JOUEUR", "ATTAQUANT");
+        dao.save(home);
+
+        SessionManager.getInstance().setClubId(2);
+        Player other = new Player(0, "Marc", "Martin", "U13", "JOUEUR", "GARDIEN");
+        dao.save(other);
+        assertEquals(List.of(other.getId()), dao.findByCategory("U13").stream().map(Player::getId).toList());
+        assertNull(dao.findById(home.getId()));
+        assertEquals(List.of(other.getId()), dao.findChangedSince(start).getChanged().stream().map(Player::getId).toList());
+        // Écritures par identifiant sur un joueur d'un autre club : sans effet
+        home.setNumber(99);
+        assertFalse(dao.save(home));
+        assertFalse(dao.delete(home.getId()));
+
+        SessionManager.getInstance().setClubId(Club.DEFAULT_ID);
+        List<Player> players = dao.findAll();
+        assertEquals(1, players.size());
+        assertEquals("Dupont", players.get(0).getLastName());
+        assertNotEquals(99, players.get(0).getNumber());
+        assertEquals(List.of(home.getId()), dao.findChangedSince(start).getChanged().stream().map(Player::getId).toList());
+    }
 }
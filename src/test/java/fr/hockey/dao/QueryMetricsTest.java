@@ -0,0 +1,143 @@
+package fr.hockey.dao;
+
+import fr.hockey.models.Player;
+import fr.hockey.utils.FlightRecorderEvents;
+import fr.hockey.utils.LatencyHistogram;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryMetricsTest {
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:h2:mem:test;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        DatabaseConnection.setConnection(conn);
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS licenses");
+            st.execute("DROP TABLE IF EXISTS players");
+            st.execute("CREATE TABLE players (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50) NOT NULL," +
+                    "last_name VARCHAR(50) NOT NULL," +
+                    "category VARCHAR(10) NOT NULL," +
+                    "role VARCHAR(20) NOT NULL," +
+                    "position VARCHAR(20) NOT NULL," +
+                    "number INT NULL," +
+                    "contact_email VARCHAR(120) NULL," +
+                    "club_id INT NOT NULL DEFAULT 1" +
+                    ")");
+            st.execute("CREATE TABLE licenses (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "player_id INT NOT NULL," +
+                    "paid BOOLEAN NOT NULL DEFAULT FALSE," +
+                    "expiration_date DATE NOT NULL," +
+                    "amount DECIMAL(10,2) NOT NULL," +
+                    "club_id INT NOT NULL DEFAULT 1" +
+                    ")");
+            st.execute("INSERT INTO players (first_name,last_name,category,role,position,number) VALUES " +
+                    "('Jean','Dupont','U13','JOUEUR','ATTAQUANT',9)," +
+                    "('Paul','Martin','U13','JOUEUR','DEFENSEUR',4)," +
+                    "('Luc','Petit','U15','JOUEUR','GARDIEN',1)");
+        }
+        QueryMetrics.reset();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (conn != null) conn.close();
+        DatabaseConnection.setConnection(null);
+    }
+
+    @Test
+    void testDaoQueryIsRecordedByShape() throws Exception {
+        List<Player> players = new PlayerDAO().findByCategory("U13");
+        assertEquals(2, players.size());
+
+        QueryMetrics.Stats stats = QueryMetrics.snapshot().stream()
+                .filter(s -> s.getShape().contains("WHERE p.club_id = ? AND p.category = ?"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, stats.getLatency().getCount());
+        assertEquals(2, stats.getRows());
+        assertEquals(0, stats.getErrors());
+        assertEquals(1, QueryMetrics.getConnectionWait().getCount());
+        System.out.println("QUERY_SHAPE=" + stats.getShape());
+        System.out.println("QUERY_ROWS=" + stats.getRows());
+    }
+
+    @Test
+    void testClosedConnectionIsReusedAndWritesAreCounted() throws Exception {
+        long before = QueryMetrics.getWriteCount();
+
+        Connection first = DatabaseConnection.getConnection();
+        first.close();
+        assertTrue(first.isClosed());
+        assertFalse(conn.isClosed());
+        assertThrows(SQLException.class, first::createStatement);
+
+        try (Connection second = DatabaseConnection.getConnection()) {
+            assertSame(conn, second.unwrap(Connection.class));
+        }
+
+        new PlayerDAO().findAll();
+        assertEquals(before, QueryMetrics.getWriteCount());
+        try (Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement("UPDATE players SET number = 10 WHERE id = 1")) {
+            ps.executeUpdate();
+        }
+        assertEquals(before + 1, QueryMetrics.getWriteCount());
+        System.out.println("WRITE_COUNT_DELTA=" + (QueryMetrics.getWriteCount() - before));
+    }
+
+    @Test
+    void testShapeReplacesLiterals() {
+        String shape = QueryMetrics.shapeOf("SELECT *  FROM players\n WHERE category = 'U13' AND number > 10");
+        assertEquals("SELECT * FROM players WHERE category = ? AND number > ?", shape);
+    }
+
+    @Test
+    void testHistogramPercentiles() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) h.record(i * 100L);
+
+        assertEquals(1000, h.getCount());
+        assertEquals(100_000, h.getMax());
+        // Précision relative de l'ordre de 3 %
+        assertEquals(50_000, h.getValueAtPercentile(50), 50_000 * 0.04);
+        assertEquals(95_000, h.getValueAtPercentile(95), 95_000 * 0.04);
+        assertEquals(100_000, h.getValueAtPercentile(100));
+        System.out.println("HISTOGRAM_P95=" + h.getValueAtPercentile(95));
+    }
+
+    @Test
+    void testDaoCallIsPublishedToFlightRecorder() throws Exception {
+        Path file = Files.createTempFile("dao", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(FlightRecorderEvents.DaoCall.class);
+            recording.start();
+            new PlayerDAO().findAll();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        RecordedEvent call = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("fr.hockey.DaoCall"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("PlayerDAO.findAll", call.getString("method"));
+        assertEquals(3, call.getLong("rows"));
+        assertEquals(1, call.getInt("statements"));
+        System.out.println("JFR_DAO_CALL=" + call.getString("method") + " " + call.getDuration());
+        Files.deleteIfExists(file);
+    }
+}
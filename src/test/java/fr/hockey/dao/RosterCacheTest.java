@@ -0,0 +1,161 @@
+package fr.hockey.dao;
+
+import fr.hockey.models.Club;
+import fr.hockey.models.Player;
+import fr.hockey.utils.SessionManager;
+import org.junit.jupiter.api.*;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RosterCacheTest {
+    private Connection conn;
+    private final PlayerDAO playerDAO = new PlayerDAO();
+    private final LicenseDAO licenseDAO = new LicenseDAO();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:h2:mem:test;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        DatabaseConnection.setConnection(conn);
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS licenses");
+            st.execute("DROP TABLE IF EXISTS players");
+            st.execute("CREATE TABLE players (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50) NOT NULL," +
+                    "last_name VARCHAR(50) NOT NULL," +
+                    "category VARCHAR(10) NOT NULL," +
+                    "role VARCHAR(20) NOT NULL," +
+                    "position VARCHAR(20) NOT NULL," +
+                    "number INT NULL" +
+                    ")");
+            st.execute("CREATE TABLE licenses (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "player_id INT NOT NULL," +
+                    "paid BOOLEAN NOT NULL DEFAULT FALSE," +
+                    "expiration_date DATE NOT NULL," +
+                    "amount DECIMAL(10,2) NOT NULL," +
+                    "FOREIGN KEY (player_id) REFERENCES players(id)" +
+                    ")");
+        }
+        SchemaMigrations.migrate(conn);
+        save("Jean", "Dupont", "U13", "ATTAQUANT");
+        save("Marc", "Martin", "U15", "DEFENSEUR");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        SessionManager.getInstance().setClubId(Club.DEFAULT_ID);
+        if (conn != null) conn.close();
+        DatabaseConnection.setConnection(null);
+    }
+
+    private Player save(String first, String last, String category, String position) throws SQLException {
+        Player p = new Player(0, first, last, category, "JOUEUR", position);
+        assertTrue(playerDAO.save(p));
+        return p;
+    }
+
+    @Test
+    void testReadThroughAndDerivedLists() throws Exception {
+        RosterCache cache = new RosterCache(playerDAO, new CoachDAO(), 16);
+
+        assertEquals(2, cache.findAllPlayers().size());
+        assertEquals(2, cache.findAllPlayers().size());
+        List<Player> u13 = cache.findPlayersByCategory("U13");
+        assertEquals(1, u13.size());
+        assertEquals("Dupont", u13.get(0).getLastName());
+
+        RosterCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.getMisses());
+        assertEquals(2, stats.getHits());
+
+        // Les lignes renvoyées sont des copies
+        u13.get(0).setLastName("Modifié");
+        assertEquals("Dupont", cache.findPlayersByCategory("U13").get(0).getLastName());
+        System.out.println("CACHE_HIT_RATIO=" + cache.getStats().getHitRatio());
+    }
+
+    @Test
+    void testDaoWritesPatchCachedEntries() throws Exception {
+        RosterCache cache = new RosterCache(playerDAO, new CoachDAO(), 16);
+        Player dupont = cache.findAllPlayers().get(0);
+        cache.findPlayersByCategory("U13");
+        assertTrue(licenseDAO.createForPlayer(dupont.getId(), 150.0, LocalDate.of(2027, 6, 30), false));
+
+        Player cached = cache.findPlayer(dupont.getId());
+        assertFalse(cached.getLicense().isPaid());
+        assertTrue(licenseDAO.setPaid(cached.getLicense().getId(), true));
+
+        long misses = cache.getStats().getMisses();
+        assertTrue(cache.findPlayer(dupont.getId()).getLicense().isPaid());
+        assertTrue(cache.findLicense(dupont.getId()).isPaid());
+        assertTrue(cache.findAllPlayers().get(0).getLicense().isPaid());
+        assertEquals(misses, cache.getStats().getMisses());
+
+        // Les listes sont corrigées en place, dans l'ordre du DAO
+        save("Luc", "Bernard", "U13", "GARDIEN");
+        List<Player> all = cache.findAllPlayers();
+        assertEquals(List.of("Bernard", "Dupont", "Martin"), all.stream().map(Player::getLastName).toList());
+        assertTrue(all.get(1).getLicense().isPaid());
+        assertEquals(2, cache.findPlayersByCategory("U13").size());
+        assertEquals(misses, cache.getStats().getMisses());
+        assertEquals(0, cache.getStats().getInvalidations());
+
+        // Un joueur existant qui entre dans une liste : celle-ci est relue
+        RosterCache byCategory = new RosterCache(playerDAO, new CoachDAO(), 16);
+        assertEquals(2, byCategory.findPlayersByCategory("U13").size());
+        Player martin = all.get(2);
+        martin.setCategory("U13");
+        assertTrue(playerDAO.save(martin));
+        assertEquals(3, byCategory.findPlayersByCategory("U13").size());
+        assertEquals(2, byCategory.getStats().getMisses());
+        assertEquals(3, cache.findPlayersByCategory("U13").size());
+        assertEquals(misses, cache.getStats().getMisses());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() throws Exception {
+        RosterCache cache = new RosterCache(playerDAO, new CoachDAO(), 2);
+        cache.findPlayersByPosition("ATTAQUANT");
+        cache.findPlayersByPosition("DEFENSEUR");
+        cache.findPlayersByPosition("ATTAQUANT");
+        cache.findPlayersByPosition("GARDIEN");
+
+        RosterCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getEvictions());
+
+        cache.findPlayersByPosition("ATTAQUANT");
+        assertEquals(2, cache.getStats().getHits());
+        cache.findPlayersByPosition("DEFENSEUR");
+        assertEquals(4, cache.getStats().getMisses());
+    }
+
+    @Test
+    void testClubsHaveSeparatePartitions() throws Exception {
+        RosterCache cache = new RosterCache(playerDAO, new CoachDAO(), 2);
+        cache.findPlayersByPosition("ATTAQUANT");
+        cache.findPlayersByPosition("DEFENSEUR");
+
+        // Un autre club remplit sa propre partition, puis y écrit
+        SessionManager.getInstance().setClubId(2);
+        save("Luc", "Petit", "U13", "GARDIEN");
+        assertEquals(1, cache.findAllPlayers().size());
+        cache.findPlayersByPosition("GARDIEN");
+        cache.findPlayersByPosition("ATTAQUANT");
+        save("Paul", "Leroy", "U15", "GARDIEN");
+        assertEquals(2, cache.findAllPlayers().size());
+
+        SessionManager.getInstance().setClubId(Club.DEFAULT_ID);
+        long misses = cache.getStats().getMisses();
+        assertEquals(1, cache.findPlayersByPosition("ATTAQUANT").size());
+        assertEquals(1, cache.findPlayersByPosition("DEFENSEUR").size());
+        assertEquals(misses, cache.getStats().getMisses());
+        assertEquals(2, cache.findAllPlayers().size());
+        assertEquals(3, cache.getStats().getSize()); // 2 pour ce club, 1 pour l'autre
+    }
+}
@@ -0,0 +1,112 @@
+package fr.hockey.events;
+
+import fr.hockey.dao.DatabaseConnection;
+import fr.hockey.dao.LicenseDAO;
+import fr.hockey.dao.PlayerDAO;
+import fr.hockey.dao.SchemaMigrations;
+import fr.hockey.models.Player;
+import org.junit.jupiter.api.*;
+
+import java.lang.ref.WeakReference;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DomainEventBusTest {
+    private Connection conn;
+    private final List<DomainEvent> received = new ArrayList<>();
+    private final Consumer<DomainEvent> listener = received::add;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:h2:mem:test;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        DatabaseConnection.setConnection(conn);
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS licenses");
+            st.execute("DROP TABLE IF EXISTS players");
+            st.execute("CREATE TABLE players (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50) NOT NULL," +
+                    "last_name VARCHAR(50) NOT NULL," +
+                    "category VARCHAR(10) NOT NULL," +
+                    "role VARCHAR(20) NOT NULL," +
+                    "position VARCHAR(20) NOT NULL," +
+                    "number INT NULL" +
+                    ")");
+            st.execute("CREATE TABLE licenses (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "player_id INT NOT NULL," +
+                    "paid BOOLEAN NOT NULL DEFAULT FALSE," +
+                    "expiration_date DATE NOT NULL," +
+                    "amount DECIMAL(10,2) NOT NULL," +
+                    "FOREIGN KEY (player_id) REFERENCES players(id)" +
+                    ")");
+        }
+        SchemaMigrations.migrate(conn);
+        DomainEventBus.subscribe(DomainEvent.class, listener);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        DomainEventBus.unsubscribe(listener);
+        if (conn != null) conn.close();
+        DatabaseConnection.setConnection(null);
+    }
+
+    @Test
+    void testDaoWritesPublishEvents() throws Exception {
+        Player p = new Player(0, "Jean", "Dupont", "U13", "JOUEUR", "ATTAQUANT");
+        p.setNumber(9);
+        assertTrue(new PlayerDAO().save(p));
+
+        LicenseDAO licenses = new LicenseDAO();
+        assertTrue(licenses.createForPlayer(p.getId(), 150.0, LocalDate.of(2027, 6, 30), false));
+        DomainEvents.LicenseSaved saved = (DomainEvents.LicenseSaved) received.get(1);
+        assertTrue(saved.getLicense().getId() > 0);
+        assertTrue(licenses.setPaid(saved.getLicense().getId(), true));
+
+        assertEquals(3, received.size());
+        DomainEvents.PlayerSaved playerSaved = (DomainEvents.PlayerSaved) received.get(0);
+        assertTrue(playerSaved.isCreated());
+        assertEquals(p.getId(), playerSaved.getPlayerId());
+        assertNotSame(playerSaved.getPlayer(), playerSaved.getPlayer());
+        assertEquals(p.getId(), saved.getPlayerId());
+        DomainEvents.LicensePaid paid = (DomainEvents.LicensePaid) received.get(2);
+        assertEquals(saved.getLicense().getId(), paid.getLicenseId());
+        assertTrue(paid.isPaid());
+        System.out.println("EVENTS=" + received.stream().map(e -> e.getClass().getSimpleName()).toList());
+    }
+
+    @Test
+    void testFailedWritePublishesNothing() throws Exception {
+        assertFalse(new PlayerDAO().delete(12345));
+        assertThrows(SQLException.class, () -> new LicenseDAO().createForPlayer(999, 1.0, LocalDate.now(), false));
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void testListenerIsOnlyWeaklyHeld() throws Exception {
+        List<DomainEvent> other = new ArrayList<>();
+        Consumer<DomainEvent> dropped = other::add;
+        WeakReference<Consumer<DomainEvent>> ref = new WeakReference<>(dropped);
+        DomainEventBus.subscribe(DomainEvents.PlayerDeleted.class, dropped);
+        dropped = null;
+
+        // Seul le bus pourrait encore le retenir : il doit être collecté
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (ref.get() != null && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(ref.get());
+
+        DomainEventBus.publish(new DomainEvents.PlayerDeleted(1));
+        assertTrue(other.isEmpty());
+        assertEquals(1, received.size());
+    }
+}
@@ -0,0 +1,125 @@
+package fr.hockey.services;
+
+import fr.hockey.dao.DatabaseConnection;
+import fr.hockey.dao.PlayerDAO;
+import fr.hockey.dao.PracticeSessionDAO;
+import fr.hockey.dao.RosterCache;
+import fr.hockey.dao.SchemaMigrations;
+import fr.hockey.models.Player;
+import fr.hockey.models.PracticeSession;
+import fr.hockey.utils.CompactBitmap;
+import org.junit.jupiter.api.*;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AttendanceServiceTest {
+    private Connection conn;
+    private final PlayerDAO playerDAO = new PlayerDAO();
+    private final PracticeSessionDAO sessionDAO = new PracticeSessionDAO();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:h2:mem:test;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        DatabaseConnection.setConnection(conn);
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS licenses");
+            st.execute("DROP TABLE IF EXISTS players");
+            st.execute("DROP TABLE IF EXISTS practice_sessions");
+            st.execute("CREATE TABLE players (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50) NOT NULL," +
+                    "last_name VARCHAR(50) NOT NULL," +
+                    "category VARCHAR(10) NOT NULL," +
+                    "role VARCHAR(20) NOT NULL," +
+                    "position VARCHAR(20) NOT NULL," +
+                    "number INT NULL" +
+                    ")");
+            st.execute("CREATE TABLE licenses (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "player_id INT NOT NULL," +
+                    "paid BOOLEAN NOT NULL DEFAULT FALSE," +
+                    "expiration_date DATE NOT NULL," +
+                    "amount DECIMAL(10,2) NOT NULL" +
+                    ")");
+        }
+        SchemaMigrations.migrate(conn);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (conn != null) conn.close();
+        DatabaseConnection.setConnection(null);
+    }
+
+    private PracticeSession session(String category, LocalDate date, int... present) throws SQLException {
+        PracticeSession s = new PracticeSession(0, category, date, "Patinage", new CompactBitmap());
+        sessionDAO.insert(s);
+        sessionDAO.updateAttendance(s.getId(), CompactBitmap.of(present));
+        return s;
+    }
+
+    @Test
+    void testRatesAndMissedStreaksOverStoredSessions() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (String name : new String[]{"Alpha", "Bravo", "Charlie", "Delta"}) {
+            Player p = new Player(0, name, name, "U13", "JOUEUR", "ATTAQUANT");
+            assertTrue(playerDAO.save(p));
+            ids.add(p.getId());
+        }
+        Player other = new Player(0, "Echo", "Echo", "U15", "JOUEUR", "DEFENSEUR");
+        playerDAO.save(other);
+        int a = ids.get(0), b = ids.get(1), c = ids.get(2), d = ids.get(3);
+
+        LocalDate day = LocalDate.of(2026, 9, 7);
+        session("U13", day, a, b, c);
+        session("U13", day.plusDays(2), a, other.getId());
+        session("U13", day.plusDays(4), a, c);
+        session("U13", day.plusDays(7), a, b, c);
+        session("U13", day.plusDays(9), a, d);
+        session("U15", day.plusDays(9), other.getId());
+        session("U13", LocalDate.of(2026, 6, 1), b);
+
+        RosterCache.getInstance().invalidateAll();
+        AttendanceService service = new AttendanceService(sessionDAO, RosterCache.getInstance());
+        AttendanceService.Report report = service.report("U13", LocalDate.of(2026, 9, 1), LocalDate.of(2027, 8, 31), 3);
+
+        assertEquals(5, report.getSessions().size());
+        assertEquals(day, report.getSessions().get(0).getDate());
+        assertEquals(5, report.getPresences(a));
+        assertEquals(1.0, report.getRate(a));
+        assertEquals(0.4, report.getRate(b), 1e-9);
+        assertEquals(0, report.getPresences(other.getId()), "hors catégorie");
+        // Delta manque les quatre premières séances ; Bravo manque les séances 2 et 3 seulement
+        assertArrayEquals(new int[]{d}, report.getMissedInARow().toArray());
+    }
+
+    @Test
+    void testBitmapQueriesOnALargeSeason() {
+        CompactBitmap roster = new CompactBitmap();
+        for (int id = 1; id <= 500; id++) roster.add(id);
+        List<PracticeSession> sessions = new ArrayList<>();
+        for (int s = 0; s < 120; s++) {
+            CompactBitmap present = new CompactBitmap();
+            for (int id = 1; id <= 500; id++) {
+                // Le joueur 7 manque les séances 50 à 52 ; les multiples de 10 une séance sur deux
+                if (id == 7 && s >= 50 && s <= 52) continue;
+                if (id % 10 == 0 && s % 2 == 1) continue;
+                present.add(id);
+            }
+            sessions.add(new PracticeSession(s, "U17", LocalDate.of(2026, 9, 1).plusDays(s), null, present));
+        }
+        Map<Integer, Integer> counts = AttendanceService.presenceCounts(sessions, roster);
+        assertEquals(120, counts.get(1));
+        assertEquals(117, counts.get(7));
+        assertEquals(60, counts.get(20));
+        assertArrayEquals(new int[]{7}, AttendanceService.missedInARow(sessions, roster, 3).toArray());
+        assertEquals(51, AttendanceService.missedInARow(sessions, roster, 1).getCardinality());
+        assertThrows(IllegalArgumentException.class, () -> AttendanceService.missedInARow(sessions, roster, 0));
+    }
+}
@@ -0,0 +1,139 @@
+package fr.hockey.services;
+
+import fr.hockey.dao.AccountDAO;
+import fr.hockey.dao.CoachDAO;
+import fr.hockey.dao.DatabaseConnection;
+import fr.hockey.utils.AppSettings;
+import fr.hockey.utils.PasswordHasher;
+import org.junit.jupiter.api.*;
+
+import java.sql.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthenticationServiceTest {
+    private static final String URL = "jdbc:h2:mem:auth;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        System.setProperty(DatabaseConnection.URL_PROPERTY, URL);
+        System.setProperty(DatabaseConnection.USER_PROPERTY, "");
+        conn = DriverManager.getConnection(URL);
+        DatabaseConnection.setConnection(null);
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+            st.execute("CREATE TABLE admins (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "username VARCHAR(50) NOT NULL UNIQUE," +
+                    "password VARCHAR(100) NOT NULL," +
+                    "first_name VARCHAR(50)," +
+                    "last_name VARCHAR(50)," +
+                    "email VARCHAR(100)," +
+                    "role VARCHAR(20)," +
+                    "club_id INT NOT NULL DEFAULT 1" +
+                    ")");
+            st.execute("CREATE TABLE coaches (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50)," +
+                    "last_name VARCHAR(50)," +
+                    "username VARCHAR(50) NOT NULL UNIQUE," +
+                    "email VARCHAR(100)," +
+                    "password VARCHAR(100)," +
+                    "club_id INT NOT NULL DEFAULT 1" +
+                    ")");
+            st.execute("CREATE TABLE coach_teams (" +
+                    "coach_id INT NOT NULL," +
+                    "category VARCHAR(10) NOT NULL," +
+                    "club_id INT NOT NULL DEFAULT 1" +
+                    ")");
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO admins (username,password,first_name,last_name,email,role) VALUES (?,?,?,?,?,?)")) {
+            ps.setString(1, "admin");
+            ps.setString(2, PasswordHasher.hash("secret", 4));
+            ps.setString(3, "Alice");
+            ps.setString(4, "Martin");
+            ps.setString(5, "admin@club.fr");
+            ps.setString(6, "ADMIN");
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO coaches (first_name,last_name,username,email,password) VALUES (?,?,?,?,?)")) {
+            ps.setString(1, "Bruno");
+            ps.setString(2, "Lefèvre");
+            ps.setString(3, "coach");
+            ps.setString(4, "coach@club.fr");
+            ps.setString(5, PasswordHasher.hash("glace", 4));
+            ps.executeUpdate();
+        }
+        try (Statement st = conn.createStatement()) {
+            st.execute("INSERT INTO coach_teams (coach_id, category) VALUES (1,'U15'),(1,'U13')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        DatabaseConnection.setConnection(null);
+        if (conn != null) conn.close();
+        System.clearProperty(DatabaseConnection.URL_PROPERTY);
+        System.clearProperty(DatabaseConnection.USER_PROPERTY);
+    }
+
+    /** Service dont le re-hashage s'exécute sur le thread appelant, avant le retour. */
+    private AuthenticationService service(int cost) {
+        return new AuthenticationService(new AccountDAO(), new CoachDAO(), () -> cost, Runnable::run);
+    }
+
+    private int storedCost() throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT password FROM coaches WHERE username = 'coach'")) {
+            rs.next();
+            return PasswordHasher.costOf(rs.getString(1));
+        }
+    }
+
+    @Test
+    void testAdminAndCoachResolvedWithOneLookup() throws Exception {
+        AuthenticationService auth = service(4);
+
+        AuthenticationService.Result admin = auth.authenticateAsync("admin", "secret").get(10, TimeUnit.SECONDS);
+        assertNotNull(admin);
+        assertTrue(admin.isAdmin());
+        assertEquals("Alice", admin.getAdmin().getFirstName());
+        System.out.println("ADMIN_ACCOUNT_TYPE=" + admin.getAccountType());
+
+        AuthenticationService.Result coach = auth.authenticateAsync("coach", "glace").get(10, TimeUnit.SECONDS);
+        assertNotNull(coach);
+        assertFalse(coach.isAdmin());
+        assertEquals(List.of("U13", "U15"), coach.getCoach().getTeams());
+        System.out.println("COACH_TEAMS=" + coach.getCoach().getTeams());
+
+        assertNull(auth.authenticateAsync("coach", "mauvais").get(10, TimeUnit.SECONDS));
+        assertNull(auth.authenticateAsync("inconnu", "secret").get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testHashIsUpgradedWhenCostChanges() throws Exception {
+        assertNotNull(service(5).authenticate("coach", "glace"));
+
+        int cost = storedCost();
+        assertEquals(5, cost);
+        System.out.println("REHASHED_COST=" + cost);
+
+        assertNotNull(service(5).authenticate("coach", "glace"));
+    }
+
+    @Test
+    void testStrongerHashIsNotDowngradedByDefault() throws Exception {
+        Assumptions.assumeFalse(AppSettings.isBcryptCostConfigured());
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("UPDATE coaches SET password = '" + PasswordHasher.hash("glace", 6) + "' WHERE username = 'coach'");
+        }
+        assertNotNull(service(5).authenticate("coach", "glace"));
+        assertEquals(6, storedCost());
+    }
+}
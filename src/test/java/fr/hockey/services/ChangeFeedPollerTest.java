@@ -0,0 +1,139 @@
+package fr.hockey.services;
+
+import fr.hockey.dao.ChangeLog;
+import fr.hockey.dao.CoachDAO;
+import fr.hockey.dao.DatabaseConnection;
+import fr.hockey.dao.PlayerDAO;
+import fr.hockey.dao.SchemaMigrations;
+import fr.hockey.events.DomainEvent;
+import fr.hockey.events.DomainEventBus;
+import fr.hockey.events.DomainEvents;
+import fr.hockey.models.Player;
+import org.junit.jupiter.api.*;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeFeedPollerTest {
+    private Connection conn;
+    private final PlayerDAO playerDAO = new PlayerDAO();
+    private final List<DomainEvent> received = new ArrayList<>();
+    private final Consumer<DomainEvent> listener = received::add;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:h2:mem:test;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        DatabaseConnection.setConnection(conn);
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS licenses");
+            st.execute("DROP TABLE IF EXISTS players");
+            st.execute("CREATE TABLE players (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50) NOT NULL," +
+                    "last_name VARCHAR(50) NOT NULL," +
+                    "category VARCHAR(10) NOT NULL," +
+                    "role VARCHAR(20) NOT NULL," +
+                    "position VARCHAR(20) NOT NULL," +
+                    "number INT NULL" +
+                    ")");
+            st.execute("CREATE TABLE licenses (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "player_id INT NOT NULL," +
+                    "paid BOOLEAN NOT NULL DEFAULT FALSE," +
+                    "expiration_date DATE NOT NULL," +
+                    "amount DECIMAL(10,2) NOT NULL" +
+                    ")");
+        }
+        SchemaMigrations.migrate(conn);
+        // Journal des tests précédents : trous éventuels tenus pour abandonnés
+        settle(0);
+        DomainEventBus.subscribe(DomainEvent.class, listener);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        DomainEventBus.unsubscribe(listener);
+        if (conn != null) conn.close();
+        DatabaseConnection.setConnection(null);
+    }
+
+    /** Simule l'écriture d'un autre poste : modification directe et ligne de journal étrangère. */
+    private void remoteRename(long logId, int playerId, String lastName) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("UPDATE players SET last_name = ? WHERE id = ?")) {
+            ps.setString(1, lastName);
+            ps.setInt(2, playerId);
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO change_log (id, entity, entity_id, player_id, deleted, origin) VALUES (?, 'players', ?, ?, FALSE, 'autre-poste')")) {
+            ps.setLong(1, logId);
+            ps.setInt(2, playerId);
+            ps.setInt(3, playerId);
+            ps.executeUpdate();
+        }
+    }
+
+    /** Vieillit les lignes du journal au-delà d'un identifiant, au-delà du délai de grâce. */
+    private void settle(long fromId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "UPDATE change_log SET changed_at = TIMESTAMPADD(SECOND, -60, CURRENT_TIMESTAMP) WHERE id >= ?")) {
+            ps.setLong(1, fromId);
+            ps.executeUpdate();
+        }
+    }
+
+    @Test
+    void testRemoteChangesAreRepublishedAndLocalOnesIgnored() throws Exception {
+        ChangeFeedPoller poller = new ChangeFeedPoller(playerDAO, new CoachDAO());
+        assertEquals(0, poller.pollOnce());
+
+        Player p = new Player(0, "Jean", "Dupont", "U13", "JOUEUR", "ATTAQUANT");
+        assertTrue(playerDAO.save(p));
+        received.clear();
+        assertEquals(0, poller.pollOnce());
+        assertTrue(received.isEmpty());
+
+        remoteRename(ChangeLog.currentWatermark() + 1, p.getId(), "Durand");
+        assertEquals(1, poller.pollOnce());
+        DomainEvents.PlayerSaved saved = (DomainEvents.PlayerSaved) received.get(0);
+        assertEquals("Durand", saved.getPlayer().getLastName());
+        assertFalse(saved.isCreated());
+
+        // Une écriture d'un autre club n'est ni relayée ni prise pour un trou
+        received.clear();
+        long otherClub = ChangeLog.currentWatermark() + 1;
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("INSERT INTO change_log (id, entity, entity_id, player_id, deleted, origin, club_id) "
+                    + "VALUES (" + otherClub + ", 'players', 999, 999, FALSE, 'autre-poste', 2)");
+        }
+        remoteRename(otherClub + 1, p.getId(), "Dubois");
+        assertEquals(1, poller.pollOnce());
+        assertEquals(1, received.stream().filter(e -> e instanceof DomainEvents.PlayerSaved).count());
+    }
+
+    @Test
+    void testWatermarkWaitsForMissingIdUntilGracePeriod() throws Exception {
+        Player p = new Player(0, "Marc", "Martin", "U15", "JOUEUR", "GARDIEN");
+        assertTrue(playerDAO.save(p));
+        ChangeFeedPoller poller = new ChangeFeedPoller(playerDAO, new CoachDAO());
+        poller.pollOnce();
+        received.clear();
+
+        // L'identifiant suivant n'est pas encore validé : la ligne d'après reste en attente
+        long next = ChangeLog.currentWatermark() + 2;
+        remoteRename(next, p.getId(), "Moreau");
+        assertEquals(0, poller.pollOnce());
+        assertEquals(0, poller.pollOnce());
+        assertTrue(received.isEmpty());
+
+        // Ligne plus ancienne que le délai de grâce : le trou est une transaction annulée
+        settle(next);
+        assertEquals(1, poller.pollOnce());
+        assertEquals(1, received.stream().filter(e -> e instanceof DomainEvents.PlayerSaved).count());
+        assertEquals(0, poller.pollOnce());
+    }
+}
@@ -0,0 +1,91 @@
+package fr.hockey.services;
+
+import fr.hockey.models.Coach;
+import fr.hockey.models.IceSlot;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IceSchedulerTest {
+
+    private static Coach coach(int id, String... teams) {
+        Coach c = new Coach(id, "Coach", "N" + id, "coach" + id, null);
+        for (String t : teams) c.addTeam(t);
+        return c;
+    }
+
+    @Test
+    void testWeeklyPlanIsConflictFreeAndMeetsDemands() {
+        List<IceSlot> slots = new ArrayList<>();
+        int id = 1;
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day == DayOfWeek.SUNDAY) continue;
+            for (String rink : new String[]{"Patinoire A", "Patinoire B"}) {
+                LocalTime start = LocalTime.of(17, 0);
+                for (int k = 0; k < 3; k++) {
+                    slots.add(new IceSlot(id++, rink, day, start, start.plusMinutes(90), null));
+                    start = start.plusMinutes(90);
+                }
+            }
+        }
+        Map<String, Integer> demands = new LinkedHashMap<>();
+        demands.put("U9", 2);
+        demands.put("U11", 2);
+        demands.put("U13", 3);
+        demands.put("U15", 3);
+        demands.put("U17", 3);
+        demands.put("U20", 3);
+        Map<String, Set<Integer>> coaches = IceScheduler.coachesByCategory(List.of(
+                coach(1, "U9", "U11"), coach(2, "U13", "U15"), coach(3, "U17", "U20"), coach(4, "U15", "U17")));
+
+        IceScheduler.Plan plan = new IceScheduler(2).plan(slots, demands, coaches, 2_000, 7);
+
+        assertTrue(plan.isFeasible());
+        assertTrue(plan.getShortfall().isEmpty(), plan.getShortfall().toString());
+        assertTrue(plan.getMillis() < 3_000);
+        List<IceSlot> planned = plan.getSlots();
+        assertEquals(slots.size(), planned.size());
+        assertNull(slots.get(0).getCategory(), "créneaux d'origine inchangés");
+        for (IceSlot a : planned) {
+            if (a.getCategory() == null) continue;
+            for (IceSlot b : planned) {
+                if (a == b || b.getCategory() == null || !a.overlaps(b)) continue;
+                assertNotEquals(a.getCategory(), b.getCategory());
+                Set<Integer> shared = new HashSet<>(coaches.get(a.getCategory()));
+                shared.retainAll(coaches.get(b.getCategory()));
+                assertTrue(shared.isEmpty(), "coach en double : " + a + " / " + b);
+            }
+        }
+        // Les plus jeunes ne sont pas placés le soir quand c'est évitable
+        for (IceSlot s : planned) {
+            if ("U9".equals(s.getCategory()) || "U11".equals(s.getCategory())) {
+                assertTrue(s.getStart().isBefore(LocalTime.of(19, 30)), s.toString());
+            }
+        }
+    }
+
+    @Test
+    void testConflictIsNeverTradedForDemand() {
+        // Deux équipes du même coach, une seule heure de glace sur deux patinoires
+        List<IceSlot> slots = List.of(
+                new IceSlot(1, "A", DayOfWeek.MONDAY, LocalTime.of(18, 0), LocalTime.of(19, 0), "U13"),
+                new IceSlot(2, "B", DayOfWeek.MONDAY, LocalTime.of(18, 30), LocalTime.of(19, 30), "U15"));
+        Map<String, Integer> demands = Map.of("U13", 1, "U15", 1);
+        Map<String, Set<Integer>> coaches = IceScheduler.coachesByCategory(List.of(coach(2, "U13", "U15")));
+
+        IceScheduler.Plan plan = new IceScheduler(4).plan(slots, demands, coaches, 300, 1);
+
+        assertTrue(plan.isFeasible());
+        assertEquals(1, plan.getShortfall().values().stream().mapToInt(Integer::intValue).sum());
+        assertEquals(1, plan.getSlots().stream().filter(s -> s.getCategory() != null).count());
+    }
+}
@@ -0,0 +1,90 @@
+package fr.hockey.services;
+
+import fr.hockey.models.GameEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaderboardServiceTest {
+    @TempDir
+    Path dir;
+
+    private LiveScoringService scoring;
+    private LeaderboardService leaderboard;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        scoring = new LiveScoringService();
+        scoring.open(dir.resolve("events.log"));
+        leaderboard = new LeaderboardService(scoring);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scoring.close();
+    }
+
+    private static List<Integer> ids(List<LeaderboardService.Leader> leaders) {
+        return leaders.stream().map(LeaderboardService.Leader::getPlayerId).collect(Collectors.toList());
+    }
+
+    @Test
+    void testLeadersFollowRecordedAndCancelledEvents() throws Exception {
+        String game = GameEvent.fixtureId("U13", LocalDate.of(2026, 10, 19), "Rouen");
+        String other = GameEvent.fixtureId("U15", LocalDate.of(2026, 10, 19), "Caen");
+        String season = LeaderboardService.seasonOf(LocalDate.of(2026, 10, 19));
+        assertEquals("2026-2027", season);
+
+        // Joueur n a n buts
+        for (int player = 1; player <= 20; player++) {
+            for (int g = 0; g < player; g++) scoring.record(game, "U13", player, GameEvent.Type.GOAL, 1, g, 0);
+        }
+        scoring.record(game, "U13", 3, GameEvent.Type.ASSIST, 2, 10, 0);
+        scoring.record(other, "U15", 99, GameEvent.Type.GOAL, 1, 5, 0);
+
+        assertEquals(List.of(20, 19, 18), ids(leaderboard.top("U13", season, LeaderboardService.Stat.GOALS, 3)));
+        assertEquals(List.of(3), ids(leaderboard.top("U13", season, LeaderboardService.Stat.ASSISTS, 5)));
+        assertEquals(List.of(99), ids(leaderboard.top("U15", season, LeaderboardService.Stat.POINTS, 5)));
+        assertTrue(leaderboard.top("U13", "2025-2026", LeaderboardService.Stat.GOALS, 3).isEmpty());
+
+        // Deux buts annulés : le joueur 20 passe derrière le 19 (à égalité avec le 18, départagé par numéro)
+        List<GameEvent> events = scoring.getGameEvents(game);
+        int cancelled = 0;
+        for (GameEvent e : events) {
+            if (e.getPlayerId() == 20 && cancelled < 2) {
+                scoring.cancel(e.getSeq());
+                cancelled++;
+            }
+        }
+        List<LeaderboardService.Leader> top = leaderboard.top("U13", season, LeaderboardService.Stat.GOALS, 3);
+        assertEquals(List.of(19, 18, 20), ids(top));
+        assertEquals(18, top.get(2).getValue());
+    }
+
+    @Test
+    void testLeadersAreRebuiltWhenTheLogIsReopened() throws Exception {
+        String game = GameEvent.fixtureId("U17", LocalDate.of(2027, 3, 2), "Amiens");
+        scoring.record(game, "U17", 5, GameEvent.Type.SHIFT, 1, 60, 50);
+        scoring.record(game, "U17", 6, GameEvent.Type.SHIFT, 1, 90, 40);
+        scoring.record(game, "U17", 6, GameEvent.Type.SHIFT, 2, 30, 45);
+        GameEvent penalty = scoring.record(game, "U17", 5, GameEvent.Type.PENALTY, 2, 90, 2);
+        scoring.cancel(penalty.getSeq());
+
+        scoring.close();
+        assertTrue(leaderboard.top("U17", "2026-2027", LeaderboardService.Stat.ICE_TIME, 5).isEmpty());
+
+        scoring.open(dir.resolve("events.log"));
+        List<LeaderboardService.Leader> ice = leaderboard.top("U17", "2026-2027", LeaderboardService.Stat.ICE_TIME, 5);
+        assertEquals(List.of(6, 5), ids(ice));
+        assertEquals(85, ice.get(0).getValue());
+        assertTrue(leaderboard.top("U17", "2026-2027", LeaderboardService.Stat.PENALTY_MINUTES, 5).isEmpty());
+    }
+}
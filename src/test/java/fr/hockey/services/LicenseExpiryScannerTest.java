@@ -0,0 +1,122 @@
+package fr.hockey.services;
+
+import fr.hockey.dao.DatabaseConnection;
+import fr.hockey.dao.LicenseDAO;
+import fr.hockey.dao.PlayerDAO;
+import fr.hockey.dao.SchemaMigrations;
+import fr.hockey.models.ExpiringLicense;
+import fr.hockey.models.License;
+import fr.hockey.models.Player;
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LicenseExpiryScannerTest {
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 1);
+
+    private Connection conn;
+    private final PlayerDAO playerDAO = new PlayerDAO();
+    private final LicenseDAO licenseDAO = new LicenseDAO();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:h2:mem:test;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        DatabaseConnection.setConnection(conn);
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS licenses");
+            st.execute("DROP TABLE IF EXISTS players");
+            st.execute("CREATE TABLE players (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50) NOT NULL," +
+                    "last_name VARCHAR(50) NOT NULL," +
+                    "category VARCHAR(10) NOT NULL," +
+                    "role VARCHAR(20) NOT NULL," +
+                    "position VARCHAR(20) NOT NULL," +
+                    "number INT NULL" +
+                    ")");
+            st.execute("CREATE TABLE licenses (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "player_id INT NOT NULL," +
+                    "paid BOOLEAN NOT NULL DEFAULT FALSE," +
+                    "expiration_date DATE NOT NULL," +
+                    "amount DECIMAL(10,2) NOT NULL" +
+                    ")");
+        }
+        SchemaMigrations.migrate(conn);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (conn != null) conn.close();
+        DatabaseConnection.setConnection(null);
+    }
+
+    private Player player(String firstName, String lastName, int daysFromToday) {
+        Player p = new Player(0, firstName, lastName, "U15", "JOUEUR", "ATTAQUANT");
+        p.setLicense(new License(0, 0, false, TODAY.plusDays(daysFromToday), 150.0));
+        return p;
+    }
+
+    private static List<String> names(List<ExpiringLicense> list) {
+        return list.stream().map(ExpiringLicense::getLastName).collect(Collectors.toList());
+    }
+
+    @Test
+    void testScanTracksChangesAndSlidingWindow() throws Exception {
+        List<Player> players = new ArrayList<>(List.of(
+                player("Jean", "Dupont", 10),
+                player("Marc", "Martin", -5),
+                player("Luc", "Bernard", 31),
+                player("Paul", "Petit", -31),
+                player("Leo", "Moreau", 20)));
+        playerDAO.insertAll(players);
+
+        List<List<ExpiringLicense>> notified = new ArrayList<>();
+        LicenseExpiryScanner scanner = new LicenseExpiryScanner(licenseDAO, playerDAO);
+        scanner.setListener(notified::add);
+        assertTrue(scanner.scanOnce(TODAY));
+        assertEquals(List.of("Martin", "Dupont", "Moreau"), names(scanner.getUpcoming()));
+        assertEquals(2, notified.size());
+        assertFalse(scanner.scanOnce(TODAY));
+
+        // Licence renouvelée hors fenêtre, joueur supprimé
+        License renewed = players.get(0).getLicense();
+        renewed.setExpirationDate(TODAY.plusDays(365));
+        assertTrue(licenseDAO.update(renewed));
+        assertTrue(playerDAO.delete(players.get(4).getId()));
+        assertTrue(scanner.scanOnce(TODAY));
+        assertEquals(List.of("Martin"), names(scanner.getUpcoming()));
+
+        // Le lendemain : Bernard entre dans la fenêtre ; 26 jours plus tard, Martin en sort
+        assertTrue(scanner.scanOnce(TODAY.plusDays(1)));
+        assertEquals(List.of("Martin", "Bernard"), names(scanner.getUpcoming()));
+        assertTrue(scanner.scanOnce(TODAY.plusDays(26)));
+        assertEquals(List.of("Bernard"), names(scanner.getUpcoming()));
+    }
+
+    @Test
+    void testExportCsv() throws Exception {
+        List<ExpiringLicense> list = List.of(
+                new ExpiringLicense(1, 1, "Jean", "Dupont, fils", "U13", TODAY.plusDays(3), false),
+                new ExpiringLicense(2, 2, "Marc", "Martin", "U15", TODAY.minusDays(2), true));
+        Path file = Files.createTempFile("expiring", ".csv");
+        try {
+            LicenseExpiryScanner.exportCsv(list, TODAY, file);
+            String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            assertEquals("\uFEFFlast_name,first_name,category,expiration_date,days_left,paid\r\n" +
+                    "\"Dupont, fils\",Jean,U13,2025-03-04,3,false\r\n" +
+                    "Martin,Marc,U15,2025-02-27,-2,true\r\n", content);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
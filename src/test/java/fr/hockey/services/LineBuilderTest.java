@@ -0,0 +1,87 @@
+package fr.hockey.services;
+
+import fr.hockey.models.GameEvent;
+import fr.hockey.models.LineUp;
+import fr.hockey.models.Player;
+import fr.hockey.models.StatLine;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LineBuilderTest {
+
+    private static Player player(int id, String position, String role) {
+        Player p = new Player(id, "P" + id, "Joueur" + id, "U15", role, position);
+        p.setNumber(id);
+        return p;
+    }
+
+    @Test
+    void testLinesAreBalancedAndLeadersSpread() {
+        List<Player> roster = new ArrayList<>();
+        Map<Integer, Double> ratings = new HashMap<>();
+        // 12 attaquants notés de 1 à 12 ; capitaine et assistants : 12, 11 et 1
+        for (int r = 1; r <= 12; r++) {
+            String role = r == 12 ? "CAPITAINE" : (r == 11 || r == 1) ? "ASSISTANT" : "JOUEUR";
+            roster.add(player(r, "ATTAQUANT", role));
+            ratings.put(r, (double) r);
+        }
+        // 7 défenseurs : le plus faible reste hors lignes
+        for (int r = 1; r <= 7; r++) {
+            roster.add(player(20 + r, "DEFENSEUR", "JOUEUR"));
+            ratings.put(20 + r, (double) r);
+        }
+        roster.add(player(30, "GARDIEN", "JOUEUR"));
+        roster.add(player(31, "GARDIEN", "JOUEUR"));
+        ratings.put(30, 2.0);
+        ratings.put(31, 5.0);
+
+        LineUp lineUp = new LineBuilder(2).build(roster, ratings, 2_000, 3);
+
+        assertEquals(List.of(31, 30), lineUp.getGoalies().stream().map(Player::getId).toList());
+        assertEquals(4, lineUp.getForwardLines().size());
+        double strongest = Double.NEGATIVE_INFINITY, weakest = Double.POSITIVE_INFINITY;
+        for (List<Player> line : lineUp.getForwardLines()) {
+            assertEquals(3, line.size());
+            double strength = line.stream().mapToDouble(p -> ratings.get(p.getId())).sum();
+            strongest = Math.max(strongest, strength);
+            weakest = Math.min(weakest, strength);
+            assertTrue(line.stream().filter(p -> !"JOUEUR".equals(p.getRole())).count() <= 1, line.toString());
+        }
+        // 78 points sur 4 trios : 19 ou 20 par trio
+        assertTrue(strongest - weakest <= 1.0, strongest + " / " + weakest);
+
+        assertEquals(3, lineUp.getDefensePairs().size());
+        lineUp.getDefensePairs().forEach(pair -> assertEquals(2, pair.size()));
+        assertEquals(List.of(21), lineUp.getExtras().stream().map(Player::getId).toList());
+    }
+
+    @Test
+    void testShortRosterAndRatingFromStatsAndAttendance() {
+        StatLine stats = new StatLine();
+        stats.apply(new GameEvent(1, 0, "g", "U11", 1, GameEvent.Type.GOAL, 1, 0, 0), 1);
+        stats.apply(new GameEvent(2, 0, "g", "U11", 1, GameEvent.Type.ASSIST, 1, 0, 0), 1);
+        assertEquals(3.0, LineBuilder.rating(stats, 1.0), 1e-9);
+        assertEquals(1.5, LineBuilder.rating(stats, 0.0), 1e-9);
+        assertTrue(LineBuilder.rating(stats, 0.5) > LineBuilder.rating(new StatLine(), 1.0));
+
+        List<Player> roster = List.of(player(1, "ATTAQUANT", "CAPITAINE"), player(2, "ATTAQUANT", "JOUEUR"),
+                player(3, "DEFENSEUR", "JOUEUR"), player(4, null, "JOUEUR"));
+
+        long started = System.nanoTime();
+        LineUp lineUp = new LineBuilder(4).build(roster, Map.of(), 5_000, 1);
+        long millis = (System.nanoTime() - started) / 1_000_000;
+
+        assertTrue(millis < 1_000, "rien à chercher : " + millis + " ms");
+        assertTrue(lineUp.getGoalies().isEmpty());
+        assertEquals(1, lineUp.getForwardLines().size());
+        assertEquals(2, lineUp.getForwardLines().get(0).size());
+        assertEquals(List.of(List.of(roster.get(2))), lineUp.getDefensePairs());
+        assertEquals(List.of(roster.get(3)), lineUp.getExtras());
+    }
+}
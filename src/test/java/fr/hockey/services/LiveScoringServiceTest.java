@@ -0,0 +1,79 @@
+package fr.hockey.services;
+
+import fr.hockey.models.GameEvent;
+import fr.hockey.models.StatLine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LiveScoringServiceTest {
+    @TempDir
+    Path dir;
+
+    private LiveScoringService service = new LiveScoringService();
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void testStatsAreAggregatedAndRebuiltFromTheLog() throws Exception {
+        Path file = dir.resolve("events.log");
+        String game = GameEvent.fixtureId("U13", LocalDate.of(2026, 10, 19), "Rouen");
+        service.open(file);
+
+        service.record(game, "U13", 7, GameEvent.Type.GOAL, 1, 125, 0);
+        service.record(game, "U13", 9, GameEvent.Type.ASSIST, 1, 125, 0);
+        service.record(game, "U13", 7, GameEvent.Type.SHOT, 2, 300, 0);
+        GameEvent penalty = service.record(game, "U13", 9, GameEvent.Type.PENALTY, 2, 410, 2);
+        service.record(game, "U13", 7, GameEvent.Type.SHIFT, 3, 600, 45);
+        service.cancel(penalty.getSeq());
+        assertThrows(IllegalArgumentException.class, () -> service.cancel(penalty.getSeq()));
+
+        StatLine p7 = service.getPlayerStats(7);
+        assertEquals(1, p7.getGoals());
+        assertEquals(1, p7.getShots());
+        assertEquals(45, p7.getIceTimeSeconds());
+        assertEquals(0, service.getPlayerStats(9).getPenaltyMinutes());
+        assertEquals(1, service.getGameTotals(game).getGoals());
+        assertTrue(service.isCancelled(penalty.getSeq()));
+        assertEquals(6, service.getGameEvents(game).size());
+
+        service.close();
+        service = new LiveScoringService();
+        service.open(file);
+
+        assertEquals(p7.getPoints(), service.getPlayerStats(7).getPoints());
+        assertEquals(1, service.getPlayerStats(9).getAssists());
+        assertEquals(0, service.getPlayerStats(9).getPenaltyMinutes());
+        assertTrue(service.isCancelled(penalty.getSeq()));
+        assertEquals(7, service.record(game, "U13", 7, GameEvent.Type.SHOT, 3, 700, 0).getSeq());
+    }
+
+    @Test
+    void testTornTailIsTruncatedOnOpen() throws Exception {
+        Path file = dir.resolve("events.log");
+        service.open(file);
+        for (int i = 0; i < 200; i++) {
+            service.record("U15/2026-10-19/Caen", "U15", 1 + i % 10, GameEvent.Type.SHOT, 1, i, 0);
+        }
+        service.close();
+        long size = Files.size(file);
+        // Écriture interrompue : longueur annoncée sans les données
+        Files.write(file, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        service = new LiveScoringService();
+        service.open(file);
+        assertEquals(size, Files.size(file));
+        assertEquals(200, service.getGameTotals("U15/2026-10-19/Caen").getShots());
+        assertEquals(201, service.record("U15/2026-10-19/Caen", "U15", 1, GameEvent.Type.GOAL, 2, 5, 0).getSeq());
+    }
+}
@@ -0,0 +1,233 @@
+package fr.hockey.services;
+
+import fr.hockey.dao.DatabaseConnection;
+import fr.hockey.dao.LicenseDAO;
+import fr.hockey.dao.MailOutbox;
+import fr.hockey.dao.PlayerDAO;
+import fr.hockey.dao.SchemaMigrations;
+import fr.hockey.models.License;
+import fr.hockey.models.Player;
+import org.junit.jupiter.api.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReminderMailerTest {
+    private static final String URL = "jdbc:h2:mem:test;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private Connection conn;
+    private final PlayerDAO playerDAO = new PlayerDAO();
+    private final MailOutbox outbox = new MailOutbox();
+    private FakeSmtpServer smtp;
+
+    /**
+     * Serveur SMTP de test : accepte les messages et les garde en mémoire ; une réponse
+     * à {@code RCPT TO} peut être imposée pour un destinataire (une fois).
+     */
+    static class FakeSmtpServer implements AutoCloseable {
+        final ServerSocket server = new ServerSocket(0);
+        final List<String> recipients = new CopyOnWriteArrayList<>();
+        final List<String> bodies = new CopyOnWriteArrayList<>();
+        final AtomicInteger connections = new AtomicInteger();
+        final Map<String, String> rcptReplies = new ConcurrentHashMap<>();
+        final List<String> commands = new CopyOnWriteArrayList<>();
+
+        FakeSmtpServer() throws IOException {
+            Thread t = new Thread(() -> {
+                while (!server.isClosed()) {
+                    try {
+                        Socket s = server.accept();
+                        connections.incrementAndGet();
+                        Thread h = new Thread(() -> handle(s));
+                        h.setDaemon(true);
+                        h.start();
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        private void handle(Socket s) {
+            try (s; BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+                 PrintWriter out = new PrintWriter(s.getOutputStream(), true)) {
+                out.print("220 test\r\n");
+                out.flush();
+                String rcpt = null;
+                String line;
+                while ((line = in.readLine()) != null) {
+                    commands.add(line);
+                    if (line.startsWith("EHLO")) {
+                        out.print("250-test\r\n250 8BITMIME\r\n");
+                    } else if (line.startsWith("RCPT TO:")) {
+                        rcpt = line.substring(9, line.length() - 1);
+                        String reply = rcptReplies.remove(rcpt);
+                        out.print((reply != null ? reply : "250 ok") + "\r\n");
+                    } else if (line.equals("DATA")) {
+                        out.print("354 go\r\n");
+                        out.flush();
+                        StringBuilder data = new StringBuilder();
+                        boolean body = false;
+                        while (!(line = in.readLine()).equals(".")) {
+                            if (body) data.append(line);
+                            if (line.isEmpty()) body = true;
+                        }
+                        recipients.add(rcpt);
+                        bodies.add(new String(Base64.getMimeDecoder().decode(data.toString()), StandardCharsets.UTF_8));
+                        out.print("250 queued\r\n");
+                    } else if (line.equals("QUIT")) {
+                        out.print("221 bye\r\n");
+                        out.flush();
+                        return;
+                    } else {
+                        out.print("250 ok\r\n");
+                    }
+                    out.flush();
+                }
+            } catch (IOException ignored) {
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        System.setProperty(DatabaseConnection.URL_PROPERTY, URL);
+        System.setProperty(DatabaseConnection.USER_PROPERTY, "");
+        conn = DriverManager.getConnection(URL);
+        DatabaseConnection.setConnection(null);
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS licenses");
+            st.execute("DROP TABLE IF EXISTS players");
+            st.execute("DROP TABLE IF EXISTS mail_outbox");
+            st.execute("CREATE TABLE players (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50) NOT NULL," +
+                    "last_name VARCHAR(50) NOT NULL," +
+                    "category VARCHAR(10) NOT NULL," +
+                    "role VARCHAR(20) NOT NULL," +
+                    "position VARCHAR(20) NOT NULL," +
+                    "number INT NULL" +
+                    ")");
+            st.execute("CREATE TABLE licenses (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "player_id INT NOT NULL," +
+                    "paid BOOLEAN NOT NULL DEFAULT FALSE," +
+                    "expiration_date DATE NOT NULL," +
+                    "amount DECIMAL(10,2) NOT NULL" +
+                    ")");
+        }
+        SchemaMigrations.migrate(conn);
+        smtp = new FakeSmtpServer();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        smtp.close();
+        if (conn != null) conn.close();
+        DatabaseConnection.setConnection(null);
+        System.clearProperty(DatabaseConnection.URL_PROPERTY);
+        System.clearProperty(DatabaseConnection.USER_PROPERTY);
+    }
+
+    private ReminderMailer mailer() {
+        return new ReminderMailer(new LicenseDAO(), outbox,
+                () -> new SmtpClient("localhost", smtp.port(), false, "", "", 5_000),
+                "tresorier@club.fr", 4, 1_000);
+    }
+
+    private void insertPlayers(int count, boolean paid, boolean withEmail) throws SQLException {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Player p = new Player(0, "Prénom" + i, (paid ? "Payé" : "Dû") + i, "U13", "JOUEUR", "ATTAQUANT");
+            if (withEmail) p.setContactEmail("parent" + i + (paid ? "p" : "") + "@exemple.fr");
+            p.setLicense(new License(0, 0, paid, LocalDate.of(2027, 8, 31), 180.0));
+            players.add(p);
+        }
+        playerDAO.insertAll(players);
+    }
+
+    @Test
+    void testRemindersAreSentOncePerCampaignOnReusedConnections() throws Exception {
+        insertPlayers(60, false, true);
+        insertPlayers(5, true, true);
+        insertPlayers(5, false, false);
+        ReminderMailer mailer = mailer();
+
+        assertEquals(60, mailer.enqueueUnpaid("2026-10", ReminderMailer.DEFAULT_SUBJECT, ReminderMailer.DEFAULT_BODY, "HC Test"));
+        assertEquals(0, mailer.enqueueUnpaid("2026-10", ReminderMailer.DEFAULT_SUBJECT, ReminderMailer.DEFAULT_BODY, "HC Test"));
+
+        ReminderMailer.Result r = mailer.sendPending();
+        assertEquals(60, r.getSent());
+        assertEquals(60, smtp.recipients.size());
+        assertTrue(smtp.connections.get() <= 4, "connexions réutilisées");
+        assertEquals(60, outbox.countByStatus(MailOutbox.SENT));
+        String body = smtp.bodies.stream().filter(b -> b.contains("Prénom7 Dû7 ")).findFirst().orElseThrow();
+        assertTrue(body.contains("180,00 €"));
+        assertTrue(body.contains("31/08/2027"));
+        assertTrue(body.endsWith("HC Test\n"));
+
+        assertEquals(0, mailer.sendPending().getSent());
+        assertEquals(60, smtp.recipients.size());
+    }
+
+    @Test
+    void testTemporaryRefusalIsRetriedAndPermanentOneAbandoned() throws Exception {
+        insertPlayers(3, false, true);
+        smtp.rcptReplies.put("parent0@exemple.fr", "451 try again later");
+        smtp.rcptReplies.put("parent1@exemple.fr", "550 no such user");
+        ReminderMailer mailer = mailer();
+        mailer.enqueueUnpaid("2026-10", "Relance", "Bonjour {{prenom}}", "HC Test");
+
+        long now = System.currentTimeMillis();
+        ReminderMailer.Result r = mailer.sendPending(now);
+        assertEquals(1, r.getSent());
+        assertEquals(1, r.getRetried());
+        assertEquals(1, r.getFailed());
+
+        // Pas avant le délai de nouvelle tentative
+        assertEquals(0, mailer.sendPending(now + ReminderMailer.RETRY_DELAY_MS - 1).getSent());
+        assertEquals(1, mailer.sendPending(now + ReminderMailer.RETRY_DELAY_MS).getSent());
+        assertEquals(2, outbox.countByStatus(MailOutbox.SENT));
+        assertEquals(1, outbox.countByStatus(MailOutbox.FAILED));
+        assertTrue(smtp.recipients.contains("parent0@exemple.fr"));
+        assertFalse(smtp.recipients.contains("parent1@exemple.fr"));
+    }
+
+    @Test
+    void testCredentialsAreNeverSentInClear() {
+        // Le serveur de test ne propose ni SMTPS ni STARTTLS
+        SmtpClient client = new SmtpClient("localhost", smtp.port(), false, "tresorier", "secret", 5_000);
+        IOException e = assertThrows(IOException.class,
+                () -> client.send("tresorier@club.fr", "parent@exemple.fr", "Cotisation", "Bonjour", "id-1"));
+        assertFalse(e instanceof SmtpClient.SmtpException);
+        assertTrue(smtp.commands.stream().anyMatch(c -> c.startsWith("EHLO")));
+        assertTrue(smtp.commands.stream().noneMatch(c -> c.startsWith("AUTH") || c.startsWith("MAIL")));
+        assertTrue(smtp.bodies.isEmpty());
+    }
+}
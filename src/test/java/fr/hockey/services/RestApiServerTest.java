@@ -0,0 +1,127 @@
+package fr.hockey.services;
+
+import fr.hockey.dao.DatabaseConnection;
+import fr.hockey.dao.PlayerDAO;
+import fr.hockey.dao.RosterCache;
+import fr.hockey.dao.SchemaMigrations;
+import fr.hockey.models.Player;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RestApiServerTest {
+    private static final String URL = "jdbc:h2:mem:test;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String TOKEN = "jeton-de-test";
+    private Connection conn;
+    private RestApiServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        System.setProperty(DatabaseConnection.URL_PROPERTY, URL);
+        System.setProperty(DatabaseConnection.USER_PROPERTY, "");
+        conn = DriverManager.getConnection(URL);
+        DatabaseConnection.setConnection(null);
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS licenses");
+            st.execute("DROP TABLE IF EXISTS players");
+            st.execute("CREATE TABLE players (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50) NOT NULL," +
+                    "last_name VARCHAR(50) NOT NULL," +
+                    "category VARCHAR(10) NOT NULL," +
+                    "role VARCHAR(20) NOT NULL," +
+                    "position VARCHAR(20) NOT NULL," +
+                    "number INT NULL" +
+                    ")");
+            st.execute("CREATE TABLE licenses (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "player_id INT NOT NULL," +
+                    "paid BOOLEAN NOT NULL DEFAULT FALSE," +
+                    "expiration_date DATE NOT NULL," +
+                    "amount DECIMAL(10,2) NOT NULL" +
+                    ")");
+        }
+        SchemaMigrations.migrate(conn);
+        PlayerDAO dao = new PlayerDAO();
+        dao.save(new Player(0, "Jean", "Dupont \"JD\"", "U13", "JOUEUR", "ATTAQUANT"));
+        dao.save(new Player(0, "Marc", "Martin", "U15", "JOUEUR", "GARDIEN"));
+
+        server = new RestApiServer(RosterCache.getInstance(), TOKEN);
+        server.start(0);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.stop();
+        RosterCache.getInstance().invalidateAll();
+        DatabaseConnection.setConnection(null);
+        System.clearProperty(DatabaseConnection.URL_PROPERTY);
+        System.clearProperty(DatabaseConnection.USER_PROPERTY);
+        if (conn != null) conn.close();
+    }
+
+    private HttpURLConnection get(String path, String token) throws IOException {
+        HttpURLConnection c = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+        if (token != null) c.setRequestProperty("Authorization", "Bearer " + token);
+        return c;
+    }
+
+    private static String body(HttpURLConnection c) throws IOException {
+        try (InputStream in = c.getResponseCode() < 400 ? c.getInputStream() : c.getErrorStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void testRequestsRequireToken() throws Exception {
+        assertEquals(401, get("/api/players", null).getResponseCode());
+        assertEquals(401, get("/api/players", "mauvais").getResponseCode());
+        assertEquals(404, get("/api/players/999", TOKEN).getResponseCode());
+        assertEquals(400, get("/api/licenses?status=PERIME", TOKEN).getResponseCode());
+    }
+
+    @Test
+    void testPlayersAreStreamedAsJson() throws Exception {
+        HttpURLConnection c = get("/api/players?category=U13", TOKEN);
+        assertEquals(200, c.getResponseCode());
+        assertTrue(c.getContentType().startsWith("application/json"));
+        String json = body(c);
+        assertTrue(json.startsWith("[{\"id\":"), json);
+        assertTrue(json.contains("\"lastName\":\"Dupont \\\"JD\\\"\""), json);
+        assertTrue(json.contains("\"license\":null"), json);
+        assertFalse(json.contains("Martin"), json);
+
+        String licenses = body(get("/api/licenses?status=none", TOKEN));
+        assertEquals(2, licenses.split("\"status\":\"NONE\"", -1).length - 1, licenses);
+    }
+
+    @Test
+    void testConcurrentReads() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                results.add(clients.submit(() -> {
+                    HttpURLConnection c = get("/api/players", TOKEN);
+                    body(c);
+                    return c.getResponseCode();
+                }));
+            }
+            for (Future<Integer> f : results) assertEquals(200, f.get());
+        } finally {
+            clients.shutdown();
+        }
+    }
+}
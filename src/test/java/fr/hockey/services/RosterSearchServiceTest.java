@@ -0,0 +1,95 @@
+package fr.hockey.services;
+
+import fr.hockey.dao.DatabaseConnection;
+import fr.hockey.dao.PlayerDAO;
+import fr.hockey.dao.RosterCache;
+import fr.hockey.dao.SchemaMigrations;
+import fr.hockey.models.Club;
+import fr.hockey.models.Player;
+import fr.hockey.utils.SessionManager;
+import org.junit.jupiter.api.*;
+
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RosterSearchServiceTest {
+    private Connection conn;
+    private final PlayerDAO playerDAO = new PlayerDAO();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:h2:mem:test;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        DatabaseConnection.setConnection(conn);
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS licenses");
+            st.execute("DROP TABLE IF EXISTS players");
+            st.execute("DROP TABLE IF EXISTS coach_teams");
+            st.execute("DROP TABLE IF EXISTS coaches");
+            st.execute("CREATE TABLE players (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50) NOT NULL," +
+                    "last_name VARCHAR(50) NOT NULL," +
+                    "category VARCHAR(10) NOT NULL," +
+                    "role VARCHAR(20) NOT NULL," +
+                    "position VARCHAR(20) NOT NULL," +
+                    "number INT NULL" +
+                    ")");
+            st.execute("CREATE TABLE licenses (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "player_id INT NOT NULL," +
+                    "paid BOOLEAN NOT NULL DEFAULT FALSE," +
+                    "expiration_date DATE NOT NULL," +
+                    "amount DECIMAL(10,2) NOT NULL" +
+                    ")");
+            st.execute("CREATE TABLE coaches (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50)," +
+                    "last_name VARCHAR(50)," +
+                    "username VARCHAR(50) NOT NULL UNIQUE," +
+                    "email VARCHAR(100)," +
+                    "password VARCHAR(100)" +
+                    ")");
+            st.execute("CREATE TABLE coach_teams (" +
+                    "coach_id INT NOT NULL," +
+                    "category VARCHAR(10) NOT NULL" +
+                    ")");
+        }
+        SchemaMigrations.migrate(conn);
+        save("Jean", "Dupont");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        SessionManager.getInstance().setClubId(Club.DEFAULT_ID);
+        if (conn != null) conn.close();
+        DatabaseConnection.setConnection(null);
+    }
+
+    private void save(String first, String last) throws SQLException {
+        assertTrue(playerDAO.save(new Player(0, first, last, "U13", "JOUEUR", "ATTAQUANT")));
+    }
+
+    @Test
+    void testEachClubSearchesItsOwnRoster() throws Exception {
+        RosterCache.getInstance().invalidateAll();
+        RosterSearchService search = new RosterSearchService(RosterCache.getInstance());
+        search.loadAsync().get(10, TimeUnit.SECONDS);
+        assertEquals(1, search.search("dupont", 5, true).size());
+
+        // Un autre club : son index est construit séparément et ses écritures ne touchent que lui
+        SessionManager.getInstance().setClubId(2);
+        assertFalse(search.isLoaded());
+        assertTrue(search.search("dupont", 5, true).isEmpty());
+        search.loadAsync().get(10, TimeUnit.SECONDS);
+        assertTrue(search.search("dupont", 5, true).isEmpty());
+        save("Paul", "Durant");
+        assertEquals(1, search.search("durant", 5, true).size());
+
+        SessionManager.getInstance().setClubId(Club.DEFAULT_ID);
+        assertTrue(search.isLoaded());
+        assertTrue(search.search("durant", 5, true).isEmpty());
+        assertEquals(1, search.search("dupont", 5, true).size());
+    }
+}
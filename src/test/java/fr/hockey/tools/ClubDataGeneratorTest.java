@@ -0,0 +1,139 @@
+package fr.hockey.tools;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClubDataGeneratorTest {
+    private Connection first;
+    private Connection second;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        first = createDatabase("gen_a");
+        second = createDatabase("gen_b");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (first != null) first.close();
+        if (second != null) second.close();
+    }
+
+    private static Connection createDatabase(String name) throws SQLException {
+        Connection c = DriverManager.getConnection("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        try (Statement st = c.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS coach_teams");
+            st.execute("DROP TABLE IF EXISTS coaches");
+            st.execute("DROP TABLE IF EXISTS licenses");
+            st.execute("DROP TABLE IF EXISTS players");
+            st.execute("CREATE TABLE players (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50) NOT NULL," +
+                    "last_name VARCHAR(50) NOT NULL," +
+                    "category VARCHAR(10) NOT NULL," +
+                    "role VARCHAR(20) NOT NULL," +
+                    "position VARCHAR(20) NOT NULL," +
+                    "number INT NULL" +
+                    ")");
+            st.execute("CREATE TABLE licenses (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "player_id INT NOT NULL," +
+                    "paid BOOLEAN NOT NULL DEFAULT FALSE," +
+                    "expiration_date DATE NOT NULL," +
+                    "amount DECIMAL(10,2) NOT NULL" +
+                    ")");
+            st.execute("CREATE TABLE coaches (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50)," +
+                    "last_name VARCHAR(50)," +
+                    "username VARCHAR(50) NOT NULL UNIQUE," +
+                    "email VARCHAR(100)," +
+                    "password VARCHAR(100)" +
+                    ")");
+            st.execute("CREATE TABLE coach_teams (" +
+                    "coach_id INT NOT NULL," +
+                    "category VARCHAR(10) NOT NULL" +
+                    ")");
+        }
+        return c;
+    }
+
+    private static List<String> rows(Connection c, String sql) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int i = 1; i <= columns; i++) row.append(rs.getString(i)).append('|');
+                rows.add(row.toString());
+            }
+        }
+        return rows;
+    }
+
+    private static List<String> dump(Connection c) throws SQLException {
+        List<String> all = new ArrayList<>();
+        all.addAll(rows(c, "SELECT * FROM players ORDER BY id"));
+        all.addAll(rows(c, "SELECT * FROM licenses ORDER BY id"));
+        all.addAll(rows(c, "SELECT * FROM coaches ORDER BY id"));
+        all.addAll(rows(c, "SELECT coach_id, category FROM coach_teams ORDER BY coach_id, category"));
+        return all;
+    }
+
+    @Test
+    void testSameSeedProducesIdenticalData() throws Exception {
+        ClubDataGenerator a = new ClubDataGenerator(7L, 500);
+        a.setAuditHistory(dir.resolve("a.log"), 200);
+        a.generate(first);
+        ClubDataGenerator b = new ClubDataGenerator(7L, 500);
+        b.setAuditHistory(dir.resolve("b.log"), 200);
+        b.generate(second);
+
+        assertEquals(500, rows(first, "SELECT id FROM players").size());
+        assertEquals(rows(first, "SELECT COUNT(*) FROM licenses"), rows(second, "SELECT COUNT(*) FROM licenses"));
+        assertEquals(dump(first), dump(second));
+        assertEquals(Files.readString(dir.resolve("a.log")), Files.readString(dir.resolve("b.log")));
+        assertTrue(BCrypt.checkpw("coach123", rows(first, "SELECT password FROM coaches").get(0).replace("|", "")));
+        System.out.println("GENERATED_ROWS=" + dump(first).size());
+    }
+
+    @Test
+    void testFailureRollsBackEverything() throws Exception {
+        // Conflit sur le premier coach, après l'insertion de tous les joueurs
+        try (Statement st = first.createStatement()) {
+            st.execute("INSERT INTO coaches (username) VALUES ('coach2')");
+        }
+        ClubDataGenerator generator = new ClubDataGenerator(7L, 12_000);
+        assertThrows(SQLException.class, () -> generator.generate(first));
+
+        assertEquals(List.of("0|"), rows(first, "SELECT COUNT(*) FROM players"));
+        assertEquals(List.of("0|"), rows(first, "SELECT COUNT(*) FROM licenses"));
+    }
+
+    @Test
+    void testExpirationsFollowReferenceDate() throws Exception {
+        ClubDataGenerator generator = new ClubDataGenerator(7L, 200);
+        generator.setReferenceDate(LocalDate.of(2030, 1, 1));
+        generator.generate(first);
+
+        try (Statement st = first.createStatement();
+             ResultSet rs = st.executeQuery("SELECT MIN(expiration_date), MAX(expiration_date) FROM licenses")) {
+            rs.next();
+            assertFalse(rs.getDate(1).toLocalDate().isBefore(LocalDate.of(2029, 12, 2)));
+            assertTrue(rs.getDate(2).toLocalDate().isBefore(LocalDate.of(2031, 1, 1)));
+        }
+    }
+}
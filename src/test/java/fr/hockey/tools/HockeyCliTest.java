@@ -0,0 +1,143 @@
+package fr.hockey.tools;
+
+import fr.hockey.dao.DatabaseConnection;
+import fr.hockey.dao.PlayerDAO;
+import fr.hockey.dao.SchemaMigrations;
+import fr.hockey.models.Club;
+import fr.hockey.models.Player;
+import fr.hockey.utils.SessionManager;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HockeyCliTest {
+    private Connection conn;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private HockeyCli cli;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:h2:mem:test;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        DatabaseConnection.setConnection(conn);
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS licenses");
+            st.execute("DROP TABLE IF EXISTS players");
+            st.execute("DROP TABLE IF EXISTS category_fees");
+            st.execute("CREATE TABLE players (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50) NOT NULL," +
+                    "last_name VARCHAR(50) NOT NULL," +
+                    "category VARCHAR(10) NOT NULL," +
+                    "role VARCHAR(20) NOT NULL," +
+                    "position VARCHAR(20) NOT NULL," +
+                    "number INT NULL" +
+                    ")");
+            st.execute("CREATE TABLE licenses (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "player_id INT NOT NULL," +
+                    "paid BOOLEAN NOT NULL DEFAULT FALSE," +
+                    "expiration_date DATE NOT NULL," +
+                    "amount DECIMAL(10,2) NOT NULL" +
+                    ")");
+            st.execute("CREATE TABLE category_fees (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "category VARCHAR(10) NOT NULL UNIQUE," +
+                    "fee DECIMAL(10,2) NOT NULL" +
+                    ")");
+            st.execute("INSERT INTO category_fees (category, fee) VALUES ('U13', 180.00)");
+        }
+        SchemaMigrations.migrate(conn);
+        cli = new HockeyCli(new PrintStream(output, true, StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        SessionManager.getInstance().setClubId(Club.DEFAULT_ID);
+        if (conn != null) conn.close();
+        DatabaseConnection.setConnection(null);
+    }
+
+    @Test
+    void testImportRolloverAndExport() throws Exception {
+        Path csv = dir.resolve("joueurs.csv");
+        Files.writeString(csv, "first_name;last_name;category;role;position;number;paid;expiration_date;amount;contact_email\n" +
+                "Jean;\"Dupont; dit JD\";U13;CAPITAINE;ATTAQUANT;9;oui;2026-08-31;150;jd@example.fr\n" +
+                "Marc;Martin;u13;;gardien;;;2026-08-31;;\n" +
+                "Luc;Bernard;U13;JOUEUR;DEFENSEUR;4;;;;\n", StandardCharsets.UTF_8);
+        assertEquals(0, cli.run(new String[]{"import-players", "--file=" + csv}));
+
+        List<Player> players = new PlayerDAO().findByCategory("U13");
+        assertEquals(3, players.size());
+        Player dupont = players.stream().filter(p -> p.getFirstName().equals("Jean")).findFirst().orElseThrow();
+        assertEquals("Dupont; dit JD", dupont.getLastName());
+        assertTrue(dupont.getLicense().isPaid());
+        Player martin = players.stream().filter(p -> p.getFirstName().equals("Marc")).findFirst().orElseThrow();
+        assertEquals("JOUEUR", martin.getRole());
+        assertEquals(180.0, martin.getLicense().getAmount(), 0.001);
+
+        assertEquals(0, cli.run(new String[]{"season-rollover", "--expiration=2027-08-31"}));
+        dupont = new PlayerDAO().findById(dupont.getId());
+        assertFalse(dupont.getLicense().isPaid());
+        assertEquals(LocalDate.of(2027, 8, 31), dupont.getLicense().getExpirationDate());
+        assertEquals(180.0, dupont.getLicense().getAmount(), 0.001);
+
+        Path export = dir.resolve("export.csv");
+        assertEquals(0, cli.run(new String[]{"export-players", "--file=" + export}));
+        List<String> lines = Files.readAllLines(export, StandardCharsets.UTF_8);
+        assertEquals(4, lines.size());
+        assertTrue(lines.contains("Jean,\"Dupont; dit JD\",U13,CAPITAINE,ATTAQUANT,9,false,2027-08-31,180.00,jd@example.fr"),
+                lines.toString());
+
+        assertEquals(0, cli.run(new String[]{"revenue-report"}));
+        assertTrue(output.toString(StandardCharsets.UTF_8).contains("TOTAL,0,0.00,2,360.00,360.00"), output.toString());
+    }
+
+    @Test
+    void testInvalidImportIsRejectedAsAWhole() throws Exception {
+        Path csv = dir.resolve("joueurs.csv");
+        Files.writeString(csv, "first_name,last_name,category,position\n" +
+                "Jean,Dupont,U13,ATTAQUANT\n" +
+                "Marc,Martin,U99,GARDIEN\n", StandardCharsets.UTF_8);
+        assertEquals(2, cli.run(new String[]{"import-players", "--file=" + csv}));
+        assertEquals(0, new PlayerDAO().findAll().size());
+        assertEquals(2, cli.run(new String[]{"season-rollover"}));
+        assertEquals(2, cli.run(new String[]{"inconnue"}));
+    }
+
+    @Test
+    void testClubOptionSelectsAnExistingClub() throws Exception {
+        Path csv = dir.resolve("joueurs.csv");
+        Files.writeString(csv, "first_name,last_name,category,position\n" +
+                "Jean,Dupont,U13,ATTAQUANT\n", StandardCharsets.UTF_8);
+        assertEquals(2, cli.run(new String[]{"import-players", "--file=" + csv, "--club=999999"}));
+        assertEquals(0, new PlayerDAO().findAll().size());
+
+        int club;
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO clubs (name) VALUES (?)", Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, "Club CLI " + System.nanoTime());
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                keys.next();
+                club = keys.getInt(1);
+            }
+        }
+        assertEquals(0, cli.run(new String[]{"import-players", "--file=" + csv, "--club=" + club}));
+        assertEquals(1, new PlayerDAO().findAll().size());
+
+        SessionManager.getInstance().setClubId(Club.DEFAULT_ID);
+        assertEquals(0, new PlayerDAO().findAll().size());
+    }
+}
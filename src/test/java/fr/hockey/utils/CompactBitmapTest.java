@@ -0,0 +1,70 @@
+package fr.hockey.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactBitmapTest {
+
+    private static int[] toArray(TreeSet<Integer> set) {
+        return set.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    void testSetOperationsMatchAReferenceSet() {
+        Random random = new Random(42);
+        CompactBitmap a = new CompactBitmap();
+        CompactBitmap b = new CompactBitmap();
+        TreeSet<Integer> ra = new TreeSet<>();
+        TreeSet<Integer> rb = new TreeSet<>();
+        // Tranche dense (tables de bits), tranche creuse (tableaux) et grandes valeurs
+        for (int i = 0; i < 20_000; i++) {
+            int v = random.nextInt(30_000);
+            a.add(v);
+            ra.add(v);
+        }
+        for (int i = 0; i < 3_000; i++) {
+            int v = random.nextInt(200_000);
+            b.add(v);
+            rb.add(v);
+        }
+        a.add(Integer.MAX_VALUE);
+        ra.add(Integer.MAX_VALUE);
+
+        assertArrayEquals(toArray(ra), a.toArray());
+        assertEquals(rb.size(), b.getCardinality());
+        assertTrue(a.contains(Integer.MAX_VALUE));
+        assertFalse(b.contains(-1));
+
+        TreeSet<Integer> union = new TreeSet<>(ra);
+        union.addAll(rb);
+        TreeSet<Integer> inter = new TreeSet<>(ra);
+        inter.retainAll(rb);
+        TreeSet<Integer> diff = new TreeSet<>(ra);
+        diff.removeAll(rb);
+        assertArrayEquals(toArray(union), a.or(b).toArray());
+        assertArrayEquals(toArray(inter), a.and(b).toArray());
+        assertArrayEquals(toArray(diff), a.andNot(b).toArray());
+        assertTrue(a.andNot(a).isEmpty());
+        assertArrayEquals(toArray(ra), a.toArray(), "opérandes inchangés");
+    }
+
+    @Test
+    void testSerializationRoundTripIsCompact() {
+        CompactBitmap small = CompactBitmap.of(12, 5, 340, 71);
+        byte[] bytes = small.toBytes();
+        assertTrue(bytes.length < 20);
+        assertEquals(small, CompactBitmap.fromBytes(bytes));
+        assertArrayEquals(new int[]{5, 12, 71, 340}, CompactBitmap.fromBytes(bytes).toArray());
+
+        CompactBitmap dense = new CompactBitmap();
+        for (int i = 0; i < 10_000; i += 2) dense.add(i);
+        dense.add(1 << 20);
+        assertEquals(dense, CompactBitmap.fromBytes(dense.toBytes()));
+        assertTrue(CompactBitmap.fromBytes(null).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> CompactBitmap.fromBytes(new byte[]{9}));
+    }
+}
@@ -1,5 +1,6 @@
 package fr.hockey.utils;
 
+import fr.hockey.models.LineUp;
 import fr.hockey.models.Player;
 import org.junit.jupiter.api.Test;
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -96,6 +97,33 @@ public class MatchSheetPdfGeneratorTest {
         System.out.println("TEST_RESULT=PASS");
     }
 
+    @Test
+    void testGeneratePdfWithLines() throws Exception {
+        Player g = new Player(1, "Jean", "Dupont", "U13", "JOUEUR", "GARDIEN");
+        Player d1 = new Player(2, "Marc", "Durand", "U13", "JOUEUR", "DEFENSEUR");
+        Player d2 = new Player(3, "Paul", "Martin", "U13", "ASSISTANT", "DEFENSEUR");
+        Player a1 = new Player(4, "Luc", "Bernard", "U13", "CAPITAINE", "ATTAQUANT");
+        Player a2 = new Player(5, "Nicolas", "Leroy", "U13", "JOUEUR", "ATTAQUANT");
+        Player a3 = new Player(6, "Alex", "Moreau", "U13", "JOUEUR", "ATTAQUANT");
+        Player extra = new Player(7, "Hugo", "Petit", "U13", "JOUEUR", "ATTAQUANT");
+        LineUp lineUp = new LineUp(List.of(g), List.of(List.of(a1, a2, a3)), List.of(List.of(d1, d2)), List.of(extra));
+
+        File out = Files.createTempFile("feuille_match_lignes_", ".pdf").toFile();
+        MatchSheetPdfGenerator.generate("U13", List.of(g, d1, d2, a1, a2, a3, extra), lineUp, out,
+                LocalDate.now(), "Lions", null);
+
+        String text;
+        try (PDDocument doc = PDDocument.load(out)) {
+            text = new PDFTextStripper().getText(doc);
+        }
+        assertTrue(text.contains("Trio 1"));
+        assertTrue(text.contains("Paire 1"));
+        assertTrue(text.contains("Bernard Luc (Capitaine)"));
+        assertTrue(text.contains("Remplaçants"));
+        assertTrue(text.indexOf("Trio 1") < text.indexOf("Leroy") && text.indexOf("Leroy") < text.indexOf("Paire 1"));
+        assertFalse(text.contains("Attaquants"));
+    }
+
     @Test
     void testGeneratePdfWithEmptyList() throws Exception {
         // Test "négatif" : liste vide
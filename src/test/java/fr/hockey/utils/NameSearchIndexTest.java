@@ -0,0 +1,53 @@
+package fr.hockey.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NameSearchIndexTest {
+    private NameSearchIndex<Integer> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NameSearchIndex<>();
+        index.put("player:1", "Hélène Lefèvre", 1);
+        index.put("player:2", "Jean Dupont", 2);
+        index.put("player:3", "Jeanne Dupond", 3);
+        index.put("coach:4", "François Œuvray", 4);
+    }
+
+    private List<Integer> ids(String query) {
+        return index.search(query, 10).stream().map(NameSearchIndex.Match::getValue).toList();
+    }
+
+    @Test
+    void testAccentInsensitiveAndPrefixSearch() {
+        assertEquals(List.of(1), ids("helene"));
+        assertEquals(List.of(1), ids("LEFEVRE"));
+        assertEquals(List.of(4), ids("francois oeuv"));
+        assertEquals(List.of(2, 3), ids("jean"));
+        assertEquals("helene lefevre", NameSearchIndex.normalize("  Hélène-Lefèvre "));
+        assertTrue(ids("?!").isEmpty());
+    }
+
+    @Test
+    void testTyposAreTolerated() {
+        assertEquals(2, ids("dupomt jean").get(0));
+        assertEquals(1, ids("lefebvre").get(0));
+        System.out.println("TYPO_RESULTS=" + ids("dupomt jean"));
+    }
+
+    @Test
+    void testIncrementalUpdates() {
+        index.put("player:2", "Jean Martin", 2);
+        assertEquals(List.of(3), ids("dupon"));
+        assertEquals(List.of(2), ids("martin"));
+
+        index.remove("player:3");
+        assertTrue(ids("dupon").isEmpty());
+        assertEquals(3, index.size());
+    }
+}
@@ -0,0 +1,106 @@
+package fr.hockey.utils;
+
+import fr.hockey.dao.DatabaseConnection;
+import fr.hockey.dao.PlayerDAO;
+import fr.hockey.dao.SchemaMigrations;
+import fr.hockey.models.License;
+import fr.hockey.models.Player;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RosterExporterTest {
+    private Connection conn;
+    private final PlayerDAO dao = new PlayerDAO();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:h2:mem:test;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        DatabaseConnection.setConnection(conn);
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS licenses");
+            st.execute("DROP TABLE IF EXISTS players");
+            st.execute("CREATE TABLE players (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "first_name VARCHAR(50) NOT NULL," +
+                    "last_name VARCHAR(50) NOT NULL," +
+                    "category VARCHAR(10) NOT NULL," +
+                    "role VARCHAR(20) NOT NULL," +
+                    "position VARCHAR(20) NOT NULL," +
+                    "number INT NULL" +
+                    ")");
+            st.execute("CREATE TABLE licenses (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY," +
+                    "player_id INT NOT NULL," +
+                    "paid BOOLEAN NOT NULL DEFAULT FALSE," +
+                    "expiration_date DATE NOT NULL," +
+                    "amount DECIMAL(10,2) NOT NULL" +
+                    ")");
+        }
+        SchemaMigrations.migrate(conn);
+
+        List<Player> players = new ArrayList<>();
+        Player dupont = new Player(0, "Jean", "Dupont, dit \"JD\"", "U13", "CAPITAINE", "ATTAQUANT");
+        dupont.setNumber(9);
+        dupont.setContactEmail("parents.dupont@example.fr");
+        dupont.setLicense(new License(0, 0, true, LocalDate.of(2027, 8, 31), 150.0));
+        players.add(dupont);
+        players.add(new Player(0, "Marc", "Martin & Fils", "U15", "JOUEUR", "GARDIEN"));
+        dao.insertAll(players);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (conn != null) conn.close();
+        DatabaseConnection.setConnection(null);
+    }
+
+    @Test
+    void testCsvExport() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2, RosterExporter.export(dao, null, RosterExporter.Format.CSV, out));
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("\uFEFF" + String.join(",", RosterExporter.COLUMNS), lines[0]);
+        assertEquals("Jean,\"Dupont, dit \"\"JD\"\"\",U13,CAPITAINE,ATTAQUANT,9,true,2027-08-31,150.00,parents.dupont@example.fr",
+                lines[1]);
+        assertEquals("Marc,Martin & Fils,U15,JOUEUR,GARDIEN,,,,,", lines[2]);
+
+        out.reset();
+        assertEquals(1, RosterExporter.export(dao, "U15", RosterExporter.Format.CSV, out));
+    }
+
+    @Test
+    void testXlsxExportIsAValidPackage() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2, RosterExporter.export(dao, null, RosterExporter.Format.XLSX, out));
+
+        Map<String, String> parts = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry e;
+            while ((e = zip.getNextEntry()) != null) {
+                parts.put(e.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        assertTrue(parts.keySet().containsAll(List.of("[Content_Types].xml", "_rels/.rels",
+                "xl/workbook.xml", "xl/_rels/workbook.xml.rels", "xl/worksheets/sheet1.xml")), parts.keySet().toString());
+        String sheet = parts.get("xl/worksheets/sheet1.xml");
+        assertEquals(3, sheet.split("<row>", -1).length - 1);
+        assertTrue(sheet.contains("<t>Dupont, dit &quot;JD&quot;</t>"), sheet);
+        assertTrue(sheet.contains("<t>Martin &amp; Fils</t>"), sheet);
+        assertTrue(sheet.contains("<c/><c/><c/><c/></row>"), sheet);
+        assertTrue(sheet.endsWith("</sheetData></worksheet>"));
+    }
+}
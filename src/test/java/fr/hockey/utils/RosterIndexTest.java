@@ -0,0 +1,51 @@
+package fr.hockey.utils;
+
+import fr.hockey.models.License;
+import fr.hockey.models.Player;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RosterIndexTest {
+
+    private static Player player(int id, String category, String role, String position, Boolean paid) {
+        Player p = new Player(id, "Prénom" + id, "Nom" + id, category, role, position);
+        if (paid != null) {
+            p.setLicense(new License(id, id, paid, LocalDate.of(2027, 6, 30), 150.0));
+        }
+        return p;
+    }
+
+    @Test
+    void testFilterCombinationsIntersectBitsets() {
+        List<Player> roster = new ArrayList<>();
+        roster.add(player(1, "U13", "CAPITAINE", "ATTAQUANT", true));
+        roster.add(player(2, "U13", "JOUEUR", "GARDIEN", false));
+        roster.add(player(3, "U15", "JOUEUR", "ATTAQUANT", null));
+        roster.add(player(4, "U13", "JOUEUR", "ATTAQUANT", false));
+        RosterIndex index = new RosterIndex(roster);
+
+        assertEquals(4, index.select(null, null, null, null).cardinality());
+        assertEquals("{0, 3}", index.select("U13", "ATTAQUANT", null, null).toString());
+        assertEquals("{3}", index.select("U13", "ATTAQUANT", "JOUEUR", RosterIndex.LicenseStatus.UNPAID).toString());
+        assertEquals("{2}", index.select(null, null, null, RosterIndex.LicenseStatus.NONE).toString());
+        assertTrue(index.select("U20", null, null, null).isEmpty());
+
+        Predicate<Player> u13Attackers = index.predicate("U13", "ATTAQUANT", null, null);
+        assertEquals(2, roster.stream().filter(u13Attackers).count());
+    }
+
+    @Test
+    void testPlayerAddedAfterIndexingIsEvaluatedOnItsFields() {
+        RosterIndex index = new RosterIndex(List.of(player(1, "U13", "JOUEUR", "ATTAQUANT", true)));
+        Predicate<Player> predicate = index.predicate("U15", null, null, RosterIndex.LicenseStatus.NONE);
+
+        assertTrue(predicate.test(player(2, "U15", "JOUEUR", "GARDIEN", null)));
+        assertFalse(predicate.test(player(3, "U15", "JOUEUR", "GARDIEN", false)));
+    }
+}